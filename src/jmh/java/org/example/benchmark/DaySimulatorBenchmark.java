@@ -0,0 +1,53 @@
+package org.example.benchmark;
+
+import org.example.entity.Location;
+import org.example.simulation.DaySimulator;
+import org.example.simulation.OrderArrivals;
+import org.example.simulation.SimulationReport;
+import org.example.utility.WorkloadGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall time of one simulated 12-hour store day (60 orders/h, 120 over lunch, 20 riders with 3 bags) per
+ * batch size. A 12-hour day in {@code x} ms runs {@code 43_200_000 / x} times faster than real time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DaySimulatorBenchmark {
+
+    @Param({"2", "4", "6"})
+    public int maxBatch;
+
+    private DaySimulator simulator;
+
+    @Setup
+    public void setUp() {
+        simulator = new DaySimulator(Collections.nCopies(20, RouteServiceBenchmark.START))
+                .withBatching(maxBatch, DaySimulator.DEFAULT_BATCH_WINDOW)
+                .withCapacity(3);
+    }
+
+    @Benchmark
+    public SimulationReport day() {
+        return simulator.run(OrderArrivals.poisson(
+                new WorkloadGenerator(RouteServiceBenchmark.SEED, RouteServiceBenchmark.START),
+                minute -> minute >= 180 && minute < 300 ? 120.0 : 60.0, 120.0, 720.0, RouteServiceBenchmark.SEED));
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.benchmark;
+
+import org.example.algo.GeoGridIndex;
+import org.example.algo.Haversine;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.utility.OrderGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 10-nearest-order lookup over many live orders: {@link GeoGridIndex} vs a linear Haversine scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoGridIndexBenchmark {
+
+    private static final int K = 10;
+
+    @Param({"1000", "20000"})
+    public int orders;
+
+    private Location[] restaurants;
+    private GeoGridIndex<Integer> index;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Order> generated = OrderGenerator.generateOrders(orders, RouteServiceBenchmark.START,
+                RouteServiceBenchmark.SEED);
+        restaurants = new Location[orders];
+        index = new GeoGridIndex<>(0.05);
+        for (int i = 0; i < orders; i++) {
+            restaurants[i] = generated.get(i).getRestaurantLocation();
+            index.put(i, restaurants[i]);
+        }
+    }
+
+    @Benchmark
+    public Object nearestIndexed() {
+        return index.nearest(nextTarget(), K);
+    }
+
+    @Benchmark
+    public Object nearestLinearScan() {
+        Location target = nextTarget();
+        PriorityQueue<double[]> best = new PriorityQueue<>((a, b) -> Double.compare(b[0], a[0]));
+        for (int i = 0; i < restaurants.length; i++) {
+            double d = Haversine.distance(target, restaurants[i]);
+            if (best.size() < K) {
+                best.add(new double[]{d, i});
+            } else if (d < best.peek()[0]) {
+                best.poll();
+                best.add(new double[]{d, i});
+            }
+        }
+        return best;
+    }
+
+    private Location nextTarget() {
+        next = (next + 1) % restaurants.length;
+        return restaurants[next];
+    }
+}
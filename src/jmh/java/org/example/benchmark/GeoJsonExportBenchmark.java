@@ -0,0 +1,91 @@
+package org.example.benchmark;
+
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Order;
+import org.example.utility.GeoJsonExporter;
+import org.example.utility.GeoJsonWriter;
+import org.example.utility.OrderGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GeoJSON export of long routes. Steps are synthesised (pickup then delivery per generated order)
+ * because solving thousands of orders is not what is measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoJsonExportBenchmark {
+
+    @Param({"1000", "20000"})
+    public int orders;
+
+    private RouteResult route;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Order> generated = OrderGenerator.generateOrders(orders, RouteServiceBenchmark.START,
+                RouteServiceBenchmark.SEED);
+        List<RouteStep> steps = new ArrayList<>(2 * orders);
+        double eta = 0.0;
+        for (int i = 0; i < orders; i++) {
+            Order o = generated.get(i);
+            eta += 2.5;
+            steps.add(new RouteStep("Pickup", "Restaurant R" + (i + 1), o.getOrderId(), eta, o.getRestaurantLocation()));
+            eta += 3.5;
+            steps.add(new RouteStep("Deliver", "Customer C" + (i + 1), o.getOrderId(), eta, o.getConsumerLocation()));
+        }
+        route = new RouteResult(steps, eta);
+        file = Files.createTempFile("route-bench", ".geojson");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void exportToGeoJson() throws IOException {
+        GeoJsonExporter.exportToGeoJson(route, file.toString());
+    }
+
+    /** Formatting cost only, no I/O. */
+    @Benchmark
+    public void writeToNullWriter() throws IOException {
+        try (GeoJsonWriter writer = new GeoJsonWriter(Writer.nullWriter())) {
+            writer.writeRoute(route);
+        }
+    }
+
+    @Benchmark
+    public void writeGzipToNullStream() throws IOException {
+        try (GeoJsonWriter writer = GeoJsonWriter.gzip(OutputStream.nullOutputStream())) {
+            writer.writeRoute(route);
+        }
+    }
+}
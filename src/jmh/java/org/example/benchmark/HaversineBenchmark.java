@@ -0,0 +1,105 @@
+package org.example.benchmark;
+
+import org.example.algo.EquirectangularDistance;
+import org.example.algo.Haversine;
+import org.example.algo.HaversineBatch;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.utility.OrderGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of single distance / travel-time calls over restaurant → customer pairs, and a
+ * {@value #MATRIX_POINTS}-point travel-time matrix built pair by pair, with {@link HaversineBatch} and with
+ * the {@link EquirectangularDistance} approximation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HaversineBenchmark {
+
+    private static final int PAIRS = 1024;
+    private static final int MATRIX_POINTS = 400;
+
+    private Location[] from;
+    private Location[] to;
+    private Location[] points;
+
+    @Setup
+    public void setUp() {
+        List<Order> orders = OrderGenerator.generateOrders(PAIRS, RouteServiceBenchmark.START, RouteServiceBenchmark.SEED);
+        from = new Location[PAIRS];
+        to = new Location[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            from[i] = orders.get(i).getRestaurantLocation();
+            to[i] = orders.get(i).getConsumerLocation();
+        }
+        points = new Location[MATRIX_POINTS];
+        for (int i = 0; i < MATRIX_POINTS / 2; i++) {
+            points[2 * i] = from[i];
+            points[2 * i + 1] = to[i];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public double distance() {
+        double sum = 0.0;
+        for (int i = 0; i < PAIRS; i++) sum += Haversine.distance(from[i], to[i]);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public double equirectangularDistance() {
+        EquirectangularDistance model = EquirectangularDistance.around(RouteServiceBenchmark.START);
+        double sum = 0.0;
+        for (int i = 0; i < PAIRS; i++) sum += model.distance(from[i], to[i]);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public double travelTime() {
+        double sum = 0.0;
+        for (int i = 0; i < PAIRS; i++) sum += Haversine.travelTime(from[i], to[i]);
+        return sum;
+    }
+
+    @Benchmark
+    public double[] matrixScalar() {
+        double[] times = new double[MATRIX_POINTS * MATRIX_POINTS];
+        for (int i = 0; i < MATRIX_POINTS; i++) {
+            for (int j = 0; j < MATRIX_POINTS; j++) {
+                if (i != j) times[i * MATRIX_POINTS + j] = Haversine.travelTime(points[i], points[j]);
+            }
+        }
+        return times;
+    }
+
+    @Benchmark
+    public double[] matrixBatch() {
+        return HaversineBatch.of(points).travelTimeMatrix();
+    }
+
+    @Benchmark
+    public double[] matrixEquirectangular() {
+        return EquirectangularDistance.around(RouteServiceBenchmark.START).travelTimeMatrix(points);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.benchmark;
+
+import org.example.algo.LegTimeCache;
+import org.example.algo.RoadNetworkTravelTime;
+import org.example.algo.TravelTimeMatrix;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.utility.OrderGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LegTimeCache} in front of {@link RoadNetworkTravelTime} on the 100 × 100 grid of
+ * {@link RoadNetworkBenchmark}: the 21-node matrix of a 10-order batch by road with and without a warm
+ * cache, and single cached leg lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LegTimeCacheBenchmark {
+
+    private static final int LEGS = 420; // 21 × 20
+
+    private RoadNetworkTravelTime roads;
+    private LegTimeCache cache;
+    private List<Order> orders;
+    private Location[] nodes;
+
+    @Setup
+    public void setUp() {
+        roads = new RoadNetworkTravelTime(RoadNetworkBenchmark.grid(100, RouteServiceBenchmark.SEED));
+        cache = new LegTimeCache(roads, 1 << 16);
+        orders = OrderGenerator.generateOrders(10, RouteServiceBenchmark.START, RouteServiceBenchmark.SEED);
+        nodes = new Location[2 * orders.size() + 1];
+        for (int i = 0; i < orders.size(); i++) {
+            nodes[i] = orders.get(i).getRestaurantLocation();
+            nodes[i + orders.size()] = orders.get(i).getConsumerLocation();
+        }
+        nodes[2 * orders.size()] = RouteServiceBenchmark.START;
+        cache.travelTimeMatrix(nodes);
+    }
+
+    @Benchmark
+    public TravelTimeMatrix matrixUncached() {
+        return TravelTimeMatrix.forOrders(RouteServiceBenchmark.START, orders, roads);
+    }
+
+    @Benchmark
+    public TravelTimeMatrix matrixCached() {
+        return TravelTimeMatrix.forOrders(RouteServiceBenchmark.START, orders, cache);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LEGS)
+    public double lookup() {
+        double sum = 0.0;
+        for (Location from : nodes) {
+            for (Location to : nodes) {
+                if (from != to) sum += cache.travelTime(from, to);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.benchmark;
+
+import org.example.algo.ContractionHierarchy;
+import org.example.algo.DistanceModel;
+import org.example.algo.RoadGraph;
+import org.example.algo.RoadNetworkTravelTime;
+import org.example.algo.TravelTimeMatrix;
+import org.example.entity.Order;
+import org.example.utility.OrderGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Road-network travel times on a synthetic side × side street grid around the store (~150 m blocks,
+ * 15–40 km/h, a quarter of the streets one-way): single {@link ContractionHierarchy} queries between
+ * random nodes, and the 21-node {@link TravelTimeMatrix} of a 10-order batch by road and by Haversine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoadNetworkBenchmark {
+
+    private static final int PAIRS = 1024;
+
+    @Param({"50", "100"})
+    public int side;
+
+    private ContractionHierarchy hierarchy;
+    private RoadNetworkTravelTime roads;
+    private int[] sources;
+    private int[] targets;
+    private List<Order> orders;
+
+    @Setup
+    public void setUp() {
+        RoadGraph graph = grid(side, RouteServiceBenchmark.SEED);
+        roads = new RoadNetworkTravelTime(graph);
+        hierarchy = roads.hierarchy();
+        SplittableRandom random = new SplittableRandom(RouteServiceBenchmark.SEED);
+        sources = new int[PAIRS];
+        targets = new int[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            sources[i] = random.nextInt(graph.nodeCount());
+            targets[i] = random.nextInt(graph.nodeCount());
+        }
+        orders = OrderGenerator.generateOrders(10, RouteServiceBenchmark.START, RouteServiceBenchmark.SEED);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public double query() {
+        double sum = 0.0;
+        for (int i = 0; i < PAIRS; i++) sum += hierarchy.query(sources[i], targets[i]);
+        return sum;
+    }
+
+    @Benchmark
+    public TravelTimeMatrix matrixRoad() {
+        return TravelTimeMatrix.forOrders(RouteServiceBenchmark.START, orders, roads);
+    }
+
+    @Benchmark
+    public TravelTimeMatrix matrixHaversine() {
+        return TravelTimeMatrix.forOrders(RouteServiceBenchmark.START, orders, DistanceModel.HAVERSINE);
+    }
+
+    static RoadGraph grid(int side, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        RoadGraph.Builder builder = new RoadGraph.Builder();
+        double step = 0.00135; // ~150 m
+        double lat0 = RouteServiceBenchmark.START.getLatitude() - side * step / 2;
+        double lon0 = RouteServiceBenchmark.START.getLongitude() - side * step / 2;
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                builder.addNode((long) r * side + c, lat0 + r * step, lon0 + c * step);
+            }
+        }
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                long v = (long) r * side + c;
+                double speed = r % 5 == 0 || c % 5 == 0 ? 40.0 : random.nextDouble(15.0, 30.0);
+                double minutes = 0.15 / speed * 60.0;
+                boolean oneway = random.nextInt(4) == 0;
+                if (c + 1 < side) builder.addEdge(v, v + 1, minutes, oneway);
+                if (r + 1 < side) builder.addEdge(v + side, v, minutes, oneway);
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.benchmark;
+
+import org.example.dto.RouteResult;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.service.RouteService;
+import org.example.service.SolverMode;
+import org.example.utility.OrderGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link RouteService#findBestRoute()} latency (matrix build + DP + assembly).
+ * The bitmask DP needs 2^(2n)·2n cells, so run {@code -p mode=BITMASK} only up to n≈10.
+ * {@code -p prepSpacing=8} replaces the random prep times with 0, 8, 16, ... minutes (orders accepted over
+ * a longer period), the workload where {@code PRUNED} pays off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RouteServiceBenchmark {
+
+    static final Location START = new Location(12.9352, 77.6245);
+    static final long SEED = 42;
+
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12"})
+    public int n;
+
+    @Param({"TERNARY"})
+    public SolverMode mode;
+
+    /** Minutes between consecutive orders' prep times; 0 keeps the generated ones. */
+    @Param({"0"})
+    public double prepSpacing;
+
+    private List<Order> orders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        orders = OrderGenerator.generateOrders(n, START, SEED);
+        if (prepSpacing > 0) {
+            List<Order> spaced = new ArrayList<>(n);
+            for (Order o : orders) {
+                spaced.add(new Order(o.getOrderId(), o.getConsumerLocation(), o.getRestaurantLocation(),
+                        prepSpacing * spaced.size(), 0.0));
+            }
+            orders = spaced;
+        }
+    }
+
+    @Benchmark
+    public RouteResult findBestRoute() {
+        return new RouteService(START, orders, mode).findBestRoute();
+    }
+}
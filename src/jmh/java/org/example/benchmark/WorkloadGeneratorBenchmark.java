@@ -0,0 +1,67 @@
+package org.example.benchmark;
+
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.utility.OrderGenerator;
+import org.example.utility.SpatialDistribution;
+import org.example.utility.TimeDistribution;
+import org.example.utility.WorkloadGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders generated per microsecond: the legacy list-building {@link OrderGenerator} against
+ * {@link WorkloadGenerator} streams (sequential and parallel) and the hotspot / log-normal model.
+ * Each stream is consumed by summing prep times, so nothing is materialised.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkloadGeneratorBenchmark {
+
+    private static final int ORDERS = 100_000;
+
+    private final WorkloadGenerator uniform = new WorkloadGenerator(RouteServiceBenchmark.SEED, RouteServiceBenchmark.START);
+    private final WorkloadGenerator hotspots = new WorkloadGenerator(RouteServiceBenchmark.SEED,
+            SpatialDistribution.hotspots(List.of(RouteServiceBenchmark.START, new Location(12.97, 77.60),
+                    new Location(12.91, 77.68)), 0.5, 1.5),
+            TimeDistribution.logNormal(7.0, 0.4), TimeDistribution.uniformInt(0, 3));
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public List<Order> orderGeneratorList() {
+        return OrderGenerator.generateOrders(ORDERS, RouteServiceBenchmark.START, RouteServiceBenchmark.SEED);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public double streamSequential() {
+        return uniform.stream(ORDERS).mapToDouble(Order::getPrepTime).sum();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public double streamParallel() {
+        return uniform.stream(ORDERS).parallel().mapToDouble(Order::getPrepTime).sum();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public double streamHotspots() {
+        return hotspots.stream(ORDERS).parallel().mapToDouble(Order::getPrepTime).sum();
+    }
+}
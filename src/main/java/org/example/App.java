@@ -5,6 +5,7 @@ import org.example.entity.Order;
 import org.example.utility.GeoJsonExporter;
 import org.example.utility.OrderGenerator;
 import org.example.service.RouteService;
+import org.example.service.SolverMode;
 import org.example.dto.RouteResult;
 
 import java.io.IOException;
@@ -42,7 +43,7 @@ public class App {
     }
 
     private static RouteResult planRoute(Location start, List<Order> orders) {
-        RouteService planner = new RouteService(start, orders);
+        RouteService planner = new RouteService(start, orders, SolverMode.TERNARY);
         RouteResult route = planner.findBestRoute();
         System.out.println("\nFastest Route:\n" + route);
         return route;
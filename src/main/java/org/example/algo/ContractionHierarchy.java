@@ -0,0 +1,555 @@
+package org.example.algo;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contraction-hierarchy index over a {@link RoadGraph} for fast shortest travel-time queries.
+ * <p>
+ * Preprocessing contracts nodes one by one, least important first (edge difference, contracted
+ * neighbours and depth, updated lazily). Contracting {@code v} adds a shortcut {@code u → x} for every path
+ * {@code u → v → x} that a bounded witness search ({@value #WITNESS_SETTLE_LIMIT} settled nodes) cannot
+ * match without {@code v}; a missed witness only costs a redundant shortcut, never a wrong answer. Every
+ * edge is then kept only at its lower-ranked end, so a query runs two Dijkstra searches that only go
+ * upwards in rank (forward from the source, backward from the target), which on road networks settle a
+ * few hundred nodes instead of the whole city. Nodes reached more cheaply from above are not expanded
+ * (stall-on-demand), and nodes are stored in rank order so that searches touch nearby memory.
+ * <p>
+ * {@link #table} answers many-to-many queries with one upward search per source and per target
+ * (bucket method), which is what a {@link TravelTimeMatrix} needs. Queries are thread-safe: each one
+ * borrows a search workspace of O(nodes) memory from a shared pool and returns it afterwards, so memory
+ * follows the number of concurrent queries (at most {@link #MAX_IDLE_WORKSPACES} are kept), not the
+ * number of threads that ever queried.
+ */
+public final class ContractionHierarchy {
+
+    static final int WITNESS_SETTLE_LIMIT = 500;
+    static final int MAX_IDLE_WORKSPACES = Runtime.getRuntime().availableProcessors();
+
+    private final int nodeCount;
+    private final int shortcutCount;
+    private final int[] rank; // graph node -> rank; internally nodes are numbered by rank for locality
+    // Upward edges in compressed form: forward = out-edges to higher rank, backward = in-edges from higher rank
+    private final int[] upFirst;
+    private final int[] upTarget;
+    private final double[] upMinutes;
+    private final int[] downFirst;
+    private final int[] downSource;
+    private final double[] downMinutes;
+    private final ConcurrentLinkedQueue<Workspace> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private ContractionHierarchy(int nodeCount, int shortcutCount, int[] rank, int[] upFirst, int[] upTarget,
+                                 double[] upMinutes, int[] downFirst, int[] downSource, double[] downMinutes) {
+        this.nodeCount = nodeCount;
+        this.shortcutCount = shortcutCount;
+        this.rank = rank;
+        this.upFirst = upFirst;
+        this.upTarget = upTarget;
+        this.upMinutes = upMinutes;
+        this.downFirst = downFirst;
+        this.downSource = downSource;
+        this.downMinutes = downMinutes;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /** Shortcut edges added by preprocessing. */
+    public int shortcutCount() {
+        return shortcutCount;
+    }
+
+    /** Shortest travel time in minutes from {@code source} to {@code target}; {@code +∞} if unreachable. */
+    public double query(int source, int target) {
+        if (source == target) return 0.0;
+        Workspace ws = borrow();
+        try {
+            return query(ws, source, target);
+        } finally {
+            release(ws);
+        }
+    }
+
+    private double query(Workspace ws, int source, int target) {
+        ws.forward.reset();
+        ws.backward.reset();
+        ws.forward.push(rank[source], 0.0);
+        ws.backward.push(rank[target], 0.0);
+        double best = Double.POSITIVE_INFINITY;
+        while (true) {
+            double f = ws.forward.minKey();
+            double b = ws.backward.minKey();
+            if (Math.min(f, b) >= best) return best;
+            boolean forward = f <= b;
+            Search search = forward ? ws.forward : ws.backward;
+            Search other = forward ? ws.backward : ws.forward;
+            int u = search.pop();
+            if (u < 0) continue; // stale heap entry
+            double d = search.distance(u);
+            best = Math.min(best, d + other.distance(u));
+            if (forward) {
+                if (!search.stalled(u, d, downFirst, downSource, downMinutes)) {
+                    search.relax(u, d, upFirst, upTarget, upMinutes);
+                }
+            } else if (!search.stalled(u, d, upFirst, upTarget, upMinutes)) {
+                search.relax(u, d, downFirst, downSource, downMinutes);
+            }
+        }
+    }
+
+    /**
+     * Shortest travel times from every source to every target, row-major {@code [i * targets.length + j]};
+     * {@code +∞} where unreachable.
+     */
+    public double[] table(int[] sources, int[] targets) {
+        Workspace ws = borrow();
+        try {
+            return table(ws, sources, targets);
+        } finally {
+            release(ws);
+        }
+    }
+
+    private double[] table(Workspace ws, int[] sources, int[] targets) {
+        double[] result = new double[sources.length * targets.length];
+        Arrays.fill(result, Double.POSITIVE_INFINITY);
+
+        // Backward search from each target; every settled node gets a bucket entry (target, distance)
+        ws.buckets.reset();
+        for (int j = 0; j < targets.length; j++) {
+            Search search = ws.backward;
+            search.reset();
+            search.push(rank[targets[j]], 0.0);
+            while (!search.isEmpty()) {
+                int u = search.pop();
+                if (u < 0) continue;
+                double d = search.distance(u);
+                if (search.stalled(u, d, upFirst, upTarget, upMinutes)) continue;
+                ws.buckets.add(u, j, d);
+                search.relax(u, d, downFirst, downSource, downMinutes);
+            }
+        }
+        // Forward search from each source, joining with the buckets of every settled node
+        for (int i = 0; i < sources.length; i++) {
+            Search search = ws.forward;
+            search.reset();
+            search.push(rank[sources[i]], 0.0);
+            int row = i * targets.length;
+            while (!search.isEmpty()) {
+                int u = search.pop();
+                if (u < 0) continue;
+                double d = search.distance(u);
+                if (search.stalled(u, d, downFirst, downSource, downMinutes)) continue;
+                for (int k = ws.buckets.head(u); k >= 0; k = ws.buckets.next[k]) {
+                    int cell = row + ws.buckets.target[k];
+                    result[cell] = Math.min(result[cell], d + ws.buckets.distance[k]);
+                }
+                search.relax(u, d, upFirst, upTarget, upMinutes);
+            }
+        }
+        return result;
+    }
+
+    /** An idle workspace, or a new one when all are in use. */
+    Workspace borrow() {
+        Workspace ws = idle.poll();
+        if (ws == null) return new Workspace(nodeCount);
+        idleCount.decrementAndGet();
+        return ws;
+    }
+
+    /** Keeps {@code ws} for the next query unless {@link #MAX_IDLE_WORKSPACES} are already idle. */
+    void release(Workspace ws) {
+        if (idleCount.incrementAndGet() <= MAX_IDLE_WORKSPACES) {
+            idle.offer(ws);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /** Contracts {@code graph}; takes time roughly linear in nodes times witness-search size on road networks. */
+    public static ContractionHierarchy build(RoadGraph graph) {
+        return new Builder(graph).build();
+    }
+
+    /** Dynamic adjacency used while contracting. */
+    private static final class Builder {
+        private final int n;
+        private final AdjacencyList[] out;
+        private final AdjacencyList[] in;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbours;
+        private final int[] level;
+        private final int[] rank;
+        private final int[] order;
+        private int contractedCount;
+        private final Search witness;
+        private final AdjacencyList[] up;
+        private final AdjacencyList[] down;
+        private int shortcuts;
+
+        Builder(RoadGraph graph) {
+            n = graph.nodeCount();
+            out = new AdjacencyList[n];
+            in = new AdjacencyList[n];
+            up = new AdjacencyList[n];
+            down = new AdjacencyList[n];
+            for (int v = 0; v < n; v++) {
+                out[v] = new AdjacencyList();
+                in[v] = new AdjacencyList();
+            }
+            for (int v = 0; v < n; v++) {
+                for (int e = graph.firstEdge(v); e < graph.firstEdge(v + 1); e++) {
+                    int x = graph.target(e);
+                    if (x == v) continue; // a self-loop is never on a shortest path
+                    out[v].upsert(x, graph.minutes(e));
+                    in[x].upsert(v, graph.minutes(e));
+                }
+            }
+            contracted = new boolean[n];
+            contractedNeighbours = new int[n];
+            level = new int[n];
+            rank = new int[n];
+            order = new int[n];
+            witness = new Search(n);
+        }
+
+        ContractionHierarchy build() {
+            Search queue = new Search(n); // reused as the node-order priority queue
+            queue.reset();
+            for (int v = 0; v < n; v++) queue.push(v, priority(v));
+            while (!queue.isEmpty()) {
+                int v = queue.popAny();
+                double updated = priority(v);
+                if (!queue.isEmpty() && updated > queue.minKey()) {
+                    queue.push(v, updated); // lazy update: importance changed since it was queued
+                    continue;
+                }
+                contract(v);
+            }
+            int upEdges = 0;
+            int downEdges = 0;
+            for (int v = 0; v < n; v++) {
+                upEdges += up[v].size;
+                downEdges += down[v].size;
+            }
+            int[] upFirst = new int[n + 1];
+            int[] upTarget = new int[upEdges];
+            double[] upMinutes = new double[upEdges];
+            int[] downFirst = new int[n + 1];
+            int[] downSource = new int[downEdges];
+            double[] downMinutes = new double[downEdges];
+            for (int r = 0; r < n; r++) {
+                int v = order[r];
+                upFirst[r + 1] = upFirst[r] + up[v].size;
+                downFirst[r + 1] = downFirst[r] + down[v].size;
+                for (int k = 0; k < up[v].size; k++) {
+                    upTarget[upFirst[r] + k] = rank[up[v].nodes[k]];
+                    upMinutes[upFirst[r] + k] = up[v].minutes[k];
+                }
+                for (int k = 0; k < down[v].size; k++) {
+                    downSource[downFirst[r] + k] = rank[down[v].nodes[k]];
+                    downMinutes[downFirst[r] + k] = down[v].minutes[k];
+                }
+            }
+            return new ContractionHierarchy(n, shortcuts, rank, upFirst, upTarget, upMinutes,
+                    downFirst, downSource, downMinutes);
+        }
+
+        /**
+         * Twice the edge difference (shortcuts needed minus edges removed), plus contracted neighbours and
+         * hierarchy depth so that contraction spreads evenly over the graph.
+         */
+        private double priority(int v) {
+            int removed = 0;
+            for (int k = 0; k < out[v].size; k++) if (!contracted[out[v].nodes[k]]) removed++;
+            for (int k = 0; k < in[v].size; k++) if (!contracted[in[v].nodes[k]]) removed++;
+            return 2.0 * (shortcuts(v, false) - removed) + contractedNeighbours[v] + level[v];
+        }
+
+        private void contract(int v) {
+            shortcuts += shortcuts(v, true);
+            up[v] = remaining(out[v]);
+            down[v] = remaining(in[v]);
+            contracted[v] = true;
+            rank[v] = contractedCount;
+            order[contractedCount++] = v;
+            for (int k = 0; k < up[v].size; k++) neighbourContracted(v, up[v].nodes[k]);
+            for (int k = 0; k < down[v].size; k++) neighbourContracted(v, down[v].nodes[k]);
+            out[v] = null; // no longer searched; keeps peak memory down
+            in[v] = null;
+        }
+
+        private void neighbourContracted(int v, int x) {
+            contractedNeighbours[x]++;
+            level[x] = Math.max(level[x], level[v] + 1);
+        }
+
+        private AdjacencyList remaining(AdjacencyList edges) {
+            AdjacencyList kept = new AdjacencyList();
+            for (int k = 0; k < edges.size; k++) {
+                if (!contracted[edges.nodes[k]]) kept.upsert(edges.nodes[k], edges.minutes[k]);
+            }
+            return kept;
+        }
+
+        /** Shortcuts needed to contract {@code v}; added to the graph when {@code apply}. */
+        private int shortcuts(int v, boolean apply) {
+            AdjacencyList ins = in[v];
+            AdjacencyList outs = out[v];
+            int count = 0;
+            for (int a = 0; a < ins.size; a++) {
+                int u = ins.nodes[a];
+                if (contracted[u]) continue;
+                double viaMax = -1.0; // stays negative when v leads nowhere but back to u
+                for (int b = 0; b < outs.size; b++) {
+                    int x = outs.nodes[b];
+                    if (!contracted[x] && x != u) viaMax = Math.max(viaMax, outs.minutes[b]);
+                }
+                if (viaMax < 0) continue;
+                searchWitnesses(u, v, ins.minutes[a] + viaMax);
+                for (int b = 0; b < outs.size; b++) {
+                    int x = outs.nodes[b];
+                    if (contracted[x] || x == u) continue;
+                    double via = ins.minutes[a] + outs.minutes[b];
+                    if (witness.distance(x) <= via) continue;
+                    count++;
+                    if (apply) {
+                        out[u].upsert(x, via);
+                        in[x].upsert(u, via);
+                    }
+                }
+            }
+            return count;
+        }
+
+        /** Bounded Dijkstra from {@code source} that avoids {@code skip} and contracted nodes. */
+        private void searchWitnesses(int source, int skip, double limit) {
+            witness.reset();
+            witness.push(source, 0.0);
+            int settled = 0;
+            while (!witness.isEmpty() && settled < WITNESS_SETTLE_LIMIT) {
+                int u = witness.pop();
+                if (u < 0) continue;
+                double d = witness.distance(u);
+                if (d > limit) return;
+                settled++;
+                AdjacencyList edges = out[u];
+                for (int k = 0; k < edges.size; k++) {
+                    int x = edges.nodes[k];
+                    if (x != skip && !contracted[x]) witness.offer(x, d + edges.minutes[k]);
+                }
+            }
+        }
+    }
+
+    /** Growable (node, minutes) list keeping the cheapest edge per node. */
+    private static final class AdjacencyList {
+        int[] nodes = new int[4];
+        double[] minutes = new double[4];
+        int size;
+
+        void upsert(int node, double time) {
+            for (int k = 0; k < size; k++) {
+                if (nodes[k] == node) {
+                    if (time < minutes[k]) minutes[k] = time;
+                    return;
+                }
+            }
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                minutes = Arrays.copyOf(minutes, size * 2);
+            }
+            nodes[size] = node;
+            minutes[size] = time;
+            size++;
+        }
+    }
+
+    /**
+     * Dijkstra state over all nodes, reset in O(1) by bumping a version stamp, with a binary heap that
+     * allows duplicate entries (a stale entry is skipped when popped). When the stamp would wrap, the
+     * stamps are cleared and numbering restarts at 1, so an old entry never looks current.
+     */
+    static final class Search {
+        private final double[] dist;
+        private final int[] version;
+        private final boolean[] settled;
+        int current;
+        private int[] heapNodes = new int[64];
+        private double[] heapKeys = new double[64];
+        private int heapSize;
+
+        Search(int n) {
+            dist = new double[n];
+            version = new int[n];
+            settled = new boolean[n];
+        }
+
+        void reset() {
+            if (current == Integer.MAX_VALUE) {
+                Arrays.fill(version, 0);
+                current = 0;
+            }
+            current++;
+            heapSize = 0;
+        }
+
+        /** Tentative distance, {@code +∞} if not reached since the last reset. */
+        double distance(int v) {
+            return version[v] == current ? dist[v] : Double.POSITIVE_INFINITY;
+        }
+
+        boolean isEmpty() {
+            return heapSize == 0;
+        }
+
+        double minKey() {
+            return heapSize == 0 ? Double.POSITIVE_INFINITY : heapKeys[0];
+        }
+
+        void push(int v, double d) {
+            version[v] = current;
+            dist[v] = d;
+            settled[v] = false;
+            siftUp(v, d);
+        }
+
+        void offer(int v, double d) {
+            if (version[v] != current) {
+                push(v, d);
+            } else if (d < dist[v] && !settled[v]) {
+                dist[v] = d;
+                siftUp(v, d);
+            }
+        }
+
+        void relax(int u, double d, int[] first, int[] node, double[] minutes) {
+            for (int e = first[u]; e < first[u + 1]; e++) offer(node[e], d + minutes[e]);
+        }
+
+        /**
+         * Stall-on-demand: {@code u} was reached more cheaply through a higher-ranked node (an edge the
+         * search does not follow upwards), so {@code d} is not its shortest distance and it need not be
+         * expanded. {@code first/node/minutes} are the edges between {@code u} and higher nodes in the
+         * opposite direction of the search.
+         */
+        boolean stalled(int u, double d, int[] first, int[] node, double[] minutes) {
+            for (int e = first[u]; e < first[u + 1]; e++) {
+                if (distance(node[e]) + minutes[e] < d) return true;
+            }
+            return false;
+        }
+
+        /** Next node to settle, or -1 for a stale or repeated entry. */
+        int pop() {
+            int v = heapNodes[0];
+            double key = heapKeys[0];
+            removeTop();
+            if (settled[v] || key > dist[v]) return -1;
+            settled[v] = true;
+            return v;
+        }
+
+        /** Pops the minimum entry as a plain priority queue (node ordering during preprocessing). */
+        int popAny() {
+            int v = heapNodes[0];
+            removeTop();
+            return v;
+        }
+
+        private void siftUp(int v, double key) {
+            if (heapSize == heapNodes.length) {
+                heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+                heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+            }
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heapKeys[parent] <= key) break;
+                heapNodes[i] = heapNodes[parent];
+                heapKeys[i] = heapKeys[parent];
+                i = parent;
+            }
+            heapNodes[i] = v;
+            heapKeys[i] = key;
+        }
+
+        private void removeTop() {
+            int lastNode = heapNodes[--heapSize];
+            double lastKey = heapKeys[heapSize];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) break;
+                if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) child++;
+                if (heapKeys[child] >= lastKey) break;
+                heapNodes[i] = heapNodes[child];
+                heapKeys[i] = heapKeys[child];
+                i = child;
+            }
+            if (heapSize > 0) {
+                heapNodes[i] = lastNode;
+                heapKeys[i] = lastKey;
+            }
+        }
+    }
+
+    /** Bucket entries (target, distance) per node as linked lists over flat arrays; stamps wrap as in Search. */
+    static final class Buckets {
+        private final int[] headByNode;
+        private final int[] headVersion;
+        int current;
+        int[] next = new int[256];
+        int[] target = new int[256];
+        double[] distance = new double[256];
+        private int size;
+
+        Buckets(int n) {
+            headByNode = new int[n];
+            headVersion = new int[n];
+        }
+
+        void reset() {
+            if (current == Integer.MAX_VALUE) {
+                Arrays.fill(headVersion, 0);
+                current = 0;
+            }
+            current++;
+            size = 0;
+        }
+
+        int head(int node) {
+            return headVersion[node] == current ? headByNode[node] : -1;
+        }
+
+        void add(int node, int targetIndex, double d) {
+            if (size == next.length) {
+                next = Arrays.copyOf(next, size * 2);
+                target = Arrays.copyOf(target, size * 2);
+                distance = Arrays.copyOf(distance, size * 2);
+            }
+            next[size] = head(node);
+            target[size] = targetIndex;
+            distance[size] = d;
+            headByNode[node] = size;
+            headVersion[node] = current;
+            size++;
+        }
+    }
+
+    static final class Workspace {
+        final Search forward;
+        final Search backward;
+        final Buckets buckets;
+
+        Workspace(int n) {
+            forward = new Search(n);
+            backward = new Search(n);
+            buckets = new Buckets(n);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.algo;
+
+import org.example.entity.Location;
+
+/**
+ * How distances (km) and rider travel times (minutes) between two locations are computed, with travel
+ * time proportional to distance. Models must be symmetric and satisfy the triangle inequality (the DP
+ * bounds rely on it).
+ */
+public interface DistanceModel extends TravelTimeProvider {
+
+    /** Great-circle distance; the default everywhere. */
+    DistanceModel HAVERSINE = new DistanceModel() {
+        @Override
+        public double distance(Location from, Location to) {
+            return Haversine.distance(from, to);
+        }
+
+        @Override
+        public double[] travelTimeMatrix(Location[] nodes) {
+            return HaversineBatch.of(nodes).travelTimeMatrix();
+        }
+
+        @Override
+        public String toString() {
+            return "HAVERSINE";
+        }
+    };
+
+    double distance(Location from, Location to);
+
+    @Override
+    default double travelTime(Location from, Location to) {
+        return Haversine.toMinutes(distance(from, to));
+    }
+
+    /** Symmetric: each pair is computed once. */
+    @Override
+    default double[] travelTimeMatrix(Location[] nodes) {
+        int size = nodes.length;
+        double[] times = new double[size * size];
+        for (int from = 0; from < size; from++) {
+            for (int to = from + 1; to < size; to++) {
+                double t = travelTime(nodes[from], nodes[to]);
+                times[from * size + to] = t;
+                times[to * size + from] = t;
+            }
+        }
+        return times;
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.algo;
+
+import org.example.entity.Location;
+
+/**
+ * Flat-earth approximation for stops close to a reference point (usually the store):
+ * {@code d = sqrt((Δlon · k · cos φ0)² + (Δlat · k)²)}, with {@code φ0} the reference latitude fixed
+ * once and {@code k} km per degree. A pair costs two subtractions, a few multiplications and one
+ * {@code sqrt}, with no trigonometry.
+ * <p>
+ * Error: if both points lie within {@code r} km of a common point at the reference latitude, the
+ * relative error against {@link Haversine#distance} is at most {@link #maxRelativeError(double)}
+ * {@code = ρ·tan(|φ0| + ρ) + 4ρ²} with {@code ρ = r / 6371}. At 13° N (Bangalore) and r = 10 km that
+ * is ≈ 0.037 % (≈ 4 m on 10 km); at 45° it is ≈ 0.16 %. The main term comes from cos(lat) drifting away
+ * from cos φ0, so the error grows with latitude and with north–south spread. Not meant for routes
+ * spanning the antimeridian or the poles.
+ */
+public final class EquirectangularDistance implements DistanceModel {
+
+
+    private final double referenceLatitude;
+    private final double kmPerDegreeLon;
+
+    public EquirectangularDistance(double referenceLatitude) {
+        if (!(Math.abs(referenceLatitude) < 90.0)) {
+            throw new IllegalArgumentException("Reference latitude must be in (-90, 90), got " + referenceLatitude);
+        }
+        this.referenceLatitude = referenceLatitude;
+        this.kmPerDegreeLon = Haversine.KM_PER_DEGREE * Math.cos(Math.toRadians(referenceLatitude));
+    }
+
+    /** Model centred on {@code reference} (e.g. the store or rider start). */
+    public static EquirectangularDistance around(Location reference) {
+        return new EquirectangularDistance(reference.getLatitude());
+    }
+
+    public double referenceLatitude() {
+        return referenceLatitude;
+    }
+
+    /**
+     * Upper bound on |approx − haversine| / haversine for points within {@code radiusKm} of the
+     * reference; {@code Infinity} when the radius reaches a pole.
+     */
+    public double maxRelativeError(double radiusKm) {
+        double rho = radiusKm / Haversine.EARTH_RADIUS;
+        double lat = Math.toRadians(Math.abs(referenceLatitude)) + rho;
+        if (lat >= Math.PI / 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return rho * Math.tan(lat) + 4 * rho * rho;
+    }
+
+    @Override
+    public double distance(Location from, Location to) {
+        double dx = (to.getLongitude() - from.getLongitude()) * kmPerDegreeLon;
+        double dy = (to.getLatitude() - from.getLatitude()) * Haversine.KM_PER_DEGREE;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /** Projects every node once, then fills the symmetric matrix. */
+    @Override
+    public double[] travelTimeMatrix(Location[] nodes) {
+        int size = nodes.length;
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = nodes[i].getLongitude() * kmPerDegreeLon;
+            y[i] = nodes[i].getLatitude() * Haversine.KM_PER_DEGREE;
+        }
+        double[] times = new double[size * size];
+        for (int from = 0; from < size; from++) {
+            for (int to = from + 1; to < size; to++) {
+                double dx = x[to] - x[from];
+                double dy = y[to] - y[from];
+                double t = Haversine.toMinutes(Math.sqrt(dx * dx + dy * dy));
+                times[from * size + to] = t;
+                times[to * size + from] = t;
+            }
+        }
+        return times;
+    }
+
+    @Override
+    public String toString() {
+        return "EQUIRECTANGULAR(" + referenceLatitude + ")";
+    }
+}
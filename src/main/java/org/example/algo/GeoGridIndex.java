@@ -0,0 +1,209 @@
+package org.example.algo;
+
+import lombok.Data;
+import org.example.entity.Location;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory spatial index of keys (order ids, rider ids, ...) by {@link Location}, for k-nearest and
+ * radius queries without scanning every entry.
+ * <p>
+ * Space is cut into square cells of {@code cellDegrees} in latitude and longitude. Each occupied cell
+ * is a concurrent key → location map inside a {@link ConcurrentHashMap}. {@link #put} and {@link #remove} are
+ * atomic per key. Queries take no locks and may run during updates. They are weakly consistent: a key
+ * moved or removed during a query may be reported at its old or new location, or not at all, but
+ * never twice. Distances are {@link Haversine#distance}. Longitude does not wrap at ±180°.
+ * <p>
+ * Queries cost roughly the number of keys in the few cells around the target, so pick the cell size
+ * for a handful of keys per cell: around 0.5 km for hundreds of orders around a store, and down to
+ * 50 m for tens of thousands.
+ */
+public class GeoGridIndex<K> {
+
+
+    private final double cellDegrees;
+    private final ConcurrentHashMap<K, Location> positions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Map<K, Location>> cells = new ConcurrentHashMap<>();
+
+    /**
+     * @param cellSizeKm cell edge length (north–south)
+     */
+    public GeoGridIndex(double cellSizeKm) {
+        if (!(cellSizeKm > 0)) {
+            throw new IllegalArgumentException("Cell size must be positive, got " + cellSizeKm);
+        }
+        this.cellDegrees = cellSizeKm / Haversine.KM_PER_DEGREE;
+    }
+
+    /** Inserts {@code key} or moves it to {@code location}; returns the previous location, if any. */
+    public Location put(K key, Location location) {
+        Location[] previous = new Location[1];
+        positions.compute(key, (k, old) -> {
+            previous[0] = old;
+            long to = cellOf(location);
+            if (old != null && cellOf(old) != to) leaveCell(cellOf(old), k);
+            cells.compute(to, (cell, entries) -> {
+                Map<K, Location> map = entries != null ? entries : new ConcurrentHashMap<>();
+                map.put(k, location);
+                return map;
+            });
+            return location;
+        });
+        return previous[0];
+    }
+
+    /** Removes {@code key}; returns its last location or null if it was not indexed. */
+    public Location remove(K key) {
+        Location[] previous = new Location[1];
+        positions.computeIfPresent(key, (k, old) -> {
+            previous[0] = old;
+            leaveCell(cellOf(old), k);
+            return null;
+        });
+        return previous[0];
+    }
+
+    public Location location(K key) {
+        return positions.get(key);
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    /** Up to {@code k} keys closest to {@code target}, nearest first. */
+    public List<Neighbor<K>> nearest(Location target, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Neighbor<K>> best = new PriorityQueue<>(
+                Comparator.comparingDouble((Neighbor<K> n) -> n.distanceKm).reversed());
+        Set<K> seen = new HashSet<>();
+        int row = latCell(target.getLatitude());
+        int col = lonCell(target.getLongitude());
+
+        for (int r = 0; ; r++) {
+            long ringCells = r == 0 ? 1 : 8L * r;
+            if (ringCells > cells.size()) {
+                // Rings are now larger than the occupied area: finish with one pass over occupied cells
+                for (Map<K, Location> entries : cells.values()) offer(entries, target, k, best, seen);
+                break;
+            }
+            for (int dy = -r; dy <= r; dy++) {
+                int step = (dy == -r || dy == r) ? 1 : 2 * r;
+                for (int dx = -r; dx <= r; dx += step) {
+                    Map<K, Location> entries = cells.get(cellKey(row + dy, col + dx));
+                    if (entries != null) offer(entries, target, k, best, seen);
+                }
+            }
+            if (best.size() == k && best.peek().distanceKm <= unseenLowerBound(target, row, col, r)) break;
+        }
+
+        List<Neighbor<K>> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(n -> n.distanceKm));
+        return result;
+    }
+
+    /** Keys within {@code radiusKm} of {@code target}, nearest first. */
+    public List<Neighbor<K>> withinRadius(Location target, double radiusKm) {
+        double latSpan = Math.toDegrees(radiusKm / Haversine.EARTH_RADIUS);
+        double maxLat = Math.min(90.0, Math.abs(target.getLatitude()) + latSpan);
+        // d >= 2R·cos(maxLat)·sin(Δλ/2), so longitudes further than this are out of range
+        double sinHalf = radiusKm / (2 * Haversine.EARTH_RADIUS * Math.cos(Math.toRadians(maxLat)));
+        double lonSpan = sinHalf >= 1.0 ? 360.0 : Math.toDegrees(2 * Math.asin(sinHalf));
+
+        int rowFrom = latCell(target.getLatitude() - latSpan);
+        int rowTo = latCell(target.getLatitude() + latSpan);
+        int colFrom = lonCell(target.getLongitude() - lonSpan);
+        int colTo = lonCell(target.getLongitude() + lonSpan);
+
+        List<Neighbor<K>> result = new ArrayList<>();
+        Set<K> seen = new HashSet<>();
+        if ((long) (rowTo - rowFrom + 1) * (colTo - colFrom + 1) > cells.size()) {
+            for (Map<K, Location> entries : cells.values()) collect(entries, target, radiusKm, result, seen);
+        } else {
+            for (int row = rowFrom; row <= rowTo; row++) {
+                for (int col = colFrom; col <= colTo; col++) {
+                    Map<K, Location> entries = cells.get(cellKey(row, col));
+                    if (entries != null) collect(entries, target, radiusKm, result, seen);
+                }
+            }
+        }
+        result.sort(Comparator.comparingDouble(n -> n.distanceKm));
+        return result;
+    }
+
+    /** A query hit: key, its indexed location and Haversine distance to the query point. */
+    @Data
+    public static class Neighbor<K> {
+        private final K key;
+        private final Location location;
+        private final double distanceKm;
+    }
+
+    private static <K> void offer(Map<K, Location> entries, Location target, int k,
+                                  PriorityQueue<Neighbor<K>> best, Set<K> seen) {
+        for (Map.Entry<K, Location> e : entries.entrySet()) {
+            double d = Haversine.distance(target, e.getValue());
+            if (best.size() == k && d >= best.peek().distanceKm) continue;
+            if (!seen.add(e.getKey())) continue; // moved between two scanned cells during the query
+            if (best.size() == k) best.poll();
+            best.add(new Neighbor<>(e.getKey(), e.getValue(), d));
+        }
+    }
+
+    private static <K> void collect(Map<K, Location> entries, Location target, double radiusKm,
+                                    List<Neighbor<K>> out, Set<K> seen) {
+        for (Map.Entry<K, Location> e : entries.entrySet()) {
+            double d = Haversine.distance(target, e.getValue());
+            if (d <= radiusKm && seen.add(e.getKey())) out.add(new Neighbor<>(e.getKey(), e.getValue(), d));
+        }
+    }
+
+    /**
+     * Lower bound on the distance from {@code target} to any point outside rings 0..r around cell
+     * ({@code row}, {@code col}). Such a point is beyond the scanned square's edge in latitude or in
+     * longitude, and the haversine formula gives d ≥ 2R·sin(Δφ/2) and d ≥ 2R·cos(φmax)·sin(Δλ/2).
+     */
+    private double unseenLowerBound(Location target, int row, int col, int r) {
+        double lat = target.getLatitude();
+        double lon = target.getLongitude();
+        double dLat = Math.min(lat - (row - r) * cellDegrees, (row + r + 1) * cellDegrees - lat);
+        double dLon = Math.min(lon - (col - r) * cellDegrees, (col + r + 1) * cellDegrees - lon);
+        double maxLat = Math.min(90.0, Math.abs(lat) + (r + 1) * cellDegrees);
+        double latBound = Math.sin(Math.toRadians(Math.min(dLat, 180.0)) / 2);
+        double lonBound = Math.cos(Math.toRadians(maxLat)) * Math.sin(Math.toRadians(Math.min(dLon, 180.0)) / 2);
+        return 2 * Haversine.EARTH_RADIUS * Math.min(latBound, lonBound);
+    }
+
+    private void leaveCell(long cell, K key) {
+        cells.computeIfPresent(cell, (c, entries) -> {
+            entries.remove(key);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    private long cellOf(Location location) {
+        return cellKey(latCell(location.getLatitude()), lonCell(location.getLongitude()));
+    }
+
+    private int latCell(double latitude) {
+        return (int) Math.floor(latitude / cellDegrees);
+    }
+
+    private int lonCell(double longitude) {
+        return (int) Math.floor(longitude / cellDegrees);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+}
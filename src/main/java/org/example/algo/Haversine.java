@@ -2,8 +2,14 @@ package org.example.algo;
 
 import org.example.entity.Location;
 
+/**
+ * Great-circle distance and rider travel time for a single pair of points.
+ * For many points at once (matrix builds) use {@link HaversineBatch}.
+ */
 public class Haversine {
-    private static final double EARTH_RADIUS = 6371; // in km
+    static final double EARTH_RADIUS = 6371; // in km
+    /** Length of one degree of latitude on the mean-radius sphere, in km. */
+    public static final double KM_PER_DEGREE = EARTH_RADIUS * Math.PI / 180.0;
     private static final double SPEED = 20.0; // km/h (given)
 
     public static double distance(Location l1, Location l2) {
@@ -12,18 +18,23 @@ public class Haversine {
         double lat2 = Math.toRadians(l2.getLatitude());
         double lon2 = Math.toRadians(l2.getLongitude());
 
-        double dLat = lat2 - lat1;
-        double dLon = lon2 - lon1;
+        double sinDLat = Math.sin((lat2 - lat1) / 2);
+        double sinDLon = Math.sin((lon2 - lon1) / 2);
 
-        double a = Math.pow(Math.sin(dLat / 2), 2) +
+        double a = sinDLat * sinDLat +
                 Math.cos(lat1) * Math.cos(lat2) *
-                        Math.pow(Math.sin(dLon / 2), 2);
+                        sinDLon * sinDLon;
 
         double c = 2 * Math.asin(Math.sqrt(a));
         return EARTH_RADIUS * c;
     }
 
     public static double travelTime(Location l1, Location l2) {
-        return (distance(l1, l2) / SPEED) * 60.0; // in minutes
+        return toMinutes(distance(l1, l2));
+    }
+
+    /** Travel time in minutes for {@code km} at the rider speed. */
+    static double toMinutes(double km) {
+        return (km / SPEED) * 60.0;
     }
 }
@@ -0,0 +1,150 @@
+package org.example.algo;
+
+import org.example.entity.Location;
+
+import java.util.List;
+
+/**
+ * Haversine distances and travel times for a fixed set of points, for one-to-many and many-to-many use
+ * (matrix builds, fleet planning).
+ * <p>
+ * Coordinates are stored as primitive arrays, and the trigonometry is done once per point instead of
+ * once per pair. Each point caches sin/cos of its half latitude and half longitude and cos of its latitude.
+ * The half-angle differences then come from the subtraction identity
+ * {@code sin((b - a) / 2) = sin(b/2)cos(a/2) - cos(b/2)sin(a/2)}, so a pair only costs a few
+ * multiplications plus {@code sqrt} and {@code asin}. Results agree with {@link Haversine#distance} to
+ * within rounding (relative error ~1e-11 for points metres apart).
+ */
+public final class HaversineBatch {
+
+    private final int size;
+    private final double[] sinHalfLat;
+    private final double[] cosHalfLat;
+    private final double[] sinHalfLon;
+    private final double[] cosHalfLon;
+    private final double[] cosLat;
+
+    /** Points given in degrees; {@code latitudes[i]} and {@code longitudes[i]} describe point i. */
+    public HaversineBatch(double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Got " + latitudes.length + " latitudes and "
+                    + longitudes.length + " longitudes");
+        }
+        size = latitudes.length;
+        sinHalfLat = new double[size];
+        cosHalfLat = new double[size];
+        sinHalfLon = new double[size];
+        cosHalfLon = new double[size];
+        cosLat = new double[size];
+        for (int i = 0; i < size; i++) {
+            double lat = Math.toRadians(latitudes[i]);
+            double lon = Math.toRadians(longitudes[i]);
+            sinHalfLat[i] = Math.sin(lat / 2);
+            cosHalfLat[i] = Math.cos(lat / 2);
+            sinHalfLon[i] = Math.sin(lon / 2);
+            cosHalfLon[i] = Math.cos(lon / 2);
+            cosLat[i] = Math.cos(lat);
+        }
+    }
+
+    public static HaversineBatch of(List<Location> points) {
+        return of(points.toArray(new Location[0]));
+    }
+
+    public static HaversineBatch of(Location... points) {
+        double[] latitudes = new double[points.length];
+        double[] longitudes = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            latitudes[i] = points[i].getLatitude();
+            longitudes[i] = points[i].getLongitude();
+        }
+        return new HaversineBatch(latitudes, longitudes);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Distance in km between points {@code from} and {@code to} of this batch. */
+    public double distance(int from, int to) {
+        return distance(this, from, this, to);
+    }
+
+    /** Writes the distance (km) from point {@code from} to every point into {@code out[0..size)}. */
+    public void distancesFrom(int from, double[] out) {
+        distances(from, this, out, 0);
+    }
+
+    /** Same as {@link #distancesFrom} in minutes at the rider speed. */
+    public void travelTimesFrom(int from, double[] out) {
+        distancesFrom(from, out);
+        toTravelTimes(out, 0, size);
+    }
+
+    /**
+     * Many-to-many: distance (km) from every point of this batch to every point of {@code targets},
+     * row-major into {@code out} ({@code out[i * targets.size() + j]}).
+     */
+    public void distancesTo(HaversineBatch targets, double[] out) {
+        checkLength(out, size * targets.size);
+        for (int i = 0; i < size; i++) {
+            distances(i, targets, out, i * targets.size);
+        }
+    }
+
+    /** Same as {@link #distancesTo} in minutes. */
+    public void travelTimesTo(HaversineBatch targets, double[] out) {
+        distancesTo(targets, out);
+        toTravelTimes(out, 0, size * targets.size);
+    }
+
+    /**
+     * Symmetric size × size distance matrix (km), row-major with a zero diagonal. Each pair is
+     * computed once and mirrored.
+     */
+    public double[] distanceMatrix() {
+        double[] out = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            int row = i * size;
+            for (int j = i + 1; j < size; j++) {
+                double d = distance(this, i, this, j);
+                out[row + j] = d;
+                out[j * size + i] = d;
+            }
+        }
+        return out;
+    }
+
+    /** {@link #distanceMatrix()} in minutes. */
+    public double[] travelTimeMatrix() {
+        double[] out = distanceMatrix();
+        toTravelTimes(out, 0, out.length);
+        return out;
+    }
+
+    private void distances(int from, HaversineBatch targets, double[] out, int offset) {
+        checkLength(out, offset + targets.size);
+        for (int j = 0; j < targets.size; j++) {
+            out[offset + j] = distance(this, from, targets, j);
+        }
+    }
+
+    private static double distance(HaversineBatch a, int i, HaversineBatch b, int j) {
+        double sinDLat = b.sinHalfLat[j] * a.cosHalfLat[i] - b.cosHalfLat[j] * a.sinHalfLat[i];
+        double sinDLon = b.sinHalfLon[j] * a.cosHalfLon[i] - b.cosHalfLon[j] * a.sinHalfLon[i];
+        double h = sinDLat * sinDLat + a.cosLat[i] * b.cosLat[j] * sinDLon * sinDLon;
+        return 2 * Haversine.EARTH_RADIUS * Math.asin(Math.sqrt(Math.min(h, 1.0)));
+    }
+
+    private static void toTravelTimes(double[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            values[i] = Haversine.toMinutes(values[i]);
+        }
+    }
+
+    private static void checkLength(double[] out, int required) {
+        if (out.length < required) {
+            throw new IllegalArgumentException("Output needs " + required + " slots, got " + out.length);
+        }
+    }
+}
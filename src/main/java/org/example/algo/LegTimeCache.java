@@ -0,0 +1,317 @@
+package org.example.algo;
+
+import org.example.entity.Location;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Process-wide cache of leg times in front of another {@link TravelTimeProvider}, for stores and
+ * restaurants that appear in thousands of solves an hour. Share one instance across {@code RouteService}s;
+ * it pays off most in front of an expensive provider such as {@link RoadNetworkTravelTime}.
+ * <p>
+ * Keys are the (from, to) locations quantised to {@link #COORDINATE_SCALE} (about 1 m), each packed into
+ * one {@code long}, so two locations closer than that share their times. The table is set-associative:
+ * a key hashes to one set of {@value #WAYS} slots held in primitive arrays (no boxing, no per-entry
+ * objects), and a full set evicts its least recently used slot, so memory is fixed at about 32 bytes
+ * per entry. Recency is a counter per set, bumped without a lock, so hits on different sets never touch
+ * shared state, and a hit on the set's most recent slot writes nothing. Sets are guarded by striped
+ * {@link StampedLock}s; lookups are optimistic reads that only lock when they race with a write.
+ * <p>
+ * {@link #saveSnapshot} writes the entries to a memory-mapped file and {@link #loadSnapshot} reads them
+ * back, so a restarted node starts warm. A snapshot is only valid for the same underlying provider
+ * (same road graph); it is not checked.
+ */
+public final class LegTimeCache implements TravelTimeProvider {
+
+    /** Quantisation of latitude/longitude in keys: 1e-5 degrees. */
+    public static final double COORDINATE_SCALE = 1e5;
+    static final int WAYS = 4;
+    private static final int STRIPES = 64;
+    private static final long EMPTY = -1L;
+    private static final long SNAPSHOT_MAGIC = 0x4C45_4754_494D_4531L; // "LEGTIME1"
+    private static final int SNAPSHOT_HEADER_BYTES = 8 + 8 + 8;
+    private static final int SNAPSHOT_ENTRY_BYTES = 8 + 8 + 8;
+
+    private final TravelTimeProvider delegate;
+    private final int setMask;
+    private final long[] fromKeys;
+    private final long[] toKeys;
+    private final double[] minutes;
+    private final long[] lastUsed;
+    private final long[] setClock;
+    private final StampedLock[] locks = new StampedLock[STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries upper bound on cached legs, rounded up to a power of two
+     */
+    public LegTimeCache(TravelTimeProvider delegate, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        int sets = Integer.highestOneBit(Math.max(1, (maxEntries + WAYS - 1) / WAYS));
+        if (sets * WAYS < maxEntries) sets <<= 1;
+        this.delegate = delegate;
+        this.setMask = sets - 1;
+        this.fromKeys = new long[sets * WAYS];
+        this.toKeys = new long[sets * WAYS];
+        this.minutes = new double[sets * WAYS];
+        this.lastUsed = new long[sets * WAYS];
+        this.setClock = new long[sets];
+        Arrays.fill(fromKeys, EMPTY);
+        for (int i = 0; i < STRIPES; i++) locks[i] = new StampedLock();
+    }
+
+    @Override
+    public double travelTime(Location from, Location to) {
+        long a = key(from);
+        long b = key(to);
+        double cached = lookup(a, b);
+        if (!Double.isNaN(cached)) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        double time = delegate.travelTime(from, to);
+        store(a, b, time);
+        return time;
+    }
+
+    /**
+     * Served from the table when every leg is cached, counting every leg as a hit. Otherwise the whole
+     * matrix comes from one {@link TravelTimeProvider#travelTimeMatrix} call, so a road provider still
+     * answers it with one many-to-many search rather than one query per missing leg (a new location misses
+     * a whole row and column anyway); every leg is stored and counted as a miss.
+     */
+    @Override
+    public double[] travelTimeMatrix(Location[] nodes) {
+        int size = nodes.length;
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) keys[i] = key(nodes[i]);
+        double[] times = new double[size * size];
+        long legs = (long) size * (size - 1);
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                if (from == to) continue;
+                double cached = lookup(keys[from], keys[to]);
+                if (Double.isNaN(cached)) {
+                    misses.add(legs);
+                    return computeMatrix(nodes, keys);
+                }
+                times[from * size + to] = cached;
+            }
+        }
+        hits.add(legs);
+        return times;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Entries replaced because their set was full. */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /** Slots in the table, i.e. the most legs it can hold. */
+    public int capacity() {
+        return fromKeys.length;
+    }
+
+    /** Legs currently cached (a scan of the table). */
+    public int size() {
+        int count = 0;
+        for (int set = 0; set <= setMask; set++) {
+            StampedLock lock = lockFor(set);
+            long stamp = lock.readLock();
+            try {
+                for (int slot = set * WAYS; slot < (set + 1) * WAYS; slot++) {
+                    if (fromKeys[slot] != EMPTY) count++;
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes every cached leg to {@code path} through a memory-mapped buffer, replacing the file atomically
+     * (written to a sibling temporary file first). Concurrent lookups and inserts may continue; each set
+     * is copied under its read lock.
+     *
+     * @return number of legs written
+     */
+    public int saveSnapshot(Path path) throws IOException {
+        int count = size();
+        long[] from = new long[count];
+        long[] to = new long[count];
+        double[] time = new double[count];
+        int n = 0;
+        for (int set = 0; set <= setMask && n < count; set++) {
+            StampedLock lock = lockFor(set);
+            long stamp = lock.readLock();
+            try {
+                for (int slot = set * WAYS; slot < (set + 1) * WAYS && n < count; slot++) {
+                    if (fromKeys[slot] == EMPTY) continue;
+                    from[n] = fromKeys[slot];
+                    to[n] = toKeys[slot];
+                    time[n++] = minutes[slot];
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        long bytes = SNAPSHOT_HEADER_BYTES + (long) n * SNAPSHOT_ENTRY_BYTES;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.putLong(SNAPSHOT_MAGIC).putDouble(COORDINATE_SCALE).putLong(n);
+            for (int i = 0; i < n; i++) {
+                buffer.putLong(from[i]).putLong(to[i]).putDouble(time[i]);
+            }
+            buffer.force();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return n;
+    }
+
+    /**
+     * Inserts the legs of a snapshot written by {@link #saveSnapshot}; the cache may have a different
+     * capacity than the one that wrote it (extra legs are evicted as usual).
+     *
+     * @return number of legs read
+     * @throws IOException if the file is not a leg-time snapshot or is truncated
+     */
+    public int loadSnapshot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes < SNAPSHOT_HEADER_BYTES) {
+                throw new IOException("Not a leg-time snapshot: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+            if (buffer.getLong() != SNAPSHOT_MAGIC || buffer.getDouble() != COORDINATE_SCALE) {
+                throw new IOException("Not a leg-time snapshot: " + path);
+            }
+            long count = buffer.getLong();
+            if (count < 0 || SNAPSHOT_HEADER_BYTES + count * SNAPSHOT_ENTRY_BYTES != bytes) {
+                throw new IOException("Truncated leg-time snapshot: " + path + " (" + count + " legs, "
+                        + bytes + " bytes)");
+            }
+            for (long i = 0; i < count; i++) {
+                store(buffer.getLong(), buffer.getLong(), buffer.getDouble());
+            }
+            return (int) count;
+        }
+    }
+
+    private double[] computeMatrix(Location[] nodes, long[] keys) {
+        int size = nodes.length;
+        double[] times = delegate.travelTimeMatrix(nodes);
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                if (from != to) store(keys[from], keys[to], times[from * size + to]);
+            }
+        }
+        return times;
+    }
+
+    /** Quantised location packed into 51 bits: latitude offset in the high bits, longitude in the low 26. */
+    static long key(Location location) {
+        long lat = Math.round(location.getLatitude() * COORDINATE_SCALE) + 90L * 100_000;
+        long lng = Math.round(location.getLongitude() * COORDINATE_SCALE) + 180L * 100_000;
+        return lat << 26 | lng;
+    }
+
+    /** Cached minutes, or NaN on a miss. */
+    private double lookup(long from, long to) {
+        int set = setOf(from, to);
+        StampedLock lock = lockFor(set);
+        long stamp = lock.tryOptimisticRead();
+        int slot = find(set, from, to);
+        double time = slot >= 0 ? minutes[slot] : Double.NaN;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                slot = find(set, from, to);
+                time = slot >= 0 ? minutes[slot] : Double.NaN;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (slot >= 0) touch(set, slot);
+        return time;
+    }
+
+    private void store(long from, long to, double time) {
+        int set = setOf(from, to);
+        StampedLock lock = lockFor(set);
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(set, from, to);
+            if (slot < 0) {
+                slot = set * WAYS;
+                for (int s = set * WAYS; s < (set + 1) * WAYS; s++) {
+                    if (fromKeys[s] == EMPTY) {
+                        slot = s;
+                        break;
+                    }
+                    if (lastUsed[s] < lastUsed[slot]) slot = s;
+                }
+                if (fromKeys[slot] != EMPTY) evictions.increment();
+                fromKeys[slot] = from;
+                toKeys[slot] = to;
+            }
+            minutes[slot] = time;
+            touch(set, slot);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Marks {@code slot} most recently used; racy by design, as it only steers eviction within its set. */
+    private void touch(int set, int slot) {
+        long now = setClock[set];
+        if (lastUsed[slot] != now || now == 0) {
+            lastUsed[slot] = setClock[set] = now + 1;
+        }
+    }
+
+    private int find(int set, long from, long to) {
+        for (int slot = set * WAYS; slot < (set + 1) * WAYS; slot++) {
+            if (fromKeys[slot] == from && toKeys[slot] == to) return slot;
+        }
+        return -1;
+    }
+
+    private int setOf(long from, long to) {
+        long h = from * 0x9E3779B97F4A7C15L + to;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h & setMask;
+    }
+
+    private StampedLock lockFor(int set) {
+        return locks[set & (STRIPES - 1)];
+    }
+}
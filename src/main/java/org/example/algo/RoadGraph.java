@@ -0,0 +1,181 @@
+package org.example.algo;
+
+import org.example.entity.Location;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Directed road graph with travel times in minutes, stored as compressed adjacency arrays: the out-edges
+ * of node {@code v} are {@code [firstEdge(v), firstEdge(v + 1))}. Nodes are numbered 0..n-1 in the order
+ * they were added. Immutable once built.
+ * <p>
+ * Text format ({@link #load}), one record per line, {@code #} starts a comment:
+ * <pre>
+ * node,&lt;id&gt;,&lt;lat&gt;,&lt;lon&gt;
+ * edge,&lt;from id&gt;,&lt;to id&gt;,&lt;length m&gt;,&lt;speed km/h&gt;,&lt;oneway 0|1&gt;
+ * </pre>
+ * Ids are arbitrary longs (e.g. OSM node ids); an edge may come before its nodes. This is the shape of
+ * an edge list exported from OSM ways with their max speed (or a speed per road class).
+ */
+public final class RoadGraph {
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] firstEdge; // n + 1 offsets
+    private final int[] targets;
+    private final double[] minutes;
+
+    private RoadGraph(double[] latitudes, double[] longitudes, int[] firstEdge, int[] targets, double[] minutes) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.firstEdge = firstEdge;
+        this.targets = targets;
+        this.minutes = minutes;
+    }
+
+    public int nodeCount() {
+        return latitudes.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public Location location(int node) {
+        return new Location(latitudes[node], longitudes[node]);
+    }
+
+    public int firstEdge(int node) {
+        return firstEdge[node];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /** Travel time of {@code edge} in minutes. */
+    public double minutes(int edge) {
+        return minutes[edge];
+    }
+
+    public static RoadGraph load(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    /** @throws IllegalArgumentException on a malformed line or an edge to an unknown node */
+    public static RoadGraph read(BufferedReader reader) throws IOException {
+        Builder builder = new Builder();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String record = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (record.isEmpty()) continue;
+            String[] f = record.split(",");
+            try {
+                if (f[0].equals("node") && f.length == 4) {
+                    builder.addNode(Long.parseLong(f[1].trim()), Double.parseDouble(f[2]), Double.parseDouble(f[3]));
+                } else if (f[0].equals("edge") && f.length == 6) {
+                    double lengthMeters = Double.parseDouble(f[3]);
+                    double speedKmh = Double.parseDouble(f[4]);
+                    if (!(speedKmh > 0)) {
+                        throw new IllegalArgumentException("speed must be positive, got " + speedKmh);
+                    }
+                    builder.addEdge(Long.parseLong(f[1].trim()), Long.parseLong(f[2].trim()),
+                            lengthMeters / 1000.0 / speedKmh * 60.0, f[5].trim().equals("1"));
+                } else {
+                    throw new IllegalArgumentException("expected 'node,id,lat,lon' or "
+                            + "'edge,from,to,lengthMeters,speedKmh,oneway'");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return builder.build();
+    }
+
+    /** Collects nodes and edges by external id; {@link #build()} numbers nodes in insertion order. */
+    public static final class Builder {
+        private final Map<Long, Integer> index = new HashMap<>();
+        private double[] lat = new double[16];
+        private double[] lon = new double[16];
+        private long[] edgeFrom = new long[16];
+        private long[] edgeTo = new long[16];
+        private double[] edgeMinutes = new double[16];
+        private int nodes;
+        private int edges;
+
+        public Builder addNode(long id, double latitude, double longitude) {
+            if (index.putIfAbsent(id, nodes) != null) {
+                throw new IllegalArgumentException("Duplicate node id " + id);
+            }
+            if (nodes == lat.length) {
+                lat = Arrays.copyOf(lat, nodes * 2);
+                lon = Arrays.copyOf(lon, nodes * 2);
+            }
+            lat[nodes] = latitude;
+            lon[nodes] = longitude;
+            nodes++;
+            return this;
+        }
+
+        /** Adds {@code from → to}, and {@code to → from} unless {@code oneway}. */
+        public Builder addEdge(long from, long to, double minutes, boolean oneway) {
+            if (!(minutes >= 0) || minutes == Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException("Edge time must be finite and non-negative, got " + minutes);
+            }
+            add(from, to, minutes);
+            if (!oneway) add(to, from, minutes);
+            return this;
+        }
+
+        private void add(long from, long to, double minutes) {
+            if (edges == edgeFrom.length) {
+                edgeFrom = Arrays.copyOf(edgeFrom, edges * 2);
+                edgeTo = Arrays.copyOf(edgeTo, edges * 2);
+                edgeMinutes = Arrays.copyOf(edgeMinutes, edges * 2);
+            }
+            edgeFrom[edges] = from;
+            edgeTo[edges] = to;
+            edgeMinutes[edges] = minutes;
+            edges++;
+        }
+
+        public RoadGraph build() {
+            int[] from = new int[edges];
+            int[] firstEdge = new int[nodes + 1];
+            for (int e = 0; e < edges; e++) {
+                from[e] = node(edgeFrom[e]);
+                firstEdge[from[e] + 1]++;
+            }
+            for (int v = 0; v < nodes; v++) firstEdge[v + 1] += firstEdge[v];
+            int[] next = Arrays.copyOf(firstEdge, nodes);
+            int[] targets = new int[edges];
+            double[] minutes = new double[edges];
+            for (int e = 0; e < edges; e++) {
+                int slot = next[from[e]]++;
+                targets[slot] = node(edgeTo[e]);
+                minutes[slot] = edgeMinutes[e];
+            }
+            return new RoadGraph(Arrays.copyOf(lat, nodes), Arrays.copyOf(lon, nodes), firstEdge, targets, minutes);
+        }
+
+        private int node(long id) {
+            Integer node = index.get(id);
+            if (node == null) {
+                throw new IllegalArgumentException("Edge references unknown node " + id);
+            }
+            return node;
+        }
+    }
+}
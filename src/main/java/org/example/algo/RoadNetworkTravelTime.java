@@ -0,0 +1,107 @@
+package org.example.algo;
+
+import org.example.entity.Location;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Travel times along a {@link RoadGraph}: each location is snapped to its nearest graph node (a
+ * {@link GeoGridIndex} lookup), the leg between the location and its node is ridden in a straight line
+ * at rider speed ({@link Haversine#travelTime}), and node to node is the shortest road time from a
+ * {@link ContractionHierarchy}. Locations are snapped to nodes, not projected onto edges, so the graph
+ * should have a node at least every few tens of metres where precision matters.
+ * <p>
+ * Times satisfy the triangle inequality and follow one-way streets, so they need not be symmetric.
+ * Identical locations are 0 apart. A matrix costs 2n+1 snaps plus one upward search per node
+ * ({@link ContractionHierarchy#table}), not (2n+1)² point queries. Thread-safe.
+ */
+public final class RoadNetworkTravelTime implements TravelTimeProvider {
+
+    /** Snap index cell size; a few graph nodes per cell in a city. */
+    public static final double DEFAULT_SNAP_CELL_KM = 0.25;
+
+    private final RoadGraph graph;
+    private final ContractionHierarchy hierarchy;
+    private final GeoGridIndex<Integer> nodes;
+
+    /** Contracts {@code graph} first, see {@link ContractionHierarchy#build}. */
+    public RoadNetworkTravelTime(RoadGraph graph) {
+        this(graph, ContractionHierarchy.build(graph));
+    }
+
+    public RoadNetworkTravelTime(RoadGraph graph, ContractionHierarchy hierarchy) {
+        if (graph.nodeCount() == 0) {
+            throw new IllegalArgumentException("Road graph has no nodes");
+        }
+        if (hierarchy.nodeCount() != graph.nodeCount()) {
+            throw new IllegalArgumentException("Hierarchy has " + hierarchy.nodeCount() + " nodes, graph has "
+                    + graph.nodeCount());
+        }
+        this.graph = graph;
+        this.hierarchy = hierarchy;
+        this.nodes = new GeoGridIndex<>(DEFAULT_SNAP_CELL_KM);
+        for (int v = 0; v < graph.nodeCount(); v++) nodes.put(v, graph.location(v));
+    }
+
+    /** Loads a graph file ({@link RoadGraph#load}) and contracts it. */
+    public static RoadNetworkTravelTime load(Path path) throws IOException {
+        return new RoadNetworkTravelTime(RoadGraph.load(path));
+    }
+
+    public ContractionHierarchy hierarchy() {
+        return hierarchy;
+    }
+
+    /** Graph node nearest to {@code location}. */
+    public int snap(Location location) {
+        List<GeoGridIndex.Neighbor<Integer>> nearest = nodes.nearest(location, 1);
+        return nearest.get(0).getKey();
+    }
+
+    /** @throws IllegalArgumentException if no road leads from {@code from} to {@code to} */
+    @Override
+    public double travelTime(Location from, Location to) {
+        if (from.equals(to)) return 0.0;
+        int a = snap(from);
+        int b = snap(to);
+        double road = hierarchy.query(a, b);
+        if (road == Double.POSITIVE_INFINITY) throw unreachable(from, to);
+        return access(from, a) + road + access(to, b);
+    }
+
+    /** @throws IllegalArgumentException if some pair is not connected by road */
+    @Override
+    public double[] travelTimeMatrix(Location[] locations) {
+        int size = locations.length;
+        int[] snapped = new int[size];
+        double[] access = new double[size];
+        for (int i = 0; i < size; i++) {
+            snapped[i] = snap(locations[i]);
+            access[i] = access(locations[i], snapped[i]);
+        }
+        double[] times = hierarchy.table(snapped, snapped);
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                int cell = from * size + to;
+                if (from == to || locations[from].equals(locations[to])) {
+                    times[cell] = 0.0;
+                } else if (times[cell] == Double.POSITIVE_INFINITY) {
+                    throw unreachable(locations[from], locations[to]);
+                } else {
+                    times[cell] += access[from] + access[to];
+                }
+            }
+        }
+        return times;
+    }
+
+    private double access(Location location, int node) {
+        return Haversine.travelTime(location, graph.location(node));
+    }
+
+    private static IllegalArgumentException unreachable(Location from, Location to) {
+        return new IllegalArgumentException("No road path from " + from + " to " + to);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.algo;
+
+import org.example.entity.Location;
+import org.example.entity.Order;
+
+import java.util.List;
+
+/**
+ * Dense travel-time matrix (minutes) for one batch of orders.
+ * Node layout matches the route DP: 0..n-1 = restaurants (R1..Rn),
+ * n..2n-1 = customers (C1..Cn), 2n = rider start location.
+ * Stored row-major in a single primitive array so solvers only do array lookups.
+ */
+public class TravelTimeMatrix {
+    private final int size;
+    private final double[] times;
+
+    public TravelTimeMatrix(int size, double[] times) {
+        if (size < 1 || times.length != size * size) {
+            throw new IllegalArgumentException("Expected " + size + "x" + size + " travel times, got " + times.length);
+        }
+        this.size = size;
+        this.times = times;
+    }
+
+    /**
+     * Builds the matrix for {@code orders} with {@code start} as the last node.
+     */
+    public static TravelTimeMatrix forOrders(Location start, List<Order> orders) {
+        return forOrders(start, orders, DistanceModel.HAVERSINE);
+    }
+
+    /**
+     * Same layout as {@link #forOrders(Location, List)}, with travel times from {@code model}.
+     */
+    public static TravelTimeMatrix forOrders(Location start, List<Order> orders, TravelTimeProvider model) {
+        int n = orders.size();
+        Location[] nodes = new Location[2 * n + 1];
+        for (int i = 0; i < n; i++) {
+            nodes[i] = orders.get(i).getRestaurantLocation();
+            nodes[i + n] = orders.get(i).getConsumerLocation();
+        }
+        nodes[2 * n] = start;
+
+        return new TravelTimeMatrix(nodes.length, model.travelTimeMatrix(nodes));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Index of the rider start node (always the last one). */
+    public int startNode() {
+        return size - 1;
+    }
+
+    public double get(int from, int to) {
+        return times[from * size + to];
+    }
+}
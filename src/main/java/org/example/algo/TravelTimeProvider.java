@@ -0,0 +1,26 @@
+package org.example.algo;
+
+import org.example.entity.Location;
+
+/**
+ * Rider travel times (minutes) between locations, used to build every {@link TravelTimeMatrix}.
+ * Times must satisfy the triangle inequality (the DP bounds rely on it) but need not be symmetric,
+ * so one-way streets are fine. Implementations: every {@link DistanceModel} (straight lines at rider
+ * speed) and {@link RoadNetworkTravelTime} (shortest paths on a road graph).
+ */
+public interface TravelTimeProvider {
+
+    double travelTime(Location from, Location to);
+
+    /** Row-major nodes.length × nodes.length travel times, {@code [from * size + to]}, with a zero diagonal. */
+    default double[] travelTimeMatrix(Location[] nodes) {
+        int size = nodes.length;
+        double[] times = new double[size * size];
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                if (from != to) times[from * size + to] = travelTime(nodes[from], nodes[to]);
+            }
+        }
+        return times;
+    }
+}
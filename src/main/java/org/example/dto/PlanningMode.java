@@ -0,0 +1,11 @@
+package org.example.dto;
+
+/**
+ * How a {@link RouteResult} was planned.
+ */
+public enum PlanningMode {
+    /** The whole batch was solved at once by the configured solver. */
+    FULL,
+    /** The batch did not fit the memory budget; it was split into clusters solved separately and stitched. */
+    CLUSTERED
+}
@@ -8,10 +8,27 @@ import java.util.List;
 public class RouteResult {
     public List<RouteStep> sequence;   // ✅ Now stores RouteStep
     public double totalTime;
+    public PlanningMode mode;
+    /** Largest delivery delay past an order's deadline, in minutes; 0 when every deadline is met. */
+    public double lateness;
+    /**
+     * True when the solver proved that no faster route exists (with deadlines: none with less lateness,
+     * then none faster). Set by the exact DPs when every deadline is met or the least lateness is proven
+     * by its direct-delivery lower bound, and by {@code AnytimeRouteSolver} when its DP finished in time.
+     * Not set when the least lateness was only searched to within 0.01 minutes, nor for heuristic and
+     * clustered routes, nor for a {@code CachingRouteSolver} hit on inputs that only match the cached
+     * ones after quantisation.
+     */
+    public boolean optimal;
 
     public RouteResult(List<RouteStep> sequence, double totalTime) {
+        this(sequence, totalTime, PlanningMode.FULL);
+    }
+
+    public RouteResult(List<RouteStep> sequence, double totalTime, PlanningMode mode) {
         this.sequence = sequence;
         this.totalTime = totalTime;
+        this.mode = mode;
     }
 
     @Override
@@ -22,6 +39,12 @@ public class RouteResult {
             sb.append(step++).append(". ").append(s).append("\n");
         }
         sb.append("Total Time: ").append(String.format("%.2f", totalTime)).append(" minutes");
+        if (lateness > 0) {
+            sb.append(", late by ").append(String.format("%.2f", lateness)).append(" minutes");
+        }
+        if (mode != PlanningMode.FULL) {
+            sb.append(" (").append(mode).append(")");
+        }
         return sb.toString();
     }
 }
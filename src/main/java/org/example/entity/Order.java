@@ -6,14 +6,37 @@ import org.example.entity.Location;
 
 @Data
 public class Order {
+    /** Deadline value of orders without a promised delivery time. */
+    public static final double NO_DEADLINE = Double.POSITIVE_INFINITY;
+
     private final String orderId;            // <-- NEW
     private final Location consumerLocation;
     private final Location restaurantLocation;
     private final double prepTime;
     private final double trustBuffer;
+    /** Latest delivery time in minutes, on the same clock as {@code prepTime}. */
+    private final double deliveryDeadline;
+
+    public Order(String orderId, Location consumerLocation, Location restaurantLocation,
+                 double prepTime, double trustBuffer) {
+        this(orderId, consumerLocation, restaurantLocation, prepTime, trustBuffer, NO_DEADLINE);
+    }
+
+    public Order(String orderId, Location consumerLocation, Location restaurantLocation,
+                 double prepTime, double trustBuffer, double deliveryDeadline) {
+        this.orderId = orderId;
+        this.consumerLocation = consumerLocation;
+        this.restaurantLocation = restaurantLocation;
+        this.prepTime = prepTime;
+        this.trustBuffer = trustBuffer;
+        this.deliveryDeadline = deliveryDeadline;
+    }
 
     public double getEffectivePrepTime() {
         return prepTime + trustBuffer;
     }
-}
 
+    public boolean hasDeadline() {
+        return deliveryDeadline != NO_DEADLINE;
+    }
+}
@@ -0,0 +1,197 @@
+package org.example.server;
+
+import org.example.utility.JsonStrings;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader and writer helpers for the planning endpoint, to keep the server free of
+ * dependencies. Parsed values are {@code Map<String, Object>} (insertion order), {@code List<Object>},
+ * {@code String}, {@code Double} (always finite: numbers beyond the double range are rejected),
+ * {@code Boolean} or {@code null}.
+ */
+final class Json {
+
+    /** Nesting limit, so a hostile body cannot overflow the stack. */
+    static final int MAX_DEPTH = 32;
+
+    private final String text;
+    private int pos;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /** @throws IllegalArgumentException on malformed input or trailing content */
+    static Object parse(String text) {
+        Json json = new Json(text);
+        Object value = json.value(0);
+        json.skipWhitespace();
+        if (json.pos != text.length()) throw json.error("Unexpected trailing content");
+        return value;
+    }
+
+    /** Appends {@code s} as a JSON string literal (see {@link JsonStrings#quote}). */
+    static StringBuilder string(StringBuilder sb, String s) {
+        try {
+            return JsonStrings.quote(sb, s);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a StringBuilder never throws
+        }
+    }
+
+    /** Appends {@code value}, or {@code null} for NaN/infinity, which JSON cannot represent. */
+    static StringBuilder number(StringBuilder sb, double value) {
+        if (!Double.isFinite(value)) return sb.append("null");
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return sb.append((long) value);
+        return sb.append(value);
+    }
+
+    private Object value(int depth) {
+        if (depth > MAX_DEPTH) throw error("Nesting deeper than " + MAX_DEPTH);
+        skipWhitespace();
+        if (pos >= text.length()) throw error("Unexpected end of input");
+        char c = text.charAt(pos);
+        switch (c) {
+            case '{':
+                return object(depth);
+            case '[':
+                return array(depth);
+            case '"':
+                return string();
+            case 't':
+                return literal("true", Boolean.TRUE);
+            case 'f':
+                return literal("false", Boolean.FALSE);
+            case 'n':
+                return literal("null", null);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return number();
+                throw error("Unexpected character '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> object(int depth) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        pos++; // {
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return map;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') throw error("Expected a field name");
+            String key = string();
+            skipWhitespace();
+            expect(':');
+            if (map.containsKey(key)) throw error("Duplicate field '" + key + "'");
+            map.put(key, value(depth + 1));
+            skipWhitespace();
+            if (peek() == ',') {
+                pos++;
+            } else {
+                expect('}');
+                return map;
+            }
+        }
+    }
+
+    private List<Object> array(int depth) {
+        List<Object> list = new ArrayList<>();
+        pos++; // [
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return list;
+        }
+        while (true) {
+            list.add(value(depth + 1));
+            skipWhitespace();
+            if (peek() == ',') {
+                pos++;
+            } else {
+                expect(']');
+                return list;
+            }
+        }
+    }
+
+    private String string() {
+        pos++; // opening quote
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            if (pos >= text.length()) throw error("Unterminated string");
+            char c = text.charAt(pos++);
+            if (c == '"') return sb.toString();
+            if (c < 0x20) throw error("Control character in string");
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= text.length()) throw error("Unterminated escape");
+            char e = text.charAt(pos++);
+            switch (e) {
+                case '"': case '\\': case '/': sb.append(e); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if (pos + 4 > text.length()) throw error("Truncated \\u escape");
+                    try {
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw error("Invalid \\u escape");
+                    }
+                    pos += 4;
+                    break;
+                default:
+                    throw error("Invalid escape '\\" + e + "'");
+            }
+        }
+    }
+
+    private Double number() {
+        int start = pos;
+        if (peek() == '-') pos++;
+        while (pos < text.length() && "0123456789.eE+-".indexOf(text.charAt(pos)) >= 0) pos++;
+        Double value;
+        try {
+            value = Double.valueOf(text.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + text.substring(start, pos) + "'");
+        }
+        if (value.isInfinite()) throw error("Number out of range '" + text.substring(start, pos) + "'");
+        return value;
+    }
+
+    private Object literal(String word, Object value) {
+        if (!text.startsWith(word, pos)) throw error("Unexpected token");
+        pos += word.length();
+        return value;
+    }
+
+    private void expect(char c) {
+        if (peek() != c) throw error("Expected '" + c + "'");
+        pos++;
+    }
+
+    private char peek() {
+        return pos < text.length() ? text.charAt(pos) : '\0';
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid JSON at offset " + pos + ": " + message);
+    }
+}
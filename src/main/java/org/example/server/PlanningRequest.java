@@ -0,0 +1,159 @@
+package org.example.server;
+
+import lombok.Getter;
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.service.RouteProblem;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Body of {@code POST /route}, and the JSON form of its {@link RouteResult}.
+ * <pre>
+ * {"start": {"lat": 12.9352, "lng": 77.6245},
+ *  "capacity": 3,
+ *  "orders": [{"id": "O1", "restaurant": {"lat": .., "lng": ..}, "customer": {"lat": .., "lng": ..},
+ *              "prepTime": 8, "trustBuffer": 2, "deadline": 35}]}
+ * </pre>
+ * {@code capacity}, {@code trustBuffer} and {@code deadline} are optional. {@link #key()} is the request
+ * re-serialised in a fixed form, so requests that differ only in layout or field order share a key.
+ */
+@Getter
+final class PlanningRequest {
+
+    private final Location start;
+    private final List<Order> orders;
+    private final int capacity;
+    private final String key;
+
+    private PlanningRequest(Location start, List<Order> orders, int capacity) {
+        this.start = start;
+        this.orders = orders;
+        this.capacity = capacity;
+        this.key = toJson();
+    }
+
+    /** @throws IllegalArgumentException if the body is not valid JSON or misses a required field */
+    static PlanningRequest parse(String body) {
+        Map<String, Object> root = object(Json.parse(body), "request");
+        Location start = location(root.get("start"), "start");
+        Object capacityValue = root.get("capacity");
+        int capacity = RouteProblem.UNLIMITED;
+        if (capacityValue != null) {
+            double c = number(capacityValue, "capacity");
+            if (c < 1 || c != Math.rint(c)) {
+                throw new IllegalArgumentException("capacity must be a positive integer, got " + c);
+            }
+            capacity = (int) Math.min(c, RouteProblem.UNLIMITED);
+        }
+        if (!(root.get("orders") instanceof List)) {
+            throw new IllegalArgumentException("orders must be an array");
+        }
+        List<?> items = (List<?>) root.get("orders");
+        List<Order> orders = new ArrayList<>(items.size());
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            String path = "orders[" + i + "]";
+            Map<String, Object> o = object(items.get(i), path);
+            if (!(o.get("id") instanceof String)) {
+                throw new IllegalArgumentException(path + ".id must be a string");
+            }
+            String id = (String) o.get("id");
+            if (!ids.add(id)) {
+                throw new IllegalArgumentException("Duplicate order id: " + id);
+            }
+            double prep = nonNegative(o.get("prepTime"), path + ".prepTime");
+            double trust = o.get("trustBuffer") == null ? 0.0 : nonNegative(o.get("trustBuffer"), path + ".trustBuffer");
+            double deadline = o.get("deadline") == null ? Order.NO_DEADLINE : number(o.get("deadline"), path + ".deadline");
+            orders.add(new Order(id, location(o.get("customer"), path + ".customer"),
+                    location(o.get("restaurant"), path + ".restaurant"), prep, trust, deadline));
+        }
+        return new PlanningRequest(start, orders, capacity);
+    }
+
+    String toJson() {
+        StringBuilder sb = new StringBuilder("{\"start\":");
+        location(sb, start);
+        if (capacity != RouteProblem.UNLIMITED) sb.append(",\"capacity\":").append(capacity);
+        sb.append(",\"orders\":[");
+        for (int i = 0; i < orders.size(); i++) {
+            Order o = orders.get(i);
+            if (i > 0) sb.append(',');
+            Json.string(sb.append("{\"id\":"), o.getOrderId());
+            location(sb.append(",\"restaurant\":"), o.getRestaurantLocation());
+            location(sb.append(",\"customer\":"), o.getConsumerLocation());
+            Json.number(sb.append(",\"prepTime\":"), o.getPrepTime());
+            Json.number(sb.append(",\"trustBuffer\":"), o.getTrustBuffer());
+            if (o.hasDeadline()) Json.number(sb.append(",\"deadline\":"), o.getDeliveryDeadline());
+            sb.append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    static String toJson(RouteResult result) {
+        StringBuilder sb = new StringBuilder("{\"totalTime\":");
+        Json.number(sb, result.getTotalTime());
+        Json.number(sb.append(",\"lateness\":"), result.getLateness());
+        Json.string(sb.append(",\"mode\":"), result.getMode().name());
+        sb.append(",\"optimal\":").append(result.isOptimal());
+        sb.append(",\"steps\":[");
+        List<RouteStep> steps = result.getSequence();
+        for (int i = 0; i < steps.size(); i++) {
+            RouteStep s = steps.get(i);
+            if (i > 0) sb.append(',');
+            Json.string(sb.append("{\"action\":"), s.getAction());
+            Json.string(sb.append(",\"target\":"), s.getTarget());
+            Json.string(sb.append(",\"orderId\":"), s.getOrderId());
+            Json.number(sb.append(",\"eta\":"), s.getEta());
+            Json.number(sb.append(",\"lat\":"), s.getLat());
+            Json.number(sb.append(",\"lng\":"), s.getLng());
+            sb.append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static void location(StringBuilder sb, Location l) {
+        Json.number(sb.append("{\"lat\":"), l.getLatitude());
+        Json.number(sb.append(",\"lng\":"), l.getLongitude());
+        sb.append('}');
+    }
+
+    private static Location location(Object value, String path) {
+        Map<String, Object> l = object(value, path);
+        double lat = number(l.get("lat"), path + ".lat");
+        double lng = number(l.get("lng"), path + ".lng");
+        if (Math.abs(lat) > 90 || Math.abs(lng) > 180) {
+            throw new IllegalArgumentException(path + " is not a valid coordinate: " + lat + ", " + lng);
+        }
+        return new Location(lat, lng);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(Object value, String path) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException(path + " must be an object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static double number(Object value, String path) {
+        if (!(value instanceof Double)) {
+            throw new IllegalArgumentException(path + " must be a number");
+        }
+        return (Double) value;
+    }
+
+    private static double nonNegative(Object value, String path) {
+        double v = number(value, path);
+        if (v < 0) {
+            throw new IllegalArgumentException(path + " must not be negative, got " + v);
+        }
+        return v;
+    }
+}
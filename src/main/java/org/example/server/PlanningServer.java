@@ -0,0 +1,276 @@
+package org.example.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.dto.RouteResult;
+import org.example.service.BatchTooLargeException;
+import org.example.service.RoutePlanningEngine;
+import org.example.service.SolveMetricsRecorder;
+import org.example.utility.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embedded HTTP/JSON front end for a {@link RoutePlanningEngine}, for running the planner as a sidecar.
+ * <ul>
+ *   <li>{@code POST /route}: a {@link PlanningRequest} in, the {@link RouteResult} as JSON out.</li>
+ *   <li>{@code GET /metrics}: request counters and latency quantiles in the Prometheus text format.</li>
+ *   <li>{@code GET /health}: {@code ok}.</li>
+ * </ul>
+ * Identical requests (same {@link PlanningRequest#key()}) that arrive while one of them is being solved
+ * share that solve instead of starting their own. Only in-flight solves are shared; a finished result is
+ * not kept (put a {@code CachingRouteSolver} in the engine for that).
+ * <p>
+ * Handlers only parse and submit with {@link RoutePlanningEngine#trySubmit}; the response is written when
+ * the engine's future completes, so the HTTP threads (virtual threads on Java 21+) never wait for a solve
+ * or for a free slot. Errors: 400 for a malformed request, 413 for a body over {@value #MAX_BODY_BYTES}
+ * bytes or a batch over the engine's memory budget, 405 for a wrong method, 503 (with
+ * {@code Retry-After}) when the engine already has its maximum of solves in flight or the server is
+ * closing, 500 for anything unexpected.
+ */
+public class PlanningServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8080;
+    static final int MAX_BODY_BYTES = 1 << 20;
+
+    private final HttpServer server;
+    private final ExecutorService httpExecutor;
+    private final RoutePlanningEngine engine;
+    private final SolveMetricsRecorder solves = new SolveMetricsRecorder();
+    private final ConcurrentHashMap<String, CompletableFuture<RouteResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final ConcurrentHashMap<Integer, LongAdder> responsesByStatus = new ConcurrentHashMap<>();
+    private final LatencyHistogram requestNanos = new LatencyHistogram();
+
+    /** Default {@link RoutePlanningEngine} on all interfaces. */
+    public PlanningServer(int port) throws IOException {
+        this(new InetSocketAddress(port), new RoutePlanningEngine());
+    }
+
+    /**
+     * @param engine solves the requests; its listener is replaced by the server's metrics recorder, and it
+     *               is closed with the server
+     */
+    public PlanningServer(InetSocketAddress address, RoutePlanningEngine engine) throws IOException {
+        this.engine = engine.withListener(solves);
+        this.server = HttpServer.create(address, 0);
+        this.httpExecutor = RoutePlanningEngine.defaultExecutor();
+        server.setExecutor(httpExecutor);
+        server.createContext("/route", this::route);
+        server.createContext("/metrics", this::metrics);
+        server.createContext("/health", exchange -> {
+            if (allow(exchange, "GET")) respond(exchange, 200, "text/plain", "ok\n");
+        });
+    }
+
+    public PlanningServer start() {
+        server.start();
+        return this;
+    }
+
+    /** Bound port; useful when constructed with port 0. */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /** Requests that joined a solve already in flight instead of starting one. */
+    public long coalescedRequests() {
+        return coalesced.sum();
+    }
+
+    public SolveMetricsRecorder solveMetrics() {
+        return solves;
+    }
+
+    /** Stops accepting connections, then lets queued solves finish and shuts the engine down. */
+    @Override
+    public void close() {
+        server.stop(0);
+        engine.close();
+        httpExecutor.shutdown();
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        requests.increment();
+        if (!allow(exchange, "POST")) return;
+
+        PlanningRequest request;
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                error(exchange, 413, "Request body exceeds " + MAX_BODY_BYTES + " bytes");
+                return;
+            }
+            request = PlanningRequest.parse(new String(body, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            error(exchange, 400, e.getMessage());
+            return;
+        }
+
+        CompletableFuture<RouteResult> solve;
+        try {
+            solve = solve(request);
+        } catch (RejectedExecutionException e) {
+            error(exchange, 503, "Server is shutting down");
+            return;
+        }
+        if (solve == null) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            error(exchange, 503, "Planner is at capacity, retry later");
+            return;
+        }
+        solve.whenComplete((result, failure) -> {
+            try {
+                if (failure == null) {
+                    respond(exchange, 200, "application/json", PlanningRequest.toJson(result));
+                } else {
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure;
+                    int status = cause instanceof BatchTooLargeException ? 413
+                            : cause instanceof IllegalArgumentException ? 400
+                            : cause instanceof RejectedExecutionException ? 503 : 500;
+                    error(exchange, status, String.valueOf(cause.getMessage()));
+                }
+                requestNanos.record(System.nanoTime() - start);
+            } catch (IOException e) {
+                exchange.close(); // client went away
+            } catch (Throwable t) { // e.g. a result that cannot be serialised: never leave the client waiting
+                internalError(exchange, t);
+            }
+        });
+    }
+
+    private void internalError(HttpExchange exchange, Throwable failure) {
+        try {
+            error(exchange, 500, "Internal error: " + failure);
+        } catch (IOException | RuntimeException e) { // headers already sent or client gone
+            exchange.close();
+        }
+    }
+
+    /** Joins the in-flight solve of an identical request, or submits a new one; null if the engine is full. */
+    private CompletableFuture<RouteResult> solve(PlanningRequest request) {
+        CompletableFuture<RouteResult> promise = new CompletableFuture<>();
+        CompletableFuture<RouteResult> existing = inFlight.putIfAbsent(request.getKey(), promise);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        CompletableFuture<RouteResult> submitted;
+        try {
+            submitted = engine.trySubmit(request.getStart(), request.getOrders(), request.getCapacity());
+        } catch (RuntimeException e) {
+            inFlight.remove(request.getKey(), promise);
+            promise.completeExceptionally(e);
+            throw e;
+        }
+        if (submitted == null) {
+            inFlight.remove(request.getKey(), promise);
+            promise.completeExceptionally(new RejectedExecutionException("Planner is at capacity"));
+            return null;
+        }
+        submitted.whenComplete((result, failure) -> {
+            inFlight.remove(request.getKey(), promise);
+            if (failure == null) {
+                promise.complete(result);
+            } else {
+                promise.completeExceptionally(failure);
+            }
+        });
+        return promise;
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        if (!allow(exchange, "GET")) return;
+        StringBuilder sb = new StringBuilder();
+        counter(sb, "planner_requests_total", "Route requests received", requests.sum());
+        counter(sb, "planner_requests_coalesced_total", "Requests that joined an identical in-flight solve",
+                coalesced.sum());
+        sb.append("# HELP planner_responses_total Route responses by HTTP status\n")
+                .append("# TYPE planner_responses_total counter\n");
+        for (Map.Entry<Integer, LongAdder> e : new TreeMap<>(responsesByStatus).entrySet()) {
+            sb.append("planner_responses_total{status=\"").append(e.getKey()).append("\"} ")
+                    .append(e.getValue().sum()).append('\n');
+        }
+        sb.append("# HELP planner_in_flight Solves queued or running\n# TYPE planner_in_flight gauge\n")
+                .append("planner_in_flight ").append(engine.inFlight()).append('\n');
+        counter(sb, "planner_states_expanded_total", "DP states expanded", solves.statesExpanded());
+        summary(sb, "planner_request_seconds", "Route request latency, receipt to response", requestNanos);
+        summary(sb, "planner_solve_seconds", "Solve latency", solves.total());
+        sb.append("# HELP planner_solve_by_orders_seconds Solve latency by batch size\n")
+                .append("# TYPE planner_solve_by_orders_seconds summary\n");
+        for (Map.Entry<Integer, LatencyHistogram> e : solves.totalByOrderCount().entrySet()) {
+            quantiles(sb, "planner_solve_by_orders_seconds", "orders=\"" + e.getKey() + "\",", e.getValue());
+        }
+        respond(exchange, 200, "text/plain; version=0.0.4", sb.toString());
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, long value) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(" counter\n")
+                .append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void summary(StringBuilder sb, String name, String help, LatencyHistogram h) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(" summary\n");
+        quantiles(sb, name, "", h);
+    }
+
+    private static void quantiles(StringBuilder sb, String name, String labels, LatencyHistogram h) {
+        for (double q : new double[]{0.5, 0.9, 0.99}) {
+            sb.append(name).append('{').append(labels).append("quantile=\"").append(q).append("\"} ")
+                    .append(h.valueAtPercentile(q * 100) / 1e9).append('\n');
+        }
+        String suffix = labels.isEmpty() ? "" : "{" + labels.substring(0, labels.length() - 1) + "}";
+        sb.append(name).append("_count").append(suffix).append(' ').append(h.count()).append('\n');
+        sb.append(name).append("_sum").append(suffix).append(' ').append(h.mean() * h.count() / 1e9).append('\n');
+    }
+
+    private boolean allow(HttpExchange exchange, String method) throws IOException {
+        if (method.equals(exchange.getRequestMethod())) return true;
+        exchange.getResponseHeaders().set("Allow", method);
+        error(exchange, 405, "Use " + method);
+        return false;
+    }
+
+    private void error(HttpExchange exchange, int status, String message) throws IOException {
+        respond(exchange, status, "application/json",
+                Json.string(new StringBuilder("{\"error\":"), message).append('}').toString());
+    }
+
+    private void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        if ("/route".equals(exchange.getHttpContext().getPath())) {
+            responsesByStatus.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /** Runs the server until the JVM exits: {@code PlanningServer [port]}. */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        PlanningServer server = new PlanningServer(port).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("Route planner listening on port " + server.port());
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.service;
+
+/**
+ * What {@link RouteService} does with a batch whose estimated footprint exceeds its memory budget.
+ */
+public enum AdmissionPolicy {
+    /** Fail with a {@link BatchTooLargeException} before anything is allocated. */
+    REJECT,
+    /** Solve with a {@link ClusteredRouteSolver} sized to the budget; the result is marked CLUSTERED. */
+    CLUSTER
+}
@@ -0,0 +1,136 @@
+package org.example.service;
+
+import org.example.dto.RouteResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Solver with a hard time limit that always returns a route, e.g. for a dispatch loop with 50 ms per decision.
+ * <ol>
+ *   <li>Incumbent: the {@link HeuristicRouteSolver} constructions and moves. Its first construction always
+ *       completes, so there is a route even if the deadline has already passed.</li>
+ *   <li>Proof: the pruned {@link TernaryRouteSolver}, bounded by the incumbent, which checks the deadline
+ *       and the {@link CancellationToken} every {@value TernaryRouteSolver#STOP_CHECK_STATES} states.
+ *       If it finishes, its route is returned and marked {@link RouteResult#isOptimal() optimal}.
+ *       If it is stopped, the incumbent is returned, not marked optimal.</li>
+ * </ol>
+ * The DP only runs when its table fits {@code maxTableBytes}; larger batches get the heuristic for the
+ * whole budget. While the DP is a candidate, the heuristic gets a fifth of the budget, at most
+ * {@link #MAX_INCUMBENT_BUDGET}; on small batches it reaches a local optimum well before that.
+ * Capacity and deadlines are handled as in the two solvers.
+ */
+public class AnytimeRouteSolver implements RouteSolver {
+
+    public static final Duration DEFAULT_BUDGET = Duration.ofMillis(50);
+    /** Ternary DP table limit: 12 orders (about 58 MB) fit, 13 (about 187 MB) do not. */
+    public static final long DEFAULT_MAX_TABLE_BYTES = 64L << 20;
+    static final Duration MAX_INCUMBENT_BUDGET = Duration.ofMillis(10);
+    private static final int INCUMBENT_SHARE = 5;
+
+    private final long budgetNanos;
+    private final long maxTableBytes;
+    private final HeuristicRouteSolver heuristic = new HeuristicRouteSolver();
+    private final TernaryRouteSolver exact = new TernaryRouteSolver(DpStorage.HEAP, true);
+
+    public AnytimeRouteSolver() {
+        this(DEFAULT_BUDGET);
+    }
+
+    public AnytimeRouteSolver(Duration budget) {
+        this(budget, DEFAULT_MAX_TABLE_BYTES);
+    }
+
+    /**
+     * @param budget        time per {@link #solve(RouteProblem)}, from the start of the call
+     * @param maxTableBytes largest DP table the proof phase may allocate
+     */
+    public AnytimeRouteSolver(Duration budget, long maxTableBytes) {
+        this.budgetNanos = budget.toNanos();
+        this.maxTableBytes = maxTableBytes;
+    }
+
+    @Override
+    public RouteResult solve(RouteProblem problem) {
+        return solve(problem, new SolveMetrics(problem.orderCount()));
+    }
+
+    @Override
+    public RouteResult solve(RouteProblem problem, SolveMetrics metrics) {
+        return solve(problem, metrics, System.nanoTime() + budgetNanos, CancellationToken.NONE);
+    }
+
+    /**
+     * Best route found by {@code deadlineNanos} (System.nanoTime based) or until {@code cancellation}
+     * is cancelled, whichever comes first. The construction of the first route is not interrupted.
+     */
+    public RouteResult solve(RouteProblem problem, SolveMetrics metrics, long deadlineNanos,
+                             CancellationToken cancellation) {
+        try {
+            return search(problem, metrics, deadlineNanos, cancellation);
+        } finally {
+            metrics.recordSolver(getClass().getSimpleName());
+        }
+    }
+
+    private RouteResult search(RouteProblem problem, SolveMetrics metrics, long deadlineNanos,
+                               CancellationToken cancellation) {
+        int n = problem.orderCount();
+        if (n == 0) {
+            RouteResult empty = new RouteResult(List.of(), 0.0);
+            empty.setOptimal(true);
+            return empty;
+        }
+        long start = System.nanoTime();
+        boolean provable = exact.estimatedBytes(n) <= maxTableBytes;
+        long incumbentDeadline = !provable ? deadlineNanos
+                : start + Math.min((deadlineNanos - start) / INCUMBENT_SHARE, MAX_INCUMBENT_BUDGET.toNanos());
+        RouteResult incumbent = heuristic.solve(problem, incumbentDeadline, cancellation);
+        long proofStart = System.nanoTime();
+        metrics.addSearchNanos(proofStart - start);
+        if (!provable) {
+            return incumbent;
+        }
+
+        BooleanSupplier stop = () -> cancellation.isCancelled() || System.nanoTime() >= deadlineNanos;
+        try {
+            return exact.solve(problem, incumbent, stop, metrics);
+        } catch (CancellationException e) {
+            metrics.addSearchNanos(System.nanoTime() - proofStart);
+            return incumbent;
+        }
+    }
+
+    /** The DP table when the proof phase can run, otherwise nothing beyond the heuristic's route. */
+    @Override
+    public long estimatedBytes(int orderCount) {
+        long bytes = exact.estimatedBytes(orderCount);
+        return bytes <= maxTableBytes ? bytes : 0L;
+    }
+
+    /**
+     * This solver bound to one absolute deadline and token, for callers that only take a {@link RouteSolver}
+     * (see {@link RouteService#findBestRoute(Duration, CancellationToken)}).
+     */
+    RouteSolver until(long deadlineNanos, CancellationToken cancellation) {
+        AnytimeRouteSolver self = this;
+        return new RouteSolver() {
+            @Override
+            public RouteResult solve(RouteProblem problem) {
+                return solve(problem, new SolveMetrics(problem.orderCount()));
+            }
+
+            @Override
+            public RouteResult solve(RouteProblem problem, SolveMetrics metrics) {
+                return self.solve(problem, metrics, deadlineNanos, cancellation);
+            }
+
+            @Override
+            public long estimatedBytes(int orderCount) {
+                return self.estimatedBytes(orderCount);
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.service;
+
+/**
+ * A batch whose estimated solve footprint does not fit the memory budget.
+ */
+public class BatchTooLargeException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int orderCount;
+    private final long estimatedBytes;
+    private final long budgetBytes;
+
+    public BatchTooLargeException(int orderCount, long estimatedBytes, long budgetBytes) {
+        super("Planning " + orderCount + " orders needs about "
+                + (estimatedBytes == Long.MAX_VALUE ? "more than 2^63" : String.valueOf(estimatedBytes))
+                + " bytes, budget is " + budgetBytes);
+        this.orderCount = orderCount;
+        this.estimatedBytes = estimatedBytes;
+        this.budgetBytes = budgetBytes;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    /** {@link Long#MAX_VALUE} when the solver cannot handle the batch at all. */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+}
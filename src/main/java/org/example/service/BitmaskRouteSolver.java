@@ -0,0 +1,213 @@
+package org.example.service;
+
+import org.example.algo.TravelTimeMatrix;
+import org.example.dto.RouteResult;
+import org.example.entity.Order;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Solve using Bitmask DP with path reconstruction.
+ * Nodes: 0..n-1 = restaurants (R1..Rn), n..2n-1 = customers (C1..Cn).
+ * dp[mask][pos] = minimum time to reach 'pos' having visited nodes in 'mask',
+ * stored flat at cell {@code mask * 2n + pos}. Only the previous position is kept as parent:
+ * the previous mask is always {@code mask & ~(1 << pos)}.
+ */
+public class BitmaskRouteSolver implements RouteSolver {
+
+    private final DpStorage storage;
+    private final boolean pruning;
+
+    public BitmaskRouteSolver() {
+        this(DpStorage.HEAP);
+    }
+
+    public BitmaskRouteSolver(DpStorage storage) {
+        this(storage, false);
+    }
+
+    /**
+     * @param pruning skip states that provably cannot beat a greedy route (see {@link BoundPruner});
+     *                the result is unchanged
+     */
+    public BitmaskRouteSolver(DpStorage storage, boolean pruning) {
+        this.storage = storage;
+        this.pruning = pruning;
+    }
+
+    @Override
+    public RouteResult solve(RouteProblem problem) {
+        return solve(problem, new SolveMetrics(problem.orderCount()));
+    }
+
+    @Override
+    public RouteResult solve(RouteProblem problem, SolveMetrics metrics) {
+        metrics.recordSolver(getClass().getSimpleName());
+        int n = problem.orderCount();
+        if (n == 0) {
+            RouteResult empty = new RouteResult(List.of(), 0.0);
+            empty.setOptimal(true);
+            return empty;
+        }
+        int totalNodes = 2 * n;
+        if (((long) totalNodes << totalNodes) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many orders for the bitmask DP: " + n);
+        }
+        return Deadlines.minimiseLateness(problem, metrics, (deadlines, m) -> solveWithin(problem, deadlines, m));
+    }
+
+    /** One DP run; null when no route meets {@code deadlines}. */
+    private RouteResult solveWithin(RouteProblem problem, Deadlines deadlines, SolveMetrics metrics) {
+        List<Order> orders = problem.getOrders();
+        TravelTimeMatrix tt = problem.getMatrix();
+        int n = orders.size();
+        int totalNodes = 2 * n;
+        int fullMask = (1 << totalNodes) - 1;
+
+        double[] prep = problem.prepTimes(); // effective prep times for restaurants
+        int start = tt.startNode();
+        long searchStart = System.nanoTime();
+
+        DpTable dp = storage.allocate((1 << totalNodes) * totalNodes);
+        metrics.addTableBytes(dp.sizeInBytes() + (pruning ? fullMask + 1 : 0));
+
+        // Initialize from start to each restaurant (must start with a pickup)
+        for (int r = 0; r < n; r++) {
+            int cell = (1 << r) * totalNodes + r;
+            double arrival = Math.max(tt.get(start, r), prep[r]); // wait if early
+            if (deadlines != null && arrival > deadlines.latestArrival(r)) continue;
+            if (arrival < dp.cost(cell)) {
+                dp.set(cell, arrival, DpTable.START);
+            }
+        }
+
+        fill(dp, n, prep, tt, pruning ? BoundPruner.forProblem(problem, deadlines) : null, deadlines,
+                problem.getCapacity(), metrics);
+        long reconstructionStart = System.nanoTime();
+        metrics.addSearchNanos(reconstructionStart - searchStart);
+
+        // Find best end state
+        int fullRow = fullMask * totalNodes;
+        double bestTime = Double.MAX_VALUE;
+        int bestEndPos = -1;
+        for (int pos = 0; pos < totalNodes; pos++) {
+            if (dp.cost(fullRow + pos) < bestTime) {
+                bestTime = dp.cost(fullRow + pos);
+                bestEndPos = pos;
+            }
+        }
+        if (bestEndPos < 0) {
+            metrics.addReconstructionNanos(System.nanoTime() - reconstructionStart);
+            return null; // only possible with deadlines or non-finite prep/travel times
+        }
+
+        // Reconstruct path of node visits
+        List<Integer> nodeOrder = new ArrayList<>(totalNodes);
+        int curMask = fullMask, curPos = bestEndPos;
+        while (curPos != DpTable.START) {
+            nodeOrder.add(curPos);
+            int pp = dp.parent(curMask * totalNodes + curPos);
+            curMask &= ~(1 << curPos);
+            curPos = pp;
+        }
+        Collections.reverse(nodeOrder);
+
+        RouteResult result = RouteAssembler.assemble(orders, tt, nodeOrder, bestTime);
+        metrics.addReconstructionNanos(System.nanoTime() - reconstructionStart);
+        return result;
+    }
+
+    @Override
+    public long estimatedBytes(int orderCount) {
+        int totalNodes = 2 * orderCount;
+        if (totalNodes > 30 || ((long) totalNodes << totalNodes) > Integer.MAX_VALUE) {
+            return Long.MAX_VALUE; // solve() rejects it
+        }
+        long masks = 1L << totalNodes;
+        return masks * totalNodes * DpTable.BYTES_PER_CELL + (pruning ? masks : 0L);
+    }
+
+    /**
+     * Runs all transitions. Masks are processed in increasing order, so every state is final
+     * before it is expanded (a transition always adds one bit).
+     *
+     * @param pruner    null when pruning is off
+     * @param deadlines null when no order has a deadline
+     * @param capacity  most orders carried at once; masks over it are skipped and full masks allow no pickup
+     */
+    void fill(DpTable dp, int n, double[] prep, TravelTimeMatrix tt, BoundPruner pruner, Deadlines deadlines,
+              int capacity, SolveMetrics metrics) {
+        int totalNodes = 2 * n;
+        int fullMask = (1 << totalNodes) - 1;
+        // With pruning most masks are never written; skip those without scanning their cells
+        boolean[] live = null;
+        if (pruner != null) {
+            live = new boolean[fullMask + 1];
+            for (int r = 0; r < n; r++) live[1 << r] = true;
+        }
+        long expanded = 0;
+        long pruned = 0;
+        for (int mask = 0; mask <= fullMask; mask++) {
+            int carried = carried(mask, n);
+            if (carried > capacity) continue; // never reached: pickups stop at capacity
+            boolean full = carried == capacity;
+            double slack = Double.MAX_VALUE;
+            if (pruner != null) {
+                if (!live[mask]) {
+                    if (mask != 0 && isValid(mask, n)) pruned++; // cut off by the bounds upstream
+                    continue;
+                }
+                if (pruner.exceeds(pruner.prepBound(mask))) {
+                    pruned++;
+                    continue;
+                }
+                slack = pruner.slack(pruner.pendingTravel(mask));
+            }
+
+            int row = mask * totalNodes;
+            for (int pos = 0; pos < totalNodes; pos++) {
+                double curT = dp.cost(row + pos);
+                if (curT == DpTable.UNREACHED) continue;
+                if (deadlines != null && !deadlines.canMeet(mask, pos, curT)) continue;
+                expanded++;
+
+                for (int nxt = 0; nxt < totalNodes; nxt++) {
+                    if ((mask & (1 << nxt)) != 0) continue; // already visited
+
+                    // If 'nxt' is a customer j, ensure restaurant j is already visited.
+                    if (nxt >= n && (mask & (1 << (nxt - n))) == 0) continue; // cannot deliver before pickup
+                    if (nxt < n && full) continue; // no bag free
+
+                    double arrival = curT + tt.get(pos, nxt);
+
+                    // If going to a restaurant, must wait until prep time if early
+                    if (nxt < n) {
+                        arrival = Math.max(arrival, prep[nxt]);
+                    }
+                    if (pruner != null && arrival - pruner.minEntry(nxt) > slack) continue;
+                    if (deadlines != null && arrival > deadlines.latestArrival(nxt)) continue;
+
+                    int next = (mask | (1 << nxt)) * totalNodes + nxt;
+                    if (arrival < dp.cost(next)) {
+                        dp.set(next, arrival, pos);
+                        if (live != null) live[mask | (1 << nxt)] = true;
+                    }
+                }
+            }
+        }
+        metrics.addStates(expanded, pruned);
+    }
+
+    /** Orders picked up but not delivered in a valid mask. */
+    static int carried(int mask, int n) {
+        return Integer.bitCount(mask & ((1 << n) - 1)) - Integer.bitCount(mask >>> n);
+    }
+
+    /** A customer bit is only reachable together with its restaurant bit. */
+    static boolean isValid(int mask, int n) {
+        int restaurants = mask & ((1 << n) - 1);
+        return ((mask >>> n) & ~restaurants) == 0;
+    }
+}
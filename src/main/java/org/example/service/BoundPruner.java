@@ -0,0 +1,121 @@
+package org.example.service;
+
+import org.example.algo.TravelTimeMatrix;
+import org.example.dto.RouteResult;
+
+import java.time.Duration;
+
+/**
+ * Upper/lower bounds used to skip DP states that cannot lead to a better route than a known one.
+ * <p>
+ * The upper bound is the completion time of a quick {@link HeuristicRouteSolver} route. Two admissible
+ * lower bounds on the completion time are kept per state:
+ * <ul>
+ *   <li>{@code t + pendingTravel}: every node still to visit is entered by its own leg, which is at least
+ *       the cheapest leg into that node ({@link #minEntry}). Waiting only adds to this.</li>
+ *   <li>{@code prepBound}: an order not yet picked up finishes no earlier than its prep time plus the
+ *       direct restaurant → customer leg (assumes the triangle inequality, true for Haversine and
+ *       shortest-path travel times).</li>
+ * </ul>
+ * Both are computed once per DP state. A transition is then rejected with one comparison
+ * ({@code arrival - minEntry(next) > slack}), so a cell is only written when it can still lead to a
+ * better route and later states that receive no write are skipped entirely. A state is only pruned when
+ * its bound exceeds the upper bound by more than {@link #EPS}, so every state on an optimal route
+ * survives and the DP returns exactly the same route as without pruning.
+ */
+final class BoundPruner {
+    static final double EPS = 1e-9;
+    private static final Duration UPPER_BOUND_BUDGET = Duration.ofMillis(10);
+
+    private final TravelTimeMatrix tt;
+    private final double[] prep;
+    private final double[] minEntry;
+    private final int n;
+    private final double limit;
+
+    BoundPruner(TravelTimeMatrix tt, double[] prep, double upperBound) {
+        this.tt = tt;
+        this.prep = prep;
+        this.n = prep.length;
+        this.limit = upperBound + EPS;
+
+        int nodes = 2 * n;
+        this.minEntry = new double[nodes];
+        for (int v = 0; v < nodes; v++) {
+            double min = Double.MAX_VALUE;
+            for (int u = 0; u < tt.size(); u++) {
+                if (u != v) min = Math.min(min, tt.get(u, v));
+            }
+            minEntry[v] = min;
+        }
+    }
+
+    /**
+     * @param deadlines null when no order has a deadline; otherwise the greedy route only bounds the DP
+     *                  if it meets them, and nothing is pruned by completion time when it does not
+     */
+    static BoundPruner forProblem(RouteProblem problem, Deadlines deadlines) {
+        return forProblem(problem, deadlines, new HeuristicRouteSolver(UPPER_BOUND_BUDGET).solve(problem));
+    }
+
+    /** Bounds the DP with a route the caller already has (same rules as the greedy route). */
+    static BoundPruner forProblem(RouteProblem problem, Deadlines deadlines, RouteResult known) {
+        double upperBound = deadlines == null || deadlines.met(known) ? known.getTotalTime() : Double.MAX_VALUE;
+        return new BoundPruner(problem.getMatrix(), problem.prepTimes(), upperBound);
+    }
+
+    /** True when a route whose completion time is at least {@code lowerBound} cannot beat the upper bound. */
+    boolean exceeds(double lowerBound) {
+        return lowerBound > limit;
+    }
+
+    /**
+     * Largest {@code arrival - minEntry(next)} a transition may have when {@code pendingTravel} is the
+     * state's pending sum; anything above cannot beat the upper bound.
+     */
+    double slack(double pendingTravel) {
+        return limit - pendingTravel;
+    }
+
+    /** Cheapest possible leg into {@code node}. */
+    double minEntry(int node) {
+        return minEntry[node];
+    }
+
+    /** Ternary DP: sum of {@link #minEntry} over nodes not yet visited ({@code digit[j]}: 0/1/2). */
+    double pendingTravel(int[] digit) {
+        double sum = 0.0;
+        for (int j = 0; j < n; j++) {
+            if (digit[j] == 0) sum += minEntry[j] + minEntry[j + n];
+            else if (digit[j] == 1) sum += minEntry[j + n];
+        }
+        return sum;
+    }
+
+    /** Bitmask DP: sum of {@link #minEntry} over nodes whose bit is not set. */
+    double pendingTravel(int mask) {
+        double sum = 0.0;
+        for (int v = 0; v < 2 * n; v++) {
+            if ((mask & (1 << v)) == 0) sum += minEntry[v];
+        }
+        return sum;
+    }
+
+    /** Ternary DP: latest {@code prep + R→C leg} among orders not picked up. */
+    double prepBound(int[] digit) {
+        double bound = 0.0;
+        for (int j = 0; j < n; j++) {
+            if (digit[j] == 0) bound = Math.max(bound, prep[j] + tt.get(j, j + n));
+        }
+        return bound;
+    }
+
+    /** Bitmask DP: latest {@code prep + R→C leg} among restaurants not visited. */
+    double prepBound(int mask) {
+        double bound = 0.0;
+        for (int j = 0; j < n; j++) {
+            if ((mask & (1 << j)) == 0) bound = Math.max(bound, prep[j] + tt.get(j, j + n));
+        }
+        return bound;
+    }
+}
@@ -0,0 +1,263 @@
+package org.example.service;
+
+import org.example.dto.PlanningMode;
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Order;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU + TTL cache in front of another {@link RouteSolver}, for repeated plans of the same orders
+ * (retries, UI refreshes, what-if checks).
+ * <p>
+ * The key is canonical: coordinates are quantised to {@link #COORDINATE_SCALE} (about 1 m) and prep
+ * and delivery-deadline times to 1/100 minute, a binding bag capacity is included, and orders are sorted,
+ * so the same set in any order hits the same entry.
+ * Order ids are not part of the key. The cached value is the visit order over the sorted orders; a hit
+ * maps it back to the caller's orders and recomputes ETAs with the caller's travel-time matrix, so
+ * labels, locations and times always match the request. The key is built from locations only, so a
+ * problem with a hand-made matrix must not go through this cache.
+ * <p>
+ * A hit keeps {@link RouteResult#isOptimal() optimal} only when the inputs are exactly those that were
+ * solved (unquantised); for inputs that merely share the quantised key the route is near-optimal but
+ * unproven, so the flag is cleared. The exact inputs are only kept, and only compared, for optimal
+ * entries. A hit restores the {@link PlanningMode} of the cached route.
+ * <p>
+ * Keys are arrays of quantised numbers with a precomputed hash, so a lookup allocates no strings.
+ * <p>
+ * Thread-safe. Lookups and inserts lock the map briefly; solves run outside the lock, so two threads
+ * missing on the same key may both solve it.
+ */
+public class CachingRouteSolver implements RouteSolver {
+
+    /** Quantisation of latitude/longitude in the key: 1e-5 degrees. */
+    static final double COORDINATE_SCALE = 1e5;
+    private static final double PREP_SCALE = 100.0;
+    /** Key values per order: restaurant lat/lng, customer lat/lng, prep, deadline. */
+    private static final int ORDER_FIELDS = 6;
+    private static final long NO_DEADLINE_KEY = Long.MIN_VALUE;
+
+    private final RouteSolver delegate;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingRouteSolver(RouteSolver delegate, int maxEntries, Duration ttl) {
+        this(delegate, maxEntries, ttl, System::nanoTime);
+    }
+
+    CachingRouteSolver(RouteSolver delegate, int maxEntries, Duration ttl, LongSupplier clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) { // access order = LRU
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= CachingRouteSolver.this.maxEntries) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public RouteResult solve(RouteProblem problem) {
+        return solve(problem, new SolveMetrics(problem.orderCount()));
+    }
+
+    /** A miss records the delegate's metrics; a hit records this solver with the re-assembly as reconstruction. */
+    @Override
+    public RouteResult solve(RouteProblem problem, SolveMetrics metrics) {
+        List<Order> orders = problem.getOrders();
+        int n = orders.size();
+        if (n == 0) {
+            return delegate.solve(problem, metrics);
+        }
+        long start = System.nanoTime();
+
+        long[][] orderKeys = new long[n][];
+        for (int i = 0; i < n; i++) orderKeys[i] = orderKey(orders.get(i));
+        Integer[] sorted = new Integer[n]; // canonical position -> caller index
+        for (int i = 0; i < n; i++) sorted[i] = i;
+        Arrays.sort(sorted, (a, b) -> Arrays.compare(orderKeys[a], orderKeys[b]));
+
+        long[] values = new long[3 + n * ORDER_FIELDS];
+        values[0] = quantise(problem.getStart().getLatitude());
+        values[1] = quantise(problem.getStart().getLongitude());
+        values[2] = problem.hasCapacityLimit() ? problem.getCapacity() : 0;
+        for (int c = 0; c < n; c++) {
+            System.arraycopy(orderKeys[sorted[c]], 0, values, 3 + c * ORDER_FIELDS, ORDER_FIELDS);
+        }
+        Key cacheKey = new Key(values);
+
+        Entry cached = lookup(cacheKey);
+        if (cached != null) {
+            hits.increment();
+            metrics.recordSolver(getClass().getSimpleName());
+            List<Integer> nodeOrder = new ArrayList<>(cached.nodes.length);
+            for (int node : cached.nodes) {
+                nodeOrder.add(node < n ? sorted[node] : sorted[node - n] + n);
+            }
+            List<RouteStep> steps = RouteAssembler.steps(orders, problem.getMatrix(), nodeOrder, 0.0);
+            RouteResult result = new RouteResult(steps, steps.get(steps.size() - 1).getEta(), cached.mode);
+            result.setLateness(RouteAssembler.lateness(orders, nodeOrder, steps));
+            result.setOptimal(cached.exact != null && Arrays.equals(cached.exact, exact(problem, sorted)));
+            metrics.addReconstructionNanos(System.nanoTime() - start);
+            return result;
+        }
+
+        misses.increment();
+        RouteResult result = delegate.solve(problem, metrics);
+        int[] canonical = canonicalNodes(orders, sorted, result);
+        if (canonical != null) {
+            double[] exact = result.isOptimal() ? exact(problem, sorted) : null;
+            synchronized (entries) {
+                entries.put(cacheKey, new Entry(canonical, exact, result.getMode(), clock.getAsLong()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long estimatedBytes(int orderCount) {
+        return delegate.estimatedBytes(orderCount);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Entries dropped because the cache was full (expired entries are not counted). */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private Entry lookup(Key key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) return null;
+            if (clock.getAsLong() - entry.createdNanos >= ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    /** Visit order of {@code result} over canonical positions; null if order ids are not unique. */
+    private static int[] canonicalNodes(List<Order> orders, Integer[] sorted, RouteResult result) {
+        int n = orders.size();
+        Map<String, Integer> canonicalIndex = new HashMap<>();
+        for (int c = 0; c < n; c++) {
+            if (canonicalIndex.put(orders.get(sorted[c]).getOrderId(), c) != null) return null;
+        }
+        int[] nodes = new int[result.getSequence().size()];
+        for (int k = 0; k < nodes.length; k++) {
+            RouteStep step = result.getSequence().get(k);
+            int c = canonicalIndex.get(step.getOrderId());
+            nodes[k] = step.getAction().equals("Pickup") ? c : c + n;
+        }
+        return nodes;
+    }
+
+    private static long[] orderKey(Order order) {
+        return new long[]{
+                quantise(order.getRestaurantLocation().getLatitude()),
+                quantise(order.getRestaurantLocation().getLongitude()),
+                quantise(order.getConsumerLocation().getLatitude()),
+                quantise(order.getConsumerLocation().getLongitude()),
+                Math.round(order.getEffectivePrepTime() * PREP_SCALE),
+                order.hasDeadline() ? Math.round(order.getDeliveryDeadline() * PREP_SCALE) : NO_DEADLINE_KEY};
+    }
+
+    /** The inputs the key quantises, at full precision and in canonical order. */
+    private static double[] exact(RouteProblem problem, Integer[] sorted) {
+        double[] exact = new double[2 + sorted.length * ORDER_FIELDS];
+        exact[0] = problem.getStart().getLatitude();
+        exact[1] = problem.getStart().getLongitude();
+        int k = 2;
+        for (int i : sorted) {
+            Order order = problem.getOrders().get(i);
+            exact[k++] = order.getRestaurantLocation().getLatitude();
+            exact[k++] = order.getRestaurantLocation().getLongitude();
+            exact[k++] = order.getConsumerLocation().getLatitude();
+            exact[k++] = order.getConsumerLocation().getLongitude();
+            exact[k++] = order.getEffectivePrepTime();
+            exact[k++] = order.getDeliveryDeadline();
+        }
+        return exact;
+    }
+
+    private static long quantise(double degrees) {
+        return Math.round(degrees * COORDINATE_SCALE);
+    }
+
+    /** Quantised inputs in canonical order. */
+    private static final class Key {
+        final long[] values;
+        final int hash;
+
+        Key(long[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && hash == ((Key) o).hash && Arrays.equals(values, ((Key) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        final int[] nodes;
+        final double[] exact; // null unless the cached route is optimal
+        final PlanningMode mode;
+        final long createdNanos;
+
+        Entry(int[] nodes, double[] exact, PlanningMode mode, long createdNanos) {
+            this.nodes = nodes;
+            this.exact = exact;
+            this.mode = mode;
+            this.createdNanos = createdNanos;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.service;
+
+/**
+ * Lets a caller stop an {@link AnytimeRouteSolver} solve early, e.g. when the dispatch decision it was
+ * for has been made elsewhere. Cancelling is one-way and visible to the solving thread at its next check.
+ */
+public final class CancellationToken {
+
+    /** A token that is never cancelled. */
+    public static final CancellationToken NONE = new CancellationToken(false);
+
+    private final boolean cancellable;
+    private volatile boolean cancelled;
+
+    public CancellationToken() {
+        this(true);
+    }
+
+    private CancellationToken(boolean cancellable) {
+        this.cancellable = cancellable;
+    }
+
+    public void cancel() {
+        if (!cancellable) {
+            throw new UnsupportedOperationException("CancellationToken.NONE cannot be cancelled");
+        }
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,199 @@
+package org.example.service;
+
+import org.example.algo.TravelTimeMatrix;
+import org.example.dto.PlanningMode;
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Location;
+import org.example.entity.Order;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded-memory fallback for batches whose DP would not fit a memory budget.
+ * <ol>
+ *   <li>The cluster size k is the largest order count whose solve (see {@link RouteService#footprint})
+ *       fits the budget next to the full travel-time matrix.</li>
+ *   <li>Clusters are built greedily: the earliest-ready remaining order plus its k-1 nearest remaining
+ *       orders (restaurant-to-restaurant plus customer-to-customer time).</li>
+ *   <li>Each cluster is solved by the delegate from where the previous one ended, with prep times shifted
+ *       by the time already spent, and the routes are concatenated.</li>
+ *   <li>The stitched route is polished with the {@link HeuristicRouteSolver} moves, which can move stops
+ *       across cluster borders.</li>
+ * </ol>
+ * Batches that fit are passed to the delegate unchanged. A clustered result is not optimal in general
+ * and is marked {@link PlanningMode#CLUSTERED}.
+ */
+public class ClusteredRouteSolver implements RouteSolver {
+
+    public static final Duration DEFAULT_POLISH_BUDGET = Duration.ofMillis(10);
+
+    private final RouteSolver delegate;
+    private final long memoryBudgetBytes;
+    private final long polishBudgetNanos;
+
+    public ClusteredRouteSolver(RouteSolver delegate, long memoryBudgetBytes) {
+        this(delegate, memoryBudgetBytes, DEFAULT_POLISH_BUDGET);
+    }
+
+    public ClusteredRouteSolver(RouteSolver delegate, long memoryBudgetBytes, Duration polishBudget) {
+        this.delegate = delegate;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.polishBudgetNanos = polishBudget.toNanos();
+    }
+
+    /** Largest number of orders solved at once for a batch of {@code orderCount}; 0 if nothing fits. */
+    public int clusterSize(int orderCount) {
+        long matrixBytes = RouteService.matrixBytes(orderCount);
+        int k = 0;
+        while (k < orderCount && matrixBytes + RouteService.footprint(delegate, k + 1) <= memoryBudgetBytes) {
+            k++;
+        }
+        return k;
+    }
+
+    @Override
+    public RouteResult solve(RouteProblem problem) {
+        return solve(problem, new SolveMetrics(problem.orderCount()));
+    }
+
+    @Override
+    public RouteResult solve(RouteProblem problem, SolveMetrics metrics) {
+        int n = problem.orderCount();
+        int k = clusterSize(n);
+        if (k >= n) {
+            return delegate.solve(problem, metrics);
+        }
+        if (k == 0) {
+            throw new BatchTooLargeException(n, RouteService.footprint(delegate, n), memoryBudgetBytes);
+        }
+        long searchStart = System.nanoTime();
+        List<Order> orders = problem.getOrders();
+        TravelTimeMatrix tt = problem.getMatrix();
+        double[] prep = problem.prepTimes();
+
+        Map<String, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (indexById.put(orders.get(i).getOrderId(), i) != null) {
+                throw new IllegalArgumentException("Duplicate order id " + orders.get(i).getOrderId());
+            }
+        }
+
+        boolean[] done = new boolean[n];
+        int[] route = new int[2 * n];
+        int len = 0;
+        int from = tt.startNode();
+        double t = 0.0;
+        long peakTableBytes = 0;
+        for (int remaining = n; remaining > 0; ) {
+            int[] members = nextCluster(tt, prep, done, Math.min(k, remaining));
+            SolveMetrics clusterMetrics = new SolveMetrics(members.length);
+            RouteResult part = delegate.solve(subProblem(problem, members, from, t), clusterMetrics);
+            for (RouteStep step : part.getSequence()) {
+                int order = indexById.get(step.getOrderId());
+                route[len++] = "Pickup".equals(step.getAction()) ? order : order + n;
+            }
+            from = route[len - 1];
+            t += part.getTotalTime();
+            remaining -= members.length;
+            metrics.addStates(clusterMetrics.getStatesExpanded(), clusterMetrics.getStatesPruned());
+            peakTableBytes = Math.max(peakTableBytes, clusterMetrics.getTableBytes());
+        }
+
+        double[] ready = new double[tt.size()]; // customers and start are always ready
+        System.arraycopy(prep, 0, ready, 0, n);
+        RouteSchedule schedule = new RouteSchedule(tt, ready, 0.0, problem.getCapacity());
+        schedule.setRoute(route, len);
+        HeuristicRouteSolver.improve(schedule, System.nanoTime() + polishBudgetNanos);
+        long reconstructionStart = System.nanoTime();
+
+        List<Integer> nodeOrder = new ArrayList<>(len);
+        for (int node : schedule.toArray()) nodeOrder.add(node);
+        List<RouteStep> steps = RouteAssembler.steps(orders, tt, nodeOrder, 0.0);
+        RouteResult result = new RouteResult(steps, schedule.finalTime(), PlanningMode.CLUSTERED);
+        result.setLateness(RouteAssembler.lateness(orders, nodeOrder, steps));
+
+        metrics.recordSolver(getClass().getSimpleName());
+        metrics.addTableBytes(peakTableBytes);
+        metrics.addSearchNanos(reconstructionStart - searchStart);
+        metrics.addReconstructionNanos(System.nanoTime() - reconstructionStart);
+        return result;
+    }
+
+    /** Marks and returns the earliest-ready remaining order and its {@code size - 1} nearest remaining orders. */
+    private static int[] nextCluster(TravelTimeMatrix tt, double[] prep, boolean[] done, int size) {
+        int n = prep.length;
+        int seed = -1;
+        for (int i = 0; i < n; i++) {
+            if (!done[i] && (seed < 0 || prep[i] < prep[seed])) seed = i;
+        }
+        int[] members = new int[size];
+        double[] dist = new double[size];
+        members[0] = seed;
+        done[seed] = true;
+        int found = 1;
+        for (int i = 0; i < n && size > 1; i++) {
+            if (done[i]) continue;
+            double d = tt.get(seed, i) + tt.get(seed + n, i + n);
+            if (found == size && d >= dist[found - 1]) continue;
+            int at = found < size ? found++ : found - 1;
+            while (at > 1 && dist[at - 1] > d) {
+                dist[at] = dist[at - 1];
+                members[at] = members[at - 1];
+                at--;
+            }
+            dist[at] = d;
+            members[at] = i;
+        }
+        for (int q = 1; q < size; q++) done[members[q]] = true;
+        return members;
+    }
+
+    /**
+     * The cluster as a standalone problem starting at global node {@code from} at time {@code t}:
+     * prep times and deadlines become relative to {@code t}, travel times are copied from the full matrix.
+     */
+    private static RouteProblem subProblem(RouteProblem problem, int[] members, int from, double t) {
+        List<Order> orders = problem.getOrders();
+        int n = orders.size();
+        int c = members.length;
+        int[] global = new int[2 * c + 1];
+        List<Order> shifted = new ArrayList<>(c);
+        for (int j = 0; j < c; j++) {
+            Order o = orders.get(members[j]);
+            global[j] = members[j];
+            global[j + c] = members[j] + n;
+            shifted.add(new Order(o.getOrderId(), o.getConsumerLocation(), o.getRestaurantLocation(),
+                    Math.max(0.0, o.getEffectivePrepTime() - t), 0.0, o.getDeliveryDeadline() - t));
+        }
+        global[2 * c] = from;
+
+        TravelTimeMatrix tt = problem.getMatrix();
+        double[] times = new double[global.length * global.length];
+        for (int a = 0; a < global.length; a++) {
+            for (int b = 0; b < global.length; b++) {
+                if (a != b) times[a * global.length + b] = tt.get(global[a], global[b]);
+            }
+        }
+        return new RouteProblem(location(problem, from), shifted, new TravelTimeMatrix(global.length, times),
+                problem.getCapacity());
+    }
+
+    private static Location location(RouteProblem problem, int node) {
+        int n = problem.orderCount();
+        if (node == 2 * n) return problem.getStart();
+        return node < n ? problem.getOrders().get(node).getRestaurantLocation()
+                : problem.getOrders().get(node - n).getConsumerLocation();
+    }
+
+    @Override
+    public long estimatedBytes(int orderCount) {
+        int k = clusterSize(orderCount);
+        if (k == 0) return Long.MAX_VALUE;
+        return delegate.estimatedBytes(Math.min(orderCount, k));
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.service;
+
+import org.example.algo.TravelTimeMatrix;
+import org.example.dto.RouteResult;
+
+/**
+ * Delivery deadlines for the exact DPs, each extended by an allowed lateness.
+ * <p>
+ * A DP cell (rider at {@code pos} at time {@code t}) is dropped as soon as one undelivered order with a
+ * deadline can no longer make it:
+ * <ul>
+ *   <li>picked up: {@code t + leg(pos → customer) > due}</li>
+ *   <li>not picked up: {@code max(t + leg(pos → restaurant), prep) + leg(restaurant → customer) > due}</li>
+ * </ul>
+ * Both are lower bounds on the delivery time under the triangle inequality (as in {@link BoundPruner}).
+ * A single transition is rejected with one comparison against {@link #latestArrival}. Arriving earlier
+ * at the same cell never hurts, so the DP's earliest-time-per-cell rule stays exact: the DP returns the
+ * fastest route among those meeting every (extended) deadline, or nothing when there is none.
+ * <p>
+ * {@link #minimiseLateness} turns "nothing" into the route with the least maximum lateness.
+ */
+final class Deadlines {
+    static final double EPS = 1e-9;
+    /** Precision (minutes) of the lateness reported when no route meets every deadline. */
+    static final double LATENESS_TOLERANCE = 0.01;
+    /** Most bisection steps of the lateness search; 20 halve a 10,000-minute range below the tolerance. */
+    static final int MAX_BISECTIONS = 20;
+
+    /** One DP run; returns null when no route meets {@code deadlines} (null = no deadlines). */
+    interface Attempt {
+        RouteResult solve(Deadlines deadlines, SolveMetrics metrics);
+    }
+
+    private final TravelTimeMatrix tt;
+    private final double[] prep;
+    private final double allowedLateness;
+    private final int n;
+    private final int[] constrained; // orders that have a deadline
+    private final double[] due;      // per order: deadline + allowed lateness + EPS
+    private final double[] latest;   // per node: latest arrival that can still meet the deadline
+
+    private Deadlines(RouteProblem problem, double allowedLateness) {
+        this.tt = problem.getMatrix();
+        this.prep = problem.prepTimes();
+        this.allowedLateness = allowedLateness;
+        this.n = problem.orderCount();
+        double[] deadlines = problem.deadlines();
+
+        int count = 0;
+        for (double d : deadlines) {
+            if (d != Double.POSITIVE_INFINITY) count++;
+        }
+        this.constrained = new int[count];
+        this.due = new double[n];
+        this.latest = new double[2 * n];
+        count = 0;
+        for (int j = 0; j < n; j++) {
+            due[j] = deadlines[j] + allowedLateness + EPS;
+            if (deadlines[j] != Double.POSITIVE_INFINITY) constrained[count++] = j;
+            latest[j] = due[j] - tt.get(j, j + n);
+            latest[j + n] = due[j];
+        }
+    }
+
+    /** Null when no order has a deadline. */
+    static Deadlines forProblem(RouteProblem problem, double allowedLateness) {
+        return problem.hasDeadlines() ? new Deadlines(problem, allowedLateness) : null;
+    }
+
+    /**
+     * Solves with the deadlines as given; when no route meets them, searches the smallest allowed lateness
+     * (to {@link #LATENESS_TOLERANCE}) for which one does and returns the fastest such route. Only the
+     * first attempt records table bytes in {@code metrics}; search work of all attempts is added up, and
+     * every attempt counts as one DP run ({@link SolveMetrics#getDpRuns()}).
+     * <p>
+     * The result is marked {@link RouteResult#isOptimal() optimal} only when it is proven: the deadlines
+     * as given were met (or there were none), or the direct-delivery lower bound on lateness was reached.
+     * A route found by the bisection is within the tolerance of the least lateness but not proven, and
+     * costs up to {@code 2 + }{@link #MAX_BISECTIONS} full DP runs.
+     */
+    static RouteResult minimiseLateness(RouteProblem problem, SolveMetrics metrics, Attempt attempt) {
+        Deadlines strict = forProblem(problem, 0.0);
+        metrics.addDpRuns(1);
+        RouteResult result = attempt.solve(strict, metrics);
+        if (result != null || strict == null) {
+            if (result != null) result.setOptimal(true);
+            return result;
+        }
+        // Every route is at least as late as the worst order delivered straight after its own pickup
+        // (triangle inequality); if that lateness is achievable it is the minimum
+        double infeasible = directLateness(problem);
+        if (infeasible > 0.0) {
+            RouteResult tight = retry(attempt, forProblem(problem, infeasible), metrics);
+            if (tight != null) {
+                tight.setOptimal(true);
+                return tight;
+            }
+        }
+        RouteResult best = retry(attempt, null, metrics); // ignores deadlines, always finds a route
+        double feasible = best.getLateness();
+        for (int step = 0; step < MAX_BISECTIONS && feasible - infeasible > LATENESS_TOLERANCE; step++) {
+            double mid = (infeasible + feasible) / 2;
+            RouteResult candidate = retry(attempt, forProblem(problem, mid), metrics);
+            if (candidate == null) {
+                infeasible = mid;
+            } else {
+                best = candidate;
+                feasible = Math.min(mid, candidate.getLateness());
+            }
+        }
+        return best;
+    }
+
+    /** Largest lateness of any order if the rider went start → restaurant → customer for it alone. */
+    private static double directLateness(RouteProblem problem) {
+        TravelTimeMatrix tt = problem.getMatrix();
+        double[] prep = problem.prepTimes();
+        double[] deadlines = problem.deadlines();
+        int n = prep.length;
+        double lateness = 0.0;
+        for (int j = 0; j < n; j++) {
+            double delivered = Math.max(tt.get(tt.startNode(), j), prep[j]) + tt.get(j, j + n);
+            lateness = Math.max(lateness, delivered - deadlines[j]);
+        }
+        return lateness;
+    }
+
+    private static RouteResult retry(Attempt attempt, Deadlines deadlines, SolveMetrics metrics) {
+        SolveMetrics extra = new SolveMetrics(metrics.getOrderCount());
+        metrics.addDpRuns(1);
+        RouteResult result = attempt.solve(deadlines, extra);
+        metrics.addSearchNanos(extra.getSearchNanos());
+        metrics.addReconstructionNanos(extra.getReconstructionNanos());
+        metrics.addStates(extra.getStatesExpanded(), extra.getStatesPruned());
+        return result;
+    }
+
+    /** True when {@code result} may serve as an upper bound for a DP under these deadlines. */
+    boolean met(RouteResult result) {
+        return result.getLateness() <= allowedLateness + EPS;
+    }
+
+    /** Latest arrival at {@code node} (restaurant or customer) that can still meet its order's deadline. */
+    double latestArrival(int node) {
+        return latest[node];
+    }
+
+    /** Bitmask DP: whether every unvisited order with a deadline can still be delivered in time. */
+    boolean canMeet(int mask, int pos, double t) {
+        for (int j : constrained) {
+            if ((mask & (1 << (j + n))) != 0) continue; // delivered
+            if (!canDeliver(j, (mask & (1 << j)) != 0, pos, t)) return false;
+        }
+        return true;
+    }
+
+    /** Ternary DP ({@code digit[j]}: 0/1/2): same test with the rider at node {@code pos}. */
+    boolean canMeet(int[] digit, int pos, double t) {
+        for (int j : constrained) {
+            if (digit[j] == 2) continue;
+            if (!canDeliver(j, digit[j] == 1, pos, t)) return false;
+        }
+        return true;
+    }
+
+    private boolean canDeliver(int j, boolean pickedUp, int pos, double t) {
+        if (pickedUp) {
+            return t + tt.get(pos, j + n) <= due[j];
+        }
+        return Math.max(t + tt.get(pos, j), prep[j]) + tt.get(j, j + n) <= due[j];
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * Off-heap table: the GC only sees a few buffer objects regardless of the table size.
+ * Memory is released when the buffers become unreachable.
+ * <p>
+ * A direct buffer holds at most 2^31 - 1 bytes, i.e. 2^28 costs, which the bitmask DP exceeds from
+ * 12 orders on. Costs are therefore split into chunks of {@value #CHUNK_BITS_DEFAULT} bits worth of cells,
+ * so any table that {@link DpStorage#HEAP} can index fits here too.
+ */
+class DirectDpTable implements DpTable {
+    /** 2^26 cells = 512 MiB of costs per buffer. */
+    static final int CHUNK_BITS_DEFAULT = 26;
+
+    private final DoubleBuffer[] costs;
+    private final ByteBuffer parents;
+    private final int chunkBits;
+    private final int chunkMask;
+
+    DirectDpTable(int cells) {
+        this(cells, CHUNK_BITS_DEFAULT);
+    }
+
+    DirectDpTable(int cells, int chunkBits) {
+        this.chunkBits = chunkBits;
+        this.chunkMask = (1 << chunkBits) - 1;
+        int chunks = (int) (((long) cells + chunkMask) >>> chunkBits);
+        costs = new DoubleBuffer[chunks];
+        for (int c = 0; c < chunks; c++) {
+            int size = (int) Math.min(1L << chunkBits, (long) cells - ((long) c << chunkBits));
+            costs[c] = ByteBuffer.allocateDirect(size * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+            for (int i = 0; i < size; i++) costs[c].put(i, UNREACHED);
+        }
+        parents = ByteBuffer.allocateDirect(cells);
+    }
+
+    @Override
+    public double cost(int cell) {
+        return costs[cell >>> chunkBits].get(cell & chunkMask);
+    }
+
+    @Override
+    public int parent(int cell) {
+        return parents.get(cell);
+    }
+
+    @Override
+    public void set(int cell, double cost, int parent) {
+        costs[cell >>> chunkBits].put(cell & chunkMask, cost);
+        parents.put(cell, (byte) parent);
+    }
+
+    @Override
+    public long sizeInBytes() {
+        long bytes = parents.capacity();
+        for (DoubleBuffer chunk : costs) bytes += (long) chunk.capacity() * Double.BYTES;
+        return bytes;
+    }
+}
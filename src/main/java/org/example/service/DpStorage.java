@@ -0,0 +1,15 @@
+package org.example.service;
+
+/**
+ * Where the DP cost/parent tables live.
+ */
+public enum DpStorage {
+    /** Contiguous {@code double[]} costs and {@code byte[]} parents on the Java heap. */
+    HEAP,
+    /** Same layout in direct {@link java.nio.ByteBuffer}s, outside the GC-managed heap. */
+    OFF_HEAP;
+
+    DpTable allocate(int cells) {
+        return this == OFF_HEAP ? new DirectDpTable(cells) : new HeapDpTable(cells);
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.service;
+
+/**
+ * Flat DP storage: one cost and one packed parent per cell ({@code state * width + pos}).
+ * The parent is the previous position (or {@link #START}); solvers derive the previous
+ * state from the current state and position, so it is never stored.
+ */
+interface DpTable {
+    /** Parent marker for cells reached directly from the rider's start. */
+    int START = -1;
+    double UNREACHED = Double.MAX_VALUE;
+    /** One double cost and one byte parent. */
+    int BYTES_PER_CELL = Double.BYTES + Byte.BYTES;
+
+    double cost(int cell);
+
+    int parent(int cell);
+
+    void set(int cell, double cost, int parent);
+
+    /** Bytes held by this table. */
+    long sizeInBytes();
+}
@@ -0,0 +1,31 @@
+package org.example.service;
+
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+
+/**
+ * What {@link FleetPlanner} minimises when splitting orders across riders.
+ */
+public enum FleetObjective {
+    /** Time at which the last rider finishes. */
+    MAKESPAN,
+    /** Sum of every order's delivery ETA. */
+    TOTAL_DELIVERY_TIME;
+
+    /** Contribution of one rider's route to the objective. */
+    public double routeCost(RouteResult route) {
+        if (this == MAKESPAN) {
+            return route.getTotalTime();
+        }
+        double sum = 0.0;
+        for (RouteStep step : route.getSequence()) {
+            if (step.getAction().equals("Deliver")) sum += step.getEta();
+        }
+        return sum;
+    }
+
+    /** Combines per-rider costs: max for {@link #MAKESPAN}, sum otherwise. */
+    double combine(double a, double b) {
+        return this == MAKESPAN ? Math.max(a, b) : a + b;
+    }
+}
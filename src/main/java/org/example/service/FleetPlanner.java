@@ -0,0 +1,259 @@
+package org.example.service;
+
+import org.example.algo.DistanceModel;
+import org.example.algo.TravelTimeProvider;
+import org.example.algo.TravelTimeMatrix;
+import org.example.dto.RouteResult;
+import org.example.entity.Location;
+import org.example.entity.Order;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Splits a wave of orders across several riders and routes each rider with a {@link RouteSolver}.
+ * <ol>
+ *   <li>Construction: orders are taken by effective prep time and given to the rider whose re-solved
+ *       route hurts the {@link FleetObjective} least.</li>
+ *   <li>Improvement: the best single-order move to another rider is applied until none helps. Routes
+ *       solved in one round are kept, so a later round re-solves only candidates involving the two riders
+ *       the last move changed.</li>
+ * </ol>
+ * Every candidate is scored by actually re-solving the affected rider's route, and candidates are solved
+ * in parallel on a {@link ForkJoinPool}. Ties go to the lowest rider / order index, so with an exact solver
+ * the plan does not depend on the pool size. The solver is shared across threads and must be stateless
+ * (all built-in ones are).
+ * <p>
+ * The solver minimises each route's completion time whatever the objective, so under
+ * {@link FleetObjective#TOTAL_DELIVERY_TIME} a rider's orders are scored by the sum of delivery ETAs along
+ * its fastest route, not along the route that would minimise that sum.
+ * <p>
+ * Every candidate goes through the same memory admission as {@link RouteService} (see
+ * {@link #withMemoryBudget}). A candidate over the budget under {@link AdmissionPolicy#REJECT} is not an
+ * option: the order goes to another rider, and the plan fails only when no rider can take it. The budget
+ * is per solve; up to the pool's parallelism solves run at once.
+ */
+public class FleetPlanner {
+
+    private static final double EPS = 1e-9;
+    /** Upper limit on improving moves; a round re-solves about (orders + riders) × 2 routes after the first. */
+    private static final int MAX_IMPROVEMENT_ROUNDS = 100;
+
+    private final RouteSolver solver;
+    private final FleetObjective objective;
+    private final ForkJoinPool pool;
+    private final TravelTimeProvider travelTimes;
+    private long memoryBudgetBytes = Runtime.getRuntime().maxMemory();
+    private AdmissionPolicy admissionPolicy = AdmissionPolicy.REJECT;
+
+    public FleetPlanner(RouteSolver solver, FleetObjective objective) {
+        this(solver, objective, ForkJoinPool.commonPool());
+    }
+
+    public FleetPlanner(RouteSolver solver, FleetObjective objective, ForkJoinPool pool) {
+        this(solver, objective, pool, DistanceModel.HAVERSINE);
+    }
+
+    /**
+     * @param travelTimes used for every candidate route's travel-time matrix
+     */
+    public FleetPlanner(RouteSolver solver, FleetObjective objective, ForkJoinPool pool, TravelTimeProvider travelTimes) {
+        this.solver = solver;
+        this.objective = objective;
+        this.pool = pool;
+        this.travelTimes = travelTimes;
+    }
+
+    /**
+     * Limits the estimated working memory of each candidate solve, as {@link RouteService#withMemoryBudget}.
+     * Default: the maximum heap size, REJECT.
+     */
+    public FleetPlanner withMemoryBudget(long bytes, AdmissionPolicy policy) {
+        this.memoryBudgetBytes = bytes;
+        this.admissionPolicy = policy;
+        return this;
+    }
+
+    /**
+     * @param riderStarts one start location per rider
+     * @return one route per rider, in the order of {@code riderStarts} (empty when a rider gets no orders)
+     * @throws BatchTooLargeException if an order cannot be given to any rider within the memory budget
+     */
+    public List<RouteResult> plan(List<Location> riderStarts, List<Order> orders) {
+        if (riderStarts.isEmpty()) {
+            throw new IllegalArgumentException("At least one rider is required");
+        }
+        int riders = riderStarts.size();
+        List<List<Order>> assigned = new ArrayList<>(riders);
+        RouteResult[] routes = new RouteResult[riders];
+        double[] cost = new double[riders];
+        for (int r = 0; r < riders; r++) {
+            assigned.add(new ArrayList<>());
+            routes[r] = solve(riderStarts.get(r), List.of());
+            cost[r] = objective.routeCost(routes[r]);
+        }
+
+        // Construction: earliest-ready orders first, each to the least damaging rider
+        List<Order> byPrep = new ArrayList<>(orders);
+        byPrep.sort(Comparator.comparingDouble(Order::getEffectivePrepTime));
+        for (Order order : byPrep) {
+            RouteResult[] options = inParallel(riders, r -> solve(riderStarts.get(r), with(assigned.get(r), order)));
+            int best = -1;
+            double[] bestScore = null;
+            for (int r = 0; r < riders; r++) {
+                if (options[r] == null) continue; // over the memory budget
+                double[] score = score(cost, r, objective.routeCost(options[r]), -1, 0.0);
+                if (best < 0 || better(score, bestScore)) {
+                    best = r;
+                    bestScore = score;
+                }
+            }
+            if (best < 0) {
+                int smallest = assigned.stream().mapToInt(List::size).min().orElse(0) + 1;
+                throw new BatchTooLargeException(smallest, RouteService.footprint(solver, smallest), memoryBudgetBytes);
+            }
+            assigned.get(best).add(order);
+            routes[best] = options[best];
+            cost[best] = objective.routeCost(options[best]);
+        }
+
+        // Improvement: move one order to another rider while that helps. Per rider, the route without
+        // / with a given order; only entries of riders whose orders change are dropped
+        List<Map<Order, RouteResult>> withoutOrder = new ArrayList<>(riders);
+        List<Map<Order, RouteResult>> withOrder = new ArrayList<>(riders);
+        for (int r = 0; r < riders; r++) {
+            withoutOrder.add(new IdentityHashMap<>());
+            withOrder.add(new IdentityHashMap<>());
+        }
+        for (int round = 0; round < MAX_IMPROVEMENT_ROUNDS && riders > 1; round++) {
+            if (!relocateBest(riderStarts, assigned, routes, cost, withoutOrder, withOrder)) break;
+        }
+        return List.of(routes);
+    }
+
+    /**
+     * Applies the best improving single-order move; false when there is none. Candidate routes missing
+     * from {@code withoutOrder} / {@code withOrder} are solved and added (null when over the memory budget).
+     */
+    private boolean relocateBest(List<Location> riderStarts, List<List<Order>> assigned, RouteResult[] routes,
+                                 double[] cost, List<Map<Order, RouteResult>> withoutOrder,
+                                 List<Map<Order, RouteResult>> withOrder) {
+        int riders = riderStarts.size();
+        List<int[]> sources = new ArrayList<>(); // {rider, order index}
+        for (int r = 0; r < riders; r++) {
+            for (int i = 0; i < assigned.get(r).size(); i++) sources.add(new int[]{r, i});
+        }
+        List<int[]> missing = new ArrayList<>(); // {rider, order index, rider whose route changes}
+        for (int[] src : sources) {
+            Order order = assigned.get(src[0]).get(src[1]);
+            if (!withoutOrder.get(src[0]).containsKey(order)) missing.add(new int[]{src[0], src[1], src[0]});
+            for (int to = 0; to < riders; to++) {
+                if (to != src[0] && !withOrder.get(to).containsKey(order)) missing.add(new int[]{src[0], src[1], to});
+            }
+        }
+        RouteResult[] solved = inParallel(missing.size(), m -> {
+            int[] c = missing.get(m);
+            List<Order> from = assigned.get(c[0]);
+            return c[2] == c[0] ? solve(riderStarts.get(c[0]), without(from, c[1]))
+                    : solve(riderStarts.get(c[2]), with(assigned.get(c[2]), from.get(c[1])));
+        });
+        for (int m = 0; m < solved.length; m++) {
+            int[] c = missing.get(m);
+            Order order = assigned.get(c[0]).get(c[1]);
+            (c[2] == c[0] ? withoutOrder : withOrder).get(c[2]).put(order, solved[m]);
+        }
+
+        double[] current = score(cost, -1, 0.0, -1, 0.0);
+        int[] bestMove = null; // {source index, rider}
+        double[] bestScore = current;
+        for (int s = 0; s < sources.size(); s++) {
+            int[] src = sources.get(s);
+            Order order = assigned.get(src[0]).get(src[1]);
+            RouteResult rest = withoutOrder.get(src[0]).get(order);
+            for (int to = 0; to < riders; to++) {
+                if (to == src[0]) continue;
+                RouteResult moved = withOrder.get(to).get(order);
+                if (moved == null) continue; // over the memory budget
+                double[] score = score(cost, src[0], objective.routeCost(rest), to, objective.routeCost(moved));
+                if (better(score, bestScore)) {
+                    bestMove = new int[]{s, to};
+                    bestScore = score;
+                }
+            }
+        }
+        if (bestMove == null) return false;
+
+        int[] src = sources.get(bestMove[0]);
+        int to = bestMove[1];
+        Order order = assigned.get(src[0]).get(src[1]);
+        routes[src[0]] = withoutOrder.get(src[0]).get(order);
+        routes[to] = withOrder.get(to).get(order);
+        assigned.get(src[0]).remove(src[1]);
+        assigned.get(to).add(order);
+        for (int r : new int[]{src[0], to}) {
+            withoutOrder.get(r).clear();
+            withOrder.get(r).clear();
+            cost[r] = objective.routeCost(routes[r]);
+        }
+        return true;
+    }
+
+    /**
+     * Objective value with up to two riders' costs replaced (index -1 = no replacement), as
+     * {@code {objective, sum of route costs}}; the sum breaks makespan ties.
+     */
+    private double[] score(double[] cost, int a, double costA, int b, double costB) {
+        double primary = 0.0;
+        double total = 0.0;
+        for (int r = 0; r < cost.length; r++) {
+            double c = r == a ? costA : r == b ? costB : cost[r];
+            primary = r == 0 ? c : objective.combine(primary, c);
+            total += c;
+        }
+        return new double[]{primary, total};
+    }
+
+    private static boolean better(double[] score, double[] than) {
+        if (score[0] < than[0] - EPS) return true;
+        return score[0] <= than[0] + EPS && score[1] < than[1] - EPS;
+    }
+
+    /** Null when the batch is over the memory budget and cannot be admitted. */
+    private RouteResult solve(Location start, List<Order> orders) {
+        if (orders.isEmpty()) {
+            return new RouteResult(List.of(), 0.0);
+        }
+        RouteSolver admitted;
+        try {
+            admitted = RouteService.admit(solver, orders.size(), memoryBudgetBytes, admissionPolicy);
+        } catch (BatchTooLargeException e) {
+            return null;
+        }
+        return admitted.solve(new RouteProblem(start, orders, TravelTimeMatrix.forOrders(start, orders, travelTimes)));
+    }
+
+    private RouteResult[] inParallel(int count, IntFunction<RouteResult> task) {
+        return pool.submit(() -> IntStream.range(0, count).parallel()
+                .mapToObj(task)
+                .toArray(RouteResult[]::new)).join();
+    }
+
+    private static List<Order> with(List<Order> orders, Order extra) {
+        List<Order> copy = new ArrayList<>(orders.size() + 1);
+        copy.addAll(orders);
+        copy.add(extra);
+        return copy;
+    }
+
+    private static List<Order> without(List<Order> orders, int index) {
+        List<Order> copy = new ArrayList<>(orders);
+        copy.remove(index);
+        return copy;
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.service;
+
+import java.util.Arrays;
+
+class HeapDpTable implements DpTable {
+    private final double[] costs;
+    private final byte[] parents;
+
+    HeapDpTable(int cells) {
+        costs = new double[cells];
+        parents = new byte[cells];
+        Arrays.fill(costs, UNREACHED);
+    }
+
+    @Override
+    public double cost(int cell) {
+        return costs[cell];
+    }
+
+    @Override
+    public int parent(int cell) {
+        return parents[cell];
+    }
+
+    @Override
+    public void set(int cell, double cost, int parent) {
+        costs[cell] = cost;
+        parents[cell] = (byte) parent;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return (long) costs.length * Double.BYTES + parents.length;
+    }
+}
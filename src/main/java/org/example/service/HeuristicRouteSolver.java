@@ -0,0 +1,219 @@
+package org.example.service;
+
+import org.example.algo.TravelTimeMatrix;
+import org.example.dto.RouteResult;
+import org.example.entity.Order;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Non-exact solver for batches far beyond the DP limit (hundreds of orders).
+ * <ol>
+ *   <li>Construction: orders are taken one by one (by prep time, by distance from the rider, ...) and
+ *       each pickup/delivery pair is put at its cheapest precedence-feasible position (O(1) evaluation
+ *       per position, see {@link RouteSchedule}).</li>
+ *   <li>Improvement until no move helps or the time budget runs out: relocate (re-insert one order),
+ *       or-opt (move a chain of up to 3 stops) and 2-opt (reverse a short segment). Every move is scored
+ *       on the real completion time, so prep-time waits are accounted for.</li>
+ * </ol>
+ * A few insertion orders are tried, each with an equal share of the improvement budget, and the best
+ * result is returned. Insertions and moves that would exceed the problem's bag capacity are skipped.
+ * Deadlines are not enforced, only reported.
+ */
+public class HeuristicRouteSolver implements RouteSolver {
+
+    public static final Duration DEFAULT_IMPROVEMENT_BUDGET = Duration.ofMillis(25);
+
+    /** How far (in positions) or-opt and 2-opt look from a stop. */
+    private static final int WINDOW = 16;
+    private static final int MAX_SEGMENT = 3;
+
+    private final long improvementBudgetNanos;
+
+    public HeuristicRouteSolver() {
+        this(DEFAULT_IMPROVEMENT_BUDGET);
+    }
+
+    public HeuristicRouteSolver(Duration improvementBudget) {
+        this.improvementBudgetNanos = improvementBudget.toNanos();
+    }
+
+    @Override
+    public RouteResult solve(RouteProblem problem) {
+        return solve(problem, System.nanoTime() + improvementBudgetNanos, CancellationToken.NONE);
+    }
+
+    /**
+     * Same as {@link #solve(RouteProblem)}, with the improvement phase ending at {@code deadlineNanos}
+     * (System.nanoTime based) or on cancellation. The first construction always completes, so a route
+     * is returned even when the deadline has already passed.
+     */
+    RouteResult solve(RouteProblem problem, long deadlineNanos, CancellationToken cancellation) {
+        List<Order> orders = problem.getOrders();
+        TravelTimeMatrix tt = problem.getMatrix();
+        int n = orders.size();
+        if (n == 0) {
+            return new RouteResult(List.of(), 0.0);
+        }
+        long startNanos = System.nanoTime();
+        long budgetNanos = Math.max(0L, deadlineNanos - startNanos);
+
+        double[] prep = problem.prepTimes();
+        double[] ready = new double[tt.size()]; // customers and start are always ready
+        System.arraycopy(prep, 0, ready, 0, n);
+        int start = tt.startNode();
+
+        // Several insertion orders, each improved within its share of the budget; keep the best
+        List<Comparator<Integer>> constructions = List.of(
+                Comparator.comparingDouble(i -> prep[i]),
+                Comparator.comparingDouble(i -> tt.get(start, i)),
+                Comparator.comparingDouble(i -> -tt.get(start, i + n)));
+        RouteSchedule best = null;
+        for (int c = 0; c < constructions.size(); c++) {
+            long deadline = startNanos + budgetNanos * (c + 1) / constructions.size();
+            if (best != null && cancellation.isCancelled()) break;
+            if (best != null && 2 * n > RouteSchedule.EXHAUSTIVE_LIMIT && System.nanoTime() >= deadline) {
+                break; // large batch: construction alone used up this share
+            }
+            RouteSchedule schedule = new RouteSchedule(tt, ready, 0.0, problem.getCapacity());
+            int[] insertionOrder = IntStream.range(0, n).boxed()
+                    .sorted(constructions.get(c))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            for (int i : insertionOrder) {
+                int[] at = schedule.bestPairInsertion(i, i + n);
+                schedule.insertPair(i, i + n, at[0], at[1]);
+            }
+            improve(schedule, () -> cancellation.isCancelled() || System.nanoTime() >= deadline);
+            if (best == null || schedule.finalTime() < best.finalTime()) {
+                best = schedule;
+            }
+        }
+        RouteSchedule schedule = best;
+
+        List<Integer> nodeOrder = new ArrayList<>(2 * n);
+        for (int node : schedule.toArray()) nodeOrder.add(node);
+        return RouteAssembler.assemble(orders, tt, nodeOrder, schedule.finalTime());
+    }
+
+    /** Applies improving moves until a local optimum or {@code deadlineNanos} (System.nanoTime based). */
+    static void improve(RouteSchedule s, long deadlineNanos) {
+        improve(s, () -> System.nanoTime() >= deadlineNanos);
+    }
+
+    /** Applies improving moves until a local optimum or until {@code stop} returns true. */
+    static void improve(RouteSchedule s, BooleanSupplier stop) {
+        boolean improved = true;
+        while (improved && !stop.getAsBoolean()) {
+            improved = relocate(s, stop);
+            improved |= orOpt(s, stop);
+            improved |= twoOpt(s, stop);
+        }
+    }
+
+    /** Takes each order (or lone delivery) out and puts it back at its cheapest position. */
+    static boolean relocate(RouteSchedule s, BooleanSupplier stop) {
+        boolean improved = false;
+        for (int node : s.toArray()) {
+            if (stop.getAsBoolean()) break;
+            int partner = s.partner(node);
+            boolean paired = s.indexOf(partner) >= 0;
+            if (paired && !s.isPickup(node)) continue; // handled with its pickup
+
+            double before = s.finalTime();
+            int[] saved = s.toArray();
+            s.remove(node);
+            if (paired) {
+                s.remove(partner);
+                int[] at = s.bestPairInsertion(node, partner);
+                s.insertPair(node, partner, at[0], at[1]);
+            } else {
+                int bestPos = -1;
+                double best = Double.MAX_VALUE;
+                for (int i = -1; i < s.size(); i++) {
+                    if (i >= 0 && s.overloaded(i)) break; // the order would still be in a full bag here
+                    double t = s.nodeInsertionTime(node, i);
+                    if (t < best) {
+                        best = t;
+                        bestPos = i;
+                    }
+                }
+                s.insertNode(node, bestPos);
+            }
+            if (s.finalTime() < before - RouteSchedule.EPS) {
+                improved = true;
+                continue;
+            }
+            s.setRoute(saved, saved.length);
+        }
+        return improved;
+    }
+
+    /** Moves a chain of 1..3 consecutive stops to another position within {@link #WINDOW}. */
+    static boolean orOpt(RouteSchedule s, BooleanSupplier stop) {
+        boolean improved = false;
+        int len = s.size();
+        int[] route = s.toArray();
+        int[] rest = new int[len];
+        int[] cand = new int[len];
+
+        for (int seg = 1; seg <= MAX_SEGMENT && seg < len; seg++) {
+            for (int i = 0; i + seg <= len; i++) {
+                if (stop.getAsBoolean()) return improved;
+                int restLen = len - seg;
+                System.arraycopy(route, 0, rest, 0, i);
+                System.arraycopy(route, i + seg, rest, i, restLen - i);
+
+                int lo = Math.max(0, i - WINDOW);
+                int hi = Math.min(restLen, i + WINDOW);
+                for (int gap = lo; gap <= hi; gap++) {
+                    if (gap == i) continue; // same sequence
+                    System.arraycopy(rest, 0, cand, 0, gap);
+                    System.arraycopy(route, i, cand, gap, seg);
+                    System.arraycopy(rest, gap, cand, gap + seg, restLen - gap);
+
+                    double t = s.evaluate(cand, len);
+                    if (t < s.finalTime() - RouteSchedule.EPS) {
+                        s.setRoute(cand, len);
+                        System.arraycopy(cand, 0, route, 0, len);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    /** Reverses segments of up to {@link #WINDOW} stops when precedence still holds. */
+    static boolean twoOpt(RouteSchedule s, BooleanSupplier stop) {
+        boolean improved = false;
+        int len = s.size();
+        int[] route = s.toArray();
+        int[] cand = new int[len];
+
+        for (int i = 0; i < len - 1; i++) {
+            if (stop.getAsBoolean()) return improved;
+            for (int j = i + 1; j < len && j <= i + WINDOW; j++) {
+                System.arraycopy(route, 0, cand, 0, len);
+                for (int a = i, b = j; a < b; a++, b--) {
+                    int tmp = cand[a];
+                    cand[a] = cand[b];
+                    cand[b] = tmp;
+                }
+                double t = s.evaluate(cand, len);
+                if (t < s.finalTime() - RouteSchedule.EPS) {
+                    s.setRoute(cand, len);
+                    System.arraycopy(cand, 0, route, 0, len);
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.service;
+
+import org.example.algo.TravelTimeMatrix;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Bitmask DP filled one popcount layer at a time on a {@link ForkJoinPool}.
+ * Every transition adds exactly one visited node, so layer k+1 only reads layer k.
+ * <p>
+ * Within a layer each task owns a range of target masks and <em>pulls</em> from predecessors
+ * ({@code mask & ~(1 << nxt)}), so no cell is written by two threads. Predecessor positions are
+ * scanned in ascending order with a strict {@code <}, which is exactly the order in which the
+ * sequential solver pushes into that cell; costs and parents are therefore identical.
+ * <p>
+ * The masks of each layer are enumerated up front ({@link #layers}): only the 3^n valid masks
+ * (every customer with its restaurant) within capacity, grouped by popcount, instead of scanning all
+ * 4^n masks once per layer. At 12 orders that is 0.5M masks in total rather than 24 × 16.7M checks.
+ */
+public class ParallelBitmaskRouteSolver extends BitmaskRouteSolver {
+
+    /** Masks per task; small enough to balance, large enough to amortise scheduling. */
+    private static final int CHUNK = 512;
+
+    private final ForkJoinPool pool;
+
+    public ParallelBitmaskRouteSolver() {
+        this(DpStorage.HEAP, ForkJoinPool.commonPool());
+    }
+
+    public ParallelBitmaskRouteSolver(DpStorage storage, ForkJoinPool pool) {
+        this(storage, false, pool);
+    }
+
+    public ParallelBitmaskRouteSolver(DpStorage storage, boolean pruning, ForkJoinPool pool) {
+        super(storage, pruning);
+        this.pool = pool;
+    }
+
+    @Override
+    void fill(DpTable dp, int n, double[] prep, TravelTimeMatrix tt, BoundPruner pruner, Deadlines deadlines,
+              int capacity, SolveMetrics metrics) {
+        int totalNodes = 2 * n;
+        int[] layerStart = new int[totalNodes + 2];
+        int[] masks = layers(n, capacity, layerStart);
+        metrics.addTableBytes((long) masks.length * Integer.BYTES);
+        LongAdder expanded = new LongAdder();
+        LongAdder pruned = new LongAdder();
+
+        // Layer 1 is the start initialisation; each later layer only depends on the previous one.
+        // Masks over capacity stay unreached, so pulls into the others only see legal predecessors.
+        for (int layer = 2; layer <= totalNodes; layer++) {
+            int from = layerStart[layer];
+            int size = layerStart[layer + 1] - from;
+            int chunks = (size + CHUNK - 1) / CHUNK;
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int start = from + chunk * CHUNK;
+                int end = Math.min(from + size, start + CHUNK);
+                long[] counters = new long[2]; // expanded, pruned
+                for (int i = start; i < end; i++) {
+                    pull(dp, masks[i], n, prep, tt, pruner, deadlines, counters);
+                }
+                expanded.add(counters[0]);
+                pruned.add(counters[1]);
+            })).join();
+        }
+        metrics.addStates(expanded.sum(), pruned.sum());
+    }
+
+    /** The DP table plus the {@link #layers} index of 3^n masks. */
+    @Override
+    public long estimatedBytes(int orderCount) {
+        long table = super.estimatedBytes(orderCount);
+        if (table == Long.MAX_VALUE) return table;
+        long valid = 1;
+        for (int i = 0; i < orderCount; i++) valid *= 3;
+        return table + valid * Integer.BYTES;
+    }
+
+    /**
+     * Valid masks with at most {@code capacity} orders carried, sorted by popcount: layer k is
+     * {@code masks[layerStart[k]] .. masks[layerStart[k + 1] - 1]}. Enumerates each restaurant subset and
+     * the customer subsets within it, so only the 3^n valid masks are visited.
+     *
+     * @param layerStart filled with the layer offsets; length 2n + 2
+     */
+    static int[] layers(int n, int capacity, int[] layerStart) {
+        int restaurantMasks = 1 << n;
+        int[] count = new int[2 * n + 2];
+        for (int r = 0; r < restaurantMasks; r++) {
+            for (int c = r; ; c = (c - 1) & r) {
+                if (Integer.bitCount(r) - Integer.bitCount(c) <= capacity) {
+                    count[Integer.bitCount(r) + Integer.bitCount(c) + 1]++;
+                }
+                if (c == 0) break;
+            }
+        }
+        for (int k = 1; k < count.length; k++) count[k] += count[k - 1];
+        System.arraycopy(count, 0, layerStart, 0, count.length);
+        int[] masks = new int[count[count.length - 1]];
+        for (int r = 0; r < restaurantMasks; r++) {
+            for (int c = r; ; c = (c - 1) & r) {
+                if (Integer.bitCount(r) - Integer.bitCount(c) <= capacity) {
+                    masks[count[Integer.bitCount(r) + Integer.bitCount(c)]++] = r | c << n;
+                }
+                if (c == 0) break;
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * @param counters {expanded, pruned}: reached predecessor cells evaluated, and 1 if pruning left
+     *                 {@code mask} unreached
+     */
+    private static void pull(DpTable dp, int mask, int n, double[] prep, TravelTimeMatrix tt, BoundPruner pruner,
+                             Deadlines deadlines, long[] counters) {
+        int totalNodes = 2 * n;
+        // Pending travel after 'mask' equals the predecessor's minus minEntry(nxt): same test as the sequential push
+        double slack = pruner != null ? pruner.slack(pruner.pendingTravel(mask)) : Double.MAX_VALUE;
+        boolean reached = false;
+        for (int nxt = 0; nxt < totalNodes; nxt++) {
+            if ((mask & (1 << nxt)) == 0) continue;
+            int prevMask = mask & ~(1 << nxt);
+
+            // Removing a restaurant whose customer is still in the mask leaves an invalid predecessor
+            if (nxt < n && (prevMask & (1 << (nxt + n))) != 0) continue;
+            // Same state test the sequential solver applies before expanding the predecessor
+            if (pruner != null && pruner.exceeds(pruner.prepBound(prevMask))) continue;
+
+            int prevRow = prevMask * totalNodes;
+            double best = DpTable.UNREACHED;
+            int bestPos = DpTable.START;
+            for (int pos = 0; pos < totalNodes; pos++) {
+                double curT = dp.cost(prevRow + pos);
+                if (curT == DpTable.UNREACHED) continue;
+                if (deadlines != null && !deadlines.canMeet(prevMask, pos, curT)) continue;
+                counters[0]++;
+
+                double arrival = curT + tt.get(pos, nxt);
+                if (nxt < n) {
+                    arrival = Math.max(arrival, prep[nxt]);
+                }
+                if (arrival > slack) continue;
+                if (deadlines != null && arrival > deadlines.latestArrival(nxt)) continue;
+                if (arrival < best) {
+                    best = arrival;
+                    bestPos = pos;
+                }
+            }
+            if (best < DpTable.UNREACHED) {
+                dp.set(mask * totalNodes + nxt, best, bestPos);
+                reached = true;
+            }
+        }
+        if (pruner != null && !reached) counters[1]++;
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.service;
+
+import org.example.algo.TravelTimeMatrix;
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns a solver's node visit order into {@link RouteStep}s.
+ * Nodes: 0..n-1 = restaurants (R1..Rn), n..2n-1 = customers (C1..Cn).
+ */
+final class RouteAssembler {
+
+    private RouteAssembler() {
+    }
+
+    /**
+     * Simulates the visit order with the same timing rules as the DP (wait for prep at restaurants)
+     * to attach an ETA to every step.
+     */
+    static RouteResult assemble(List<Order> orders, TravelTimeMatrix tt, List<Integer> nodeOrder, double totalTime) {
+        List<RouteStep> steps = steps(orders, tt, nodeOrder, 0.0);
+        RouteResult result = new RouteResult(steps, totalTime);
+        result.setLateness(lateness(orders, nodeOrder, steps));
+        return result;
+    }
+
+    /**
+     * Largest {@code delivery ETA - deadline} over the customers in {@code nodeOrder}, or 0 when every
+     * deadline is met; {@code steps} must be the steps built for {@code nodeOrder}.
+     */
+    static double lateness(List<Order> orders, List<Integer> nodeOrder, List<RouteStep> steps) {
+        int n = orders.size();
+        double lateness = 0.0;
+        for (int k = 0; k < nodeOrder.size(); k++) {
+            int node = nodeOrder.get(k);
+            if (node >= n) {
+                lateness = Math.max(lateness, steps.get(k).getEta() - orders.get(node - n).getDeliveryDeadline());
+            }
+        }
+        return lateness;
+    }
+
+    /**
+     * Steps for a route leaving the matrix start node at {@code startTime}. Orders whose restaurant is
+     * not in {@code nodeOrder} are treated as already picked up.
+     */
+    static List<RouteStep> steps(List<Order> orders, TravelTimeMatrix tt, List<Integer> nodeOrder, double startTime) {
+        return steps(orders, tt, nodeOrder, startTime, null);
+    }
+
+    /**
+     * Same as {@link #steps(List, TravelTimeMatrix, List, double)}, with order i labelled R/C
+     * {@code labels[i] + 1} instead of {@code i + 1} (for routes over a subset of a larger order list).
+     */
+    static List<RouteStep> steps(List<Order> orders, TravelTimeMatrix tt, List<Integer> nodeOrder, double startTime,
+                                 int[] labels) {
+        int n = orders.size();
+        List<RouteStep> steps = new ArrayList<>();
+        int cur = tt.startNode();
+        double t = startTime;
+
+        for (int node : nodeOrder) {
+            boolean isRestaurant = (node < n);
+            int idx = isRestaurant ? node : (node - n);
+            Order order = orders.get(idx);
+            int label = (labels == null ? idx : labels[idx]) + 1;
+
+            double arrival = t + tt.get(cur, node);
+
+            if (isRestaurant) {
+                // wait for prep if early
+                double eta = Math.max(arrival, order.getEffectivePrepTime());
+                steps.add(new RouteStep("Pickup", "Restaurant R" + label, order.getOrderId(), eta,
+                        order.getRestaurantLocation()));
+                t = eta;
+            } else {
+                // must be already picked (guaranteed by the solver)
+                steps.add(new RouteStep("Deliver", "Customer C" + label, order.getOrderId(), arrival,
+                        order.getConsumerLocation()));
+                t = arrival;
+            }
+
+            cur = node;
+        }
+
+        return steps;
+    }
+}
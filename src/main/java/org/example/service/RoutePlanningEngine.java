@@ -0,0 +1,168 @@
+package org.example.service;
+
+import org.example.dto.RouteResult;
+import org.example.entity.Location;
+import org.example.entity.Order;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs many independent single-rider planning requests concurrently.
+ * <ul>
+ *   <li>Backpressure: at most {@code maxInFlight} requests are queued or running; {@link #submit} blocks
+ *       the caller until a slot frees up.</li>
+ *   <li>Memory: each solve first reserves its {@link RouteSolver#estimatedBytes} plus the travel-time
+ *       matrix from a shared budget, so a burst of large DPs waits instead of exhausting the heap.
+ *       A request that could never fit fails immediately.</li>
+ * </ul>
+ * By default requests run on virtual threads when the JVM has them (Java 21+), otherwise on a fixed
+ * pool with one thread per core.
+ */
+public class RoutePlanningEngine implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+    /** Memory permits are counted in KiB so that budgets beyond 2 GiB fit an int semaphore. */
+    private static final int PERMIT_BYTES = 1024;
+
+    private final RouteSolver solver;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Semaphore memory;
+    private final int memoryPermits;
+    private volatile SolveListener listener = SolveListener.NONE;
+
+    /** Ternary DP, default in-flight limit, half of the max heap for DP tables. */
+    public RoutePlanningEngine() {
+        this(new TernaryRouteSolver(), DEFAULT_MAX_IN_FLIGHT, Runtime.getRuntime().maxMemory() / 2);
+    }
+
+    public RoutePlanningEngine(RouteSolver solver, int maxInFlight, long memoryBudgetBytes) {
+        this(solver, maxInFlight, memoryBudgetBytes, defaultExecutor());
+    }
+
+    /**
+     * @param executor runs the solves; shut down by {@link #close()}
+     */
+    public RoutePlanningEngine(RouteSolver solver, int maxInFlight, long memoryBudgetBytes, ExecutorService executor) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.solver = solver;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.memoryPermits = (int) Math.min(Integer.MAX_VALUE, memoryBudgetBytes / PERMIT_BYTES);
+        this.memory = new Semaphore(memoryPermits, true); // fair: a large solve is not starved by small ones
+    }
+
+    /** Reports the metrics of every solve to {@code listener} (e.g. a {@link SolveMetricsRecorder}). */
+    public RoutePlanningEngine withListener(SolveListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Queues one planning request, blocking while {@code maxInFlight} requests are pending.
+     * A batch that could never fit the memory budget fails with {@link BatchTooLargeException}.
+     *
+     * @throws InterruptedException if interrupted while waiting for a slot
+     */
+    public CompletableFuture<RouteResult> submit(Location start, List<Order> orders) throws InterruptedException {
+        return submit(start, orders, RouteProblem.UNLIMITED);
+    }
+
+    /** Same as {@link #submit(Location, List)} for a rider carrying at most {@code capacity} orders at once. */
+    public CompletableFuture<RouteResult> submit(Location start, List<Order> orders, int capacity)
+            throws InterruptedException {
+        CompletableFuture<RouteResult> rejected = rejectIfTooLarge(orders, capacity);
+        if (rejected != null) return rejected;
+        inFlight.acquire();
+        return enqueue(start, orders, capacity);
+    }
+
+    /**
+     * Same as {@link #submit(Location, List, int)} but never blocks, for callers that must not wait
+     * (e.g. HTTP handlers): returns {@code null} when {@code maxInFlight} requests are already pending.
+     */
+    public CompletableFuture<RouteResult> trySubmit(Location start, List<Order> orders, int capacity) {
+        CompletableFuture<RouteResult> rejected = rejectIfTooLarge(orders, capacity);
+        if (rejected != null) return rejected;
+        if (!inFlight.tryAcquire()) return null;
+        return enqueue(start, orders, capacity);
+    }
+
+    /** A failed future if the batch could never fit the memory budget, otherwise null. */
+    private CompletableFuture<RouteResult> rejectIfTooLarge(List<Order> orders, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, got " + capacity);
+        }
+        int permits = permitsFor(orders.size());
+        if (permits != Integer.MAX_VALUE && permits <= memoryPermits) return null;
+        return CompletableFuture.failedFuture(new BatchTooLargeException(orders.size(),
+                permits == Integer.MAX_VALUE ? Long.MAX_VALUE : (long) permits * PERMIT_BYTES,
+                (long) memoryPermits * PERMIT_BYTES));
+    }
+
+    /** Runs the solve on the executor; the caller holds an in-flight slot, released when it completes. */
+    private CompletableFuture<RouteResult> enqueue(Location start, List<Order> orders, int capacity) {
+        int permits = permitsFor(orders.size());
+        try {
+            return CompletableFuture.supplyAsync(() -> solve(start, orders, capacity, permits), executor)
+                    .whenComplete((result, error) -> inFlight.release());
+        } catch (RuntimeException e) { // rejected by a closed executor
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /** Requests queued or running. */
+    public int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    private RouteResult solve(Location start, List<Order> orders, int capacity, int permits) {
+        memory.acquireUninterruptibly(permits);
+        try {
+            return new RouteService(start, orders, solver).withCapacity(capacity).withListener(listener)
+                    .findBestRoute();
+        } finally {
+            memory.release(permits);
+        }
+    }
+
+    /** DP tables plus the (2n+1)² travel-time matrix, in permits. */
+    private int permitsFor(int orderCount) {
+        long bytes = RouteService.footprint(solver, orderCount);
+        if (bytes == Long.MAX_VALUE) return Integer.MAX_VALUE;
+        return (int) Math.min(Integer.MAX_VALUE, (bytes + PERMIT_BYTES - 1) / PERMIT_BYTES);
+    }
+
+    /** Stops accepting work and waits for queued solves to finish. */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting: queued futures must still complete
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Virtual-thread-per-task executor when available (looked up reflectively to keep Java 17 support). */
+    public static ExecutorService defaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+}
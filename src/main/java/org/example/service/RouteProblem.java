@@ -0,0 +1,85 @@
+package org.example.service;
+
+import lombok.Getter;
+import org.example.algo.TravelTimeMatrix;
+import org.example.entity.Location;
+import org.example.entity.Order;
+
+import java.util.List;
+
+/**
+ * Input to a {@link RouteSolver}: rider start, orders and their travel-time matrix.
+ */
+@Getter
+public class RouteProblem {
+    /** Capacity of a rider without a bag limit. */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final Location start;
+    private final List<Order> orders;
+    private final TravelTimeMatrix matrix;
+    /** Most orders picked up but not yet delivered at any time. */
+    private final int capacity;
+
+    public RouteProblem(Location start, List<Order> orders) {
+        this(start, orders, TravelTimeMatrix.forOrders(start, orders));
+    }
+
+    /**
+     * @param matrix must follow the {@link TravelTimeMatrix#forOrders} layout for {@code orders}
+     */
+    public RouteProblem(Location start, List<Order> orders, TravelTimeMatrix matrix) {
+        this(start, orders, matrix, UNLIMITED);
+    }
+
+    /**
+     * @param capacity bags the rider can carry: orders picked up but not yet delivered (at least 1)
+     */
+    public RouteProblem(Location start, List<Order> orders, TravelTimeMatrix matrix, int capacity) {
+        if (matrix.size() != 2 * orders.size() + 1) {
+            throw new IllegalArgumentException("Travel-time matrix has " + matrix.size()
+                    + " nodes, expected " + (2 * orders.size() + 1));
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, got " + capacity);
+        }
+        this.start = start;
+        this.orders = orders;
+        this.matrix = matrix;
+        this.capacity = capacity;
+    }
+
+    public int orderCount() {
+        return orders.size();
+    }
+
+    /** True when the capacity can bind, i.e. is below the order count. */
+    public boolean hasCapacityLimit() {
+        return capacity < orders.size();
+    }
+
+    /** Effective prep time (prep + trust buffer) per order. */
+    public double[] prepTimes() {
+        double[] prep = new double[orders.size()];
+        for (int i = 0; i < prep.length; i++) {
+            prep[i] = orders.get(i).getEffectivePrepTime();
+        }
+        return prep;
+    }
+
+    /** Delivery deadline per order ({@link Order#NO_DEADLINE} when none). */
+    public double[] deadlines() {
+        double[] due = new double[orders.size()];
+        for (int i = 0; i < due.length; i++) {
+            due[i] = orders.get(i).getDeliveryDeadline();
+        }
+        return due;
+    }
+
+    public boolean hasDeadlines() {
+        for (Order order : orders) {
+            if (order.hasDeadline()) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.service;
+
+import org.example.algo.TravelTimeMatrix;
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Location;
+import org.example.entity.Order;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds orders to a route that is already being driven, without re-solving it.
+ * <p>
+ * Steps whose ETA is not after the elapsed time are done and kept as they are. The remaining stops keep
+ * their order, each new pickup/delivery pair is inserted at its cheapest position (see
+ * {@link RouteSchedule#bestPairInsertion}), and the result is repaired with the
+ * {@link HeuristicRouteSolver} moves until the time budget runs out. Orders already picked up only
+ * have their delivery left, which may move freely but stay in the bag until then: with
+ * {@link #withCapacity} no remaining stop carries more than the limit. As with the heuristic solver,
+ * deadlines are not enforced; the result reports the lateness.
+ * <p>
+ * Response time is the budget plus the insertions (linear in the route length per new order) and
+ * the travel-time matrix, which covers only orders with stops left; it does not grow with the DP
+ * state space or with the number of completed orders.
+ */
+public class RouteReplanner {
+
+    public static final Duration DEFAULT_BUDGET = Duration.ofMillis(5);
+
+    private final long budgetNanos;
+    private int capacity = RouteProblem.UNLIMITED;
+
+    public RouteReplanner() {
+        this(DEFAULT_BUDGET);
+    }
+
+    /**
+     * @param budget time allowed for local repair after the new orders are inserted
+     */
+    public RouteReplanner(Duration budget) {
+        this.budgetNanos = budget.toNanos();
+    }
+
+    /**
+     * Limits how many orders the rider carries at once, as {@link RouteService#withCapacity}. Orders
+     * picked up but not yet delivered count towards the limit from the start of the remaining route.
+     */
+    public RouteReplanner withCapacity(int bags) {
+        if (bags < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, got " + bags);
+        }
+        this.capacity = bags;
+        return this;
+    }
+
+    /**
+     * @param orders    orders of {@code current}, looked up by id
+     * @param current   route being driven, with ETAs on the same clock as {@code elapsed}
+     * @param position  rider's current location
+     * @param elapsed   minutes since the route started; steps with an ETA up to this are done
+     * @param newOrders orders to add
+     * @return completed steps followed by the updated remaining route; total time is its completion time
+     * @throws IllegalArgumentException if ids repeat, a step names an unknown order, or the rider already
+     *                                  carries more orders than the capacity
+     */
+    public RouteResult replan(List<Order> orders, RouteResult current, Location position, double elapsed,
+                              List<Order> newOrders) {
+        long deadline = System.nanoTime() + budgetNanos;
+
+        // Every order keeps its index, so labels (R1, C1, ...) stay stable; new orders are appended
+        List<Order> all = new ArrayList<>(orders.size() + newOrders.size());
+        all.addAll(orders);
+        all.addAll(newOrders);
+        int n = all.size();
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (index.put(all.get(i).getOrderId(), i) != null) {
+                throw new IllegalArgumentException("Duplicate order id: " + all.get(i).getOrderId());
+            }
+        }
+
+        // Split the route into completed steps and remaining (order index, isPickup) stops
+        List<RouteStep> done = new ArrayList<>();
+        int[] stopOrder = new int[2 * n];
+        boolean[] stopPickup = new boolean[2 * n];
+        boolean[] active = new boolean[n];
+        int size = 0;
+        for (RouteStep step : current.getSequence()) {
+            Integer i = index.get(step.getOrderId());
+            if (i == null) {
+                throw new IllegalArgumentException("Route step for unknown order: " + step.getOrderId());
+            }
+            if (step.getEta() <= elapsed) {
+                done.add(step);
+            } else {
+                stopOrder[size] = i;
+                stopPickup[size++] = step.getAction().equals("Pickup");
+                active[i] = true;
+            }
+        }
+        for (int i = orders.size(); i < n; i++) active[i] = true;
+
+        // The matrix covers only orders with stops left; label[] maps back to the index in all
+        int[] local = new int[n];
+        int[] label = new int[n];
+        List<Order> remainingOrders = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (active[i]) {
+                local[i] = remainingOrders.size();
+                label[remainingOrders.size()] = i;
+                remainingOrders.add(all.get(i));
+            }
+        }
+        int m = remainingOrders.size();
+        int[] remaining = new int[2 * m];
+        int carried = 0;
+        boolean[] pickupLeft = new boolean[n];
+        for (int k = 0; k < size; k++) {
+            if (stopPickup[k]) pickupLeft[stopOrder[k]] = true;
+        }
+        for (int k = 0; k < size; k++) {
+            int o = local[stopOrder[k]];
+            remaining[k] = stopPickup[k] ? o : o + m;
+            if (!stopPickup[k] && !pickupLeft[stopOrder[k]]) carried++;
+        }
+        if (carried > capacity) {
+            throw new IllegalArgumentException(
+                    "Rider already carries " + carried + " orders, over the capacity of " + capacity);
+        }
+
+        TravelTimeMatrix tt = TravelTimeMatrix.forOrders(position, remainingOrders);
+        double[] ready = new double[tt.size()]; // customers and start are always ready
+        for (int i = 0; i < m; i++) ready[i] = remainingOrders.get(i).getEffectivePrepTime();
+
+        RouteSchedule schedule = new RouteSchedule(tt, ready, elapsed, capacity, carried);
+        schedule.setRoute(remaining, size);
+        for (int i = orders.size(); i < n; i++) {
+            int o = local[i];
+            int[] at = schedule.bestPairInsertion(o, o + m);
+            schedule.insertPair(o, o + m, at[0], at[1]);
+        }
+        HeuristicRouteSolver.improve(schedule, deadline);
+
+        List<Integer> nodeOrder = new ArrayList<>(schedule.size());
+        for (int node : schedule.toArray()) nodeOrder.add(node);
+        List<RouteStep> planned = RouteAssembler.steps(remainingOrders, tt, nodeOrder, elapsed, label);
+        List<RouteStep> steps = new ArrayList<>(done);
+        steps.addAll(planned);
+        double total = schedule.size() > 0 ? schedule.finalTime()
+                : done.isEmpty() ? 0.0 : done.get(done.size() - 1).getEta();
+        RouteResult result = new RouteResult(steps, total);
+        double lateness = RouteAssembler.lateness(remainingOrders, nodeOrder, planned);
+        for (RouteStep step : done) {
+            if (step.getAction().equals("Deliver")) {
+                Order order = all.get(index.get(step.getOrderId()));
+                lateness = Math.max(lateness, step.getEta() - order.getDeliveryDeadline());
+            }
+        }
+        result.setLateness(lateness);
+        return result;
+    }
+}
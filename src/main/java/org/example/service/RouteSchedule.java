@@ -0,0 +1,332 @@
+package org.example.service;
+
+import org.example.algo.TravelTimeMatrix;
+
+import java.util.Arrays;
+
+/**
+ * Mutable visit sequence with cached service times, used by the insertion/local-search solvers.
+ * Nodes follow the {@link TravelTimeMatrix#forOrders} layout: node {@code i < n} is restaurant i and its
+ * partner is customer {@code i + n}. A customer whose restaurant is not in the route (already picked up)
+ * is unconstrained.
+ * <p>
+ * Service time at a node is {@code max(arrival, ready[node])}. Because a delay of δ entering a node is
+ * reduced by the wait there, a delay entering position k changes the completion time by
+ * {@code max(0, δ - waitSuffix[k])}; this makes pair insertion cost O(1) per candidate.
+ * <p>
+ * With a bag capacity, the rider starts with {@code initialLoad} orders (those whose delivery is the
+ * only stop left; 0 for a fresh route) and no insertion or evaluated sequence may carry more orders at
+ * once; {@code fullFrom[k]} (first position ≥ k that is already full) keeps the pair insertion check O(1).
+ */
+final class RouteSchedule {
+    static final double EPS = 1e-9;
+    /** Route length up to which pair insertion tries every (pickup, delivery) position. */
+    static final int EXHAUSTIVE_LIMIT = 64;
+    /** Nearest stops whose neighbouring gaps are tried on longer routes. */
+    static final int NEIGHBOURS = 12;
+
+    private final TravelTimeMatrix tt;
+    private final double[] ready;
+    private final int startNode;
+    private final double startTime;
+    private final int orderCount;
+    private final int capacity;
+    private final int initialLoad;
+
+    private final int[] route;
+    private final double[] time;       // service time at route[k]
+    private final double[] arrival;    // raw arrival at route[k] before waiting
+    private final double[] waitSuffix; // total wait at positions k..size-1
+    private final int[] load;          // orders carried after route[k] (capacity limit only)
+    private final int[] fullFrom;      // first position >= k whose load is at capacity, size if none
+    private int size;
+    private final int[] member;  // scratch for precedence checks: node is in the evaluated sequence
+    private final int[] seen;    // scratch for precedence checks: node already visited
+    private int stampGen;
+
+    RouteSchedule(TravelTimeMatrix tt, double[] ready, double startTime) {
+        this(tt, ready, startTime, RouteProblem.UNLIMITED);
+    }
+
+    RouteSchedule(TravelTimeMatrix tt, double[] ready, double startTime, int capacity) {
+        this(tt, ready, startTime, capacity, 0);
+    }
+
+    /**
+     * @param capacity    most orders carried at once ({@link RouteProblem#UNLIMITED} for no limit)
+     * @param initialLoad orders already in the bag at the start, at most {@code capacity}; each must have
+     *                    its delivery, but not its pickup, in the route
+     */
+    RouteSchedule(TravelTimeMatrix tt, double[] ready, double startTime, int capacity, int initialLoad) {
+        this.tt = tt;
+        this.ready = ready;
+        this.startNode = tt.startNode();
+        this.startTime = startTime;
+        this.orderCount = (tt.size() - 1) / 2;
+        this.capacity = capacity;
+        this.initialLoad = initialLoad;
+        this.route = new int[tt.size()];
+        this.time = new double[tt.size()];
+        this.arrival = new double[tt.size()];
+        this.waitSuffix = new double[tt.size() + 1];
+        this.load = limited() ? new int[tt.size()] : null;
+        this.fullFrom = limited() ? new int[tt.size() + 1] : null;
+        this.member = new int[tt.size()];
+        this.seen = new int[tt.size()];
+        recompute();
+    }
+
+    int size() {
+        return size;
+    }
+
+    int node(int pos) {
+        return route[pos];
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(route, size);
+    }
+
+    double finalTime() {
+        return size == 0 ? startTime : time[size - 1];
+    }
+
+    int partner(int node) {
+        return node < orderCount ? node + orderCount : node - orderCount;
+    }
+
+    boolean isPickup(int node) {
+        return node < orderCount;
+    }
+
+    int indexOf(int node) {
+        for (int k = 0; k < size; k++) {
+            if (route[k] == node) return k;
+        }
+        return -1;
+    }
+
+    void setRoute(int[] nodes, int len) {
+        System.arraycopy(nodes, 0, route, 0, len);
+        size = len;
+        recompute();
+    }
+
+    /** Inserts {@code p} after position {@code i} and {@code d} after position {@code j} (-1 = after start, j ≥ i). */
+    void insertPair(int p, int d, int i, int j) {
+        System.arraycopy(route, j + 1, route, j + 3, size - j - 1);
+        route[j + 2] = d;
+        System.arraycopy(route, i + 1, route, i + 2, j - i);
+        route[i + 1] = p;
+        size += 2;
+        recompute();
+    }
+
+    /** Inserts a single node (e.g. a delivery whose pickup is already done) after position {@code i}. */
+    void insertNode(int node, int i) {
+        System.arraycopy(route, i + 1, route, i + 2, size - i - 1);
+        route[i + 1] = node;
+        size++;
+        recompute();
+    }
+
+    void remove(int node) {
+        int k = indexOf(node);
+        System.arraycopy(route, k + 1, route, k, size - k - 1);
+        size--;
+        recompute();
+    }
+
+    private void recompute() {
+        int prev = startNode;
+        double t = startTime;
+        for (int k = 0; k < size; k++) {
+            int node = route[k];
+            arrival[k] = t + tt.get(prev, node);
+            t = Math.max(arrival[k], ready[node]);
+            time[k] = t;
+            prev = node;
+        }
+        waitSuffix[size] = 0.0;
+        for (int k = size - 1; k >= 0; k--) {
+            waitSuffix[k] = waitSuffix[k + 1] + (time[k] - arrival[k]);
+        }
+        if (limited()) {
+            int carried = initialLoad;
+            for (int k = 0; k < size; k++) {
+                carried += isPickup(route[k]) ? 1 : -1;
+                load[k] = carried;
+            }
+            fullFrom[size] = size;
+            for (int k = size - 1; k >= 0; k--) {
+                fullFrom[k] = load[k] >= capacity ? k : fullFrom[k + 1];
+            }
+        }
+    }
+
+    private boolean limited() {
+        return capacity != RouteProblem.UNLIMITED;
+    }
+
+    /** Whether a pair inserted after positions i and j (j ≥ i) stays within the capacity. */
+    private boolean fits(int i, int j) {
+        if (!limited()) return true;
+        if (i < 0 && initialLoad >= capacity) return false; // picked up right away, bag already full
+        if (j < 0) return true; // i = j = -1: carried alone on top of the initial load
+        return fullFrom[Math.max(i, 0)] > j;
+    }
+
+    /**
+     * Whether more orders than the capacity are carried after position {@code pos}. While a lone delivery
+     * is out of the route its order still counts as carried, so it may only go back where this is false.
+     */
+    boolean overloaded(int pos) {
+        return limited() && load[pos] > capacity;
+    }
+
+    private double timeAt(int pos) {
+        return pos < 0 ? startTime : time[pos];
+    }
+
+    private int nodeAt(int pos) {
+        return pos < 0 ? startNode : route[pos];
+    }
+
+    /** Completion time if we leave {@code node} at {@code t} and then continue with positions k..size-1. */
+    private double continueFrom(int node, double t, int k) {
+        if (k == size) return t;
+        double delay = t + tt.get(node, route[k]) - arrival[k];
+        return time[size - 1] + Math.max(0.0, delay - waitSuffix[k]);
+    }
+
+    /** Completion time after inserting {@code p} after position i and {@code d} after position j (j ≥ i). */
+    double pairInsertionTime(int p, int d, int i, int j) {
+        double tp = Math.max(timeAt(i) + tt.get(nodeAt(i), p), ready[p]);
+        if (j == i) {
+            double td = Math.max(tp + tt.get(p, d), ready[d]);
+            return continueFrom(d, td, i + 1);
+        }
+        double delay = tp + tt.get(p, route[i + 1]) - arrival[i + 1];
+        double delayAtJ = Math.max(0.0, delay - (waitSuffix[i + 1] - waitSuffix[j + 1]));
+        double td = Math.max(time[j] + delayAtJ + tt.get(route[j], d), ready[d]);
+        return continueFrom(d, td, j + 1);
+    }
+
+    /** Completion time after inserting a single node after position i. */
+    double nodeInsertionTime(int node, int i) {
+        double t = Math.max(timeAt(i) + tt.get(nodeAt(i), node), ready[node]);
+        return continueFrom(node, t, i + 1);
+    }
+
+    /** Extra travel (ignoring waits) of putting {@code node} between positions i and i+1. */
+    private double detour(int node, int i) {
+        int a = nodeAt(i);
+        if (i + 1 == size) return tt.get(a, node);
+        int b = route[i + 1];
+        return tt.get(a, node) + tt.get(node, b) - tt.get(a, b);
+    }
+
+    /**
+     * Best (i, j) for inserting the pair; ties on completion time are broken by the smaller detour.
+     * Short routes try every position. Longer ones only try the gaps next to the
+     * {@link #NEIGHBOURS} nearest stops of each node (plus both ends), which keeps construction of
+     * routes with hundreds of stops fast. Returns {@code {i, j}}.
+     */
+    int[] bestPairInsertion(int p, int d) {
+        int[] pickupGaps = size <= EXHAUSTIVE_LIMIT ? allGaps() : candidateGaps(p);
+        int[] deliveryGaps = size <= EXHAUSTIVE_LIMIT ? pickupGaps : candidateGaps(d);
+
+        double bestTime = Double.MAX_VALUE;
+        double bestDetour = Double.MAX_VALUE;
+        int bestI = -1, bestJ = -1;
+        for (int i : pickupGaps) {
+            double detourP = detour(p, i);
+            // delivery right after the pickup
+            if (!fits(i, i)) continue; // full after position i: no later j fits either
+            double t = pairInsertionTime(p, d, i, i);
+            double extra = tt.get(nodeAt(i), p) + tt.get(p, d)
+                    + (i + 1 < size ? tt.get(d, route[i + 1]) - tt.get(nodeAt(i), route[i + 1]) : 0.0);
+            if (t < bestTime - EPS || (t <= bestTime + EPS && extra < bestDetour)) {
+                bestTime = t;
+                bestDetour = extra;
+                bestI = i;
+                bestJ = i;
+            }
+            for (int j : deliveryGaps) {
+                if (j <= i) continue;
+                if (!fits(i, j)) break; // gaps ascend, so every later j is blocked too
+                t = pairInsertionTime(p, d, i, j);
+                if (t > bestTime + EPS) continue;
+                extra = detourP + detour(d, j);
+                if (t < bestTime - EPS || extra < bestDetour) {
+                    bestTime = t;
+                    bestDetour = extra;
+                    bestI = i;
+                    bestJ = j;
+                }
+            }
+        }
+        return new int[]{bestI, bestJ};
+    }
+
+    private int[] allGaps() {
+        int[] gaps = new int[size + 1];
+        for (int k = 0; k <= size; k++) gaps[k] = k - 1;
+        return gaps;
+    }
+
+    /** Gaps before/after the nearest stops to {@code node}, plus after the start and at the end; ascending. */
+    private int[] candidateGaps(int node) {
+        int[] nearest = new int[NEIGHBOURS];
+        double[] dist = new double[NEIGHBOURS];
+        int found = 0;
+        for (int k = 0; k < size; k++) {
+            double dk = Math.min(tt.get(node, route[k]), tt.get(route[k], node));
+            if (found == NEIGHBOURS && dk >= dist[found - 1]) continue;
+            int at = found < NEIGHBOURS ? found++ : found - 1;
+            while (at > 0 && dist[at - 1] > dk) {
+                dist[at] = dist[at - 1];
+                nearest[at] = nearest[at - 1];
+                at--;
+            }
+            dist[at] = dk;
+            nearest[at] = k;
+        }
+        int[] gaps = new int[2 * found + 2];
+        int g = 0;
+        gaps[g++] = -1;
+        gaps[g++] = size - 1;
+        for (int q = 0; q < found; q++) {
+            gaps[g++] = nearest[q] - 1;
+            gaps[g++] = nearest[q];
+        }
+        return Arrays.stream(gaps).distinct().sorted().toArray();
+    }
+
+    /**
+     * Completion time of an arbitrary sequence, or {@link Double#MAX_VALUE} if it delivers an order
+     * before picking it up or carries more than the capacity.
+     */
+    double evaluate(int[] seq, int len) {
+        int gen = ++stampGen;
+        for (int k = 0; k < len; k++) member[seq[k]] = gen;
+        int prev = startNode;
+        double t = startTime;
+        int carried = initialLoad;
+        for (int k = 0; k < len; k++) {
+            int node = seq[k];
+            if (!isPickup(node)) {
+                int pickup = partner(node);
+                if (member[pickup] == gen && seen[pickup] != gen) return Double.MAX_VALUE;
+                carried--;
+            } else if (++carried > capacity) {
+                return Double.MAX_VALUE;
+            }
+            seen[node] = gen;
+            t = Math.max(t + tt.get(prev, node), ready[node]);
+            prev = node;
+        }
+        return len == 0 ? startTime : t;
+    }
+}
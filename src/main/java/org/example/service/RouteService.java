@@ -1,165 +1,204 @@
 package org.example.service;
 
-import org.example.algo.Haversine;
+import org.example.algo.DistanceModel;
+import org.example.algo.TravelTimeMatrix;
+import org.example.algo.TravelTimeProvider;
 import org.example.entity.Location;
 import org.example.entity.Order;
 import org.example.dto.RouteResult;
-import org.example.dto.RouteStep;
 
-import java.util.*;
+import java.time.Duration;
+import java.util.List;
 
 public class RouteService {
     private final Location startLocation;
     private final List<Order> orders;
+    private final TravelTimeMatrix matrix; // null → built per solve
+    private final RouteSolver solver;
+    private final TravelTimeProvider travelTimes;
+    private SolveListener listener = SolveListener.NONE;
+    private long memoryBudgetBytes = Runtime.getRuntime().maxMemory();
+    private AdmissionPolicy admissionPolicy = AdmissionPolicy.REJECT;
+    private int capacity = RouteProblem.UNLIMITED;
 
     public RouteService(Location startLocation, List<Order> orders) {
+        this(startLocation, orders, null, SolverMode.BITMASK);
+    }
+
+    public RouteService(Location startLocation, List<Order> orders, SolverMode mode) {
+        this(startLocation, orders, null, mode);
+    }
+
+    public RouteService(Location startLocation, List<Order> orders, SolverMode mode, DpStorage storage) {
+        this(startLocation, orders, null, mode.solver(storage));
+    }
+
+    public RouteService(Location startLocation, List<Order> orders, RouteSolver solver) {
+        this(startLocation, orders, null, solver);
+    }
+
+    /**
+     * Builds travel times with {@code travelTimes} instead of Haversine, e.g.
+     * {@code EquirectangularDistance.around(startLocation)} for stops near the store, or a
+     * {@code RoadNetworkTravelTime} for road distances.
+     */
+    public RouteService(Location startLocation, List<Order> orders, RouteSolver solver, TravelTimeProvider travelTimes) {
+        this(startLocation, orders, null, solver, travelTimes);
+    }
+
+    public RouteService(Location startLocation, List<Order> orders, SolverMode mode, TravelTimeProvider travelTimes) {
+        this(startLocation, orders, null, mode.solver(DpStorage.HEAP), travelTimes);
+    }
+
+    public RouteService(Location startLocation, List<Order> orders, TravelTimeMatrix matrix) {
+        this(startLocation, orders, matrix, SolverMode.BITMASK);
+    }
+
+    public RouteService(Location startLocation, List<Order> orders, TravelTimeMatrix matrix, SolverMode mode) {
+        this(startLocation, orders, matrix, mode.solver(DpStorage.HEAP));
+    }
+
+    /**
+     * Reuses a precomputed matrix; it must follow the {@link TravelTimeMatrix#forOrders} layout for {@code orders}.
+     */
+    public RouteService(Location startLocation, List<Order> orders, TravelTimeMatrix matrix, RouteSolver solver) {
+        this(startLocation, orders, matrix, solver, DistanceModel.HAVERSINE);
+    }
+
+    private RouteService(Location startLocation, List<Order> orders, TravelTimeMatrix matrix, RouteSolver solver,
+                         TravelTimeProvider travelTimes) {
+        if (matrix != null && matrix.size() != 2 * orders.size() + 1) {
+            throw new IllegalArgumentException("Travel-time matrix has " + matrix.size()
+                    + " nodes, expected " + (2 * orders.size() + 1));
+        }
         this.startLocation = startLocation;
         this.orders = orders;
+        this.matrix = matrix;
+        this.solver = solver;
+        this.travelTimes = travelTimes;
     }
 
     /**
-     * Solve using Bitmask DP with path reconstruction.
-     * Nodes: 0..n-1 = restaurants (R1..Rn), n..2n-1 = customers (C1..Cn).
-     * dp[mask][pos] = minimum time to reach 'pos' having visited nodes in 'mask'.
+     * Reports the {@link SolveMetrics} of every {@link #findBestRoute()} to {@code listener}
+     * (e.g. a shared {@link SolveMetricsRecorder}).
      */
-    public RouteResult findBestRoute() {
-        int n = orders.size();
-        if (n == 0) {
-            return new RouteResult(List.of(), 0.0);  // 👈 Early return
+    public RouteService withListener(SolveListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Limits how many orders the rider carries at once (picked up, not yet delivered), e.g. 3–4 bags.
+     * The DPs never enumerate states over the limit; the heuristic only inserts within it.
+     */
+    public RouteService withCapacity(int bags) {
+        if (bags < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, got " + bags);
         }
-        int totalNodes = 2 * n;
-        int fullMask = (1 << totalNodes) - 1;
+        this.capacity = bags;
+        return this;
+    }
 
-        // Map nodes → locations
-        Location[] nodeLoc = new Location[totalNodes];
-        double[] prep = new double[n]; // effective prep times for restaurants
+    /**
+     * Limits the estimated working memory of one solve (DP tables plus travel-time matrix, see
+     * {@link RouteSolver#estimatedBytes}). The check runs before anything is allocated; a batch over the
+     * budget is rejected or clustered according to {@code policy}. Default: the maximum heap size, REJECT.
+     */
+    public RouteService withMemoryBudget(long bytes, AdmissionPolicy policy) {
+        this.memoryBudgetBytes = bytes;
+        this.admissionPolicy = policy;
+        return this;
+    }
 
-        for (int i = 0; i < n; i++) {
-            nodeLoc[i] = orders.get(i).getRestaurantLocation();      // Ri
-            nodeLoc[i + n] = orders.get(i).getConsumerLocation();    // Ci
-            prep[i] = orders.get(i).getEffectivePrepTime();
-        }
+    /**
+     * Solves the batch. Every solve is measured (see {@link SolveMetrics}), passed to the listener and
+     * emitted as a {@link RouteSolveEvent} JFR event when a recording is active.
+     *
+     * @throws BatchTooLargeException if the batch exceeds the memory budget under
+     *                                {@link AdmissionPolicy#REJECT}, or not even one order fits it
+     */
+    public RouteResult findBestRoute() {
+        return findBestRoute(solver);
+    }
 
-        // dp and parents
-        double[][] dp = new double[1 << totalNodes][totalNodes];
-        for (double[] row : dp) Arrays.fill(row, Double.MAX_VALUE);
-
-        int[][] parentPos = new int[1 << totalNodes][totalNodes];
-        int[][] parentMask = new int[1 << totalNodes][totalNodes];
-        for (int[] row : parentPos) Arrays.fill(row, -1);
-        for (int[] row : parentMask) Arrays.fill(row, -1);
-
-        // Initialize from start to each restaurant (must start with a pickup)
-        for (int r = 0; r < n; r++) {
-            int m = (1 << r);
-            double travel = Haversine.travelTime(startLocation, nodeLoc[r]);
-            double arrival = Math.max(travel, prep[r]); // wait if early
-            if (arrival < dp[m][r]) {
-                dp[m][r] = arrival;
-                parentPos[m][r] = -1;   // -1 denotes start
-                parentMask[m][r] = 0;
-            }
-        }
+    /**
+     * Solves the batch within {@code budget}, counted from this call (matrix included), or until
+     * {@code cancellation} is cancelled, and returns the best route found; {@link RouteResult#isOptimal()}
+     * tells whether it is proven optimal. Uses the configured solver if it is an {@link AnytimeRouteSolver},
+     * otherwise a default one. Admission, metrics and events work as in {@link #findBestRoute()}.
+     */
+    public RouteResult findBestRoute(Duration budget, CancellationToken cancellation) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        AnytimeRouteSolver anytime = solver instanceof AnytimeRouteSolver
+                ? (AnytimeRouteSolver) solver : new AnytimeRouteSolver();
+        return findBestRoute(anytime.until(deadline, cancellation));
+    }
 
-        // Transitions
-        for (int mask = 0; mask <= fullMask; mask++) {
-            for (int pos = 0; pos < totalNodes; pos++) {
-                double curT = dp[mask][pos];
-                if (curT == Double.MAX_VALUE) continue;
-
-                Location curLoc = nodeLoc[pos];
-
-                for (int nxt = 0; nxt < totalNodes; nxt++) {
-                    if ((mask & (1 << nxt)) != 0) continue; // already visited
-
-                    // If 'nxt' is a customer j, ensure restaurant j is already visited.
-                    if (nxt >= n) {
-                        int j = nxt - n;
-                        if ((mask & (1 << j)) == 0) continue; // cannot deliver before pickup
-                    }
-
-                    double travel = Haversine.travelTime(curLoc, nodeLoc[nxt]);
-                    double arrival = curT + travel;
-
-                    // If going to a restaurant, must wait until prep time if early
-                    if (nxt < n) {
-                        arrival = Math.max(arrival, prep[nxt]);
-                    }
-
-                    int newMask = mask | (1 << nxt);
-                    if (arrival < dp[newMask][nxt]) {
-                        dp[newMask][nxt] = arrival;
-                        parentPos[newMask][nxt] = pos;
-                        parentMask[newMask][nxt] = mask;
-                    }
-                }
-            }
+    private RouteResult findBestRoute(RouteSolver solver) {
+        if (orders.isEmpty()) {
+            RouteResult empty = new RouteResult(List.of(), 0.0);  // 👈 Early return
+            empty.setOptimal(true);
+            return empty;
+        }
+        RouteSolver admitted = admit(solver, orders.size(), memoryBudgetBytes, admissionPolicy);
+        RouteSolveEvent event = new RouteSolveEvent();
+        event.begin();
+        SolveMetrics metrics = new SolveMetrics(orders.size());
+        long start = System.nanoTime();
+
+        TravelTimeMatrix tt = matrix;
+        if (tt == null) {
+            tt = TravelTimeMatrix.forOrders(startLocation, orders, travelTimes);
+            metrics.addMatrixNanos(System.nanoTime() - start);
         }
+        RouteResult result = admitted.solve(new RouteProblem(startLocation, orders, tt, capacity), metrics);
 
-        // Find best end state
-        double bestTime = Double.MAX_VALUE;
-        int bestEndPos = -1;
-        for (int pos = 0; pos < totalNodes; pos++) {
-            if (dp[fullMask][pos] < bestTime) {
-                bestTime = dp[fullMask][pos];
-                bestEndPos = pos;
-            }
+        metrics.addTotalNanos(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.fill(metrics);
+            event.commit();
         }
+        listener.onSolve(metrics);
+        return result;
+    }
 
-        // Reconstruct path of node visits
-        List<Integer> nodeOrder = new ArrayList<>();
-        int curMask = fullMask, curPos = bestEndPos;
-        while (curPos != -1) {
-            nodeOrder.add(curPos);
-            int pm = parentMask[curMask][curPos];
-            int pp = parentPos[curMask][curPos];
-            curMask = pm;
-            curPos = pp;
+    /**
+     * The solver to use for {@code orderCount} orders under a memory budget: {@code solver} itself when its
+     * {@link #footprint} fits, otherwise a {@link ClusteredRouteSolver} under {@link AdmissionPolicy#CLUSTER}.
+     *
+     * @throws BatchTooLargeException under {@link AdmissionPolicy#REJECT}, or when not even one order fits
+     */
+    static RouteSolver admit(RouteSolver solver, int orderCount, long budgetBytes, AdmissionPolicy policy) {
+        long footprint = footprint(solver, orderCount);
+        if (footprint <= budgetBytes) {
+            return solver;
         }
-        // Add the first move from start if needed (already covered by dp init with parent -1)
-        Collections.reverse(nodeOrder);
-
-        // Convert nodes → RouteStep with ETAs from dp values
-        // To get ETAs per step, simulate along the reconstructed path using the same timing logic
-        List<RouteStep> steps = new ArrayList<>();
-        Location cur = startLocation;
-        double t = 0.0;
-        boolean[] picked = new boolean[n];
-
-        for (int node : nodeOrder) {
-            boolean isRestaurant = (node < n);
-            int idx = isRestaurant ? node : (node - n);
-
-            double travel = Haversine.travelTime(cur, nodeLoc[node]);
-            double arrival = t + travel;
-
-            String action;
-            String target;
-            if (isRestaurant) {
-                // wait for prep if early
-                double eta = Math.max(arrival, prep[idx]);
-                action = "Pickup";
-                target = "Restaurant R" + (idx + 1);
-                steps.add(new RouteStep(
-                        action,
-                        target,
-                        orders.get(idx).getOrderId(),
-                        eta,
-                        nodeLoc[node]   // 👈 this is the Location of the restaurant/customer at this step
-                ));
-                t = eta;
-                picked[idx] = true;
-            } else {
-                // must be already picked (guaranteed by DP)
-                action = "Deliver";
-                target = "Customer C" + (idx + 1);
-                steps.add(new RouteStep(action, target, orders.get(idx).getOrderId(), arrival, nodeLoc[node]));
-                t = arrival;
-            }
-
-            cur = nodeLoc[node];
+        if (policy == AdmissionPolicy.REJECT) {
+            throw new BatchTooLargeException(orderCount, footprint, budgetBytes);
         }
+        ClusteredRouteSolver clustered = new ClusteredRouteSolver(solver, budgetBytes);
+        if (clustered.clusterSize(orderCount) == 0) {
+            throw new BatchTooLargeException(orderCount, footprint, budgetBytes);
+        }
+        return clustered;
+    }
+
+    /** Bytes of the travel-time matrix for {@code orderCount} orders. */
+    static long matrixBytes(int orderCount) {
+        long nodes = 2L * orderCount + 1;
+        return nodes * nodes * Double.BYTES;
+    }
 
-        return new RouteResult(steps, bestTime);
+    /**
+     * Estimated working memory of solving {@code orderCount} orders with {@code solver}: its
+     * {@link RouteSolver#estimatedBytes} plus the travel-time matrix; {@link Long#MAX_VALUE} if the solver
+     * cannot take the batch.
+     */
+    static long footprint(RouteSolver solver, int orderCount) {
+        long solverBytes = solver.estimatedBytes(orderCount);
+        if (solverBytes == Long.MAX_VALUE) return Long.MAX_VALUE;
+        long total = solverBytes + matrixBytes(orderCount);
+        return total < 0 ? Long.MAX_VALUE : total;
     }
 }
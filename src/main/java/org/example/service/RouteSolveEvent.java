@@ -0,0 +1,62 @@
+package org.example.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one {@link RouteService#findBestRoute()} call; the event duration is the whole solve.
+ * Committed only while a recording has it enabled, e.g.
+ * {@code -XX:StartFlightRecording:filename=routes.jfr} or {@code jcmd <pid> JFR.start}.
+ */
+@Name("org.example.RouteSolve")
+@Label("Route Solve")
+@Category({"Blinkit", "Routing"})
+@Description("Matrix build, search and reconstruction of one route solve")
+@StackTrace(false)
+class RouteSolveEvent extends Event {
+
+    @Label("Orders")
+    int orderCount;
+
+    @Label("Solver")
+    String solver;
+
+    @Label("Matrix Build")
+    @Timespan(Timespan.NANOSECONDS)
+    long matrixNanos;
+
+    @Label("Search")
+    @Timespan(Timespan.NANOSECONDS)
+    long searchNanos;
+
+    @Label("Reconstruction")
+    @Timespan(Timespan.NANOSECONDS)
+    long reconstructionNanos;
+
+    @Label("States Expanded")
+    long statesExpanded;
+
+    @Label("States Pruned")
+    long statesPruned;
+
+    @Label("DP Table Size")
+    @DataAmount
+    long tableBytes;
+
+    void fill(SolveMetrics metrics) {
+        orderCount = metrics.getOrderCount();
+        solver = metrics.getSolver();
+        matrixNanos = metrics.getMatrixNanos();
+        searchNanos = metrics.getSearchNanos();
+        reconstructionNanos = metrics.getReconstructionNanos();
+        statesExpanded = metrics.getStatesExpanded();
+        statesPruned = metrics.getStatesPruned();
+        tableBytes = metrics.getTableBytes();
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.service;
+
+import org.example.dto.RouteResult;
+
+/**
+ * Strategy that plans a single rider's pickup/delivery sequence.
+ * Implementations: exact DPs ({@link BitmaskRouteSolver}, {@link TernaryRouteSolver},
+ * {@link ParallelBitmaskRouteSolver}) and {@link HeuristicRouteSolver} for large batches.
+ */
+public interface RouteSolver {
+
+    RouteResult solve(RouteProblem problem);
+
+    /**
+     * Same as {@link #solve(RouteProblem)}, recording the solver name, phase timings and DP counters into
+     * {@code metrics}. Solvers without finer instrumentation report the whole call as search time.
+     */
+    default RouteResult solve(RouteProblem problem, SolveMetrics metrics) {
+        long start = System.nanoTime();
+        RouteResult result = solve(problem);
+        metrics.recordSolver(getClass().getSimpleName());
+        metrics.addSearchNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Rough working memory of one solve with {@code orderCount} orders, in bytes, not counting the
+     * problem itself. Used to limit how many large solves run at once; {@link Long#MAX_VALUE} when the
+     * batch is too large for this solver.
+     */
+    default long estimatedBytes(int orderCount) {
+        return 0L;
+    }
+}
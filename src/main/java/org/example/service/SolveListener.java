@@ -0,0 +1,14 @@
+package org.example.service;
+
+/**
+ * Receives the {@link SolveMetrics} of every {@link RouteService#findBestRoute()} call, on the solving
+ * thread. Implementations shared across services must be thread-safe and cheap (see
+ * {@link SolveMetricsRecorder}).
+ */
+@FunctionalInterface
+public interface SolveListener {
+
+    SolveListener NONE = metrics -> { };
+
+    void onSolve(SolveMetrics metrics);
+}
@@ -0,0 +1,72 @@
+package org.example.service;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Where the time and memory of one solve went. Filled in by {@link RouteService} (matrix, total) and the
+ * solver (search, reconstruction, DP counters) and handed to a {@link SolveListener}.
+ * <ul>
+ *   <li>search: DP table allocation and fill, or the whole search for non-DP solvers</li>
+ *   <li>reconstruction: best end state, parent walk and step assembly</li>
+ *   <li>states expanded: reached DP cells whose outgoing moves were evaluated (the parallel bitmask DP
+ *       pulls instead of pushing and counts evaluated predecessor cells)</li>
+ *   <li>states pruned: DP states (masks / ternary states) that the {@link BoundPruner} bounds left
+ *       unreached or skipped; 0 without pruning</li>
+ *   <li>table bytes: DP cost/parent tables plus pruning bookkeeping</li>
+ *   <li>DP runs: full DP passes; 1 normally, more when no route meets every deadline and the least
+ *       lateness is searched; 0 for non-DP solvers</li>
+ * </ul>
+ * Not thread-safe: one instance per solve.
+ */
+@Getter
+@ToString
+public class SolveMetrics {
+    private final int orderCount;
+    private String solver = "";
+    private long matrixNanos;
+    private long searchNanos;
+    private long reconstructionNanos;
+    private long totalNanos;
+    private long statesExpanded;
+    private long statesPruned;
+    private long tableBytes;
+    private int dpRuns;
+
+    public SolveMetrics(int orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public void recordSolver(String solver) {
+        this.solver = solver;
+    }
+
+    public void addMatrixNanos(long nanos) {
+        matrixNanos += nanos;
+    }
+
+    public void addSearchNanos(long nanos) {
+        searchNanos += nanos;
+    }
+
+    public void addReconstructionNanos(long nanos) {
+        reconstructionNanos += nanos;
+    }
+
+    public void addTotalNanos(long nanos) {
+        totalNanos += nanos;
+    }
+
+    public void addStates(long expanded, long pruned) {
+        statesExpanded += expanded;
+        statesPruned += pruned;
+    }
+
+    public void addTableBytes(long bytes) {
+        tableBytes += bytes;
+    }
+
+    public void addDpRuns(int runs) {
+        dpRuns += runs;
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.service;
+
+import org.example.utility.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe {@link SolveListener} aggregating solves into latency histograms: one per phase and one
+ * end-to-end histogram per batch size, which is what batch-size limits are set from.
+ */
+public class SolveMetricsRecorder implements SolveListener {
+
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LatencyHistogram matrix = new LatencyHistogram();
+    private final LatencyHistogram search = new LatencyHistogram();
+    private final LatencyHistogram reconstruction = new LatencyHistogram();
+    private final ConcurrentHashMap<Integer, LatencyHistogram> totalByOrderCount = new ConcurrentHashMap<>();
+    private final LongAdder statesExpanded = new LongAdder();
+    private final LongAdder statesPruned = new LongAdder();
+    private final LongAccumulator maxTableBytes = new LongAccumulator(Math::max, 0L);
+
+    @Override
+    public void onSolve(SolveMetrics metrics) {
+        total.record(metrics.getTotalNanos());
+        matrix.record(metrics.getMatrixNanos());
+        search.record(metrics.getSearchNanos());
+        reconstruction.record(metrics.getReconstructionNanos());
+        totalByOrderCount.computeIfAbsent(metrics.getOrderCount(), n -> new LatencyHistogram())
+                .record(metrics.getTotalNanos());
+        statesExpanded.add(metrics.getStatesExpanded());
+        statesPruned.add(metrics.getStatesPruned());
+        maxTableBytes.accumulate(metrics.getTableBytes());
+    }
+
+    public LatencyHistogram total() {
+        return total;
+    }
+
+    public LatencyHistogram matrix() {
+        return matrix;
+    }
+
+    public LatencyHistogram search() {
+        return search;
+    }
+
+    public LatencyHistogram reconstruction() {
+        return reconstruction;
+    }
+
+    /** End-to-end latency per batch size, ordered by order count. */
+    public Map<Integer, LatencyHistogram> totalByOrderCount() {
+        return new TreeMap<>(totalByOrderCount);
+    }
+
+    public long statesExpanded() {
+        return statesExpanded.sum();
+    }
+
+    public long statesPruned() {
+        return statesPruned.sum();
+    }
+
+    /** Largest DP table seen, in bytes. */
+    public long maxTableBytes() {
+        return maxTableBytes.get();
+    }
+
+    /** One line per batch size: count, p50 / p99 / max in milliseconds. */
+    public String summary() {
+        StringBuilder sb = new StringBuilder("orders  count      p50 ms      p99 ms      max ms\n");
+        for (Map.Entry<Integer, LatencyHistogram> e : totalByOrderCount().entrySet()) {
+            LatencyHistogram h = e.getValue();
+            sb.append(String.format("%6d %6d %11.3f %11.3f %11.3f%n", e.getKey(), h.count(),
+                    h.valueAtPercentile(50) / 1e6, h.valueAtPercentile(99) / 1e6, h.max() / 1e6));
+        }
+        return sb.toString();
+    }
+}
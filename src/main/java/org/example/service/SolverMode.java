@@ -0,0 +1,43 @@
+package org.example.service;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Built-in {@link RouteSolver}s selectable on {@link RouteService}. The DP modes return the same optimal
+ * total time; {@link #HEURISTIC} trades optimality for speed on large batches, and {@link #ANYTIME} returns
+ * within a fixed time whichever it reaches.
+ */
+public enum SolverMode {
+    /** dp[mask][pos] over all 2^(2n) visited-node masks. */
+    BITMASK,
+    /** {@link #BITMASK} with each popcount layer split across the common ForkJoin pool; identical results. */
+    PARALLEL_BITMASK,
+    /** One unvisited/picked/delivered digit per order: 3^n states × n positions. */
+    TERNARY,
+    /**
+     * {@link #TERNARY} seeded with a greedy upper bound; states that cannot beat it are skipped. Same result.
+     * Pays off when prep times are spread out; on batches that are all ready within minutes it is slower.
+     */
+    PRUNED,
+    /** Cheapest insertion + local search; milliseconds for hundreds of orders, not guaranteed optimal. */
+    HEURISTIC,
+    /** {@link #HEURISTIC} route, then {@link #PRUNED} until a 50 ms budget runs out; optimal if the DP finishes. */
+    ANYTIME;
+
+    public RouteSolver solver(DpStorage storage) {
+        switch (this) {
+            case PARALLEL_BITMASK:
+                return new ParallelBitmaskRouteSolver(storage, ForkJoinPool.commonPool());
+            case TERNARY:
+                return new TernaryRouteSolver(storage);
+            case PRUNED:
+                return new TernaryRouteSolver(storage, true);
+            case HEURISTIC:
+                return new HeuristicRouteSolver();
+            case ANYTIME:
+                return new AnytimeRouteSolver();
+            default:
+                return new BitmaskRouteSolver(storage);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package org.example.service;
+
+import org.example.algo.TravelTimeMatrix;
+import org.example.dto.RouteResult;
+import org.example.entity.Order;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Pickup-delivery DP over ternary order states instead of visited-node bitmasks.
+ * Each order is one base-3 digit: 0 = unvisited, 1 = picked up, 2 = delivered,
+ * so only the 3^n reachable states are stored (a bitmask DP also allocates the
+ * 4^n - 3^n masks where a customer is visited before its restaurant).
+ * <p>
+ * The rider's position only needs the index of the last order touched: digit 1 means
+ * they stand at its restaurant, digit 2 at its customer. The table is therefore
+ * {@code cost[state * n + last]}, with the parent stored as the previous order index
+ * (the previous state is {@code state - 3^last}).
+ */
+public class TernaryRouteSolver implements RouteSolver {
+
+    static final int STOP_CHECK_STATES = 1024;
+    /** Largest batch whose 3^n · n table cells can be indexed by an int (3^16 · 16 ≈ 6.9e8). */
+    static final int MAX_ORDERS = 16;
+    private static final BooleanSupplier NEVER = () -> false;
+
+    private final DpStorage storage;
+    private final boolean pruning;
+
+    public TernaryRouteSolver() {
+        this(DpStorage.HEAP);
+    }
+
+    public TernaryRouteSolver(DpStorage storage) {
+        this(storage, false);
+    }
+
+    /**
+     * @param pruning skip states that provably cannot beat a greedy route (see {@link BoundPruner});
+     *                the result is unchanged
+     */
+    public TernaryRouteSolver(DpStorage storage, boolean pruning) {
+        this.storage = storage;
+        this.pruning = pruning;
+    }
+
+    @Override
+    public long estimatedBytes(int orderCount) {
+        long states = states(orderCount);
+        if (states < 0) return Long.MAX_VALUE; // solve() rejects it
+        return states * orderCount * DpTable.BYTES_PER_CELL + (pruning ? states : 0L);
+    }
+
+    @Override
+    public RouteResult solve(RouteProblem problem) {
+        return solve(problem, new SolveMetrics(problem.orderCount()));
+    }
+
+    @Override
+    public RouteResult solve(RouteProblem problem, SolveMetrics metrics) {
+        metrics.recordSolver(getClass().getSimpleName());
+        return solve(problem, null, NEVER, metrics);
+    }
+
+    /**
+     * Interruptible run for {@link AnytimeRouteSolver}: with pruning, {@code known} (if not null) bounds
+     * the DP instead of a fresh greedy route, and {@code stop} is polled every {@value #STOP_CHECK_STATES}
+     * states.
+     *
+     * @throws CancellationException once {@code stop} returns true; nothing is returned then
+     */
+    RouteResult solve(RouteProblem problem, RouteResult known, BooleanSupplier stop, SolveMetrics metrics) {
+        if (states(problem.orderCount()) < 0) {
+            throw new IllegalArgumentException("Too many orders for the ternary DP: " + problem.orderCount());
+        }
+        if (problem.orderCount() == 0) {
+            RouteResult empty = new RouteResult(List.of(), 0.0);
+            empty.setOptimal(true);
+            return empty;
+        }
+        return Deadlines.minimiseLateness(problem, metrics,
+                (deadlines, m) -> solveWithin(problem, deadlines, known, stop, m));
+    }
+
+    /** 3^n, or -1 when {@code n} orders exceed {@link #MAX_ORDERS} (computed in long, no overflow). */
+    static long states(int n) {
+        if (n > MAX_ORDERS) return -1;
+        long states = 1;
+        for (int i = 0; i < n; i++) states *= 3;
+        return states * n > Integer.MAX_VALUE ? -1 : states;
+    }
+
+    /** One DP run; null when no route meets {@code deadlines}. */
+    private RouteResult solveWithin(RouteProblem problem, Deadlines deadlines, RouteResult known, BooleanSupplier stop,
+                                    SolveMetrics metrics) {
+        List<Order> orders = problem.getOrders();
+        TravelTimeMatrix tt = problem.getMatrix();
+        int n = orders.size();
+
+        // n <= MAX_ORDERS (checked in solve), so every power of 3 and cell index fits an int
+        int[] pow3 = new int[n + 1];
+        pow3[0] = 1;
+        for (int i = 1; i <= n; i++) pow3[i] = pow3[i - 1] * 3;
+        int states = pow3[n];
+        int fullState = states - 1; // every digit = 2
+
+        double[] prep = problem.prepTimes();
+        int start = tt.startNode();
+        long searchStart = System.nanoTime();
+        BoundPruner pruner = !pruning ? null
+                : known != null ? BoundPruner.forProblem(problem, deadlines, known)
+                : BoundPruner.forProblem(problem, deadlines);
+
+        if (stop.getAsBoolean()) {
+            throw new CancellationException("Ternary DP stopped before allocating its table");
+        }
+        DpTable dp = storage.allocate(states * n);
+        // With pruning most states are never written; skip those without scanning their cells
+        boolean[] live = pruner != null ? new boolean[states] : null;
+        metrics.addTableBytes(dp.sizeInBytes() + (live != null ? live.length : 0));
+
+        // Must start with a pickup
+        for (int r = 0; r < n; r++) {
+            double arrival = Math.max(tt.get(start, r), prep[r]);
+            if (deadlines != null && arrival > deadlines.latestArrival(r)) continue;
+            dp.set(pow3[r] * n + r, arrival, DpTable.START);
+            if (live != null) live[pow3[r]] = true;
+        }
+
+        // Moves open in the current state, listed once per state rather than re-tested for every cell
+        int[] moveNode = new int[n];
+        int[] moveState = new int[n];
+        int[] moveCell = new int[n];
+        double[] moveReady = new double[n];
+        double[] moveLimit = new double[n];
+
+        // Digits of the current state, advanced as a base-3 counter
+        int[] digit = new int[n];
+        long expanded = 0;
+        long pruned = 0;
+        int capacity = problem.getCapacity();
+        boolean limited = problem.hasCapacityLimit();
+        for (int state = 0; state < states; state++) {
+            if ((state & (STOP_CHECK_STATES - 1)) == 0 && stop.getAsBoolean()) {
+                throw new CancellationException("Ternary DP stopped after " + state + " of " + states + " states");
+            }
+            if (state > 0) {
+                int d = 0;
+                while (digit[d] == 2) digit[d++] = 0;
+                digit[d]++;
+            }
+            boolean full = false;
+            if (limited) {
+                int carried = 0;
+                for (int k = 0; k < n; k++) {
+                    if (digit[k] == 1) carried++;
+                }
+                if (carried > capacity) continue; // never reached: pickups stop at capacity
+                full = carried == capacity;
+            }
+
+            double slack = Double.MAX_VALUE;
+            if (pruner != null) {
+                if (!live[state]) {
+                    if (state != 0) pruned++; // cut off by the bounds upstream
+                    continue;
+                }
+                if (pruner.exceeds(pruner.prepBound(digit))) {
+                    pruned++;
+                    continue;
+                }
+                slack = pruner.slack(pruner.pendingTravel(digit));
+            }
+
+            int moves = 0;
+            for (int k = 0; k < n; k++) {
+                if (digit[k] == 2) continue; // already delivered
+                boolean pickup = digit[k] == 0;
+                if (pickup && full) continue; // no bag free
+                moveNode[moves] = pickup ? k : k + n;
+                moveReady[moves] = pickup ? prep[k] : 0.0; // pickup: wait until prep time if early
+                moveState[moves] = state + pow3[k];
+                moveCell[moves] = moveState[moves] * n + k;
+                moveLimit[moves] = pruner != null ? slack + pruner.minEntry(moveNode[moves]) : Double.MAX_VALUE;
+                if (deadlines != null) {
+                    moveLimit[moves] = Math.min(moveLimit[moves], deadlines.latestArrival(moveNode[moves]));
+                }
+                moves++;
+            }
+
+            int row = state * n;
+            for (int last = 0; last < n; last++) {
+                double curT = dp.cost(row + last);
+                if (curT == DpTable.UNREACHED) continue;
+                int curNode = digit[last] == 1 ? last : last + n;
+                if (deadlines != null && !deadlines.canMeet(digit, curNode, curT)) continue;
+                expanded++;
+
+                for (int m = 0; m < moves; m++) {
+                    double arrival = Math.max(curT + tt.get(curNode, moveNode[m]), moveReady[m]);
+                    if (arrival > moveLimit[m]) continue; // cannot beat the upper bound or meet the deadline
+
+                    int next = moveCell[m];
+                    if (arrival < dp.cost(next)) {
+                        dp.set(next, arrival, last);
+                        if (live != null) live[moveState[m]] = true;
+                    }
+                }
+            }
+        }
+
+        metrics.addStates(expanded, pruned);
+        long reconstructionStart = System.nanoTime();
+        metrics.addSearchNanos(reconstructionStart - searchStart);
+
+        // Find best end state
+        int fullRow = fullState * n;
+        double bestTime = Double.MAX_VALUE;
+        int bestLast = -1;
+        for (int last = 0; last < n; last++) {
+            if (dp.cost(fullRow + last) < bestTime) {
+                bestTime = dp.cost(fullRow + last);
+                bestLast = last;
+            }
+        }
+        if (bestLast < 0) {
+            metrics.addReconstructionNanos(System.nanoTime() - reconstructionStart);
+            return null; // only possible with deadlines or non-finite prep/travel times
+        }
+
+        // Reconstruct: the digit of 'last' tells whether we were at its restaurant or customer
+        List<Integer> nodeOrder = new ArrayList<>(2 * n);
+        int state = fullState;
+        int last = bestLast;
+        while (last != DpTable.START) {
+            int d = (state / pow3[last]) % 3;
+            nodeOrder.add(d == 1 ? last : last + n);
+            int prev = dp.parent(state * n + last);
+            state -= pow3[last];
+            last = prev;
+        }
+        Collections.reverse(nodeOrder);
+
+        RouteResult result = RouteAssembler.assemble(orders, tt, nodeOrder, bestTime);
+        metrics.addReconstructionNanos(System.nanoTime() - reconstructionStart);
+        return result;
+    }
+}
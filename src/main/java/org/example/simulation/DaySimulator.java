@@ -0,0 +1,277 @@
+package org.example.simulation;
+
+import org.example.algo.Haversine;
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.service.AdmissionPolicy;
+import org.example.service.DpStorage;
+import org.example.service.HeuristicRouteSolver;
+import org.example.service.RouteProblem;
+import org.example.service.RouteService;
+import org.example.service.RouteSolver;
+import org.example.service.SolveListener;
+import org.example.service.SolverMode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Discrete-event replay of a store day: orders arrive over time, idle riders are dispatched with batches
+ * planned by the real {@link RouteService}, and riders move along the planned {@link RouteStep} ETAs.
+ * <p>
+ * Simulated time jumps from event to event (arrival, batching timer, route step, rider free), so a day
+ * runs as fast as the planner allows; only planning is timed on the wall clock. Dispatch rule: while a
+ * rider is idle and either {@code maxBatch} orders are waiting or the oldest has waited
+ * {@code batchWindow} minutes, the idle rider nearest to the oldest order's restaurant takes up to
+ * {@code maxBatch} of the oldest orders. Prep times and deadlines are re-based to the dispatch time, so
+ * the plan starts from the rider's position "now". A batch whose deadlines cannot all be met is planned
+ * with the {@link HeuristicRouteSolver} instead, and its late deliveries show up in the report; a batch
+ * over the memory budget is clustered (see {@link #withMemoryBudget}).
+ * <p>
+ * Arrivals are pulled lazily, so a day of any length runs in memory proportional to the waiting orders.
+ * Not thread-safe; one simulator runs one day at a time.
+ */
+public class DaySimulator {
+
+    public static final int DEFAULT_MAX_BATCH = 4;
+    public static final double DEFAULT_BATCH_WINDOW = 2.0;
+
+    private static final double EPS = 1e-9;
+
+    private final List<Location> riderStarts;
+    private final RouteSolver solver;
+    private int maxBatch = DEFAULT_MAX_BATCH;
+    private double batchWindow = DEFAULT_BATCH_WINDOW;
+    private int capacity = RouteProblem.UNLIMITED;
+    private SolveListener listener = SolveListener.NONE;
+    private long memoryBudgetBytes = Runtime.getRuntime().maxMemory();
+
+    public DaySimulator(List<Location> riderStarts) {
+        this(riderStarts, SolverMode.TERNARY.solver(DpStorage.HEAP));
+    }
+
+    public DaySimulator(List<Location> riderStarts, RouteSolver solver) {
+        if (riderStarts.isEmpty()) {
+            throw new IllegalArgumentException("At least one rider is required");
+        }
+        this.riderStarts = List.copyOf(riderStarts);
+        this.solver = solver;
+    }
+
+    /**
+     * @param maxBatch orders planned into one route at most
+     * @param window   minutes the oldest waiting order may wait for a fuller batch (0 = dispatch at once)
+     */
+    public DaySimulator withBatching(int maxBatch, double window) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, got " + maxBatch);
+        }
+        if (!(window >= 0)) {
+            throw new IllegalArgumentException("Batch window must be non-negative, got " + window);
+        }
+        this.maxBatch = maxBatch;
+        this.batchWindow = window;
+        return this;
+    }
+
+    /** Bag capacity of every rider, see {@link RouteService#withCapacity}. */
+    public DaySimulator withCapacity(int bags) {
+        if (bags < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, got " + bags);
+        }
+        this.capacity = bags;
+        return this;
+    }
+
+    /**
+     * Memory budget of each planned batch, see {@link RouteService#withMemoryBudget}. Batches over it are
+     * always clustered rather than rejected, so the day goes on. Default: the maximum heap size.
+     */
+    public DaySimulator withMemoryBudget(long bytes) {
+        this.memoryBudgetBytes = bytes;
+        return this;
+    }
+
+    /** Receives the solver metrics of every planned batch, see {@link RouteService#withListener}. */
+    public DaySimulator withListener(SolveListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Replays {@code arrivals} (sorted by time) until every order is delivered.
+     *
+     * @throws IllegalArgumentException if arrivals go back in time, or an order arrives while another
+     *                                  with the same id is still waiting or being delivered
+     */
+    public SimulationReport run(Iterator<OrderArrival> arrivals) {
+        return new Day(arrivals).run();
+    }
+
+    private enum EventType { ARRIVAL, TIMER, STEP, RIDER_FREE }
+
+    private static final class Event {
+        final double time;
+        final long seq;
+        final EventType type;
+        final Rider rider;
+        final RouteStep step;
+        final OrderArrival arrival;
+
+        Event(double time, long seq, EventType type, Rider rider, RouteStep step, OrderArrival arrival) {
+            this.time = time;
+            this.seq = seq;
+            this.type = type;
+            this.rider = rider;
+            this.step = step;
+            this.arrival = arrival;
+        }
+    }
+
+    private static final class Rider {
+        Location location;
+        boolean busy;
+        final Map<String, OrderArrival> carrying = new HashMap<>();
+
+        Rider(Location location) {
+            this.location = location;
+        }
+    }
+
+    /** State of one run. */
+    private final class Day {
+        // Same-time events run in scheduling order, which keeps runs deterministic
+        private final PriorityQueue<Event> events = new PriorityQueue<>((a, b) -> a.time != b.time
+                ? Double.compare(a.time, b.time) : Long.compare(a.seq, b.seq));
+        private final ArrayDeque<OrderArrival> waiting = new ArrayDeque<>();
+        private final Set<String> open = new HashSet<>(); // ids arrived and not yet delivered
+        private final List<Rider> riders = new ArrayList<>();
+        private final Iterator<OrderArrival> arrivals;
+        private final SimulationReport report = new SimulationReport(riderStarts.size());
+        private long seq;
+        private double now;
+
+        Day(Iterator<OrderArrival> arrivals) {
+            this.arrivals = arrivals;
+            for (Location start : riderStarts) riders.add(new Rider(start));
+        }
+
+        SimulationReport run() {
+            long wallStart = System.nanoTime();
+            scheduleNextArrival();
+            while (!events.isEmpty()) {
+                Event e = events.poll();
+                now = e.time;
+                switch (e.type) {
+                    case ARRIVAL:
+                        if (!open.add(e.arrival.getOrder().getOrderId())) {
+                            throw new IllegalArgumentException("Order id " + e.arrival.getOrder().getOrderId()
+                                    + " arrives at minute " + now + " while an order with that id is open");
+                        }
+                        waiting.add(e.arrival);
+                        report.arrived();
+                        scheduleNextArrival();
+                        if (batchWindow > 0) schedule(now + batchWindow, EventType.TIMER, null, null, null);
+                        dispatch();
+                        break;
+                    case TIMER:
+                        dispatch();
+                        break;
+                    case STEP:
+                        e.rider.location = e.step.getLocation();
+                        if ("Deliver".equals(e.step.getAction())) {
+                            OrderArrival delivered = e.rider.carrying.remove(e.step.getOrderId());
+                            open.remove(e.step.getOrderId());
+                            report.delivered(now - delivered.getTime(), now > delivered.dueAt() + EPS);
+                        }
+                        break;
+                    case RIDER_FREE:
+                        e.rider.busy = false;
+                        dispatch();
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown event " + e.type);
+                }
+            }
+            report.finish(now, System.nanoTime() - wallStart);
+            return report;
+        }
+
+        private void scheduleNextArrival() {
+            if (!arrivals.hasNext()) return;
+            OrderArrival next = arrivals.next();
+            if (next.getTime() < now) {
+                throw new IllegalArgumentException("Arrival of order " + next.getOrder().getOrderId()
+                        + " at minute " + next.getTime() + " is before minute " + now);
+            }
+            schedule(next.getTime(), EventType.ARRIVAL, null, null, next);
+        }
+
+        private void schedule(double time, EventType type, Rider rider, RouteStep step, OrderArrival arrival) {
+            events.add(new Event(time, seq++, type, rider, step, arrival));
+        }
+
+        private void dispatch() {
+            while (!waiting.isEmpty()
+                    && (waiting.size() >= maxBatch || now - waiting.peek().getTime() >= batchWindow - EPS)) {
+                Rider rider = nearestIdle(waiting.peek().getOrder().getRestaurantLocation());
+                if (rider == null) return;
+                List<Order> batch = new ArrayList<>(Math.min(maxBatch, waiting.size()));
+                while (batch.size() < maxBatch && !waiting.isEmpty()) {
+                    OrderArrival a = waiting.poll();
+                    rider.carrying.put(a.getOrder().getOrderId(), a);
+                    batch.add(rebased(a));
+                }
+                long planStart = System.nanoTime();
+                RouteResult route = plan(rider.location, batch, solver);
+                if (route == null) route = plan(rider.location, batch, new HeuristicRouteSolver());
+                report.planned(System.nanoTime() - planStart);
+
+                rider.busy = true;
+                for (RouteStep step : route.getSequence()) {
+                    schedule(now + step.getEta(), EventType.STEP, rider, step, null);
+                }
+                schedule(now + route.getTotalTime(), EventType.RIDER_FREE, rider, null, null);
+            }
+        }
+
+        /** Null when the exact solvers find no route within every deadline. */
+        private RouteResult plan(Location start, List<Order> batch, RouteSolver solver) {
+            return new RouteService(start, batch, solver)
+                    .withCapacity(capacity)
+                    .withMemoryBudget(memoryBudgetBytes, AdmissionPolicy.CLUSTER)
+                    .withListener(listener)
+                    .findBestRoute();
+        }
+
+        /** The order as seen at dispatch: remaining prep and remaining time to its deadline. */
+        private Order rebased(OrderArrival a) {
+            Order o = a.getOrder();
+            return new Order(o.getOrderId(), o.getConsumerLocation(), o.getRestaurantLocation(),
+                    Math.max(0.0, a.readyAt() - now), 0.0, a.dueAt() - now);
+        }
+
+        private Rider nearestIdle(Location target) {
+            Rider best = null;
+            double bestTime = Double.POSITIVE_INFINITY;
+            for (Rider rider : riders) {
+                if (rider.busy) continue;
+                double t = Haversine.travelTime(rider.location, target);
+                if (t < bestTime) {
+                    best = rider;
+                    bestTime = t;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.simulation;
+
+import lombok.Data;
+import org.example.entity.Order;
+
+/**
+ * An order entering the system at {@code time} minutes after the start of the day. The order's prep time,
+ * trust buffer and deadline count from its arrival.
+ */
+@Data
+public class OrderArrival {
+    private final double time;
+    private final Order order;
+
+    /** Minute of the day at which the restaurant has the order ready. */
+    public double readyAt() {
+        return time + order.getEffectivePrepTime();
+    }
+
+    /** Minute of the day by which the order is due ({@code +∞} without a deadline). */
+    public double dueAt() {
+        return time + order.getDeliveryDeadline();
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.simulation;
+
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.utility.WorkloadGenerator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Sources of timestamped orders for {@link DaySimulator}: generated Poisson arrivals, or a CSV file.
+ * <p>
+ * CSV columns: {@value #CSV_HEADER}. Times are minutes; an empty deadline means none.
+ */
+public final class OrderArrivals {
+
+    public static final String CSV_HEADER = "arrival_min,order_id,restaurant_lat,restaurant_lng,"
+            + "customer_lat,customer_lng,prep_min,trust_buffer_min,deadline_min";
+
+    private OrderArrivals() {
+    }
+
+    /** Constant rate: {@code ordersPerHour} on average over {@code dayMinutes}. */
+    public static Iterator<OrderArrival> poisson(WorkloadGenerator orders, double ordersPerHour, double dayMinutes,
+                                                 long seed) {
+        return poisson(orders, minute -> ordersPerHour, ordersPerHour, dayMinutes, seed);
+    }
+
+    /** Order i of the day is {@code orders.order(i)}; the same arguments give the same day. */
+    public static Iterator<OrderArrival> poisson(WorkloadGenerator orders, DoubleUnaryOperator ratePerHour,
+                                                 double maxOrdersPerHour, double dayMinutes, long seed) {
+        return poisson(orders.stream(Long.MAX_VALUE).iterator(), ratePerHour, maxOrdersPerHour, dayMinutes, seed);
+    }
+
+    /**
+     * Non-homogeneous Poisson arrivals (e.g. lunch and dinner peaks) by thinning: candidate arrivals are
+     * drawn at {@code maxOrdersPerHour} and kept with probability {@code ratePerHour(minute) / max}.
+     * Arriving orders are taken from {@code orders} in turn (e.g. an {@code OrderGenerator} list); the day
+     * ends at {@code dayMinutes} or when they run out.
+     *
+     * @param ratePerHour      orders per hour at a given minute of the day, at most {@code maxOrdersPerHour}
+     * @param maxOrdersPerHour upper bound of {@code ratePerHour}
+     */
+    public static Iterator<OrderArrival> poisson(Iterator<Order> orders, DoubleUnaryOperator ratePerHour,
+                                                 double maxOrdersPerHour, double dayMinutes, long seed) {
+        if (!(maxOrdersPerHour > 0)) {
+            throw new IllegalArgumentException("Rate must be positive, got " + maxOrdersPerHour);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        double meanGap = 60.0 / maxOrdersPerHour;
+        return new Iterator<>() {
+            private double time;
+            private OrderArrival next = advance();
+
+            private OrderArrival advance() {
+                while (orders.hasNext()) {
+                    time += -meanGap * Math.log(1.0 - random.nextDouble());
+                    if (time >= dayMinutes) return null;
+                    double rate = ratePerHour.applyAsDouble(time);
+                    if (rate > maxOrdersPerHour) {
+                        throw new IllegalArgumentException("Rate " + rate + " at minute " + time
+                                + " exceeds the declared maximum " + maxOrdersPerHour);
+                    }
+                    if (random.nextDouble() * maxOrdersPerHour < rate) {
+                        return new OrderArrival(time, orders.next());
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public OrderArrival next() {
+                if (next == null) throw new NoSuchElementException();
+                OrderArrival current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Streams arrivals from a CSV file written by {@link #writeCsv}; rows must be sorted by arrival time.
+     * The reader is closed once the last row has been read.
+     */
+    public static Iterator<OrderArrival> readCsv(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null || !header.trim().equals(CSV_HEADER)) {
+            throw new IOException("Expected CSV header '" + CSV_HEADER + "', got '" + header + "'");
+        }
+        return new Iterator<>() {
+            private long line = 1;
+            private OrderArrival next = read();
+
+            private OrderArrival read() {
+                try {
+                    String row;
+                    do {
+                        row = reader.readLine();
+                        line++;
+                        if (row == null) {
+                            reader.close();
+                            return null;
+                        }
+                    } while (row.isBlank());
+                    return parse(row, line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public OrderArrival next() {
+                if (next == null) throw new NoSuchElementException();
+                OrderArrival current = next;
+                next = read();
+                return current;
+            }
+        };
+    }
+
+    public static Iterator<OrderArrival> readCsv(Path path) throws IOException {
+        return readCsv(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+
+    /** Writes {@code arrivals} with {@link #CSV_HEADER}; returns the number of rows. */
+    public static long writeCsv(Path path, Iterator<OrderArrival> arrivals) throws IOException {
+        long rows = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            while (arrivals.hasNext()) {
+                OrderArrival a = arrivals.next();
+                Order o = a.getOrder();
+                writer.write(a.getTime() + "," + o.getOrderId() + ","
+                        + o.getRestaurantLocation().getLatitude() + "," + o.getRestaurantLocation().getLongitude() + ","
+                        + o.getConsumerLocation().getLatitude() + "," + o.getConsumerLocation().getLongitude() + ","
+                        + o.getPrepTime() + "," + o.getTrustBuffer() + ","
+                        + (o.hasDeadline() ? String.valueOf(o.getDeliveryDeadline()) : ""));
+                writer.newLine();
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static OrderArrival parse(String row, long line) {
+        String[] f = row.split(",", -1);
+        if (f.length != 9) {
+            throw new IllegalArgumentException("Line " + line + ": expected 9 columns, got " + f.length);
+        }
+        try {
+            double deadline = f[8].isBlank() ? Order.NO_DEADLINE : Double.parseDouble(f[8]);
+            Order order = new Order(f[1],
+                    new Location(Double.parseDouble(f[4]), Double.parseDouble(f[5])),
+                    new Location(Double.parseDouble(f[2]), Double.parseDouble(f[3])),
+                    Double.parseDouble(f[6]), Double.parseDouble(f[7]), deadline);
+            return new OrderArrival(Double.parseDouble(f[0]), order);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + line + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.simulation;
+
+import lombok.Getter;
+import org.example.utility.LatencyHistogram;
+
+/**
+ * Outcome of one {@link DaySimulator} run. Times are simulated minutes unless named otherwise; planning
+ * latency is wall-clock nanoseconds. Delivery times (arrival to hand-over) are kept in simulated
+ * milliseconds, so their percentiles carry the {@link LatencyHistogram} precision of 6.25 %.
+ */
+@Getter
+public class SimulationReport {
+
+    private final int riders;
+    private long ordersArrived;
+    private long ordersDelivered;
+    private long lateDeliveries;
+    private long routes;
+    /** Time of the last delivery (or arrival), i.e. the simulated length of the day. */
+    private double simulatedMinutes;
+    private long wallNanos;
+    private final LatencyHistogram planningNanos = new LatencyHistogram();
+    private final LatencyHistogram deliveryMillis = new LatencyHistogram();
+
+    SimulationReport(int riders) {
+        this.riders = riders;
+    }
+
+    void arrived() {
+        ordersArrived++;
+    }
+
+    void planned(long nanos) {
+        routes++;
+        planningNanos.record(nanos);
+    }
+
+    void delivered(double minutesSinceArrival, boolean late) {
+        ordersDelivered++;
+        if (late) lateDeliveries++;
+        deliveryMillis.record(Math.round(minutesSinceArrival * 60_000));
+    }
+
+    void finish(double simulatedMinutes, long wallNanos) {
+        this.simulatedMinutes = simulatedMinutes;
+        this.wallNanos = wallNanos;
+    }
+
+    /** Delivered orders per simulated hour. */
+    public double throughputPerHour() {
+        return simulatedMinutes == 0 ? 0.0 : ordersDelivered * 60.0 / simulatedMinutes;
+    }
+
+    public double ordersPerRoute() {
+        return routes == 0 ? 0.0 : (double) ordersDelivered / routes;
+    }
+
+    /** Simulated time per wall-clock time; above 1 means faster than real time. */
+    public double speedUp() {
+        return wallNanos == 0 ? Double.POSITIVE_INFINITY : simulatedMinutes * 60e9 / wallNanos;
+    }
+
+    /** Delivery-time percentile (arrival to hand-over) in minutes. */
+    public double deliveryMinutesAtPercentile(double percentile) {
+        return deliveryMillis.valueAtPercentile(percentile) / 60_000.0;
+    }
+
+    /** Planning-latency percentile in milliseconds. */
+    public double planningMillisAtPercentile(double percentile) {
+        return planningNanos.valueAtPercentile(percentile) / 1e6;
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("orders %d arrived, %d delivered (%d late) by %d riders in %.1f min%n",
+                ordersArrived, ordersDelivered, lateDeliveries, riders, simulatedMinutes));
+        sb.append(String.format("throughput %.1f orders/h, %d routes, %.2f orders/route%n",
+                throughputPerHour(), routes, ordersPerRoute()));
+        sb.append(String.format("delivery min  p50 %7.2f  p90 %7.2f  p99 %7.2f  max %7.2f%n",
+                deliveryMinutesAtPercentile(50), deliveryMinutesAtPercentile(90),
+                deliveryMinutesAtPercentile(99), deliveryMillis.max() / 60_000.0));
+        sb.append(String.format("planning ms   p50 %7.3f  p90 %7.3f  p99 %7.3f  max %7.3f%n",
+                planningMillisAtPercentile(50), planningMillisAtPercentile(90),
+                planningMillisAtPercentile(99), planningNanos.max() / 1e6));
+        sb.append(String.format("wall %.3f s, %.0fx faster than real time%n", wallNanos / 1e9, speedUp()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,257 @@
+package org.example.utility;
+
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams routes as one GeoJSON FeatureCollection.
+ * <p>
+ * Features are written as they are produced through a fixed {@value #BUFFER_CHARS}-char buffer, so memory
+ * does not grow with route size or with the number of routes: call {@link #writeRoute} once per route
+ * (e.g. a nightly dump of every route) and {@link #close()} to end the collection. ETAs are formatted
+ * with two decimals straight into the buffer instead of through {@code String.format}.
+ * <p>
+ * Layout per route: the full route LineString, one arrow LineString per leg, a yellow origin marker
+ * for the first step and red/green markers for the remaining pickups/deliveries.
+ */
+public class GeoJsonWriter implements Closeable, Flushable {
+
+    static final int BUFFER_CHARS = 8192;
+    /** Largest magnitude formatted by {@link #fixed2}'s allocation-free path. */
+    static final double FAST_FIXED2_LIMIT = 1e7;
+    private static final double HALF_CENT_TOLERANCE = 1e-4;
+
+    private final Writer out;
+    private final char[] buffer = new char[BUFFER_CHARS];
+    private int pos;
+    private boolean started;
+    private boolean firstFeature = true;
+    private boolean closed;
+    /** The buffer as an {@link Appendable}, for {@link JsonStrings}. */
+    private final Appendable sink = new Appendable() {
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            GeoJsonWriter.this.append(String.valueOf(csq));
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            return append(String.valueOf(csq).substring(start, end));
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            GeoJsonWriter.this.append(c);
+            return this;
+        }
+    };
+
+    public GeoJsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    /** UTF-8 to {@code out}. */
+    public static GeoJsonWriter to(OutputStream out) {
+        return new GeoJsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /** UTF-8 to an NIO channel (file, socket, pipe). */
+    public static GeoJsonWriter to(WritableByteChannel channel) {
+        return new GeoJsonWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+    }
+
+    /** Gzip-compressed UTF-8 to {@code out}. */
+    public static GeoJsonWriter gzip(OutputStream out) throws IOException {
+        return to(new GZIPOutputStream(out, BUFFER_CHARS));
+    }
+
+    /** Creates or truncates {@code path}; compressed when the file name ends with {@code .gz}. */
+    public static GeoJsonWriter toFile(Path path) throws IOException {
+        OutputStream file = Files.newOutputStream(path);
+        try {
+            return path.getFileName().toString().endsWith(".gz") ? gzip(file) : to(file);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /** Appends the features of one route. */
+    public GeoJsonWriter writeRoute(RouteResult result) throws IOException {
+        if (closed) {
+            throw new IOException("GeoJsonWriter is closed");
+        }
+        begin();
+        List<RouteStep> sequence = result.getSequence();
+
+        // Full route LineString
+        startFeature();
+        append("      \"type\": \"Feature\",\n")
+                .append("      \"geometry\": { \"type\": \"LineString\", \"coordinates\": [\n");
+        for (int i = 0; i < sequence.size(); i++) {
+            append("        ").coordinates(sequence.get(i));
+            if (i < sequence.size() - 1) append(',');
+            append('\n');
+        }
+        append("      ]},\n")
+                .append("      \"properties\": { \"name\": \"Delivery Route\" }\n")
+                .append("    }");
+
+        // Arrows for direction (one segment per leg)
+        for (int i = 0; i < sequence.size() - 1; i++) {
+            startFeature();
+            append("      \"type\": \"Feature\",\n")
+                    .append("      \"geometry\": { \"type\": \"LineString\", \"coordinates\": [\n")
+                    .append("        ").coordinates(sequence.get(i)).append(",\n")
+                    .append("        ").coordinates(sequence.get(i + 1)).append('\n')
+                    .append("      ]},\n")
+                    .append("      \"properties\": { \"arrow\": true }\n")
+                    .append("    }");
+        }
+
+        // Markers: origin (first step) in yellow, then pickups red and deliveries green
+        for (int i = 0; i < sequence.size(); i++) {
+            RouteStep step = sequence.get(i);
+            String markerColor = "gray";
+            if (i == 0) {
+                markerColor = "yellow";
+            } else if ("Pickup".equalsIgnoreCase(step.getAction())) {
+                markerColor = "red";
+            } else if ("Deliver".equalsIgnoreCase(step.getAction())) {
+                markerColor = "green";
+            }
+            point(step, markerColor, i == 0);
+        }
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /** Ends the collection (an empty one if no route was written) and closes the target. */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            begin();
+            append("\n  ]\n}\n");
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void begin() throws IOException {
+        if (started) return;
+        started = true;
+        append("{\n  \"type\": \"FeatureCollection\",\n  \"features\": [\n");
+    }
+
+    private void startFeature() throws IOException {
+        append(firstFeature ? "    {\n" : ",\n    {\n");
+        firstFeature = false;
+    }
+
+    private void point(RouteStep step, String markerColor, boolean origin) throws IOException {
+        startFeature();
+        append("      \"type\": \"Feature\",\n")
+                .append("      \"geometry\": { \"type\": \"Point\", \"coordinates\": ").coordinates(step).append(" },\n")
+                .append("      \"properties\": {\n")
+                .append("        \"action\": ").string(step.getAction()).append(",\n")
+                .append("        \"target\": ").string(step.getTarget()).append(",\n")
+                .append("        \"orderId\": ").string(step.getOrderId()).append(",\n")
+                .append("        \"marker-color\": \"").append(markerColor).append("\",\n");
+        if (origin) {
+            append("        \"type\": \"origin\",\n");
+        }
+        append("        \"eta\": ").fixed2(step.getEta()).append('\n')
+                .append("      }\n")
+                .append("    }");
+    }
+
+    private GeoJsonWriter coordinates(RouteStep step) throws IOException {
+        return append('[').append(Double.toString(step.getLng())).append(", ")
+                .append(Double.toString(step.getLat())).append(']');
+    }
+
+    /** JSON string literal via {@link JsonStrings#quote}; a null id is written as {@code "null"}, as before. */
+    private GeoJsonWriter string(String s) throws IOException {
+        JsonStrings.quote(sink, s);
+        return this;
+    }
+
+    /**
+     * Two decimals, rounded half up on the shortest decimal form of {@code value}, like {@code %.2f}
+     * (so 1.005 gives 1.01), except that a negative value rounding to zero gives {@code 0.00};
+     * {@code null} for NaN/infinity, which JSON cannot represent.
+     * <p>
+     * Without allocating for ordinary ETAs: below {@link #FAST_FIXED2_LIMIT} the binary and decimal forms
+     * of {@code value * 100} differ by far less than {@link #HALF_CENT_TOLERANCE}, so {@link Math#round}
+     * agrees with decimal rounding unless the value sits on a half cent. Those, and huge values, go
+     * through {@link BigDecimal}.
+     */
+    GeoJsonWriter fixed2(double value) throws IOException {
+        if (!Double.isFinite(value)) {
+            return append("null");
+        }
+        double scaled = Math.abs(value) * 100.0;
+        if (Math.abs(value) >= FAST_FIXED2_LIMIT
+                || Math.abs(scaled - Math.floor(scaled) - 0.5) < HALF_CENT_TOLERANCE) {
+            return append(BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).toPlainString());
+        }
+        long cents = Math.round(scaled);
+        if (value < 0 && cents != 0) append('-');
+        long whole = cents / 100;
+        long unit = 1;
+        while (unit <= whole / 10) unit *= 10;
+        for (; unit > 0; unit /= 10) append((char) ('0' + whole / unit % 10));
+        int fraction = (int) (cents % 100);
+        return append('.').append((char) ('0' + fraction / 10)).append((char) ('0' + fraction % 10));
+    }
+
+    private GeoJsonWriter append(String s) throws IOException {
+        int offset = 0;
+        while (offset < s.length()) {
+            if (pos == buffer.length) drain();
+            int n = Math.min(s.length() - offset, buffer.length - pos);
+            s.getChars(offset, offset + n, buffer, pos);
+            pos += n;
+            offset += n;
+        }
+        return this;
+    }
+
+    private GeoJsonWriter append(char c) throws IOException {
+        if (pos == buffer.length) drain();
+        buffer[pos++] = c;
+        return this;
+    }
+
+    private void drain() throws IOException {
+        if (pos > 0) {
+            out.write(buffer, 0, pos);
+            pos = 0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.utility;
+
+import java.io.IOException;
+
+/**
+ * JSON string literals, shared by {@link GeoJsonWriter} and the planning server's JSON output.
+ */
+public final class JsonStrings {
+
+    private JsonStrings() {
+    }
+
+    /**
+     * Appends {@code s} as a JSON string literal: quotes, backslashes and control characters are escaped.
+     * A null string is written as {@code "null"}, as {@code StringBuilder.append} would.
+     */
+    public static <A extends Appendable> A quote(A out, String s) throws IOException {
+        if (s == null) {
+            out.append("\"null\"");
+            return out;
+        }
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+        return out;
+    }
+}
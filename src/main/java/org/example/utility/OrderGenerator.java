@@ -6,12 +6,25 @@ import org.example.entity.Order;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Small ad-hoc batches. For reproducible, parallel or very large workloads use {@link WorkloadGenerator}.
+ */
 public class OrderGenerator {
-    private static final Random random = new Random();
 
+    /** Unseeded: each thread draws from its own {@link ThreadLocalRandom}, so callers do not contend. */
     public static List<Order> generateOrders(int n, Location base) {
-        List<Order> orders = new ArrayList<>();
+        return generateOrders(n, base, ThreadLocalRandom.current());
+    }
+
+    /** Same distribution, reproducible: equal seeds give equal orders. */
+    public static List<Order> generateOrders(int n, Location base, long seed) {
+        return generateOrders(n, base, new Random(seed));
+    }
+
+    private static List<Order> generateOrders(int n, Location base, Random random) {
+        List<Order> orders = new ArrayList<>(n);
 
         for (int i = 1; i <= n; i++) {
             // Randomize restaurant within ~1km of base
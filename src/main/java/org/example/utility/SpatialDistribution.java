@@ -0,0 +1,91 @@
+package org.example.utility;
+
+import org.example.algo.Haversine;
+import org.example.entity.Location;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Where {@link WorkloadGenerator} places restaurants and customers.
+ * Implementations must be stateless: all randomness comes from the given generator.
+ */
+@FunctionalInterface
+public interface SpatialDistribution {
+
+    /** {restaurant, customer} of one order. */
+    Location[] sample(SplittableRandom random);
+
+    /**
+     * Restaurants uniform in a disk of {@code restaurantRadiusKm} around {@code center}, customers uniform in
+     * a disk of {@code customerRadiusKm}, independently.
+     */
+    static SpatialDistribution uniform(Location center, double restaurantRadiusKm, double customerRadiusKm) {
+        return random -> new Location[]{
+                inDisk(center, restaurantRadiusKm, random),
+                inDisk(center, customerRadiusKm, random)};
+    }
+
+    /**
+     * Demand concentrated around several stores: each order picks a store with probability proportional
+     * to its weight, then places the restaurant and the customer around that store with normally
+     * distributed offsets (standard deviations {@code restaurantSpreadKm} and {@code customerSpreadKm}
+     * per axis).
+     */
+    static SpatialDistribution hotspots(List<Location> stores, double[] weights,
+                                        double restaurantSpreadKm, double customerSpreadKm) {
+        if (stores.isEmpty() || stores.size() != weights.length) {
+            throw new IllegalArgumentException("Need one weight per store, got " + stores.size()
+                    + " stores and " + weights.length + " weights");
+        }
+        Location[] centers = stores.toArray(new Location[0]);
+        double[] cumulative = new double[weights.length];
+        double sum = 0.0;
+        for (int i = 0; i < weights.length; i++) {
+            if (!(weights[i] >= 0)) {
+                throw new IllegalArgumentException("Negative weight for store " + i + ": " + weights[i]);
+            }
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        if (!(sum > 0)) {
+            throw new IllegalArgumentException("At least one store needs a positive weight");
+        }
+        double total = sum;
+        return random -> {
+            double pick = random.nextDouble(total);
+            int store = 0;
+            while (store < centers.length - 1 && cumulative[store] <= pick) store++;
+            Location center = centers[store];
+            return new Location[]{
+                    gaussian(center, restaurantSpreadKm, random),
+                    gaussian(center, customerSpreadKm, random)};
+        };
+    }
+
+    /** Same weight for every store. */
+    static SpatialDistribution hotspots(List<Location> stores, double restaurantSpreadKm, double customerSpreadKm) {
+        double[] weights = new double[stores.size()];
+        Arrays.fill(weights, 1.0);
+        return hotspots(stores, weights, restaurantSpreadKm, customerSpreadKm);
+    }
+
+    private static Location inDisk(Location center, double radiusKm, SplittableRandom random) {
+        double r = radiusKm * Math.sqrt(random.nextDouble());
+        double theta = 2 * Math.PI * random.nextDouble();
+        return offset(center, r * Math.cos(theta), r * Math.sin(theta));
+    }
+
+    private static Location gaussian(Location center, double spreadKm, SplittableRandom random) {
+        return offset(center, spreadKm * random.nextGaussian(), spreadKm * random.nextGaussian());
+    }
+
+    /** {@code center} moved {@code northKm} / {@code eastKm}; fine for the few km of a delivery zone. */
+    private static Location offset(Location center, double northKm, double eastKm) {
+        double lat = center.getLatitude() + northKm / Haversine.KM_PER_DEGREE;
+        double lon = center.getLongitude()
+                + eastKm / (Haversine.KM_PER_DEGREE * Math.cos(Math.toRadians(center.getLatitude())));
+        return new Location(lat, lon);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.utility;
+
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of a duration in minutes (prep time, trust buffer) for {@link WorkloadGenerator}.
+ * Implementations must be stateless: all randomness comes from the given generator.
+ */
+@FunctionalInterface
+public interface TimeDistribution {
+
+    double sample(SplittableRandom random);
+
+    static TimeDistribution constant(double minutes) {
+        return random -> minutes;
+    }
+
+    /** Continuous uniform in [min, max). */
+    static TimeDistribution uniform(double min, double max) {
+        if (!(max > min)) {
+            throw new IllegalArgumentException("Expected min < max, got " + min + " and " + max);
+        }
+        return random -> random.nextDouble(min, max);
+    }
+
+    /** Whole minutes, uniform in [min, max] (the {@link OrderGenerator} prep times are 3..10). */
+    static TimeDistribution uniformInt(int min, int max) {
+        if (max < min) {
+            throw new IllegalArgumentException("Expected min <= max, got " + min + " and " + max);
+        }
+        return random -> random.nextInt(min, max + 1);
+    }
+
+    /**
+     * Right-skewed: most values near {@code median}, a long tail of slow kitchens.
+     * {@code sigma} is the standard deviation of the underlying normal (0.3–0.5 is typical for prep times).
+     */
+    static TimeDistribution logNormal(double median, double sigma) {
+        if (median <= 0 || sigma < 0) {
+            throw new IllegalArgumentException("Expected median > 0 and sigma >= 0, got " + median + " and " + sigma);
+        }
+        double mu = Math.log(median);
+        return random -> Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    /** Memoryless with the given mean. */
+    static TimeDistribution exponential(double mean) {
+        if (mean <= 0) {
+            throw new IllegalArgumentException("Expected mean > 0, got " + mean);
+        }
+        return random -> -mean * Math.log(1.0 - random.nextDouble());
+    }
+}
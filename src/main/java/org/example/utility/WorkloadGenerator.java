@@ -0,0 +1,81 @@
+package org.example.utility;
+
+import org.example.entity.Location;
+import org.example.entity.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Seeded synthetic orders for load tests and benchmarks.
+ * <p>
+ * Order {@code i} is drawn from its own {@link SplittableRandom}, seeded from the generator seed and
+ * {@code i} alone. Orders therefore do not depend on each other, on the thread that creates them or on how a
+ * stream is split. A parallel stream returns exactly the orders of a sequential one, and a worker can
+ * produce any slice ({@link #stream(long, long)}) without generating what comes before it. Nothing is
+ * shared between threads and nothing is materialised unless the caller collects.
+ * <p>
+ * Order ids are {@code "O" + (i + 1)}, as in {@link OrderGenerator}.
+ */
+public class WorkloadGenerator {
+
+    /** Odd constant of the golden-ratio sequence used to spread indices over seeds. */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private final SpatialDistribution spatial;
+    private final TimeDistribution prepTime;
+    private final TimeDistribution trustBuffer;
+
+    /**
+     * Same shape as {@link OrderGenerator}: restaurants within about 1 km of {@code base}, customers within
+     * about 2 km, prep 3..10 minutes and trust buffer 0..3 minutes (whole minutes). The individual values
+     * differ from {@link OrderGenerator}'s for the same seed.
+     */
+    public WorkloadGenerator(long seed, Location base) {
+        this(seed, SpatialDistribution.uniform(base, 1.0, 2.0),
+                TimeDistribution.uniformInt(3, 10), TimeDistribution.uniformInt(0, 3));
+    }
+
+    public WorkloadGenerator(long seed, SpatialDistribution spatial, TimeDistribution prepTime,
+                             TimeDistribution trustBuffer) {
+        this.seed = seed;
+        this.spatial = spatial;
+        this.prepTime = prepTime;
+        this.trustBuffer = trustBuffer;
+    }
+
+    /** The {@code index}-th order (0-based) of this workload. */
+    public Order order(long index) {
+        SplittableRandom random = new SplittableRandom(mix(seed + (index + 1) * GOLDEN_GAMMA));
+        Location[] places = spatial.sample(random);
+        return new Order("O" + (index + 1), places[1], places[0], prepTime.sample(random), trustBuffer.sample(random));
+    }
+
+    /** Orders {@code 0..count-1}, lazily; call {@code .parallel()} to generate on all cores. */
+    public Stream<Order> stream(long count) {
+        return stream(0, count);
+    }
+
+    /** Orders {@code first..first+count-1}, e.g. one load-test worker's share. */
+    public Stream<Order> stream(long first, long count) {
+        return LongStream.range(first, first + count).mapToObj(this::order);
+    }
+
+    /** The first {@code count} orders as a list, e.g. one batch for {@code RouteService}. */
+    public List<Order> generate(int count) {
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) orders.add(order(i));
+        return orders;
+    }
+
+    /** Stafford variant 13 of the MurmurHash3 finaliser, so neighbouring indices get unrelated seeds. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
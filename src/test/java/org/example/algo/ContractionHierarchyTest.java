@@ -0,0 +1,199 @@
+package org.example.algo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractionHierarchyTest {
+
+    // - Setup: jittered 30 × 30 street grid, random speeds, a quarter of the streets one-way,
+    //   a few diagonal arterials and two isolated nodes
+    // - Tests:
+    //   - query(s, t) equals plain Dijkstra for 40 random sources against every target
+    //   - table(sources, targets) equals the same Dijkstra distances, +∞ where unreachable
+    // - Purpose: Verifies shortcuts and the upward searches preserve every shortest path
+    @Test
+    void testMatchesDijkstra() {
+        RoadGraph graph = city(30, 30, 11);
+        ContractionHierarchy ch = ContractionHierarchy.build(graph);
+        assertTrue(ch.shortcutCount() > 0);
+
+        SplittableRandom random = new SplittableRandom(3);
+        int n = graph.nodeCount();
+        int[] sources = new int[40];
+        int[] targets = new int[n];
+        for (int i = 0; i < sources.length; i++) sources[i] = random.nextInt(n);
+        for (int j = 0; j < n; j++) targets[j] = j;
+
+        double[] table = ch.table(sources, targets);
+        for (int i = 0; i < sources.length; i++) {
+            double[] expected = dijkstra(graph, sources[i]);
+            for (int t = 0; t < n; t++) {
+                assertEquals(expected[t], ch.query(sources[i], t), 1e-9, "query " + sources[i] + " -> " + t);
+                assertEquals(expected[t], table[i * n + t], 1e-9, "table " + sources[i] + " -> " + t);
+            }
+        }
+        assertEquals(Double.POSITIVE_INFINITY, ch.query(0, n - 1)); // isolated node
+    }
+
+    // - Setup: directed triangle a → b → c → a (one-way) with a parallel slower a → b edge
+    // - Tests: times follow the one-way direction and use the faster parallel edge
+    // - Purpose: Verifies asymmetric and multi-edge input
+    @Test
+    void testOneWayAndParallelEdges() {
+        RoadGraph graph = new RoadGraph.Builder()
+                .addNode(1, 12.90, 77.60).addNode(2, 12.91, 77.60).addNode(3, 12.91, 77.61)
+                .addEdge(1, 2, 2.0, true).addEdge(1, 2, 5.0, true)
+                .addEdge(2, 3, 3.0, true).addEdge(3, 1, 4.0, true)
+                .build();
+        ContractionHierarchy ch = ContractionHierarchy.build(graph);
+
+        assertEquals(2.0, ch.query(0, 1));
+        assertEquals(7.0, ch.query(1, 0));
+        assertEquals(5.0, ch.query(0, 2));
+        assertArrayEquals(new double[]{0.0, 2.0, 5.0, 7.0, 0.0, 3.0, 4.0, 6.0, 0.0},
+                ch.table(new int[]{0, 1, 2}, new int[]{0, 1, 2}));
+    }
+
+    // - Setup: 12 × 12 grid; 64 threads each run 20 queries at once
+    // - Tests:
+    //   - Every query equals Dijkstra
+    //   - Of MAX_IDLE_WORKSPACES + 1 released workspaces, only MAX_IDLE_WORKSPACES are handed out again
+    // - Purpose: Verifies the workspace pool is shared safely and stays bounded
+    @Test
+    void testWorkspacePoolIsBounded() throws Exception {
+        RoadGraph graph = city(12, 12, 5);
+        ContractionHierarchy ch = ContractionHierarchy.build(graph);
+        int n = graph.nodeCount();
+        double[] expected = dijkstra(graph, 0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int task = 0; task < 64; task++) {
+                int seed = task;
+                futures.add(pool.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    for (int q = 0; q < 20; q++) {
+                        int t = random.nextInt(n);
+                        assertEquals(expected[t], ch.query(0, t), 1e-9);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int limit = ContractionHierarchy.MAX_IDLE_WORKSPACES;
+        Set<ContractionHierarchy.Workspace> borrowed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i <= limit; i++) borrowed.add(ch.borrow());
+        assertEquals(limit + 1, borrowed.size());
+        borrowed.forEach(ch::release);
+        int reused = 0;
+        for (int i = 0; i <= limit; i++) {
+            if (borrowed.contains(ch.borrow())) reused++;
+        }
+        assertEquals(limit, reused);
+    }
+
+    // - Setup: 12 × 12 grid; the pooled workspace's stamps are set just below Integer.MAX_VALUE
+    // - Tests: queries and a table across the wrap-around still equal Dijkstra, and the stamps restart at 1
+    // - Purpose: Verifies stale nodes are never read as current after the stamp wraps
+    @Test
+    void testVersionStampWrapAround() {
+        RoadGraph graph = city(12, 12, 9);
+        ContractionHierarchy ch = ContractionHierarchy.build(graph);
+        int n = graph.nodeCount();
+        int[] targets = new int[n];
+        for (int t = 0; t < n; t++) targets[t] = t;
+        ch.table(new int[]{1}, targets); // leaves stamps of the old searches behind
+
+        ContractionHierarchy.Workspace ws = ch.borrow();
+        ws.forward.current = Integer.MAX_VALUE - 1;
+        ws.backward.current = Integer.MAX_VALUE - 1;
+        ws.buckets.current = Integer.MAX_VALUE - 1;
+        ch.release(ws);
+
+        for (int source = 0; source < 4; source++) {
+            double[] expected = dijkstra(graph, source);
+            for (int t = 0; t < n; t += 7) assertEquals(expected[t], ch.query(source, t), 1e-9);
+            double[] row = ch.table(new int[]{source}, targets);
+            for (int t = 0; t < n; t++) assertEquals(expected[t], row[t], 1e-9);
+        }
+        ContractionHierarchy.Workspace after = ch.borrow();
+        assertSame(ws, after);
+        assertTrue(after.forward.current > 0 && after.forward.current < 100);
+        assertTrue(after.buckets.current > 0 && after.buckets.current < 100);
+    }
+
+    /**
+     * Street grid around Koramangala with ~150 m blocks: random speeds (15–40 km/h), 25 % one-way
+     * streets, every fifth row an arterial with diagonals, plus two isolated nodes at the end.
+     */
+    static RoadGraph city(int rows, int cols, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        RoadGraph.Builder builder = new RoadGraph.Builder();
+        double step = 0.00135; // ~150 m
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                builder.addNode(r * cols + c, 12.92 + r * step + random.nextDouble(-0.0002, 0.0002),
+                        77.61 + c * step + random.nextDouble(-0.0002, 0.0002));
+            }
+        }
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                long v = (long) r * cols + c;
+                double speed = r % 5 == 0 ? 40.0 : random.nextDouble(15.0, 30.0);
+                double minutes = 0.15 / speed * 60.0 * random.nextDouble(1.0, 1.3);
+                if (c + 1 < cols) street(builder, random, v, v + 1, minutes);
+                if (r + 1 < rows) street(builder, random, v, v + cols, minutes);
+                if (r % 5 == 0 && r + 1 < rows && c + 1 < cols) street(builder, random, v, v + cols + 1, minutes * 1.5);
+            }
+        }
+        builder.addNode(-1, 12.80, 77.50).addNode(-2, 12.81, 77.50).addEdge(-1, -2, 1.0, false);
+        return builder.build();
+    }
+
+    private static void street(RoadGraph.Builder builder, SplittableRandom random, long a, long b, double minutes) {
+        if (random.nextInt(4) == 0) {
+            if (random.nextBoolean()) builder.addEdge(a, b, minutes, true);
+            else builder.addEdge(b, a, minutes, true);
+        } else {
+            builder.addEdge(a, b, minutes, false);
+        }
+    }
+
+    static double[] dijkstra(RoadGraph graph, int source) {
+        double[] dist = new double[graph.nodeCount()];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[source] = 0.0;
+        PriorityQueue<double[]> queue = new PriorityQueue<>((x, y) -> Double.compare(x[0], y[0]));
+        queue.add(new double[]{0.0, source});
+        while (!queue.isEmpty()) {
+            double[] top = queue.poll();
+            int u = (int) top[1];
+            if (top[0] > dist[u]) continue;
+            for (int e = graph.firstEdge(u); e < graph.firstEdge(u + 1); e++) {
+                double d = top[0] + graph.minutes(e);
+                if (d < dist[graph.target(e)]) {
+                    dist[graph.target(e)] = d;
+                    queue.add(new double[]{d, graph.target(e)});
+                }
+            }
+        }
+        return dist;
+    }
+}
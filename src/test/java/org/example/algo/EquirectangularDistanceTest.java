@@ -0,0 +1,86 @@
+package org.example.algo;
+
+import org.example.entity.Location;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquirectangularDistanceTest {
+
+    // - Setup: random pairs within 10 km of a reference point at several latitudes
+    // - Tests:
+    //   - |approx - haversine| / haversine never exceeds maxRelativeError(10)
+    // - Purpose: The documented error bound holds
+    @ParameterizedTest
+    @ValueSource(doubles = {0.0, 12.9352, 45.0, -60.0})
+    void testErrorWithinDocumentedBound(double latitude) {
+        Location reference = new Location(latitude, 77.6245);
+        EquirectangularDistance model = EquirectangularDistance.around(reference);
+        double bound = model.maxRelativeError(10.0);
+        Random random = new Random(7);
+
+        for (int k = 0; k < 20_000; k++) {
+            Location a = near(reference, 10.0, random);
+            Location b = near(reference, 10.0, random);
+            double exact = Haversine.distance(a, b);
+            if (exact < 1e-6) continue;
+            assertTrue(Math.abs(model.distance(a, b) - exact) <= bound * exact,
+                    () -> a + " " + b + " exceeds " + bound);
+        }
+    }
+
+    // - Setup: reference at Koramangala
+    // - Tests:
+    //   - 10 km bound is below 0.05 %; bound grows with latitude; poles give infinity
+    // - Purpose: Documents the magnitudes quoted in the class comment
+    @Test
+    void testBoundMagnitudes() {
+        assertTrue(new EquirectangularDistance(12.9352).maxRelativeError(10.0) < 5e-4);
+        assertTrue(new EquirectangularDistance(45.0).maxRelativeError(10.0)
+                > new EquirectangularDistance(12.9352).maxRelativeError(10.0));
+        assertEquals(Double.POSITIVE_INFINITY, new EquirectangularDistance(89.99).maxRelativeError(10.0));
+        assertThrows(IllegalArgumentException.class, () -> new EquirectangularDistance(90.0));
+    }
+
+    // - Setup: 30 points near the reference
+    // - Tests:
+    //   - travelTimeMatrix matches travelTime pairwise, is symmetric and zero on the diagonal
+    //   - HAVERSINE model matrix matches Haversine.travelTime
+    // - Purpose: Matrix fast paths agree with the per-pair methods
+    @Test
+    void testMatrixMatchesPairwise() {
+        Location reference = new Location(12.9352, 77.6245);
+        Random random = new Random(3);
+        List<Location> points = new ArrayList<>();
+        for (int i = 0; i < 30; i++) points.add(near(reference, 5.0, random));
+        Location[] nodes = points.toArray(new Location[0]);
+
+        for (DistanceModel model : List.of(EquirectangularDistance.around(reference), DistanceModel.HAVERSINE)) {
+            double[] matrix = model.travelTimeMatrix(nodes);
+            for (int i = 0; i < nodes.length; i++) {
+                assertEquals(0.0, matrix[i * nodes.length + i]);
+                for (int j = 0; j < nodes.length; j++) {
+                    if (i == j) continue;
+                    assertEquals(model.travelTime(nodes[i], nodes[j]), matrix[i * nodes.length + j], 1e-9, model.toString());
+                    assertEquals(matrix[i * nodes.length + j], matrix[j * nodes.length + i]);
+                }
+            }
+        }
+    }
+
+    /** Uniform random point within {@code radiusKm} of {@code center} (small-distance approximation). */
+    private static Location near(Location center, double radiusKm, Random random) {
+        double r = radiusKm * Math.sqrt(random.nextDouble()) * 0.999;
+        double bearing = random.nextDouble() * 2 * Math.PI;
+        double kmPerDegree = Haversine.EARTH_RADIUS * Math.PI / 180.0;
+        double dLat = r * Math.cos(bearing) / kmPerDegree;
+        double dLon = r * Math.sin(bearing) / (kmPerDegree * Math.cos(Math.toRadians(center.getLatitude() + dLat)));
+        return new Location(center.getLatitude() + dLat, center.getLongitude() + dLon);
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.algo;
+
+import org.example.entity.Location;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoGridIndexTest {
+
+    private static final Location STORE = new Location(12.9352, 77.6245);
+
+    // - Setup: 3 000 random points within ~10 km of the store, 0.5 km cells
+    // - Tests:
+    //   - nearest(k) and withinRadius match a brute-force Haversine scan for many query points
+    // - Purpose: Ring search and cell ranges never miss a closer point
+    @Test
+    void testQueriesMatchBruteForce() {
+        Random random = new Random(1);
+        GeoGridIndex<Integer> index = new GeoGridIndex<>(0.5);
+        List<Location> points = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Location p = around(STORE, 0.09, random);
+            points.add(p);
+            index.put(i, p);
+        }
+
+        for (int q = 0; q < 50; q++) {
+            Location target = around(STORE, 0.12, random);
+            List<Integer> byDistance = new ArrayList<>();
+            for (int i = 0; i < points.size(); i++) byDistance.add(i);
+            byDistance.sort(Comparator.comparingDouble(i -> Haversine.distance(target, points.get(i))));
+
+            for (int k : new int[]{1, 5, 40}) {
+                assertEquals(byDistance.subList(0, k), keys(index.nearest(target, k)));
+            }
+            double radius = 0.3 + random.nextDouble() * 2.0;
+            List<Integer> inRadius = byDistance.stream()
+                    .filter(i -> Haversine.distance(target, points.get(i)) <= radius)
+                    .collect(Collectors.toList());
+            assertEquals(inRadius, keys(index.withinRadius(target, radius)));
+        }
+    }
+
+    // - Setup: a handful of points hundreds of km apart (sparse grid), and an empty index
+    // - Tests:
+    //   - nearest falls back to scanning occupied cells and still returns the right order
+    //   - k larger than the index returns every key; empty index returns nothing
+    // - Purpose: Queries terminate quickly on sparse or small indexes
+    @Test
+    void testSparseAndEmptyIndex() {
+        GeoGridIndex<String> index = new GeoGridIndex<>(0.5);
+        assertTrue(index.nearest(STORE, 3).isEmpty());
+        assertTrue(index.withinRadius(STORE, 5.0).isEmpty());
+
+        index.put("Bangalore", STORE);
+        index.put("Chennai", new Location(13.0827, 80.2707));
+        index.put("Mumbai", new Location(19.0760, 72.8777));
+
+        assertEquals(List.of("Bangalore", "Chennai", "Mumbai"), keys(index.nearest(new Location(12.9, 77.7), 10)));
+        assertEquals(List.of("Chennai"), keys(index.nearest(new Location(13.0, 80.0), 1)));
+        assertEquals(List.of("Bangalore", "Chennai"), keys(index.withinRadius(STORE, 400.0)));
+    }
+
+    // - Setup: rider moved across cells, then removed
+    // - Tests:
+    //   - put returns the previous location; queries see the new position only
+    //   - remove drops the key and its cell
+    // - Purpose: Insert / move / remove semantics
+    @Test
+    void testMoveAndRemove() {
+        GeoGridIndex<String> index = new GeoGridIndex<>(0.5);
+        Location far = new Location(12.99, 77.70);
+        assertNull(index.put("R1", STORE));
+        assertEquals(STORE, index.put("R1", far));
+        index.put("R2", new Location(12.936, 77.625));
+
+        assertEquals(List.of("R2", "R1"), keys(index.nearest(STORE, 2)));
+        assertEquals(List.of("R2"), keys(index.withinRadius(STORE, 1.0)));
+        assertEquals(far, index.location("R1"));
+
+        assertEquals(far, index.remove("R1"));
+        assertNull(index.remove("R1"));
+        assertEquals(1, index.size());
+        assertEquals(List.of("R2"), keys(index.nearest(far, 5)));
+    }
+
+    // - Setup: 4 writer threads moving 500 riders around while 4 readers query
+    // - Tests:
+    //   - Queries never fail, never report a key twice, and return sorted distances
+    //   - After the writers stop, the index matches the final positions
+    // - Purpose: Concurrent reads during updates are safe
+    @Test
+    void testConcurrentReadsDuringUpdates() throws Exception {
+        GeoGridIndex<Integer> index = new GeoGridIndex<>(0.5);
+        Map<Integer, Location> finalPositions = new ConcurrentHashMap<>();
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                int writer = w;
+                writers.add(pool.submit(() -> {
+                    Random random = new Random(writer);
+                    for (int step = 0; step < 5000; step++) {
+                        int key = writer * 125 + random.nextInt(125);
+                        if (random.nextInt(10) == 0) {
+                            index.remove(key);
+                            finalPositions.remove(key);
+                        } else {
+                            Location p = around(STORE, 0.05, random);
+                            index.put(key, p);
+                            finalPositions.put(key, p);
+                        }
+                    }
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 4; r++) {
+                readers.add(pool.submit(() -> {
+                    Random random = new Random(100);
+                    while (!stop.get()) {
+                        Location target = around(STORE, 0.05, random);
+                        assertWellFormed(index.nearest(target, 10));
+                        assertWellFormed(index.withinRadius(target, 1.0));
+                    }
+                }));
+            }
+            for (Future<?> f : writers) f.get();
+            stop.set(true);
+            for (Future<?> f : readers) f.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(finalPositions.size(), index.size());
+        List<Integer> all = keys(index.withinRadius(STORE, 50.0));
+        assertEquals(finalPositions.size(), all.size());
+        for (Map.Entry<Integer, Location> e : finalPositions.entrySet()) {
+            assertEquals(e.getValue(), index.location(e.getKey()));
+        }
+    }
+
+    private static void assertWellFormed(List<GeoGridIndex.Neighbor<Integer>> hits) {
+        assertEquals(hits.size(), hits.stream().map(GeoGridIndex.Neighbor::getKey).distinct().count());
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1).getDistanceKm() <= hits.get(i).getDistanceKm());
+        }
+    }
+
+    private static <K> List<K> keys(List<GeoGridIndex.Neighbor<K>> hits) {
+        return hits.stream().map(GeoGridIndex.Neighbor::getKey).collect(Collectors.toList());
+    }
+
+    private static Location around(Location center, double spreadDegrees, Random random) {
+        return new Location(center.getLatitude() + (random.nextDouble() - 0.5) * 2 * spreadDegrees,
+                center.getLongitude() + (random.nextDouble() - 0.5) * 2 * spreadDegrees);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.algo;
+
+import org.example.entity.Location;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HaversineBatchTest {
+
+    // - Setup: 60 random points around Bangalore plus a few far-apart and identical pairs
+    // - Tests:
+    //   - distanceMatrix / travelTimeMatrix match the pairwise Haversine results
+    //   - Matrix is symmetric with a zero diagonal
+    // - Purpose: Cached-trig formula agrees with the scalar implementation
+    @Test
+    void testMatrixMatchesScalar() {
+        List<Location> points = points(60, 1);
+        points.add(new Location(-33.8688, 151.2093)); // Sydney
+        points.add(new Location(51.5074, -0.1278));   // London
+        points.add(points.get(0));                     // duplicate point
+
+        HaversineBatch batch = HaversineBatch.of(points);
+        double[] distances = batch.distanceMatrix();
+        double[] times = batch.travelTimeMatrix();
+        int n = points.size();
+
+        for (int i = 0; i < n; i++) {
+            assertEquals(0.0, distances[i * n + i]);
+            for (int j = 0; j < n; j++) {
+                double expected = Haversine.distance(points.get(i), points.get(j));
+                assertEquals(expected, distances[i * n + j], 1e-9 * Math.max(1.0, expected));
+                assertEquals(Haversine.travelTime(points.get(i), points.get(j)), times[i * n + j],
+                        1e-9 * Math.max(1.0, times[i * n + j]));
+                assertEquals(distances[i * n + j], distances[j * n + i]);
+            }
+        }
+        assertEquals(0.0, batch.distance(0, n - 1), 1e-12);
+    }
+
+    // - Setup: 5 sources, 7 targets
+    // - Tests:
+    //   - distancesTo / travelTimesTo fill a row-major 5x7 block; distancesFrom matches one row
+    // - Purpose: One-to-many and rectangular many-to-many APIs
+    @Test
+    void testOneToManyAndManyToMany() {
+        List<Location> sources = points(5, 2);
+        List<Location> targets = points(7, 3);
+        HaversineBatch from = HaversineBatch.of(sources);
+        HaversineBatch to = HaversineBatch.of(targets);
+
+        double[] distances = new double[5 * 7];
+        double[] times = new double[5 * 7];
+        from.distancesTo(to, distances);
+        from.travelTimesTo(to, times);
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 7; j++) {
+                assertEquals(Haversine.distance(sources.get(i), targets.get(j)), distances[i * 7 + j], 1e-9);
+                assertEquals(Haversine.travelTime(sources.get(i), targets.get(j)), times[i * 7 + j], 1e-9);
+            }
+        }
+
+        double[] row = new double[5];
+        from.travelTimesFrom(2, row);
+        for (int j = 0; j < 5; j++) {
+            assertEquals(Haversine.travelTime(sources.get(2), sources.get(j)), row[j], 1e-9);
+        }
+    }
+
+    @Test
+    void testRejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> new HaversineBatch(new double[3], new double[2]));
+        HaversineBatch batch = HaversineBatch.of(points(4, 4));
+        assertThrows(IllegalArgumentException.class, () -> batch.distancesFrom(0, new double[3]));
+        assertThrows(IllegalArgumentException.class, () -> batch.distancesTo(batch, new double[15]));
+    }
+
+    private static List<Location> points(int count, long seed) {
+        Random random = new Random(seed);
+        List<Location> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new Location(12.9 + random.nextDouble() * 0.1, 77.6 + random.nextDouble() * 0.1));
+        }
+        return points;
+    }
+}
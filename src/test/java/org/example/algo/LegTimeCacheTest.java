@@ -0,0 +1,199 @@
+package org.example.algo;
+
+import org.example.entity.Location;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LegTimeCacheTest {
+
+    /** Haversine that counts the legs it computes. */
+    private static final class CountingProvider implements TravelTimeProvider {
+        final AtomicInteger legs = new AtomicInteger();
+
+        @Override
+        public double travelTime(Location from, Location to) {
+            legs.incrementAndGet();
+            return Haversine.travelTime(from, to);
+        }
+    }
+
+    private static Location[] points(int count) {
+        Location[] points = new Location[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = new Location(12.93 + i * 0.001, 77.62 + (i % 7) * 0.002);
+        }
+        return points;
+    }
+
+    // - Setup: cache in front of a counting Haversine provider
+    // - Tests:
+    //   - The second lookup of a leg is a hit and does not reach the provider
+    //   - (a, b) and (b, a) are separate entries
+    //   - Locations within the quantisation (about 1 m) share an entry
+    // - Purpose: Verifies lookups, keys and hit/miss counts
+    @Test
+    void testTravelTimeHitsAndMisses() {
+        CountingProvider provider = new CountingProvider();
+        LegTimeCache cache = new LegTimeCache(provider, 1024);
+        Location a = new Location(12.9300, 77.6200);
+        Location b = new Location(12.9400, 77.6300);
+
+        double ab = cache.travelTime(a, b);
+        assertEquals(Haversine.travelTime(a, b), ab);
+        assertEquals(ab, cache.travelTime(a, b));
+        cache.travelTime(b, a);
+        assertEquals(ab, cache.travelTime(new Location(12.930001, 77.620001), b));
+
+        assertEquals(2, provider.legs.get());
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(2, cache.size());
+    }
+
+    // - Setup: 12 locations; a 6-location matrix is computed first, then the full 12-location one
+    // - Tests:
+    //   - Both matrices equal the provider's own
+    //   - A matrix with missing legs is computed whole by the provider (30 + 132 legs), and all of its
+    //     legs count as misses, even those that were cached
+    //   - Repeating either matrix makes no provider calls and counts all of its legs as hits
+    // - Purpose: Verifies matrices are served from the cache and misses go to the provider in one call
+    @Test
+    void testMatrixComputesOnlyMisses() {
+        CountingProvider provider = new CountingProvider();
+        LegTimeCache cache = new LegTimeCache(provider, 1024);
+        Location[] all = points(12);
+        Location[] first = Arrays.copyOf(all, 6);
+
+        assertArrayEquals(new CountingProvider().travelTimeMatrix(first), cache.travelTimeMatrix(first));
+        assertEquals(30, provider.legs.get());
+        assertArrayEquals(new CountingProvider().travelTimeMatrix(all), cache.travelTimeMatrix(all));
+        assertEquals(30 + 132, provider.legs.get());
+        assertEquals(0, cache.hits());
+        assertEquals(30 + 132, cache.misses());
+
+        cache.travelTimeMatrix(all);
+        cache.travelTimeMatrix(first);
+        assertEquals(30 + 132, provider.legs.get());
+        assertEquals(132 + 30, cache.hits());
+        assertEquals(30 + 132, cache.misses());
+    }
+
+    // - Setup: cache of 16 legs, 40 locations looked up in turn from a fixed origin
+    // - Tests:
+    //   - Capacity is 16 and size never exceeds it
+    //   - Every insert past capacity evicts one leg
+    //   - Returned times stay correct after evictions
+    // - Purpose: Verifies bounded size and eviction
+    @Test
+    void testBoundedWithEviction() {
+        CountingProvider provider = new CountingProvider();
+        LegTimeCache cache = new LegTimeCache(provider, 16);
+        Location origin = new Location(12.92, 77.61);
+        Location[] points = points(40);
+        for (Location p : points) {
+            assertEquals(Haversine.travelTime(origin, p), cache.travelTime(origin, p));
+        }
+        assertEquals(16, cache.capacity());
+        assertTrue(cache.size() <= 16);
+        assertEquals(40 - cache.size(), cache.evictions());
+        for (Location p : points) {
+            assertEquals(Haversine.travelTime(origin, p), cache.travelTime(origin, p));
+        }
+    }
+
+    // - Setup: cache of 4 legs (a single set), filled with legs to 4 locations; the first is looked up again
+    // - Tests:
+    //   - A fifth leg evicts the second (least recently used), not the first
+    //   - The first leg is still served without calling the provider
+    // - Purpose: Verifies the per-set recency order steers eviction
+    @Test
+    void testEvictsLeastRecentlyUsedInSet() {
+        CountingProvider provider = new CountingProvider();
+        LegTimeCache cache = new LegTimeCache(provider, LegTimeCache.WAYS);
+        Location origin = new Location(12.92, 77.61);
+        Location[] points = points(5);
+        for (int i = 0; i < 4; i++) cache.travelTime(origin, points[i]);
+        cache.travelTime(origin, points[0]);
+        cache.travelTime(origin, points[4]);
+        assertEquals(5, provider.legs.get());
+        assertEquals(1, cache.evictions());
+
+        cache.travelTime(origin, points[0]);
+        assertEquals(5, provider.legs.get());
+        cache.travelTime(origin, points[1]);
+        assertEquals(6, provider.legs.get());
+    }
+
+    // - Setup: a warm cache saved to a snapshot, a fresh cache (different capacity) loaded from it
+    // - Tests:
+    //   - All legs are written and read back
+    //   - The loaded cache answers the matrix without calling its provider
+    //   - A file that is not a snapshot, or a truncated one, is rejected with IOException
+    // - Purpose: Verifies warm restarts from the memory-mapped snapshot
+    @Test
+    void testSnapshotRoundTrip(@TempDir Path dir) throws IOException {
+        Location[] points = points(10);
+        LegTimeCache warm = new LegTimeCache(new CountingProvider(), 1024);
+        double[] expected = warm.travelTimeMatrix(points);
+        Path file = dir.resolve("legs.snapshot");
+        assertEquals(90, warm.saveSnapshot(file));
+
+        CountingProvider provider = new CountingProvider();
+        LegTimeCache restarted = new LegTimeCache(provider, 4096);
+        assertEquals(90, restarted.loadSnapshot(file));
+        assertArrayEquals(expected, restarted.travelTimeMatrix(points));
+        assertEquals(0, provider.legs.get());
+
+        Path garbage = dir.resolve("garbage");
+        Files.writeString(garbage, "not a snapshot at all, clearly");
+        assertThrows(IOException.class, () -> restarted.loadSnapshot(garbage));
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = dir.resolve("truncated");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> restarted.loadSnapshot(truncated));
+    }
+
+    // - Setup: one small cache (forcing evictions) shared by 4 threads looking up random legs
+    // - Tests: every returned time equals Haversine for its pair
+    // - Purpose: Verifies the cache is safe to share across threads
+    @Test
+    void testConcurrentLookups() throws Exception {
+        LegTimeCache cache = new LegTimeCache(DistanceModel.HAVERSINE, 64);
+        Location[] points = points(30);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int seed = t;
+                results.add(pool.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    int wrong = 0;
+                    for (int i = 0; i < 20_000; i++) {
+                        Location a = points[random.nextInt(points.length)];
+                        Location b = points[random.nextInt(points.length)];
+                        if (cache.travelTime(a, b) != Haversine.travelTime(a, b)) wrong++;
+                    }
+                    return wrong;
+                }));
+            }
+            for (Future<Integer> result : results) assertEquals(0, result.get());
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(80_000, cache.hits() + cache.misses());
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.algo;
+
+import org.example.dto.RouteResult;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.service.RouteService;
+import org.example.service.SolverMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoadNetworkTravelTimeTest {
+
+    // - Setup: graph file with four nodes on a square (1 km sides), one one-way street and a comment
+    // - Tests:
+    //   - Node to node follows the roads at the file's speeds, including the one-way detour
+    //   - A location off the graph adds straight-line legs to and from its nearest node
+    //   - Identical locations are 0 apart
+    // - Purpose: Verifies loading, snapping and shortest road times
+    @Test
+    void testLoadAndTravelTime(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("roads.csv");
+        Files.writeString(file, String.join("\n",
+                "# Koramangala block",
+                "node,100,12.9300,77.6200",
+                "node,101,12.9390,77.6200",
+                "node,102,12.9390,77.6292",
+                "edge,100,101,1000,30,0",
+                "edge,101,102,1000,30,1   # one-way east",
+                "edge,102,103,1000,20,0",
+                "node,103,12.9300,77.6292",
+                "edge,103,100,1000,20,0",
+                ""));
+        RoadNetworkTravelTime roads = RoadNetworkTravelTime.load(file);
+        RoadGraph graph = RoadGraph.load(file);
+        Location a = graph.location(0);
+        Location c = graph.location(2);
+
+        assertEquals(4.0, roads.travelTime(a, c), 1e-9);  // 100 → 101 → 102 at 30 km/h
+        assertEquals(6.0, roads.travelTime(c, a), 1e-9);  // 102 → 103 → 100 at 20 km/h
+        Location offRoad = new Location(12.9301, 77.6201);
+        assertEquals(Haversine.travelTime(offRoad, a) + 4.0, roads.travelTime(offRoad, c), 1e-9);
+        assertEquals(0.0, roads.travelTime(offRoad, offRoad));
+    }
+
+    // - Setup: 20 × 20 city grid, 4 orders and a start inside it
+    // - Tests:
+    //   - travelTimeMatrix equals travelTime for every pair, with a zero diagonal
+    //   - Times obey the triangle inequality and are not shorter than the straight line at 40 km/h
+    //   - RouteService plans with the provider; its total time is the sum of matrix legs
+    // - Purpose: Verifies the provider as a drop-in for the route DP
+    @Test
+    void testMatrixAndRouteService() {
+        RoadNetworkTravelTime roads = new RoadNetworkTravelTime(ContractionHierarchyTest.city(20, 20, 5));
+        Location start = new Location(12.935, 77.622);
+        List<Order> orders = List.of(
+                new Order("O1", new Location(12.941, 77.631), new Location(12.931, 77.615), 4.0, 0.0),
+                new Order("O2", new Location(12.926, 77.628), new Location(12.938, 77.619), 6.0, 1.0),
+                new Order("O3", new Location(12.944, 77.612), new Location(12.933, 77.626), 2.0, 0.0),
+                new Order("O4", new Location(12.929, 77.636), new Location(12.931, 77.615), 3.0, 0.0));
+
+        TravelTimeMatrix tt = TravelTimeMatrix.forOrders(start, orders, roads);
+        Location[] nodes = new Location[tt.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            nodes[i] = orders.get(i).getRestaurantLocation();
+            nodes[i + orders.size()] = orders.get(i).getConsumerLocation();
+        }
+        nodes[tt.startNode()] = start;
+        for (int a = 0; a < tt.size(); a++) {
+            assertEquals(0.0, tt.get(a, a));
+            for (int b = 0; b < tt.size(); b++) {
+                if (a != b) assertEquals(roads.travelTime(nodes[a], nodes[b]), tt.get(a, b), 1e-9);
+                for (int c = 0; c < tt.size(); c++) {
+                    assertTrue(tt.get(a, c) <= tt.get(a, b) + tt.get(b, c) + 1e-9);
+                }
+                assertTrue(tt.get(a, b) >= Haversine.distance(nodes[a], nodes[b]) / 40.0 * 60.0 - 1e-9);
+            }
+        }
+
+        RouteResult route = new RouteService(start, orders, SolverMode.TERNARY, roads).findBestRoute();
+        RouteResult sameMatrix = new RouteService(start, orders, tt, SolverMode.TERNARY).findBestRoute();
+        assertEquals(sameMatrix, route);
+        assertEquals(8, route.getSequence().size());
+    }
+
+    // - Setup: two disconnected road pieces; a malformed graph file
+    // - Tests: a trip between the pieces and the bad line are rejected with IllegalArgumentException
+    // - Purpose: Verifies failures are reported instead of planning with infinite times
+    @Test
+    void testErrors(@TempDir Path dir) throws IOException {
+        RoadGraph graph = new RoadGraph.Builder()
+                .addNode(1, 12.90, 77.60).addNode(2, 12.91, 77.60)
+                .addNode(3, 13.00, 77.70).addNode(4, 13.01, 77.70)
+                .addEdge(1, 2, 3.0, false).addEdge(3, 4, 3.0, false)
+                .build();
+        RoadNetworkTravelTime roads = new RoadNetworkTravelTime(graph);
+        assertThrows(IllegalArgumentException.class, () -> roads.travelTime(graph.location(0), graph.location(3)));
+        assertThrows(IllegalArgumentException.class,
+                () -> roads.travelTimeMatrix(new Location[]{graph.location(0), graph.location(2)}));
+
+        Path file = dir.resolve("bad.csv");
+        Files.writeString(file, "node,1,12.9,77.6\nedge,1,2,100,30,0\n");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> RoadGraph.load(file));
+        assertTrue(e.getMessage().contains("unknown node 2"), e.getMessage());
+        Files.writeString(file, "node,1,12.9\n");
+        e = assertThrows(IllegalArgumentException.class, () -> RoadGraph.load(file));
+        assertTrue(e.getMessage().startsWith("Line 1"), e.getMessage());
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.algo;
+
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TravelTimeMatrixTest {
+
+    // - Setup: 2 orders and a start location
+    // - Tests:
+    //   - Matrix has 2n + 1 nodes with the start as the last node
+    //   - Entries match Haversine.travelTime (up to rounding) for restaurants, customers and start
+    // - Purpose: Verifies the node layout shared with the route DP
+    @Test
+    void testForOrdersLayout() {
+        Location start = new Location(12.9352, 77.6245);
+        Order o1 = new Order("O1", new Location(12.94, 77.63), new Location(12.93, 77.62), 5.0, 1.0);
+        Order o2 = new Order("O2", new Location(12.92, 77.61), new Location(12.95, 77.64), 3.0, 0.0);
+
+        TravelTimeMatrix matrix = TravelTimeMatrix.forOrders(start, List.of(o1, o2));
+
+        assertEquals(5, matrix.size());
+        assertEquals(4, matrix.startNode());
+        assertEquals(Haversine.travelTime(start, o1.getRestaurantLocation()), matrix.get(4, 0), 1e-9);
+        assertEquals(Haversine.travelTime(o1.getRestaurantLocation(), o2.getConsumerLocation()), matrix.get(0, 3), 1e-9);
+        assertEquals(Haversine.travelTime(o2.getConsumerLocation(), o1.getConsumerLocation()), matrix.get(3, 2), 1e-9);
+        assertEquals(0.0, matrix.get(1, 1));
+    }
+
+    @Test
+    void testRejectsWrongDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new TravelTimeMatrix(3, new double[8]));
+    }
+}
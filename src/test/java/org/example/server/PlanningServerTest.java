@@ -0,0 +1,252 @@
+package org.example.server;
+
+import org.example.dto.RouteResult;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.service.RouteProblem;
+import org.example.service.RoutePlanningEngine;
+import org.example.service.RouteService;
+import org.example.service.RouteSolver;
+import org.example.service.TernaryRouteSolver;
+import org.example.utility.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanningServerTest {
+
+    private static final Location START = new Location(12.9352, 77.6245);
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
+    // - Setup: default server on an ephemeral port; 5 generated orders with deadlines, capacity 2
+    // - Tests:
+    //   - POST /route answers 200 with the same route RouteService computes directly
+    //   - /metrics counts the request and the solve; /health answers ok
+    // - Purpose: Verifies the endpoint end to end
+    @Test
+    void testRouteAndMetrics() throws Exception {
+        List<Order> orders = new ArrayList<>();
+        for (Order o : new WorkloadGenerator(5, START).generate(5)) {
+            orders.add(new Order(o.getOrderId(), o.getConsumerLocation(), o.getRestaurantLocation(),
+                    o.getPrepTime(), o.getTrustBuffer(), 40.0));
+        }
+        RouteResult expected = new RouteService(START, orders, new TernaryRouteSolver()).withCapacity(2)
+                .findBestRoute();
+
+        try (PlanningServer server = server(new RoutePlanningEngine())) {
+            HttpResponse<String> response = post(server, body(orders, 2));
+            assertEquals(200, response.statusCode());
+            assertEquals(PlanningRequest.toJson(expected), response.body());
+            assertTrue(response.body().contains("\"optimal\":true"), response.body());
+            assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+
+            String metrics = get(server, "/metrics").body();
+            assertTrue(metrics.contains("planner_requests_total 1\n"), metrics);
+            assertTrue(metrics.contains("planner_responses_total{status=\"200\"} 1\n"), metrics);
+            assertTrue(metrics.contains("planner_solve_seconds_count 1\n"), metrics);
+            assertTrue(metrics.contains("planner_solve_by_orders_seconds_count{orders=\"5\"} 1\n"), metrics);
+            assertEquals("ok\n", get(server, "/health").body());
+        }
+    }
+
+    // - Setup: solver that blocks until released and counts its calls; 8 identical requests sent at once
+    //   (the second half with different whitespace and field order)
+    // - Tests:
+    //   - The solver runs once; 7 requests are coalesced; all 8 get the same 200 body
+    //   - A request sent after the solve finished starts a new solve
+    // - Purpose: Verifies identical concurrent requests share one solve
+    @Test
+    void testIdenticalRequestsCoalesce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        RouteSolver gated = problem -> {
+            calls.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new TernaryRouteSolver().solve(problem);
+        };
+        List<Order> orders = new WorkloadGenerator(9, START).generate(3);
+        String compact = body(orders, RouteProblem.UNLIMITED);
+        String reordered = "{ \"orders\": " + compact.substring(compact.indexOf('['), compact.length() - 1)
+                + ",\n  \"start\": {\"lng\": " + START.getLongitude() + ", \"lat\": " + START.getLatitude() + "} }";
+
+        try (PlanningServer server = server(new RoutePlanningEngine(gated, 16, Long.MAX_VALUE / 4,
+                Executors.newCachedThreadPool()))) {
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(CLIENT.sendAsync(request(server, i < 4 ? compact : reordered),
+                        HttpResponse.BodyHandlers.ofString()));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (server.coalescedRequests() < 7 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            String first = responses.get(0).get(10, TimeUnit.SECONDS).body();
+            for (CompletableFuture<HttpResponse<String>> r : responses) {
+                assertEquals(200, r.get(10, TimeUnit.SECONDS).statusCode());
+                assertEquals(first, r.get().body());
+            }
+            assertEquals(1, calls.get());
+            assertEquals(7, server.coalescedRequests());
+
+            assertEquals(200, post(server, compact).statusCode());
+            assertEquals(2, calls.get());
+        }
+    }
+
+    // - Setup: server whose engine has a 1 KB memory budget
+    // - Tests:
+    //   - Malformed JSON, a missing field and a duplicate order id answer 400 with an error message
+    //   - A number beyond the double range (prepTime 1e400) answers 400
+    //   - GET /route answers 405; a batch over the memory budget answers 413
+    // - Purpose: Verifies bad input is reported per request and does not reach the solver
+    @Test
+    void testErrors() throws Exception {
+        List<Order> orders = new WorkloadGenerator(1, START).generate(4);
+        try (PlanningServer server = server(new RoutePlanningEngine(new TernaryRouteSolver(), 16, 1024))) {
+            HttpResponse<String> malformed = post(server, "{\"start\": ");
+            assertEquals(400, malformed.statusCode());
+            assertTrue(malformed.body().startsWith("{\"error\":\"Invalid JSON"), malformed.body());
+
+            assertEquals(400, post(server, "{\"start\": {\"lat\": 12.9}, \"orders\": []}").statusCode());
+            Order o = orders.get(0);
+            assertEquals(400, post(server, body(List.of(o, o), RouteProblem.UNLIMITED)).statusCode());
+            String infinite = body(List.of(o), RouteProblem.UNLIMITED).replaceFirst("\"prepTime\":[^,]*",
+                    "\"prepTime\":1e400");
+            HttpResponse<String> outOfRange = post(server, infinite);
+            assertEquals(400, outOfRange.statusCode());
+            assertTrue(outOfRange.body().contains("out of range"), outOfRange.body());
+            assertEquals(405, get(server, "/route").statusCode());
+            assertEquals(413, post(server, body(orders, RouteProblem.UNLIMITED)).statusCode());
+        }
+    }
+
+    // - Setup: engine with one in-flight slot, held by a request whose solver blocks until released
+    // - Tests:
+    //   - A different request answers 503 with Retry-After at once instead of waiting for the slot
+    //   - The held request still answers 200 once released
+    // - Purpose: Verifies HTTP handlers never block on the engine's backpressure
+    @Test
+    void testSaturatedEngineAnswers503() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RouteSolver gated = problem -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new TernaryRouteSolver().solve(problem);
+        };
+        try (PlanningServer server = server(new RoutePlanningEngine(gated, 1, Long.MAX_VALUE / 4,
+                Executors.newCachedThreadPool()))) {
+            CompletableFuture<HttpResponse<String>> held = CLIENT.sendAsync(
+                    request(server, body(new WorkloadGenerator(3, START).generate(2), RouteProblem.UNLIMITED)),
+                    HttpResponse.BodyHandlers.ofString());
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            HttpResponse<String> rejected = post(server,
+                    body(new WorkloadGenerator(4, START).generate(2), RouteProblem.UNLIMITED));
+            assertEquals(503, rejected.statusCode());
+            assertEquals("1", rejected.headers().firstValue("Retry-After").orElse(""));
+
+            release.countDown();
+            assertEquals(200, held.get(10, TimeUnit.SECONDS).statusCode());
+        }
+    }
+
+    // - Setup: solver that returns no route (null)
+    // - Tests: the request answers 500 with an error body instead of hanging
+    // - Purpose: Verifies unexpected failures while writing the response still complete the exchange
+    @Test
+    void testUnexpectedFailureAnswers500() throws Exception {
+        RouteSolver broken = problem -> null;
+        List<Order> orders = new WorkloadGenerator(2, START).generate(2);
+        try (PlanningServer server = server(new RoutePlanningEngine(broken, 16, Long.MAX_VALUE / 4))) {
+            HttpResponse<String> response = CLIENT.sendAsync(request(server, body(orders, RouteProblem.UNLIMITED)),
+                    HttpResponse.BodyHandlers.ofString()).get(10, TimeUnit.SECONDS);
+            assertEquals(500, response.statusCode());
+            assertTrue(response.body().startsWith("{\"error\":\"Internal error"), response.body());
+        }
+    }
+
+    // - Setup: JSON documents with escapes, nesting and numbers
+    // - Tests:
+    //   - Values parse to maps, lists, strings, doubles, booleans and null; escapes round-trip
+    //   - Trailing content, duplicate fields and nesting over the limit are rejected
+    // - Purpose: Verifies the hand-written JSON reader
+    @Test
+    void testJson() {
+        Object parsed = Json.parse(" {\"a\": [1, -2.5e1, true, false, null], \"s\": \"q\\\"\\u00e9\\n\"} ");
+        assertEquals(Map.of("a", Arrays.asList(1.0, -25.0, true, false, null), "s", "q\"é\n"), parsed);
+        assertEquals("\"q\\\"é\\u000a\"", Json.string(new StringBuilder(), "q\"é\n").toString());
+        assertEquals("null", Json.number(new StringBuilder(), Double.POSITIVE_INFINITY).toString());
+
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{} x"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("[-1e400]"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\": 1, \"a\": 2}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("[".repeat(Json.MAX_DEPTH + 2)));
+    }
+
+    private static PlanningServer server(RoutePlanningEngine engine) throws IOException {
+        return new PlanningServer(new InetSocketAddress("127.0.0.1", 0), engine).start();
+    }
+
+    private static String body(List<Order> orders, int capacity) {
+        StringBuilder sb = new StringBuilder("{\"start\":{\"lat\":" + START.getLatitude() + ",\"lng\":"
+                + START.getLongitude() + "}");
+        if (capacity != RouteProblem.UNLIMITED) sb.append(",\"capacity\":").append(capacity);
+        sb.append(",\"orders\":[");
+        for (int i = 0; i < orders.size(); i++) {
+            Order o = orders.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":\"").append(o.getOrderId()).append('"')
+                    .append(",\"restaurant\":{\"lat\":").append(o.getRestaurantLocation().getLatitude())
+                    .append(",\"lng\":").append(o.getRestaurantLocation().getLongitude()).append('}')
+                    .append(",\"customer\":{\"lat\":").append(o.getConsumerLocation().getLatitude())
+                    .append(",\"lng\":").append(o.getConsumerLocation().getLongitude()).append('}')
+                    .append(",\"prepTime\":").append(o.getPrepTime())
+                    .append(",\"trustBuffer\":").append(o.getTrustBuffer());
+            if (o.hasDeadline()) sb.append(",\"deadline\":").append(o.getDeliveryDeadline());
+            sb.append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static HttpRequest request(PlanningServer server, String body) {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + "/route"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static HttpResponse<String> post(PlanningServer server, String body) throws Exception {
+        return CLIENT.send(request(server, body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> get(PlanningServer server, String path) throws Exception {
+        return CLIENT.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
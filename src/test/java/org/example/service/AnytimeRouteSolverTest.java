@@ -0,0 +1,148 @@
+package org.example.service;
+
+import org.example.dto.RouteResult;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.service.HeuristicRouteSolverTest.assertValidRoute;
+import static org.example.service.HeuristicRouteSolverTest.orders;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnytimeRouteSolverTest {
+
+    private static final Location START = new Location(12.9352, 77.6245);
+
+    // - Setup: seeded batches of 1..8 orders, 5 s budget
+    // - Tests:
+    //   - Same total time as the ternary DP, marked optimal
+    //   - Valid route (every order picked up before it is delivered)
+    // - Purpose: With enough time the anytime solver is exact
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 6, 8})
+    void testExactWhenTimeAllows(int n) {
+        for (long seed = 0; seed < 3; seed++) {
+            List<Order> orders = orders(n, seed);
+            RouteProblem problem = new RouteProblem(START, orders);
+
+            RouteResult exact = new TernaryRouteSolver().solve(problem);
+            RouteResult result = new AnytimeRouteSolver(Duration.ofSeconds(5)).solve(problem);
+
+            assertTrue(result.isOptimal());
+            assertEquals(exact.getTotalTime(), result.getTotalTime(), 1e-9);
+            assertValidRoute(orders, result);
+        }
+    }
+
+    // - Setup: 10 orders, a zero budget; then a cancelled token with a long budget
+    // - Tests:
+    //   - A complete, valid route is still returned, not marked optimal
+    //   - It is never faster than the optimum
+    // - Purpose: The first route is never withheld, however little time is left
+    @Test
+    void testReturnsRouteWhenOutOfTime() {
+        List<Order> orders = orders(10, 7);
+        RouteProblem problem = new RouteProblem(START, orders);
+        double optimum = new TernaryRouteSolver(DpStorage.HEAP, true).solve(problem).getTotalTime();
+
+        RouteResult late = new AnytimeRouteSolver(Duration.ZERO).solve(problem);
+        assertFalse(late.isOptimal());
+        assertValidRoute(orders, late);
+        assertTrue(late.getTotalTime() >= optimum - 1e-9);
+
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        RouteResult cancelled = new AnytimeRouteSolver(Duration.ofMinutes(1))
+                .solve(problem, new SolveMetrics(10), System.nanoTime() + Duration.ofMinutes(1).toNanos(), token);
+        assertFalse(cancelled.isOptimal());
+        assertValidRoute(orders, cancelled);
+    }
+
+    // - Setup: 12 orders; the DP alone is timed first, then the anytime solver runs with a 1 min budget
+    //   and is cancelled from another thread after 10 ms
+    // - Tests:
+    //   - It returns a valid, unproven route in well under the DP's own time
+    //   - Metrics name the anytime solver
+    // - Purpose: Verifies cancellation reaches the running DP
+    @Test
+    void testCancellationStopsDp() {
+        List<Order> orders = orders(12, 3);
+        RouteProblem problem = new RouteProblem(START, orders);
+        long dpStart = System.nanoTime();
+        new TernaryRouteSolver(DpStorage.HEAP, true).solve(problem);
+        long dpNanos = System.nanoTime() - dpStart;
+
+        CancellationToken token = new CancellationToken();
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            SolveMetrics metrics = new SolveMetrics(12);
+            long start = System.nanoTime();
+            timer.schedule(token::cancel, 10, TimeUnit.MILLISECONDS);
+            RouteResult result = new AnytimeRouteSolver(Duration.ofMinutes(1))
+                    .solve(problem, metrics, start + Duration.ofMinutes(1).toNanos(), token);
+            long elapsed = System.nanoTime() - start;
+
+            assertFalse(result.isOptimal());
+            assertValidRoute(orders, result);
+            assertTrue(elapsed < dpNanos / 2, elapsed / 1_000_000 + " ms vs DP " + dpNanos / 1_000_000 + " ms");
+            assertEquals("AnytimeRouteSolver", metrics.getSolver());
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
+    // - Setup: 40 orders (no DP table fits), 30 ms budget
+    // - Tests:
+    //   - No DP memory is estimated, so a small memory budget admits the batch
+    //   - A valid, unproven route comes back within a generous bound of the budget
+    // - Purpose: Large batches fall back to the heuristic for the whole budget
+    @Test
+    void testLargeBatchUsesHeuristic() {
+        List<Order> orders = orders(40, 11);
+        AnytimeRouteSolver solver = new AnytimeRouteSolver(Duration.ofMillis(30));
+        assertEquals(0L, solver.estimatedBytes(40));
+
+        long start = System.nanoTime();
+        RouteResult result = new RouteService(START, orders, solver)
+                .withMemoryBudget(1L << 20, AdmissionPolicy.REJECT)
+                .findBestRoute();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertFalse(result.isOptimal());
+        assertValidRoute(orders, result);
+        assertTrue(elapsedMillis < 1000, "Took " + elapsedMillis + " ms");
+    }
+
+    // - Setup: 7 orders with a 2-bag capacity through RouteService
+    // - Tests:
+    //   - findBestRoute(budget, token) matches the capacity-limited ternary DP and is marked optimal
+    //   - The exact modes mark their routes optimal, HEURISTIC does not
+    //   - SolverMode.ANYTIME plans the same route
+    // - Purpose: Verifies the RouteService entry point and the optimal flag across solvers
+    @Test
+    void testRouteServiceBudget() {
+        List<Order> orders = orders(7, 5);
+        RouteResult exact = new RouteService(START, orders, SolverMode.TERNARY).withCapacity(2).findBestRoute();
+        RouteResult anytime = new RouteService(START, orders, SolverMode.BITMASK).withCapacity(2)
+                .findBestRoute(Duration.ofSeconds(5), new CancellationToken());
+
+        assertTrue(exact.isOptimal());
+        assertTrue(anytime.isOptimal());
+        assertEquals(exact.getTotalTime(), anytime.getTotalTime(), 1e-9);
+        assertTrue(new RouteService(START, orders, SolverMode.BITMASK).findBestRoute().isOptimal());
+        assertFalse(new RouteService(START, orders, SolverMode.HEURISTIC).findBestRoute().isOptimal());
+        RouteResult mode = new RouteService(START, orders, SolverMode.ANYTIME).withCapacity(2).findBestRoute();
+        assertEquals(exact.getTotalTime(), mode.getTotalTime(), 1e-9);
+        assertTrue(new RouteService(START, List.of()).findBestRoute(Duration.ZERO, CancellationToken.NONE)
+                .isOptimal());
+        assertThrows(UnsupportedOperationException.class, CancellationToken.NONE::cancel);
+    }
+}
@@ -0,0 +1,188 @@
+package org.example.service;
+
+import org.example.dto.PlanningMode;
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingRouteSolverTest {
+
+    private static final Location START = new Location(12.9352, 77.6245);
+
+    // - Setup: same 5-order batch solved twice
+    // - Tests:
+    //   - Second solve is a hit and returns an equal route, still marked optimal
+    // - Purpose: Basic memoisation
+    @Test
+    void testRepeatedSolveHits() {
+        CachingRouteSolver cache = new CachingRouteSolver(new TernaryRouteSolver(), 10, Duration.ofMinutes(1));
+        List<Order> orders = HeuristicRouteSolverTest.orders(5, 1);
+
+        RouteResult first = new RouteService(START, orders, cache).findBestRoute();
+        RouteResult second = new RouteService(START, orders, cache).findBestRoute();
+
+        assertEquals(first, second);
+        assertTrue(second.isOptimal());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    // - Setup: batch solved, then the same orders shuffled and nudged by less than the quantum
+    // - Tests:
+    //   - Hit; optimal total time; step labels follow the caller's order indices
+    //   - The jittered hit is not marked optimal; the same orders merely shuffled are
+    // - Purpose: Key is order-independent and tolerant to GPS jitter, results stay consistent
+    @Test
+    void testShuffledAndJitteredOrdersHit() {
+        CachingRouteSolver cache = new CachingRouteSolver(new TernaryRouteSolver(), 10, Duration.ofMinutes(1));
+        List<Order> orders = HeuristicRouteSolverTest.orders(6, 2);
+        new RouteService(START, orders, cache).findBestRoute();
+
+        List<Order> shuffled = new ArrayList<>();
+        for (Order o : orders) {
+            shuffled.add(new Order(o.getOrderId(), jitter(o.getConsumerLocation()), jitter(o.getRestaurantLocation()),
+                    o.getPrepTime(), o.getTrustBuffer()));
+        }
+        Collections.shuffle(shuffled, new Random(3));
+        RouteResult cached = new RouteService(START, shuffled, cache).findBestRoute();
+
+        assertEquals(1, cache.hits());
+        assertFalse(cached.isOptimal());
+        List<Order> reordered = new ArrayList<>(orders);
+        Collections.shuffle(reordered, new Random(4));
+        assertTrue(new RouteService(START, reordered, cache).findBestRoute().isOptimal());
+        assertEquals(2, cache.hits());
+        double exact = new RouteService(START, shuffled, SolverMode.TERNARY).findBestRoute().getTotalTime();
+        assertEquals(exact, cached.getTotalTime(), 0.01); // jitter moves ETAs by well under a second
+        HeuristicRouteSolverTest.assertValidRoute(shuffled, cached);
+        for (RouteStep step : cached.getSequence()) {
+            int index = 0;
+            while (!shuffled.get(index).getOrderId().equals(step.getOrderId())) index++;
+            assertTrue(step.getTarget().endsWith(String.valueOf(index + 1)), step.getTarget());
+        }
+    }
+
+    // - Setup: cache in front of a ClusteredRouteSolver whose budget fits 3-order clusters, 6 orders solved twice
+    // - Tests:
+    //   - The hit is marked CLUSTERED like the solved route, and not optimal
+    // - Purpose: A hit must not report a clustered route as a full solve
+    @Test
+    void testHitKeepsPlanningMode() {
+        TernaryRouteSolver ternary = new TernaryRouteSolver();
+        long budget = RouteService.matrixBytes(6) + RouteService.footprint(ternary, 3);
+        CachingRouteSolver cache = new CachingRouteSolver(new ClusteredRouteSolver(ternary, budget), 10,
+                Duration.ofMinutes(1));
+        List<Order> orders = HeuristicRouteSolverTest.orders(6, 4);
+
+        RouteResult first = new RouteService(START, orders, cache).findBestRoute();
+        RouteResult second = new RouteService(START, orders, cache).findBestRoute();
+
+        assertEquals(PlanningMode.CLUSTERED, first.getMode());
+        assertEquals(1, cache.hits());
+        assertEquals(PlanningMode.CLUSTERED, second.getMode());
+        assertFalse(second.isOptimal());
+        assertEquals(first.getTotalTime(), second.getTotalTime(), 1e-9);
+    }
+
+    // - Setup: fake clock, TTL 10 s
+    // - Tests:
+    //   - Hit before expiry, miss after
+    // - Purpose: Stale plans are recomputed
+    @Test
+    void testTtlExpiry() {
+        AtomicLong now = new AtomicLong();
+        CachingRouteSolver cache = new CachingRouteSolver(new BitmaskRouteSolver(), 10, Duration.ofSeconds(10),
+                now::get);
+        RouteProblem problem = new RouteProblem(START, HeuristicRouteSolverTest.orders(3, 4));
+
+        cache.solve(problem);
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        cache.solve(problem);
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        cache.solve(problem);
+
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    // - Setup: capacity 2; solve A, B, A again, then C
+    // - Tests:
+    //   - B (least recently used) is evicted, A survives
+    // - Purpose: Size bound uses LRU order
+    @Test
+    void testLruEviction() {
+        CachingRouteSolver cache = new CachingRouteSolver(new BitmaskRouteSolver(), 2, Duration.ofMinutes(1));
+        RouteProblem a = new RouteProblem(START, HeuristicRouteSolverTest.orders(2, 10));
+        RouteProblem b = new RouteProblem(START, HeuristicRouteSolverTest.orders(2, 11));
+        RouteProblem c = new RouteProblem(START, HeuristicRouteSolverTest.orders(2, 12));
+
+        cache.solve(a);
+        cache.solve(b);
+        cache.solve(a);
+        cache.solve(c);
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.size());
+
+        long hitsBefore = cache.hits();
+        cache.solve(a);
+        assertEquals(hitsBefore + 1, cache.hits());
+        cache.solve(b);
+        assertEquals(hitsBefore + 1, cache.hits(), "B should have been evicted");
+    }
+
+    // - Setup: 8 threads each solving 5 batches 50 times through one cache
+    // - Tests:
+    //   - Every result matches the uncached route; hits + misses = number of solves
+    // - Purpose: Concurrent access is safe
+    @Test
+    void testConcurrentAccess() throws Exception {
+        CachingRouteSolver cache = new CachingRouteSolver(new TernaryRouteSolver(), 3, Duration.ofMinutes(1));
+        List<RouteProblem> problems = new ArrayList<>();
+        List<Double> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            RouteProblem problem = new RouteProblem(START, HeuristicRouteSolverTest.orders(4, 20 + i));
+            problems.add(problem);
+            expected.add(new TernaryRouteSolver().solve(problem).getTotalTime());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t;
+                futures.add(pool.submit(() -> {
+                    for (int k = 0; k < 50; k++) {
+                        int i = (k + offset) % problems.size();
+                        assertEquals(expected.get(i), cache.solve(problems.get(i)).getTotalTime(), 1e-9);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(400, cache.hits() + cache.misses());
+        assertTrue(cache.size() <= 3);
+    }
+
+    /** Another point in the same quantisation cell. */
+    private static Location jitter(Location l) {
+        double scale = CachingRouteSolver.COORDINATE_SCALE;
+        return new Location((Math.round(l.getLatitude() * scale) + 0.3) / scale,
+                (Math.round(l.getLongitude() * scale) - 0.3) / scale);
+    }
+}
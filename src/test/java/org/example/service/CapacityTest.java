@@ -0,0 +1,140 @@
+package org.example.service;
+
+import org.example.algo.TravelTimeMatrix;
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.utility.OrderGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CapacityTest {
+
+    private static final Location START = new Location(12.9352, 77.6245);
+
+    // - Setup: seeded batches of 2..4 orders, capacity 1..3
+    // - Tests:
+    //   - Every exact DP (bitmask, parallel, ternary, with and without pruning) returns the brute-force
+    //     optimum over sequences that never carry more than the capacity
+    //   - The returned route respects the capacity
+    // - Purpose: Verifies capacity pruning keeps the DPs exact
+    @Test
+    void testMatchesBruteForce() {
+        List<RouteSolver> solvers = List.of(
+                new BitmaskRouteSolver(),
+                new BitmaskRouteSolver(DpStorage.HEAP, true),
+                new ParallelBitmaskRouteSolver(DpStorage.HEAP, true, ForkJoinPool.commonPool()),
+                new TernaryRouteSolver(),
+                new TernaryRouteSolver(DpStorage.HEAP, true));
+        for (int n = 2; n <= 4; n++) {
+            for (int capacity = 1; capacity < n; capacity++) {
+                for (long seed = 0; seed < 4; seed++) {
+                    List<Order> orders = OrderGenerator.generateOrders(n, START, seed);
+                    RouteProblem problem = new RouteProblem(START, orders, TravelTimeMatrix.forOrders(START, orders),
+                            capacity);
+                    double best = bruteForce(problem, new int[2 * n], 0);
+
+                    for (RouteSolver solver : solvers) {
+                        RouteResult result = solver.solve(problem);
+                        String label = solver.getClass().getSimpleName() + " n=" + n + " cap=" + capacity;
+                        assertEquals(best, result.getTotalTime(), 1e-9, label);
+                        assertTrue(maxCarried(result) <= capacity, label);
+                    }
+                }
+            }
+        }
+    }
+
+    // - Setup: 40 orders (beyond the DP), capacity 3
+    // - Tests:
+    //   - Heuristic route visits every stop and never carries more than 3 orders
+    // - Purpose: Confirms insertion and local-search moves respect the capacity
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    void testHeuristicRespectsCapacity(int capacity) {
+        List<Order> orders = OrderGenerator.generateOrders(40, START, 9L);
+        RouteProblem problem = new RouteProblem(START, orders, TravelTimeMatrix.forOrders(START, orders), capacity);
+
+        RouteResult result = new HeuristicRouteSolver().solve(problem);
+
+        assertEquals(80, result.getSequence().size());
+        assertTrue(maxCarried(result) <= capacity);
+    }
+
+    // - Setup: 9 orders, capacity 3 vs unlimited, ternary DP
+    // - Tests:
+    //   - Capacitated route respects the limit and is not faster than the unlimited optimum
+    //   - Fewer DP cells are expanded
+    //   - RouteService rejects a capacity below 1
+    // - Purpose: Checks the RouteService parameter and that over-capacity states are never explored
+    @Test
+    void testCapacityShrinksSearch() {
+        List<Order> orders = OrderGenerator.generateOrders(9, START, 2L);
+        SolveMetricsRecorder unlimited = new SolveMetricsRecorder();
+        SolveMetricsRecorder limited = new SolveMetricsRecorder();
+
+        RouteResult free = new RouteService(START, orders, SolverMode.TERNARY).withListener(unlimited).findBestRoute();
+        RouteResult bagged = new RouteService(START, orders, SolverMode.TERNARY)
+                .withCapacity(3)
+                .withListener(limited)
+                .findBestRoute();
+
+        assertTrue(maxCarried(bagged) <= 3);
+        assertTrue(bagged.getTotalTime() >= free.getTotalTime() - 1e-9);
+        assertTrue(limited.statesExpanded() < unlimited.statesExpanded(),
+                limited.statesExpanded() + " vs " + unlimited.statesExpanded());
+        assertThrows(IllegalArgumentException.class, () -> new RouteService(START, orders).withCapacity(0));
+    }
+
+    private static int maxCarried(RouteResult result) {
+        int carried = 0;
+        int max = 0;
+        for (RouteStep step : result.getSequence()) {
+            carried += step.getAction().equals("Pickup") ? 1 : -1;
+            max = Math.max(max, carried);
+        }
+        return max;
+    }
+
+    private static double bruteForce(RouteProblem problem, int[] seq, int len) {
+        int n = problem.orderCount();
+        if (len == 2 * n) {
+            TravelTimeMatrix tt = problem.getMatrix();
+            double[] prep = problem.prepTimes();
+            int prev = tt.startNode();
+            double t = 0.0;
+            int carried = 0;
+            for (int node : seq) {
+                t += tt.get(prev, node);
+                if (node < n) {
+                    t = Math.max(t, prep[node]);
+                    if (++carried > problem.getCapacity()) return Double.MAX_VALUE;
+                } else {
+                    carried--;
+                }
+                prev = node;
+            }
+            return t;
+        }
+        double best = Double.MAX_VALUE;
+        outer:
+        for (int node = 0; node < 2 * n; node++) {
+            boolean picked = node < n;
+            for (int k = 0; k < len; k++) {
+                if (seq[k] == node) continue outer;
+                if (seq[k] == node - n) picked = true;
+            }
+            if (!picked) continue;
+            seq[len] = node;
+            best = Math.min(best, bruteForce(problem, seq, len + 1));
+        }
+        return best;
+    }
+}
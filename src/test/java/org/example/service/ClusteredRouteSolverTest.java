@@ -0,0 +1,84 @@
+package org.example.service;
+
+import org.example.dto.PlanningMode;
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.utility.OrderGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusteredRouteSolverTest {
+
+    private static final Location START = new Location(12.9352, 77.6245);
+
+    // - Setup: 10 generated orders, budget that fits a 4-order ternary DP next to the full matrix
+    // - Tests:
+    //   - Cluster size is 4
+    //   - Result is CLUSTERED, visits every order once with pickup before delivery
+    //   - Total time is never below the exact optimum and matches the last ETA
+    // - Purpose: Verifies the bounded-memory fallback produces a valid, consistent route
+    @Test
+    void testClusteredRouteIsValid() {
+        List<Order> orders = OrderGenerator.generateOrders(10, START, 7L);
+        TernaryRouteSolver ternary = new TernaryRouteSolver();
+        long budget = RouteService.matrixBytes(10) + RouteService.footprint(ternary, 4);
+        ClusteredRouteSolver solver = new ClusteredRouteSolver(ternary, budget);
+        assertEquals(4, solver.clusterSize(10));
+
+        RouteProblem problem = new RouteProblem(START, orders);
+        RouteResult clustered = solver.solve(problem);
+        double exact = ternary.solve(problem).getTotalTime();
+
+        assertEquals(PlanningMode.CLUSTERED, clustered.getMode());
+        assertEquals(20, clustered.getSequence().size());
+        Set<String> picked = new HashSet<>();
+        Set<String> delivered = new HashSet<>();
+        for (RouteStep step : clustered.getSequence()) {
+            if ("Pickup".equals(step.getAction())) {
+                assertTrue(picked.add(step.getOrderId()));
+            } else {
+                assertTrue(picked.contains(step.getOrderId()), "Delivered before pickup: " + step.getOrderId());
+                assertTrue(delivered.add(step.getOrderId()));
+            }
+        }
+        assertEquals(10, delivered.size());
+        assertTrue(clustered.getTotalTime() >= exact - 1e-9);
+        assertEquals(clustered.getSequence().get(19).getEta(), clustered.getTotalTime(), 1e-9);
+    }
+
+    // - Setup: 6 orders, budget large enough for the whole batch
+    // - Tests:
+    //   - Result is FULL and identical in total time to the delegate's
+    // - Purpose: Confirms batches that fit are not split
+    @Test
+    void testFittingBatchIsSolvedWhole() {
+        List<Order> orders = OrderGenerator.generateOrders(6, START, 3L);
+        RouteProblem problem = new RouteProblem(START, orders);
+        TernaryRouteSolver ternary = new TernaryRouteSolver();
+
+        RouteResult result = new ClusteredRouteSolver(ternary, Long.MAX_VALUE).solve(problem);
+
+        assertEquals(PlanningMode.FULL, result.getMode());
+        assertEquals(ternary.solve(problem).getTotalTime(), result.getTotalTime(), 1e-9);
+    }
+
+    // - Setup: budget smaller than the travel-time matrix alone
+    // - Tests:
+    //   - Cluster size is 0 and solving throws BatchTooLargeException
+    // - Purpose: Ensures an impossible budget fails clearly instead of looping or allocating
+    @Test
+    void testBudgetBelowMatrixIsRejected() {
+        List<Order> orders = OrderGenerator.generateOrders(8, START, 1L);
+        ClusteredRouteSolver solver = new ClusteredRouteSolver(new TernaryRouteSolver(), 1024);
+
+        assertEquals(0, solver.clusterSize(8));
+        assertThrows(BatchTooLargeException.class, () -> solver.solve(new RouteProblem(START, orders)));
+    }
+}
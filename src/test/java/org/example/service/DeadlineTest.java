@@ -0,0 +1,191 @@
+package org.example.service;
+
+import org.example.algo.TravelTimeMatrix;
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.utility.OrderGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineTest {
+
+    private static final Location START = new Location(12.9352, 77.6245);
+
+    private static List<RouteSolver> exactSolvers() {
+        return List.of(
+                new BitmaskRouteSolver(),
+                new BitmaskRouteSolver(DpStorage.HEAP, true),
+                new ParallelBitmaskRouteSolver(DpStorage.HEAP, true, ForkJoinPool.commonPool()),
+                new TernaryRouteSolver(),
+                new TernaryRouteSolver(DpStorage.HEAP, true));
+    }
+
+    // - Setup: 40 seeded batches of 1..4 orders with random deadlines, some impossible to meet
+    // - Tests:
+    //   - Every exact DP (bitmask, parallel, ternary, with and without pruning) matches brute force:
+    //     fastest route meeting every deadline, or the least maximum lateness (within tolerance)
+    //   - Reported lateness equals the lateness of the returned steps
+    //   - Feasible batches take one DP run and are marked optimal; routes from the lateness bisection
+    //     are not marked optimal, and the runs stay within the bisection cap
+    // - Purpose: Verifies deadline pruning never discards an optimal route
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(11);
+        int infeasible = 0;
+        int unproven = 0;
+        for (int round = 0; round < 40; round++) {
+            int n = 1 + round % 4;
+            List<Order> orders = withDeadlines(OrderGenerator.generateOrders(n, START, round), random);
+            RouteProblem problem = new RouteProblem(START, orders);
+            double[] best = bruteForce(problem); // {lateness, completion}
+            if (best[0] > 0) infeasible++;
+
+            for (RouteSolver solver : exactSolvers()) {
+                SolveMetrics metrics = new SolveMetrics(n);
+                RouteResult result = solver.solve(problem, metrics);
+                String label = solver.getClass().getSimpleName() + " round " + round;
+                assertEquals(measuredLateness(orders, result), result.getLateness(), 1e-9, label);
+                assertTrue(metrics.getDpRuns() <= 2 + Deadlines.MAX_BISECTIONS, label);
+                if (best[0] == 0) {
+                    assertEquals(0.0, result.getLateness(), label);
+                    assertEquals(best[1], result.getTotalTime(), 1e-9, label);
+                    assertTrue(result.isOptimal(), label);
+                    assertEquals(1, metrics.getDpRuns(), label);
+                } else {
+                    if (!result.isOptimal()) unproven++;
+                    if (metrics.getDpRuns() > 2) assertFalse(result.isOptimal(), label);
+                    assertTrue(result.getLateness() >= best[0] - 1e-9, label);
+                    assertTrue(result.getLateness() <= best[0] + Deadlines.LATENESS_TOLERANCE, label);
+                }
+            }
+        }
+        assertTrue(infeasible > 0 && infeasible < 40, "Both cases must be covered: " + infeasible);
+        assertTrue(unproven > 0, "The lateness bisection must be covered");
+    }
+
+    // - Setup: 8 orders whose deadlines are tight but met by the unconstrained optimum
+    // - Tests:
+    //   - Same total time as without deadlines, lateness 0
+    //   - Fewer DP cells expanded than without deadlines
+    // - Purpose: Confirms deadlines shrink the search without changing a feasible optimum
+    @Test
+    void testTightDeadlinesShrinkSearch() {
+        List<Order> plain = OrderGenerator.generateOrders(8, START, 4L);
+        RouteProblem plainProblem = new RouteProblem(START, plain);
+        RouteResult optimal = new TernaryRouteSolver().solve(plainProblem);
+
+        List<Order> tight = new ArrayList<>();
+        for (Order o : plain) {
+            double delivered = optimal.getSequence().stream()
+                    .filter(s -> s.getOrderId().equals(o.getOrderId()) && s.getAction().equals("Deliver"))
+                    .findFirst().orElseThrow().getEta();
+            tight.add(new Order(o.getOrderId(), o.getConsumerLocation(), o.getRestaurantLocation(),
+                    o.getPrepTime(), o.getTrustBuffer(), delivered + 0.5));
+        }
+        RouteProblem tightProblem = new RouteProblem(START, tight, plainProblem.getMatrix());
+
+        SolveMetrics without = new SolveMetrics(8);
+        SolveMetrics with = new SolveMetrics(8);
+        new TernaryRouteSolver().solve(plainProblem, without);
+        RouteResult result = new TernaryRouteSolver().solve(tightProblem, with);
+
+        assertEquals(optimal.getTotalTime(), result.getTotalTime(), 1e-9);
+        assertEquals(0.0, result.getLateness());
+        assertTrue(with.getStatesExpanded() < without.getStatesExpanded(),
+                with.getStatesExpanded() + " vs " + without.getStatesExpanded());
+    }
+
+    // - Setup: 1 order that cannot be delivered before its deadline
+    // - Tests:
+    //   - Route is still returned; lateness is delivery ETA minus deadline, proven minimal
+    //   - toString mentions the lateness
+    // - Purpose: Checks the minimum-lateness fallback on the simplest infeasible batch
+    @Test
+    void testImpossibleDeadlineReportsLateness() {
+        Order order = new Order("O1", new Location(0, 0.02), new Location(0, 0.01), 5.0, 0.0, 1.0);
+        RouteResult result = new RouteService(new Location(0, 0), List.of(order), SolverMode.TERNARY).findBestRoute();
+
+        assertEquals(2, result.getSequence().size());
+        assertEquals(result.getTotalTime() - 1.0, result.getLateness(), 1e-9);
+        assertTrue(result.isOptimal(), "Direct delivery is the least possible lateness");
+        assertTrue(result.toString().contains("late by"), result.toString());
+    }
+
+    /** Deadline = earliest possible delivery (direct, after prep) plus 0..12 minutes. */
+    private static List<Order> withDeadlines(List<Order> orders, Random random) {
+        TravelTimeMatrix tt = TravelTimeMatrix.forOrders(START, orders);
+        int n = orders.size();
+        List<Order> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Order o = orders.get(i);
+            double earliest = Math.max(tt.get(2 * n, i), o.getEffectivePrepTime()) + tt.get(i, i + n);
+            result.add(new Order(o.getOrderId(), o.getConsumerLocation(), o.getRestaurantLocation(),
+                    o.getPrepTime(), o.getTrustBuffer(), earliest + 12.0 * random.nextDouble()));
+        }
+        return result;
+    }
+
+    /** {minimum max lateness, fastest completion among routes with that lateness} over all valid sequences. */
+    private static double[] bruteForce(RouteProblem problem) {
+        double[] best = {Double.MAX_VALUE, Double.MAX_VALUE};
+        search(problem, new int[2 * problem.orderCount()], 0, best);
+        return best;
+    }
+
+    private static void search(RouteProblem problem, int[] seq, int len, double[] best) {
+        int n = problem.orderCount();
+        if (len == 2 * n) {
+            TravelTimeMatrix tt = problem.getMatrix();
+            double[] prep = problem.prepTimes();
+            double[] due = problem.deadlines();
+            int prev = tt.startNode();
+            double t = 0.0;
+            double lateness = 0.0;
+            for (int node : seq) {
+                t += tt.get(prev, node);
+                if (node < n) t = Math.max(t, prep[node]);
+                else lateness = Math.max(lateness, t - due[node - n]);
+                prev = node;
+            }
+            if (lateness < best[0] - 1e-12 || (lateness <= best[0] + 1e-12 && t < best[1])) {
+                best[0] = lateness;
+                best[1] = t;
+            }
+            return;
+        }
+        outer:
+        for (int node = 0; node < 2 * n; node++) {
+            for (int k = 0; k < len; k++) {
+                if (seq[k] == node) continue outer;
+            }
+            if (node >= n) {
+                boolean picked = false;
+                for (int k = 0; k < len; k++) picked |= seq[k] == node - n;
+                if (!picked) continue;
+            }
+            seq[len] = node;
+            search(problem, seq, len + 1, best);
+        }
+    }
+
+    private static double measuredLateness(List<Order> orders, RouteResult result) {
+        double lateness = 0.0;
+        for (RouteStep step : result.getSequence()) {
+            if (!step.getAction().equals("Deliver")) continue;
+            for (Order o : orders) {
+                if (o.getOrderId().equals(step.getOrderId())) {
+                    lateness = Math.max(lateness, step.getEta() - o.getDeliveryDeadline());
+                }
+            }
+        }
+        return lateness;
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.service;
+
+import org.example.dto.PlanningMode;
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetPlannerTest {
+
+    private static final Location START = new Location(12.9352, 77.6245);
+
+    // - Setup: 12 random orders, 3 riders at the same store
+    // - Tests:
+    //   - One route per rider; every order appears in exactly one valid route
+    //   - Makespan is no worse than one rider doing everything
+    // - Purpose: Verifies the split is complete and actually helps
+    @ParameterizedTest
+    @EnumSource(FleetObjective.class)
+    void testSplitsEveryOrderOnce(FleetObjective objective) {
+        List<Order> orders = HeuristicRouteSolverTest.orders(12, 7);
+        List<Location> riders = List.of(START, START, START);
+
+        List<RouteResult> routes = new FleetPlanner(new TernaryRouteSolver(), objective).plan(riders, orders);
+
+        assertEquals(3, routes.size());
+        Set<String> seen = new HashSet<>();
+        for (RouteResult route : routes) {
+            List<Order> own = new ArrayList<>();
+            for (RouteStep step : route.getSequence()) {
+                if (step.getAction().equals("Pickup")) {
+                    assertTrue(seen.add(step.getOrderId()), "Assigned twice: " + step.getOrderId());
+                    orders.stream().filter(o -> o.getOrderId().equals(step.getOrderId())).forEach(own::add);
+                }
+            }
+            HeuristicRouteSolverTest.assertValidRoute(own, route);
+        }
+        assertEquals(orders.size(), seen.size());
+
+        double single = new HeuristicRouteSolver().solve(new RouteProblem(START, orders)).getTotalTime();
+        double makespan = routes.stream().mapToDouble(RouteResult::getTotalTime).max().orElse(0.0);
+        assertTrue(makespan <= single + 1e-9, makespan + " vs single rider " + single);
+    }
+
+    // - Setup: two riders at opposite ends of town, two orders next to each of them
+    // - Tests:
+    //   - Each rider gets the orders near their own start
+    // - Purpose: Checks the assignment follows geography rather than input order
+    @Test
+    void testOrdersGoToNearbyRider() {
+        Location west = new Location(12.93, 77.58);
+        Location east = new Location(12.93, 77.68);
+        List<Order> orders = List.of(
+                new Order("E1", new Location(12.931, 77.681), new Location(12.930, 77.679), 5, 0),
+                new Order("W1", new Location(12.931, 77.581), new Location(12.930, 77.579), 5, 0),
+                new Order("E2", new Location(12.929, 77.682), new Location(12.930, 77.681), 6, 0),
+                new Order("W2", new Location(12.929, 77.582), new Location(12.930, 77.581), 6, 0));
+
+        List<RouteResult> routes = new FleetPlanner(new BitmaskRouteSolver(), FleetObjective.MAKESPAN)
+                .plan(List.of(west, east), orders);
+
+        assertTrue(routes.get(0).getSequence().stream().allMatch(s -> s.getOrderId().startsWith("W")));
+        assertTrue(routes.get(1).getSequence().stream().allMatch(s -> s.getOrderId().startsWith("E")));
+    }
+
+    // - Setup: same batch planned on a single-thread pool and on the common pool
+    // - Tests:
+    //   - Identical routes for every rider
+    // - Purpose: Parallel candidate evaluation must not change the plan
+    @Test
+    void testParallelEvaluationIsDeterministic() {
+        List<Order> orders = HeuristicRouteSolverTest.orders(10, 3);
+        List<Location> riders = List.of(START, new Location(12.94, 77.62));
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            List<RouteResult> sequential = new FleetPlanner(new TernaryRouteSolver(), FleetObjective.MAKESPAN, single)
+                    .plan(riders, orders);
+            List<RouteResult> parallel = new FleetPlanner(new TernaryRouteSolver(), FleetObjective.MAKESPAN)
+                    .plan(riders, orders);
+            assertEquals(sequential, parallel);
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    // - Setup: no riders
+    // - Tests:
+    //   - IllegalArgumentException
+    // - Purpose: Documents the precondition
+    @Test
+    void testRequiresRider() {
+        FleetPlanner planner = new FleetPlanner(new BitmaskRouteSolver(), FleetObjective.MAKESPAN);
+        assertThrows(IllegalArgumentException.class, () -> planner.plan(List.of(), List.of()));
+    }
+
+    // - Setup: ternary solver with a memory budget that fits 4 orders per solve
+    // - Tests:
+    //   - REJECT, 2 riders, 8 orders: every rider gets at most 4 orders, all orders are assigned
+    //   - REJECT, 1 rider, 6 orders: BatchTooLargeException instead of an oversized DP
+    //   - CLUSTER, 1 rider, 6 orders: a complete route marked CLUSTERED
+    // - Purpose: Verifies candidate solves go through the same memory admission as RouteService
+    @Test
+    void testMemoryBudget() {
+        TernaryRouteSolver solver = new TernaryRouteSolver();
+        long budget = RouteService.footprint(solver, 4);
+        List<Order> orders = HeuristicRouteSolverTest.orders(8, 3);
+
+        List<RouteResult> routes = new FleetPlanner(solver, FleetObjective.MAKESPAN)
+                .withMemoryBudget(budget, AdmissionPolicy.REJECT)
+                .plan(List.of(START, START), orders);
+        int assigned = 0;
+        for (RouteResult route : routes) {
+            assertTrue(route.getSequence().size() <= 8, "More than 4 orders: " + route.getSequence().size());
+            assigned += route.getSequence().size() / 2;
+        }
+        assertEquals(8, assigned);
+
+        List<Order> six = orders.subList(0, 6);
+        FleetPlanner rejecting = new FleetPlanner(solver, FleetObjective.MAKESPAN)
+                .withMemoryBudget(budget, AdmissionPolicy.REJECT);
+        assertThrows(BatchTooLargeException.class, () -> rejecting.plan(List.of(START), six));
+
+        RouteResult clustered = new FleetPlanner(solver, FleetObjective.MAKESPAN)
+                .withMemoryBudget(budget, AdmissionPolicy.CLUSTER)
+                .plan(List.of(START), six).get(0);
+        assertEquals(PlanningMode.CLUSTERED, clustered.getMode());
+        HeuristicRouteSolverTest.assertValidRoute(six, clustered);
+    }
+
+    // - Setup: 10 random orders, 4 riders at different starts
+    // - Tests:
+    //   - Moving any single order to another rider does not improve the objective
+    // - Purpose: Routes kept between improvement rounds must not hide an improving move
+    @ParameterizedTest
+    @EnumSource(FleetObjective.class)
+    void testImprovementEndsInLocalOptimum(FleetObjective objective) {
+        List<Order> orders = HeuristicRouteSolverTest.orders(10, 9);
+        List<Location> riders = List.of(START, new Location(12.94, 77.62), new Location(12.93, 77.63),
+                new Location(12.945, 77.635));
+        BitmaskRouteSolver solver = new BitmaskRouteSolver();
+
+        List<RouteResult> routes = new FleetPlanner(solver, objective).plan(riders, orders);
+
+        List<List<Order>> assigned = new ArrayList<>();
+        double[] cost = new double[riders.size()];
+        for (int r = 0; r < riders.size(); r++) {
+            List<Order> own = new ArrayList<>();
+            for (RouteStep step : routes.get(r).getSequence()) {
+                if (step.getAction().equals("Pickup")) {
+                    orders.stream().filter(o -> o.getOrderId().equals(step.getOrderId())).forEach(own::add);
+                }
+            }
+            assigned.add(own);
+            cost[r] = objective.routeCost(routes.get(r));
+        }
+        double planned = combined(objective, cost);
+        for (int from = 0; from < riders.size(); from++) {
+            for (Order order : assigned.get(from)) {
+                List<Order> rest = new ArrayList<>(assigned.get(from));
+                rest.remove(order);
+                for (int to = 0; to < riders.size(); to++) {
+                    if (to == from) continue;
+                    List<Order> more = new ArrayList<>(assigned.get(to));
+                    more.add(order);
+                    double[] moved = cost.clone();
+                    moved[from] = rest.isEmpty() ? 0.0
+                            : objective.routeCost(solver.solve(new RouteProblem(riders.get(from), rest)));
+                    moved[to] = objective.routeCost(solver.solve(new RouteProblem(riders.get(to), more)));
+                    assertTrue(combined(objective, moved) >= planned - 1e-9,
+                            "Moving " + order.getOrderId() + " from " + from + " to " + to + " improves the plan");
+                }
+            }
+        }
+    }
+
+    private static double combined(FleetObjective objective, double[] cost) {
+        double value = cost[0];
+        for (int r = 1; r < cost.length; r++) value = objective.combine(value, cost[r]);
+        return value;
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.service;
+
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeuristicRouteSolverTest {
+
+    private static final Location START = new Location(12.9352, 77.6245);
+
+    // - Setup: seeded random batches of 2..7 orders
+    // - Tests:
+    //   - Heuristic total time is never below the exact optimum
+    //   - It stays within 20% of the optimum
+    // - Purpose: Sanity-checks solution quality where the exact DP is still available
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 4, 5, 6, 7})
+    void testCloseToExactOnSmallBatches(int n) {
+        for (long seed = 0; seed < 5; seed++) {
+            List<Order> orders = orders(n, seed);
+            RouteProblem problem = new RouteProblem(START, orders);
+
+            double exact = new TernaryRouteSolver().solve(problem).getTotalTime();
+            RouteResult heuristic = new HeuristicRouteSolver().solve(problem);
+
+            assertTrue(heuristic.getTotalTime() >= exact - 1e-9, "Heuristic cannot beat the optimum");
+            assertTrue(heuristic.getTotalTime() <= exact * 1.2,
+                    "n=" + n + " seed=" + seed + ": " + heuristic.getTotalTime() + " vs optimum " + exact);
+            assertValidRoute(orders, heuristic);
+        }
+    }
+
+    // - Setup: 300 orders (600 stops), far beyond the DP limit
+    // - Tests:
+    //   - Every order is picked up once and delivered once afterwards
+    //   - Solve completes well within a second
+    // - Purpose: Verifies the heuristic scales to festival-day batch sizes
+    @Test
+    void testLargeBatch() {
+        List<Order> orders = orders(300, 42);
+        RouteProblem problem = new RouteProblem(START, orders);
+
+        long startNanos = System.nanoTime();
+        RouteResult result = new HeuristicRouteSolver().solve(problem);
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        assertValidRoute(orders, result);
+        assertTrue(elapsedMillis < 1000, "Took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void testNoOrders() {
+        RouteResult result = new HeuristicRouteSolver().solve(new RouteProblem(START, List.of()));
+        assertTrue(result.getSequence().isEmpty());
+        assertEquals(0.0, result.getTotalTime());
+    }
+
+    static List<Order> orders(int n, long seed) {
+        Random random = new Random(seed);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            Location restaurant = new Location(START.getLatitude() + (random.nextDouble() - 0.5) * 0.02,
+                    START.getLongitude() + (random.nextDouble() - 0.5) * 0.02);
+            Location customer = new Location(START.getLatitude() + (random.nextDouble() - 0.5) * 0.04,
+                    START.getLongitude() + (random.nextDouble() - 0.5) * 0.04);
+            orders.add(new Order("O" + i, customer, restaurant, 3 + random.nextInt(8), random.nextInt(4)));
+        }
+        return orders;
+    }
+
+    static void assertValidRoute(List<Order> orders, RouteResult result) {
+        List<RouteStep> steps = result.getSequence();
+        assertEquals(2 * orders.size(), steps.size());
+        Set<String> picked = new HashSet<>();
+        Set<String> delivered = new HashSet<>();
+        for (RouteStep step : steps) {
+            if (step.getAction().equals("Pickup")) {
+                assertTrue(picked.add(step.getOrderId()), "Picked twice: " + step.getOrderId());
+            } else {
+                assertTrue(picked.contains(step.getOrderId()), "Delivered before pickup: " + step.getOrderId());
+                assertTrue(delivered.add(step.getOrderId()), "Delivered twice: " + step.getOrderId());
+            }
+        }
+        assertEquals(orders.size(), delivered.size());
+        assertEquals(result.getTotalTime(), steps.get(steps.size() - 1).getEta(), 1e-9);
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.service;
+
+import org.example.dto.RouteResult;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutePlanningEngineTest {
+
+    private static final Location START = new Location(12.9352, 77.6245);
+
+    // - Setup: 300 independent batches of 1..5 orders on the default executor
+    // - Tests:
+    //   - Every future completes with the same route RouteService computes directly
+    // - Purpose: Verifies concurrent planning returns correct, per-request results
+    @Test
+    void testManyRequests() throws Exception {
+        List<List<Order>> batches = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            batches.add(HeuristicRouteSolverTest.orders(1 + i % 5, i));
+        }
+
+        List<CompletableFuture<RouteResult>> futures = new ArrayList<>();
+        try (RoutePlanningEngine engine = new RoutePlanningEngine()) {
+            for (List<Order> batch : batches) {
+                futures.add(engine.submit(START, batch));
+            }
+            for (int i = 0; i < batches.size(); i++) {
+                RouteResult expected = new RouteService(START, batches.get(i), SolverMode.TERNARY).findBestRoute();
+                assertEquals(expected, futures.get(i).get(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    // - Setup: solver whose every solve claims the whole memory budget; 4 threads, 8 requests
+    // - Tests:
+    //   - Never more than one solve runs at a time
+    // - Purpose: Large DPs must queue on the memory budget instead of running side by side
+    @Test
+    void testMemoryBudgetSerialisesLargeSolves() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        RouteSolver heavy = new RouteSolver() {
+            @Override
+            public RouteResult solve(RouteProblem problem) {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return new RouteResult(List.of(), 0.0);
+            }
+
+            @Override
+            public long estimatedBytes(int orderCount) {
+                return 900_000;
+            }
+        };
+
+        List<CompletableFuture<RouteResult>> futures = new ArrayList<>();
+        try (RoutePlanningEngine engine = new RoutePlanningEngine(heavy, 100, 1_000_000,
+                Executors.newFixedThreadPool(4))) {
+            for (int i = 0; i < 8; i++) {
+                futures.add(engine.submit(START, HeuristicRouteSolverTest.orders(2, i)));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(1, peak.get());
+    }
+
+    // - Setup: 12-order ternary request against a 1 MB budget
+    // - Tests:
+    //   - Future fails with IllegalArgumentException without running the solver
+    // - Purpose: A request that can never fit must not block the engine
+    @Test
+    void testRequestLargerThanBudgetFails() throws Exception {
+        try (RoutePlanningEngine engine = new RoutePlanningEngine(new TernaryRouteSolver(), 10, 1_000_000)) {
+            CompletableFuture<RouteResult> future = engine.submit(START, HeuristicRouteSolverTest.orders(12, 1));
+
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(IllegalArgumentException.class, e.getCause());
+            assertEquals(0, engine.inFlight());
+        }
+    }
+
+    // - Setup: in-flight limit of 2, solver blocked on a latch
+    // - Tests:
+    //   - A third submit blocks until one of the first two completes
+    // - Purpose: Verifies backpressure on producers
+    @Test
+    void testSubmitBlocksWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RouteSolver blocked = problem -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new RouteResult(List.of(), 0.0);
+        };
+
+        try (RoutePlanningEngine engine = new RoutePlanningEngine(blocked, 2, Long.MAX_VALUE,
+                Executors.newFixedThreadPool(4))) {
+            List<Order> orders = HeuristicRouteSolverTest.orders(1, 0);
+            engine.submit(START, orders);
+            engine.submit(START, orders);
+            assertEquals(2, engine.inFlight());
+
+            CompletableFuture<CompletableFuture<RouteResult>> third = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return engine.submit(START, orders);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(100);
+            assertFalse(third.isDone(), "Third submit should wait for a free slot");
+
+            release.countDown();
+            assertNotNull(third.get(10, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    // - Setup: in-flight limit of 1, solver blocked on a latch
+    // - Tests:
+    //   - trySubmit returns null at once while the slot is taken, and a future once it is free
+    //   - A batch over the memory budget still fails with BatchTooLargeException
+    // - Purpose: Verifies the non-blocking entry point used by the HTTP server
+    @Test
+    void testTrySubmitDoesNotBlock() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RouteSolver blocked = problem -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new RouteResult(List.of(), 0.0);
+        };
+
+        try (RoutePlanningEngine engine = new RoutePlanningEngine(blocked, 1, 16 << 10, // 40 orders need ~52 KB
+                Executors.newFixedThreadPool(2))) {
+            List<Order> orders = HeuristicRouteSolverTest.orders(1, 0);
+            CompletableFuture<RouteResult> first = engine.trySubmit(START, orders, RouteProblem.UNLIMITED);
+            assertNotNull(first);
+            assertNull(engine.trySubmit(START, orders, RouteProblem.UNLIMITED));
+
+            release.countDown();
+            first.get(10, TimeUnit.SECONDS);
+            CompletableFuture<RouteResult> next = engine.trySubmit(START, orders, RouteProblem.UNLIMITED);
+            assertNotNull(next);
+            next.get(10, TimeUnit.SECONDS);
+
+            CompletableFuture<RouteResult> huge = engine.trySubmit(START, HeuristicRouteSolverTest.orders(40, 1),
+                    RouteProblem.UNLIMITED);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> huge.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(BatchTooLargeException.class, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.service;
+
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteReplannerTest {
+
+    private static final Location START = new Location(12.9352, 77.6245);
+
+    // - Setup: optimal 5-order route, nothing driven yet, one order added
+    // - Tests:
+    //   - Every order is picked up once and delivered afterwards
+    //   - Total time stays within 20% of a full exact re-solve
+    // - Purpose: Insert + repair should stay close to a from-scratch solve
+    @Test
+    void testAddOrderBeforeDeparture() {
+        for (long seed = 0; seed < 5; seed++) {
+            List<Order> all = HeuristicRouteSolverTest.orders(6, seed);
+            List<Order> orders = all.subList(0, 5);
+            RouteResult current = new RouteService(START, orders, SolverMode.TERNARY).findBestRoute();
+
+            RouteResult updated = new RouteReplanner().replan(orders, current, START, 0.0, all.subList(5, 6));
+
+            HeuristicRouteSolverTest.assertValidRoute(all, updated);
+            double exact = new RouteService(START, all, SolverMode.TERNARY).findBestRoute().getTotalTime();
+            assertTrue(updated.getTotalTime() >= exact - 1e-9);
+            assertTrue(updated.getTotalTime() <= exact * 1.2, updated.getTotalTime() + " vs " + exact);
+        }
+    }
+
+    // - Setup: 4-order route driven up to its third step, two orders added at the rider's position
+    // - Tests:
+    //   - Completed steps are returned unchanged
+    //   - Remaining ETAs are after the elapsed time; orders already picked up are not picked up again
+    //   - Both new orders are picked up before they are delivered
+    // - Purpose: Verifies the route continues from where the rider is
+    @Test
+    void testAddOrdersMidRoute() {
+        List<Order> orders = HeuristicRouteSolverTest.orders(4, 11);
+        RouteResult current = new RouteService(START, orders, SolverMode.TERNARY).findBestRoute();
+        RouteStep reached = current.getSequence().get(2);
+        List<Order> newOrders = List.of(
+                new Order("N1", new Location(12.94, 77.63), new Location(12.936, 77.626), 5, 0),
+                new Order("N2", new Location(12.93, 77.62), new Location(12.934, 77.623), 30, 0));
+
+        RouteResult updated = new RouteReplanner().replan(orders, current, reached.getLocation(), reached.getEta(),
+                newOrders);
+
+        assertEquals(current.getSequence().subList(0, 3), updated.getSequence().subList(0, 3));
+        List<RouteStep> rest = updated.getSequence().subList(3, updated.getSequence().size());
+        for (RouteStep step : rest) {
+            assertTrue(step.getEta() > reached.getEta());
+            assertFalse(current.getSequence().subList(0, 3).stream().anyMatch(s ->
+                    s.getOrderId().equals(step.getOrderId()) && s.getAction().equals(step.getAction())));
+        }
+        List<Order> all = new ArrayList<>(orders);
+        all.addAll(newOrders);
+        HeuristicRouteSolverTest.assertValidRoute(all, updated);
+        assertEquals(rest.get(rest.size() - 1).getEta(), updated.getTotalTime(), 1e-9);
+        // N2 is not ready before minute 30
+        assertTrue(rest.stream().anyMatch(s -> s.getOrderId().equals("N2") && s.getEta() >= 30.0));
+    }
+
+    // - Setup: 200-order heuristic route, 3 new orders, 5 ms repair budget
+    // - Tests:
+    //   - Replanning returns well inside 100 ms
+    // - Purpose: Live reassignment must not fall back to a full re-solve
+    @Test
+    void testResponseTimeOnLongRoute() {
+        List<Order> all = HeuristicRouteSolverTest.orders(203, 5);
+        List<Order> orders = all.subList(0, 200);
+        RouteResult current = new HeuristicRouteSolver().solve(new RouteProblem(START, orders));
+        RouteReplanner replanner = new RouteReplanner(Duration.ofMillis(5));
+        replanner.replan(orders, current, START, 0.0, all.subList(200, 203)); // warm-up
+
+        long startNanos = System.nanoTime();
+        RouteResult updated = replanner.replan(orders, current, START, 0.0, all.subList(200, 203));
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        HeuristicRouteSolverTest.assertValidRoute(all, updated);
+        assertTrue(elapsedMillis < 100, "Took " + elapsedMillis + " ms");
+    }
+
+    // - Setup: new order reusing an id already on the route
+    // - Tests:
+    //   - IllegalArgumentException
+    // - Purpose: Ids identify steps, so they must be unique
+    @Test
+    void testDuplicateOrderIdRejected() {
+        List<Order> orders = HeuristicRouteSolverTest.orders(2, 1);
+        RouteResult current = new RouteService(START, orders).findBestRoute();
+
+        assertThrows(IllegalArgumentException.class, () ->
+                new RouteReplanner().replan(orders, current, START, 0.0, List.of(orders.get(0))));
+    }
+
+    // - Setup: 2-bag route over 5 orders driven until the rider carries the most orders, 3 orders added
+    // - Tests:
+    //   - No point of the updated route carries more than 2 orders
+    //   - Each order keeps its R/C label; new orders get the next ones
+    // - Purpose: Orders already in the bag count towards the capacity of the remaining route
+    @Test
+    void testCapacityWithOrdersInBag() {
+        for (long seed = 0; seed < 5; seed++) {
+            List<Order> all = HeuristicRouteSolverTest.orders(8, seed);
+            List<Order> orders = all.subList(0, 5);
+            RouteResult current = new RouteService(START, orders, SolverMode.TERNARY).withCapacity(2).findBestRoute();
+            int fullest = 0;
+            for (int k = 0, load = 0, most = 0; k < current.getSequence().size(); k++) {
+                load += current.getSequence().get(k).getAction().equals("Pickup") ? 1 : -1;
+                if (load > most) {
+                    most = load;
+                    fullest = k;
+                }
+            }
+            RouteStep reached = current.getSequence().get(fullest);
+
+            RouteResult updated = new RouteReplanner().withCapacity(2)
+                    .replan(orders, current, reached.getLocation(), reached.getEta(), all.subList(5, 8));
+
+            HeuristicRouteSolverTest.assertValidRoute(all, updated);
+            int load = 0;
+            for (RouteStep step : updated.getSequence()) {
+                load += step.getAction().equals("Pickup") ? 1 : -1;
+                assertTrue(load <= 2, "Carrying " + load + " at " + step);
+                int label = Integer.parseInt(step.getTarget().replaceAll("\\D", ""));
+                assertEquals(all.get(label - 1).getOrderId(), step.getOrderId());
+            }
+        }
+    }
+
+    // - Setup: unlimited route driven until 3 orders are in the bag, replanned with 2 bags
+    // - Tests:
+    //   - IllegalArgumentException
+    // - Purpose: A capacity the rider already exceeds cannot be honoured
+    @Test
+    void testAlreadyOverCapacityRejected() {
+        List<Order> orders = List.of(
+                new Order("A", new Location(12.96, 77.65), new Location(12.936, 77.625), 0, 0),
+                new Order("B", new Location(12.96, 77.651), new Location(12.936, 77.625), 0, 0),
+                new Order("C", new Location(12.96, 77.652), new Location(12.936, 77.625), 0, 0));
+        RouteResult current = new RouteService(START, orders, SolverMode.TERNARY).findBestRoute();
+        RouteStep reached = current.getSequence().get(2);
+        assertEquals("Pickup", reached.getAction());
+
+        assertThrows(IllegalArgumentException.class, () -> new RouteReplanner().withCapacity(2)
+                .replan(orders, current, reached.getLocation(), reached.getEta(), List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new RouteReplanner().withCapacity(0));
+    }
+}
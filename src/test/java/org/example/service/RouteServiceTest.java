@@ -1,14 +1,25 @@
 package org.example.service;
 
+import org.example.algo.DistanceModel;
+import org.example.algo.EquirectangularDistance;
 import org.example.algo.Haversine;
+import org.example.algo.TravelTimeMatrix;
+import org.example.dto.PlanningMode;
 import org.example.dto.RouteResult;
 import org.example.dto.RouteStep;
 import org.example.entity.Location;
 import org.example.entity.Order;
 import org.example.service.RouteService;
+import org.example.utility.OrderGenerator;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -203,4 +214,241 @@ class RouteServiceTest {
 
 
 
+    // - Setup: 2 orders solved with and without a caller-supplied TravelTimeMatrix
+    // - Tests:
+    //   - Both solves produce the same total time and step sequence
+    //   - A matrix built for a different order count is rejected
+    // - Purpose: Verifies the precomputed matrix can be reused across solves
+    @Test
+    void testSuppliedTravelTimeMatrix() {
+        Location start = new Location(0, 0);
+        Order o1 = new Order("O1", new Location(0, 1), new Location(0, 2), 5.0, 0.0);
+        Order o2 = new Order("O2", new Location(1, 0), new Location(2, 0), 10.0, 0.0);
+        List<Order> orders = List.of(o1, o2);
+
+        TravelTimeMatrix matrix = TravelTimeMatrix.forOrders(start, orders);
+        RouteResult fresh = new RouteService(start, orders).findBestRoute();
+        RouteResult reused = new RouteService(start, orders, matrix).findBestRoute();
+
+        assertEquals(fresh.getTotalTime(), reused.getTotalTime());
+        assertEquals(fresh.getSequence(), reused.getSequence());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new RouteService(start, List.of(o1), matrix));
+    }
+
+
+    // - Setup: n random orders around Koramangala, solved with BITMASK and TERNARY modes
+    // - Tests:
+    //   - Both modes find the same optimal total time
+    //   - Ternary route visits every node once with pickups before deliveries
+    // - Purpose: Verifies the ternary state encoding is an exact replacement for the bitmask DP
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 6})
+    void testTernaryModeMatchesBitmask(int n) {
+        Location start = new Location(12.9352, 77.6245);
+        List<Order> orders = OrderGenerator.generateOrders(n, start);
+
+        RouteResult bitmask = new RouteService(start, orders, SolverMode.BITMASK).findBestRoute();
+        RouteResult ternary = new RouteService(start, orders, SolverMode.TERNARY).findBestRoute();
+
+        assertEquals(bitmask.getTotalTime(), ternary.getTotalTime(), 1e-9);
+        assertEquals(2 * n, ternary.getSequence().size());
+        RouteStep last = ternary.getSequence().get(2 * n - 1);
+        assertEquals(ternary.getTotalTime(), last.getEta(), 1e-9);
+        for (Order o : orders) {
+            int pickupIndex = indexOf(ternary.getSequence(), "Pickup", o.getOrderId());
+            int deliveryIndex = indexOf(ternary.getSequence(), "Deliver", o.getOrderId());
+            assertTrue(pickupIndex >= 0 && deliveryIndex > pickupIndex);
+        }
+    }
+
+    // - Setup: 17 and 20 random orders solved directly by the ternary DP (as FleetPlanner does)
+    // - Tests:
+    //   - IllegalArgumentException before any table is allocated (3^20 overflows an int)
+    //   - estimatedBytes reports the batch as too large
+    // - Purpose: Guards the state-count arithmetic against overflow
+    @ParameterizedTest
+    @ValueSource(ints = {17, 20})
+    void testTernaryRejectsTooManyOrders(int n) {
+        Location start = new Location(12.9352, 77.6245);
+        List<Order> orders = OrderGenerator.generateOrders(n, start);
+        TernaryRouteSolver solver = new TernaryRouteSolver();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> solver.solve(new RouteProblem(start, orders)));
+        assertTrue(e.getMessage().contains("Too many orders"), e.getMessage());
+        assertEquals(Long.MAX_VALUE, solver.estimatedBytes(n));
+    }
+
+    // - Setup: 5 random orders solved by each SolverMode with HEAP and OFF_HEAP tables
+    // - Tests:
+    //   - Off-heap storage returns exactly the same route and total time as on-heap storage
+    // - Purpose: Verifies the direct-buffer DP table is a drop-in replacement
+    @ParameterizedTest
+    @EnumSource(value = SolverMode.class, names = {"BITMASK", "PARALLEL_BITMASK", "TERNARY"})
+    void testOffHeapStorageMatchesHeap(SolverMode mode) {
+        Location start = new Location(12.9352, 77.6245);
+        List<Order> orders = OrderGenerator.generateOrders(5, start);
+
+        RouteResult heap = new RouteService(start, orders, mode, DpStorage.HEAP).findBestRoute();
+        RouteResult offHeap = new RouteService(start, orders, mode, DpStorage.OFF_HEAP).findBestRoute();
+
+        assertEquals(heap.getTotalTime(), offHeap.getTotalTime());
+        assertEquals(heap.getSequence(), offHeap.getSequence());
+    }
+
+    // - Setup: direct table of 100 cells split into 16-cell chunks
+    // - Tests:
+    //   - Every cell starts unreached; values written on either side of a chunk boundary read back
+    //   - Size counts every chunk plus the parents
+    // - Purpose: Verifies chunking, which lets OFF_HEAP hold tables over the 2 GiB direct-buffer limit
+    @Test
+    void testDirectTableChunks() {
+        DirectDpTable table = new DirectDpTable(100, 4);
+        for (int cell = 0; cell < 100; cell++) assertEquals(DpTable.UNREACHED, table.cost(cell));
+        for (int cell = 0; cell < 100; cell++) table.set(cell, cell * 0.5, cell % 7);
+        for (int cell = 0; cell < 100; cell++) {
+            assertEquals(cell * 0.5, table.cost(cell));
+            assertEquals(cell % 7, table.parent(cell));
+        }
+        assertEquals(100L * DpTable.BYTES_PER_CELL, table.sizeInBytes());
+    }
+
+    // - Setup: n random orders solved by BITMASK and by PARALLEL_BITMASK on a 4-thread pool
+    // - Tests:
+    //   - Same total time and exactly the same step sequence (deterministic tie-breaking)
+    // - Purpose: Verifies layer-parallel filling reproduces the sequential DP
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 5, 6})
+    void testParallelBitmaskMatchesSequential(int n) {
+        Location start = new Location(12.9352, 77.6245);
+        List<Order> orders = OrderGenerator.generateOrders(n, start);
+        TravelTimeMatrix matrix = TravelTimeMatrix.forOrders(start, orders);
+
+        RouteResult sequential = new BitmaskRouteSolver(DpStorage.HEAP).solve(new RouteProblem(start, orders, matrix));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            RouteResult parallel = new ParallelBitmaskRouteSolver(DpStorage.HEAP, pool).solve(new RouteProblem(start, orders, matrix));
+            assertEquals(sequential.getTotalTime(), parallel.getTotalTime());
+            assertEquals(sequential.getSequence(), parallel.getSequence());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // - Setup: every mask of 1..6 orders, capacities 1, 2 and unlimited
+    // - Tests:
+    //   - layers() lists exactly the valid masks within capacity, each once, in the layer of its popcount
+    // - Purpose: Verifies the per-layer mask index the parallel fill iterates instead of all 4^n masks
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 6})
+    void testParallelLayerIndex(int n) {
+        for (int capacity : new int[]{1, 2, RouteProblem.UNLIMITED}) {
+            int[] layerStart = new int[2 * n + 2];
+            int[] masks = ParallelBitmaskRouteSolver.layers(n, capacity, layerStart);
+            Set<Integer> listed = new HashSet<>();
+            for (int k = 0; k <= 2 * n; k++) {
+                for (int i = layerStart[k]; i < layerStart[k + 1]; i++) {
+                    assertEquals(k, Integer.bitCount(masks[i]));
+                    assertTrue(listed.add(masks[i]));
+                }
+            }
+            Set<Integer> expected = new HashSet<>();
+            for (int mask = 0; mask < 1 << 2 * n; mask++) {
+                if (BitmaskRouteSolver.isValid(mask, n) && BitmaskRouteSolver.carried(mask, n) <= capacity) {
+                    expected.add(mask);
+                }
+            }
+            assertEquals(expected, listed);
+            assertEquals(masks.length, layerStart[2 * n + 1]);
+        }
+    }
+
+    // - Setup: seeded random batches of 1..7 orders
+    // - Tests:
+    //   - Bound pruning gives exactly the same route and total time as the unpruned DP
+    //     (ternary, sequential bitmask and parallel bitmask)
+    // - Purpose: Verifies the greedy upper bound and lower bounds never cut an optimal route
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 6, 7})
+    void testPruningKeepsOptimalRoute(int n) {
+        for (long seed = 0; seed < 4; seed++) {
+            RouteProblem problem = new RouteProblem(new Location(12.9352, 77.6245), HeuristicRouteSolverTest.orders(n, seed));
+
+            RouteResult ternary = new TernaryRouteSolver(DpStorage.HEAP, false).solve(problem);
+            RouteResult prunedTernary = new TernaryRouteSolver(DpStorage.HEAP, true).solve(problem);
+            assertEquals(ternary.getTotalTime(), prunedTernary.getTotalTime());
+            assertEquals(ternary.getSequence(), prunedTernary.getSequence());
+
+            if (n <= 6) {
+                RouteResult bitmask = new BitmaskRouteSolver(DpStorage.HEAP, false).solve(problem);
+                RouteResult prunedBitmask = new BitmaskRouteSolver(DpStorage.HEAP, true).solve(problem);
+                RouteResult prunedParallel = new ParallelBitmaskRouteSolver(DpStorage.HEAP, true,
+                        ForkJoinPool.commonPool()).solve(problem);
+                assertEquals(bitmask.getSequence(), prunedBitmask.getSequence());
+                assertEquals(bitmask.getSequence(), prunedParallel.getSequence());
+            }
+        }
+    }
+
+    // - Setup: random batches around Koramangala (all stops within 5 km) solved with HAVERSINE and
+    //   with an equirectangular model centred on the start
+    // - Tests:
+    //   - Optimal total times differ by at most the model's relative error bound
+    // - Purpose: Verifies the approximate distance model can be selected and stays within its bound
+    @ParameterizedTest
+    @ValueSource(ints = {2, 4, 6})
+    void testEquirectangularModelWithinBound(int n) {
+        Location start = new Location(12.9352, 77.6245);
+        EquirectangularDistance model = EquirectangularDistance.around(start);
+        double bound = model.maxRelativeError(5.0);
+        for (long seed = 0; seed < 3; seed++) {
+            List<Order> orders = OrderGenerator.generateOrders(n, start, seed);
+
+            RouteResult exact = new RouteService(start, orders, SolverMode.TERNARY, DistanceModel.HAVERSINE).findBestRoute();
+            RouteResult approx = new RouteService(start, orders, SolverMode.TERNARY, model).findBestRoute();
+
+            assertEquals(exact.getTotalTime(), approx.getTotalTime(), bound * exact.getTotalTime());
+            assertEquals(2 * n, approx.getSequence().size());
+        }
+    }
+
+    private static int indexOf(List<RouteStep> steps, String action, String orderId) {
+        for (int i = 0; i < steps.size(); i++) {
+            if (steps.get(i).getAction().equals(action) && steps.get(i).getOrderId().equals(orderId)) return i;
+        }
+        return -1;
+    }
+
+    // - Setup: 10 orders with the bitmask DP (hundreds of MB) and a 1 MB budget
+    // - Tests:
+    //   - REJECT throws BatchTooLargeException naming the order count, estimate and budget
+    //   - CLUSTER returns a full route marked CLUSTERED
+    // - Purpose: Verifies admission happens before the DP table is allocated
+    @Test
+    void testMemoryBudgetAdmission() {
+        Location start = new Location(12.9352, 77.6245);
+        List<Order> orders = OrderGenerator.generateOrders(10, start, 5L);
+        long budget = 1L << 20;
+
+        BatchTooLargeException e = assertThrows(BatchTooLargeException.class, () ->
+                new RouteService(start, orders, SolverMode.BITMASK)
+                        .withMemoryBudget(budget, AdmissionPolicy.REJECT)
+                        .findBestRoute());
+        assertEquals(budget, e.getBudgetBytes());
+        assertTrue(e.getEstimatedBytes() > budget);
+        assertTrue(e.getMessage().contains("10 orders"), e.getMessage());
+
+        RouteResult clustered = new RouteService(start, orders, SolverMode.BITMASK)
+                .withMemoryBudget(budget, AdmissionPolicy.CLUSTER)
+                .findBestRoute();
+        assertEquals(PlanningMode.CLUSTERED, clustered.getMode());
+        assertEquals(20, clustered.getSequence().size());
+
+        RouteResult full = new RouteService(start, orders.subList(0, 3), SolverMode.BITMASK)
+                .withMemoryBudget(budget, AdmissionPolicy.REJECT)
+                .findBestRoute();
+        assertEquals(PlanningMode.FULL, full.getMode());
+    }
 }
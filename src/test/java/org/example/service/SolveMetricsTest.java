@@ -0,0 +1,156 @@
+package org.example.service;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.utility.OrderGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolveMetricsTest {
+
+    private static final Location START = new Location(12.9352, 77.6245);
+
+    // - Setup: 6 orders solved by every exact mode through RouteService with a capturing listener
+    // - Tests:
+    //   - Solver name, order count and table bytes (= estimatedBytes) are reported
+    //   - Phases are measured and add up to at most the total; some states were expanded
+    // - Purpose: Exact solvers fill in every metric
+    @ParameterizedTest
+    @EnumSource(value = SolverMode.class, names = {"BITMASK", "PARALLEL_BITMASK", "TERNARY", "PRUNED"})
+    void testExactSolversReportMetrics(SolverMode mode) {
+        List<Order> orders = OrderGenerator.generateOrders(6, START, 3L);
+        List<SolveMetrics> captured = new ArrayList<>();
+
+        new RouteService(START, orders, mode).withListener(captured::add).findBestRoute();
+
+        assertEquals(1, captured.size());
+        SolveMetrics m = captured.get(0);
+        assertEquals(6, m.getOrderCount());
+        assertEquals(mode.solver(DpStorage.HEAP).getClass().getSimpleName(), m.getSolver());
+        assertEquals(mode.solver(DpStorage.HEAP).estimatedBytes(6), m.getTableBytes());
+        assertTrue(m.getMatrixNanos() > 0 && m.getSearchNanos() > 0 && m.getReconstructionNanos() > 0, m.toString());
+        assertTrue(m.getMatrixNanos() + m.getSearchNanos() + m.getReconstructionNanos() <= m.getTotalNanos());
+        assertTrue(m.getStatesExpanded() > 0);
+        if (mode == SolverMode.PRUNED) {
+            assertTrue(m.getStatesPruned() > 0);
+        } else {
+            assertEquals(0, m.getStatesPruned());
+        }
+    }
+
+    // - Setup: 9 orders whose prep times are 8 minutes apart, solved by TERNARY and PRUNED
+    // - Tests:
+    //   - Same completion time
+    //   - PRUNED expands less than half of TERNARY's states
+    // - Purpose: Staggered prep times are the workload the prep bound is for (see README, Solver Modes)
+    @Test
+    void testPruningPaysOffOnStaggeredPrep() {
+        List<Order> orders = new ArrayList<>();
+        for (Order o : OrderGenerator.generateOrders(9, START, 42L)) {
+            orders.add(new Order(o.getOrderId(), o.getConsumerLocation(), o.getRestaurantLocation(),
+                    8.0 * orders.size(), 0.0));
+        }
+        List<SolveMetrics> captured = new ArrayList<>();
+
+        double ternary = new RouteService(START, orders, SolverMode.TERNARY).withListener(captured::add)
+                .findBestRoute().getTotalTime();
+        double pruned = new RouteService(START, orders, SolverMode.PRUNED).withListener(captured::add)
+                .findBestRoute().getTotalTime();
+
+        assertEquals(ternary, pruned, 1e-9);
+        long full = captured.get(0).getStatesExpanded();
+        long bounded = captured.get(1).getStatesExpanded();
+        assertTrue(2 * bounded < full, bounded + " of " + full + " states expanded");
+    }
+
+    // - Setup: heuristic solver (no DP) and a cache hit, both with a supplied matrix
+    // - Tests:
+    //   - Heuristic: whole solve is search time, no DP counters; cache hit: re-assembly only
+    //   - Matrix time is 0 when the caller supplies the matrix
+    // - Purpose: Default instrumentation for other solvers
+    @Test
+    void testUninstrumentedAndCachedSolves() {
+        List<Order> orders = OrderGenerator.generateOrders(5, START, 4L);
+        List<SolveMetrics> captured = new ArrayList<>();
+        CachingRouteSolver cache = new CachingRouteSolver(new TernaryRouteSolver(), 10, Duration.ofMinutes(1));
+
+        new RouteService(START, orders, new HeuristicRouteSolver()).withListener(captured::add).findBestRoute();
+        new RouteService(START, orders, cache).withListener(captured::add).findBestRoute();
+        new RouteService(START, orders, cache).withListener(captured::add).findBestRoute();
+
+        SolveMetrics heuristic = captured.get(0);
+        assertEquals("HeuristicRouteSolver", heuristic.getSolver());
+        assertTrue(heuristic.getSearchNanos() > 0);
+        assertEquals(0, heuristic.getStatesExpanded());
+        assertEquals(0, heuristic.getTableBytes());
+
+        assertEquals("TernaryRouteSolver", captured.get(1).getSolver()); // miss
+        SolveMetrics hit = captured.get(2);
+        assertEquals("CachingRouteSolver", hit.getSolver());
+        assertEquals(0, hit.getSearchNanos());
+        assertTrue(hit.getReconstructionNanos() > 0);
+    }
+
+    // - Setup: recorder shared by 20 solves of 2 batch sizes
+    // - Tests:
+    //   - Per-batch-size and per-phase histograms count every solve; summary lists both sizes
+    // - Purpose: Aggregation into latency histograms
+    @Test
+    void testRecorderAggregates() {
+        SolveMetricsRecorder recorder = new SolveMetricsRecorder();
+        for (int i = 0; i < 10; i++) {
+            new RouteService(START, OrderGenerator.generateOrders(3, START, i), SolverMode.TERNARY)
+                    .withListener(recorder).findBestRoute();
+            new RouteService(START, OrderGenerator.generateOrders(5, START, i), SolverMode.PRUNED)
+                    .withListener(recorder).findBestRoute();
+        }
+
+        assertEquals(20, recorder.total().count());
+        assertEquals(20, recorder.search().count());
+        assertEquals(List.of(3, 5), new ArrayList<>(recorder.totalByOrderCount().keySet()));
+        assertEquals(10, recorder.totalByOrderCount().get(5).count());
+        assertTrue(recorder.totalByOrderCount().get(5).valueAtPercentile(50) > 0);
+        assertTrue(recorder.statesExpanded() > 0 && recorder.statesPruned() > 0);
+        assertEquals(new TernaryRouteSolver(DpStorage.HEAP, true).estimatedBytes(5), recorder.maxTableBytes());
+        assertEquals(3, recorder.summary().lines().count());
+    }
+
+    // - Setup: JFR recording with the route solve event enabled around one solve
+    // - Tests:
+    //   - One org.example.RouteSolve event with the order count and solver name
+    // - Purpose: JFR events are emitted
+    @Test
+    void testJfrEventEmitted() throws Exception {
+        Path file = Files.createTempFile("solve", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.example.RouteSolve").withThreshold(Duration.ZERO);
+            recording.start();
+            new RouteService(START, OrderGenerator.generateOrders(4, START, 5L), SolverMode.TERNARY).findBestRoute();
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = new ArrayList<>();
+            for (RecordedEvent e : RecordingFile.readAllEvents(file)) {
+                if (e.getEventType().getName().equals("org.example.RouteSolve")) events.add(e);
+            }
+            assertEquals(1, events.size());
+            assertEquals(4, events.get(0).getInt("orderCount"));
+            assertEquals("TernaryRouteSolver", events.get(0).getString("solver"));
+            assertTrue(events.get(0).getLong("tableBytes") > 0);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.simulation;
+
+import org.example.algo.Haversine;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.example.service.DpStorage;
+import org.example.service.SolveMetricsRecorder;
+import org.example.service.SolverMode;
+import org.example.utility.OrderGenerator;
+import org.example.utility.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaySimulatorTest {
+
+    private static final Location STORE = new Location(12.9352, 77.6245);
+
+    // - Setup: one rider at the store, one order arriving at minute 10 with 5 minutes prep
+    // - Tests:
+    //   - Dispatched at once (window 0): delivered at 10 + max(0 travel, 5 prep) + restaurant → customer
+    //   - Report counts one route, no late delivery
+    // - Purpose: Verifies the rider follows the planned ETAs from the arrival time
+    @Test
+    void testSingleOrderDeliveryTime() {
+        Location customer = new Location(12.9452, 77.6345);
+        Order order = new Order("O1", customer, STORE, 5.0, 0.0, 30.0);
+
+        SimulationReport report = new DaySimulator(List.of(STORE)).withBatching(1, 0.0)
+                .run(List.of(new OrderArrival(10.0, order)).iterator());
+
+        double expected = 5.0 + Haversine.travelTime(STORE, customer);
+        assertEquals(1, report.getOrdersDelivered());
+        assertEquals(1, report.getRoutes());
+        assertEquals(0, report.getLateDeliveries());
+        assertEquals(10.0 + expected, report.getSimulatedMinutes(), 1e-9);
+        assertEquals(expected, report.deliveryMinutesAtPercentile(100), expected / 16);
+    }
+
+    // - Setup: one rider; four orders arriving a minute apart, batch size 4, window 10 minutes
+    // - Tests:
+    //   - Nothing leaves before the fourth arrival fills the batch: one route carries all four
+    //   - With batch size 2 and a window of 0.5 minutes the same orders take more than one route
+    // - Purpose: Verifies the batching rule (size or oldest wait)
+    @Test
+    void testBatching() {
+        List<OrderArrival> arrivals = new ArrayList<>();
+        WorkloadGenerator orders = new WorkloadGenerator(3, STORE);
+        for (int i = 0; i < 4; i++) arrivals.add(new OrderArrival(i, orders.order(i)));
+
+        SimulationReport full = new DaySimulator(List.of(STORE)).withBatching(4, 10.0).run(arrivals.iterator());
+        assertEquals(1, full.getRoutes());
+        assertEquals(4, full.getOrdersDelivered());
+
+        SimulationReport small = new DaySimulator(List.of(STORE)).withBatching(2, 0.5).run(arrivals.iterator());
+        assertTrue(small.getRoutes() > 1);
+        assertEquals(4, small.getOrdersDelivered());
+    }
+
+    // - Setup: a 12-hour day of Poisson arrivals (30 orders/h, 60 over lunch), 8 riders, 3 bags each
+    // - Tests:
+    //   - Every arrived order is delivered, each route carries at most the batch size
+    //   - Two runs with the same seed give the same counts and delivery times
+    //   - Every planned batch reaches the listener; the day runs faster than real time
+    // - Purpose: Verifies a full day end to end
+    @Test
+    void testFullDayIsDeterministicAndFasterThanRealTime() {
+        List<Location> riders = new ArrayList<>();
+        for (int i = 0; i < 8; i++) riders.add(STORE);
+        SolveMetricsRecorder recorder = new SolveMetricsRecorder();
+
+        SimulationReport a = new DaySimulator(riders).withCapacity(3).withListener(recorder).run(day(42));
+        SimulationReport b = new DaySimulator(riders).withCapacity(3).run(day(42));
+
+        assertTrue(a.getOrdersArrived() > 300);
+        assertEquals(a.getOrdersArrived(), a.getOrdersDelivered());
+        assertTrue(a.ordersPerRoute() <= DaySimulator.DEFAULT_MAX_BATCH);
+        assertEquals(a.getRoutes(), recorder.total().count());
+        assertTrue(a.speedUp() > 1.0, a.summary());
+
+        assertEquals(a.getOrdersDelivered(), b.getOrdersDelivered());
+        assertEquals(a.getRoutes(), b.getRoutes());
+        assertEquals(a.getSimulatedMinutes(), b.getSimulatedMinutes());
+        for (double p : new double[]{50, 90, 99, 100}) {
+            assertEquals(a.deliveryMinutesAtPercentile(p), b.deliveryMinutesAtPercentile(p));
+        }
+        assertTrue(a.summary().contains("delivered"));
+    }
+
+    // - Setup: arrivals at minutes 5 and 3
+    // - Tests: the run fails on the out-of-order arrival
+    // - Purpose: Verifies unsorted input is rejected instead of replayed wrongly
+    @Test
+    void testUnsortedArrivalsRejected() {
+        WorkloadGenerator orders = new WorkloadGenerator(1, STORE);
+        Iterator<OrderArrival> arrivals = List.of(new OrderArrival(5.0, orders.order(0)),
+                new OrderArrival(3.0, orders.order(1))).iterator();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new DaySimulator(List.of(STORE)).withBatching(2, 10.0).run(arrivals));
+    }
+
+    // - Setup: order "A" arrives again while the first "A" is still waiting; then again after delivery
+    // - Tests:
+    //   - The open duplicate fails the run with IllegalArgumentException
+    //   - Reusing the id after the first order is delivered is fine
+    // - Purpose: Riders track carried orders by id, so open ids must be unique
+    @Test
+    void testDuplicateOpenOrderIdRejected() {
+        Order order = new Order("A", new Location(12.9452, 77.6345), STORE, 5.0, 0.0);
+        List<OrderArrival> duplicate = List.of(new OrderArrival(0.0, order), new OrderArrival(1.0, order));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new DaySimulator(List.of(STORE)).withBatching(2, 10.0).run(duplicate.iterator()));
+
+        List<OrderArrival> reused = List.of(new OrderArrival(0.0, order), new OrderArrival(60.0, order));
+        SimulationReport report = new DaySimulator(List.of(STORE)).withBatching(1, 0.0).run(reused.iterator());
+        assertEquals(2, report.getOrdersDelivered());
+    }
+
+    // - Setup: an order due 1 minute after arrival with 5 minutes prep; a 4-order batch under a memory budget
+    //   that fits only 2-order solves
+    // - Tests:
+    //   - The impossible deadline is still delivered and counted late
+    //   - The large batch is clustered and every order delivered
+    // - Purpose: A batch the exact solvers cannot plan must not abort the day
+    @Test
+    void testUnplannableBatchesStillDelivered() {
+        Order tight = new Order("T", new Location(12.9452, 77.6345), STORE, 5.0, 0.0, 1.0);
+        SimulationReport late = new DaySimulator(List.of(STORE)).withBatching(1, 0.0)
+                .run(List.of(new OrderArrival(0.0, tight)).iterator());
+        assertEquals(1, late.getOrdersDelivered());
+        assertEquals(1, late.getLateDeliveries());
+
+        List<OrderArrival> arrivals = new ArrayList<>();
+        WorkloadGenerator orders = new WorkloadGenerator(5, STORE);
+        for (int i = 0; i < 4; i++) arrivals.add(new OrderArrival(0.0, orders.order(i)));
+        // 2-order solve next to the full 4-order matrix, see ClusteredRouteSolver#clusterSize
+        long twoOrders = SolverMode.TERNARY.solver(DpStorage.HEAP).estimatedBytes(2)
+                + (5L * 5 + 9L * 9) * Double.BYTES;
+        SimulationReport clustered = new DaySimulator(List.of(STORE)).withBatching(4, 10.0)
+                .withMemoryBudget(twoOrders).run(arrivals.iterator());
+        assertEquals(4, clustered.getOrdersDelivered());
+        assertEquals(1, clustered.getRoutes());
+    }
+
+    // - Setup: a generated day written to CSV, one order with a deadline appended
+    // - Tests: reading it back gives the same arrivals, deadlines included
+    // - Purpose: Verifies recorded days can be replayed from a file
+    @Test
+    void testCsvRoundTrip(@TempDir Path dir) throws IOException {
+        List<OrderArrival> written = new ArrayList<>();
+        day(7).forEachRemaining(written::add);
+        written.add(new OrderArrival(721.0, new Order("late", STORE, STORE, 4.5, 1.0, 25.0)));
+        Path file = dir.resolve("day.csv");
+
+        assertEquals(written.size(), OrderArrivals.writeCsv(file, written.iterator()));
+        List<OrderArrival> read = new ArrayList<>();
+        OrderArrivals.readCsv(file).forEachRemaining(read::add);
+
+        assertEquals(written, read);
+    }
+
+    // - Setup: 5 orders from OrderGenerator replayed at 600 orders/h over a 60-minute day
+    // - Tests: the day ends when the list runs out; all 5 arrive in list order at increasing times
+    // - Purpose: Verifies a fixed order list can be replayed as a stream
+    @Test
+    void testPoissonOverOrderList() {
+        List<Order> orders = OrderGenerator.generateOrders(5, STORE, 1L);
+        List<OrderArrival> arrivals = new ArrayList<>();
+        OrderArrivals.poisson(orders.iterator(), minute -> 600.0, 600.0, 60.0, 1).forEachRemaining(arrivals::add);
+
+        assertEquals(5, arrivals.size());
+        for (int i = 0; i < 5; i++) {
+            assertSame(orders.get(i), arrivals.get(i).getOrder());
+            if (i > 0) assertTrue(arrivals.get(i).getTime() >= arrivals.get(i - 1).getTime());
+        }
+    }
+
+    /** 09:00–21:00 at 30 orders/h, 60 orders/h over lunch (12:00–14:00). */
+    private static Iterator<OrderArrival> day(long seed) {
+        return OrderArrivals.poisson(new WorkloadGenerator(seed, STORE),
+                minute -> minute >= 180 && minute < 300 ? 60.0 : 30.0, 60.0, 720.0, seed);
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.utility;
+
+import org.example.dto.RouteResult;
+import org.example.dto.RouteStep;
+import org.example.entity.Location;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoJsonWriterTest {
+
+    private static final RouteResult ROUTE = new RouteResult(List.of(
+            new RouteStep("Pickup", "Restaurant R1", "O1", 2.5, new Location(10.0, 20.0)),
+            new RouteStep("Deliver", "Customer C1", "O1", 7.126, new Location(11.0, 21.0))), 7.126);
+
+    // - Setup: same route written to a Writer, an OutputStream, a channel and a file
+    // - Tests:
+    //   - All outputs are identical
+    // - Purpose: Every sink goes through the same streaming path
+    @Test
+    void testSinksProduceSameDocument() throws IOException {
+        String expected = toString(ROUTE);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (GeoJsonWriter writer = GeoJsonWriter.to(stream)) {
+            writer.writeRoute(ROUTE);
+        }
+        ByteArrayOutputStream channel = new ByteArrayOutputStream();
+        try (GeoJsonWriter writer = GeoJsonWriter.to(Channels.newChannel(channel))) {
+            writer.writeRoute(ROUTE);
+        }
+        File file = File.createTempFile("route", ".geojson");
+        file.deleteOnExit();
+        GeoJsonExporter.exportToGeoJson(ROUTE, file.getAbsolutePath());
+
+        assertEquals(expected, stream.toString(StandardCharsets.UTF_8));
+        assertEquals(expected, channel.toString(StandardCharsets.UTF_8));
+        assertEquals(expected, Files.readString(file.toPath()));
+    }
+
+    // - Setup: route exported to a .gz file
+    // - Tests:
+    //   - Decompressed content equals the plain document
+    // - Purpose: Gzip output round-trips
+    @Test
+    void testGzipRoundTrip() throws IOException {
+        File file = File.createTempFile("route", ".geojson.gz");
+        file.deleteOnExit();
+        GeoJsonExporter.exportToGeoJson(ROUTE, file.getAbsolutePath());
+
+        byte[] compressed = Files.readAllBytes(file.toPath());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(toString(ROUTE), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    // - Setup: two routes into one writer, one route far longer than the buffer
+    // - Tests:
+    //   - One FeatureCollection with both routes; features separated correctly across buffer flushes
+    // - Purpose: Multi-route dumps and buffer boundaries
+    @Test
+    void testMultipleRoutesAndLongRoute() throws IOException {
+        List<RouteStep> steps = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            steps.add(new RouteStep(i % 2 == 0 ? "Pickup" : "Deliver", "T" + i, "O" + i / 2, i * 1.5,
+                    new Location(12.9 + i * 1e-4, 77.6 - i * 1e-4)));
+        }
+        RouteResult longRoute = new RouteResult(steps, 2998.5);
+
+        StringWriter out = new StringWriter();
+        try (GeoJsonWriter writer = new GeoJsonWriter(out)) {
+            writer.writeRoute(ROUTE).writeRoute(longRoute);
+        }
+        String content = out.toString();
+
+        assertEquals(1, count(content, "\"FeatureCollection\""));
+        assertEquals(2, count(content, "\"Delivery Route\""));
+        assertEquals(2, count(content, "\"type\": \"origin\""));
+        // features: per route 1 route line + (n - 1) arrows + n markers
+        assertEquals((1 + 1 + 2) + (1 + 1999 + 2000), count(content, "\"type\": \"Feature\""));
+        assertFalse(content.contains("}\n    {"), "missing comma between features");
+        assertTrue(content.contains("\"eta\": 2998.50"));
+        assertTrue(content.endsWith("    }\n  ]\n}\n"));
+    }
+
+    // - Setup: ETAs that need rounding, negatives, zero and non-finite values
+    // - Tests:
+    //   - Two decimals, rounded half up; null for NaN
+    // - Purpose: Formatting matches %.2f on typical values
+    @Test
+    void testEtaFormatting() throws IOException {
+        assertEquals("7.13", fixed2(7.126));
+        assertEquals("0.00", fixed2(0.004));
+        assertEquals("60.00", fixed2(59.999));
+        assertEquals("1234567.89", fixed2(1234567.891));
+        assertEquals("-3.25", fixed2(-3.25));
+        assertEquals("0.00", fixed2(-0.001));
+        assertEquals("null", fixed2(Double.NaN));
+        for (double v = 0.0; v < 100.0; v += 0.37) {
+            assertEquals(String.format("%.2f", v), fixed2(v));
+        }
+    }
+
+    // - Setup: values whose binary form lies just below a half cent (1.005 is 1.00499999...), plus
+    //   negatives, large values and seeded random sweeps
+    // - Tests: output equals String.format("%.2f") for each
+    // - Purpose: Regression for rounding the binary value instead of its decimal form, which gave 1.00
+    @Test
+    void testEtaFormattingMatchesFormatOnHalfCents() throws IOException {
+        double[] values = {1.005, 2.675, 1.015, 0.045, 8.345, 10.005, 1234.565, -1.005, -2.675, 1e15, 1e20};
+        for (double v : values) {
+            assertEquals(String.format("%.2f", v), fixed2(v), String.valueOf(v));
+        }
+        SplittableRandom random = new SplittableRandom(12);
+        for (int i = 0; i < 10_000; i++) {
+            double v = random.nextInt(1_000_000) / 1000.0 + (random.nextBoolean() ? 0.005 : 0.0);
+            assertEquals(String.format("%.2f", v), fixed2(v), String.valueOf(v));
+        }
+        for (int i = 0; i < 100_000; i++) { // arbitrary doubles on both sides of the fast-path limit
+            double v = (random.nextDouble() - 0.3) * Math.pow(10, random.nextInt(10));
+            if (String.format("%.2f", v).equals("-0.00")) continue; // written as 0.00, see above
+            assertEquals(String.format("%.2f", v), fixed2(v), String.valueOf(v));
+        }
+    }
+
+    // - Setup: order id containing a quote and a backslash; a step without an order id
+    // - Tests:
+    //   - Characters are escaped
+    //   - A null id is written as "null", like the original exporter, instead of failing
+    // - Purpose: Output stays valid JSON for arbitrary ids
+    @Test
+    void testStringEscaping() throws IOException {
+        RouteResult odd = new RouteResult(List.of(
+                new RouteStep("Pickup", "R\\1", "O\"1", 0.0, new Location(1.0, 2.0))), 0.0);
+        String content = toString(odd);
+        assertTrue(content.contains("\"orderId\": \"O\\\"1\""));
+        assertTrue(content.contains("\"target\": \"R\\\\1\""));
+
+        RouteResult anonymous = new RouteResult(List.of(
+                new RouteStep("Pickup", "R1", null, 0.0, new Location(1.0, 2.0))), 0.0);
+        assertTrue(toString(anonymous).contains("\"orderId\": \"null\""));
+    }
+
+    private static String toString(RouteResult route) throws IOException {
+        StringWriter out = new StringWriter();
+        try (GeoJsonWriter writer = new GeoJsonWriter(out)) {
+            writer.writeRoute(route);
+        }
+        return out.toString();
+    }
+
+    private static String fixed2(double value) throws IOException {
+        StringWriter out = new StringWriter();
+        GeoJsonWriter writer = new GeoJsonWriter(out);
+        writer.fixed2(value).flush();
+        return out.toString();
+    }
+
+    private static int count(String s, String needle) {
+        int n = 0;
+        for (int i = s.indexOf(needle); i >= 0; i = s.indexOf(needle, i + 1)) n++;
+        return n;
+    }
+}
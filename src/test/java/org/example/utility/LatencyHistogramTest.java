@@ -0,0 +1,90 @@
+package org.example.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    // - Setup: 100 000 log-uniform samples between 1 µs and 1 s
+    // - Tests:
+    //   - p50 / p90 / p99 / p99.9 are within one sub-bucket (6.25 %) above the exact percentile
+    //   - count, max and mean are exact
+    // - Purpose: Percentile accuracy of the log-linear buckets
+    @Test
+    void testPercentilesWithinBucketError() {
+        Random random = new Random(1);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100_000];
+        double sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.pow(10, 3 + 6 * random.nextDouble());
+            histogram.record(values[i]);
+            sum += values[i];
+        }
+        Arrays.sort(values);
+
+        for (double p : new double[]{50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            long reported = histogram.valueAtPercentile(p);
+            assertTrue(reported >= exact && reported <= exact * (1 + 1.0 / LatencyHistogram.SUB_BUCKETS),
+                    p + ": " + reported + " vs " + exact);
+        }
+        assertEquals(values.length, histogram.count());
+        assertEquals(values[values.length - 1], histogram.max());
+        assertEquals(values[values.length - 1], histogram.valueAtPercentile(100));
+        assertEquals(sum / values.length, histogram.mean(), 1e-6 * sum / values.length);
+    }
+
+    // - Setup: boundary values
+    // - Tests:
+    //   - Every value falls in a bucket whose upper bound is >= the value and < value * (1 + 1/16) + 1
+    //   - Buckets are monotone; empty histogram reports 0
+    // - Purpose: Bucket index arithmetic over the whole long range
+    @Test
+    void testBucketBoundaries() {
+        assertEquals(0, new LatencyHistogram().valueAtPercentile(99));
+        long[] samples = {0, 1, 15, 16, 17, 31, 32, 33, 1000, 1L << 40, Long.MAX_VALUE - 1, Long.MAX_VALUE};
+        int previous = -1;
+        for (long v : samples) {
+            int bucket = LatencyHistogram.bucketOf(v);
+            assertTrue(bucket >= previous);
+            previous = bucket;
+            long upper = LatencyHistogram.upperBound(bucket);
+            assertTrue(upper >= v, v + " -> " + upper);
+            assertTrue(upper - v <= v / LatencyHistogram.SUB_BUCKETS, v + " -> " + upper);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram().valueAtPercentile(101));
+    }
+
+    // - Setup: 8 threads recording 10 000 values each
+    // - Tests:
+    //   - No sample is lost
+    // - Purpose: Lock-free recording is thread-safe
+    @Test
+    void testConcurrentRecording() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 1; i <= 10_000; i++) histogram.record(i);
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(80_000, histogram.count());
+        assertEquals(10_000, histogram.max());
+    }
+}
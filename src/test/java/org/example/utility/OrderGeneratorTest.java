@@ -49,6 +49,15 @@ class OrderGeneratorTest {
     }
 
 
+    @Test
+    void testSeededOrdersAreReproducible() {
+        Location base = new Location(12.9352, 77.6245);
+
+        // Same seed, same orders; another seed gives another batch
+        assertEquals(OrderGenerator.generateOrders(8, base, 42), OrderGenerator.generateOrders(8, base, 42));
+        assertNotEquals(OrderGenerator.generateOrders(8, base, 42), OrderGenerator.generateOrders(8, base, 43));
+    }
+
     @Test
     void testGenerateZeroOrders() {
         Location base = new Location(0, 0);
@@ -0,0 +1,112 @@
+package org.example.utility;
+
+import org.example.algo.Haversine;
+import org.example.entity.Location;
+import org.example.entity.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadGeneratorTest {
+
+    private static final Location BASE = new Location(12.9352, 77.6245);
+
+    // - Setup: two generators with seed 7, one with seed 8
+    // - Tests:
+    //   - Same seed gives the same orders, another seed different ones
+    //   - A parallel stream equals the sequential one, in order
+    //   - A slice equals the matching part of the full stream, and order(i) matches both
+    // - Purpose: Verifies results do not depend on threads or on how the stream is split
+    @Test
+    void testDeterministicAcrossThreadsAndSlices() {
+        WorkloadGenerator a = new WorkloadGenerator(7, BASE);
+        WorkloadGenerator b = new WorkloadGenerator(7, BASE);
+
+        List<Order> sequential = a.stream(20_000).collect(Collectors.toList());
+        List<Order> parallel = b.stream(20_000).parallel().collect(Collectors.toList());
+
+        assertEquals(sequential, parallel);
+        assertEquals(sequential.subList(0, 50), b.generate(50));
+        assertEquals(sequential.subList(12_000, 12_100), a.stream(12_000, 100).collect(Collectors.toList()));
+        assertEquals(sequential.get(19_999), b.order(19_999));
+        assertEquals("O20000", sequential.get(19_999).getOrderId());
+        assertNotEquals(sequential.subList(0, 50), new WorkloadGenerator(8, BASE).generate(50));
+    }
+
+    // - Setup: default (OrderGenerator-like) distributions, 5000 orders
+    // - Tests:
+    //   - Restaurants within 1 km and customers within 2 km of the base
+    //   - Prep 3..10 and trust buffer 0..3 whole minutes, all values seen
+    // - Purpose: Checks the default workload keeps the familiar shape
+    @Test
+    void testDefaultDistributions() {
+        List<Order> orders = new WorkloadGenerator(1, BASE).generate(5000);
+        boolean[] prepSeen = new boolean[11];
+        for (Order o : orders) {
+            assertTrue(Haversine.distance(BASE, o.getRestaurantLocation()) <= 1.0 + 1e-6);
+            assertTrue(Haversine.distance(BASE, o.getConsumerLocation()) <= 2.0 + 1e-6);
+            assertTrue(o.getPrepTime() >= 3 && o.getPrepTime() <= 10 && o.getPrepTime() == Math.rint(o.getPrepTime()));
+            assertTrue(o.getTrustBuffer() >= 0 && o.getTrustBuffer() <= 3);
+            prepSeen[(int) o.getPrepTime()] = true;
+        }
+        for (int p = 3; p <= 10; p++) assertTrue(prepSeen[p], "prep " + p + " never drawn");
+    }
+
+    // - Setup: 3 stores weighted 1:1:2, 0.3 km restaurant spread, 1 km customer spread, 8000 orders
+    // - Tests:
+    //   - Nearly every restaurant lies within 1.5 km (5σ) of some store
+    //   - The heavy store gets about half of the restaurants
+    // - Purpose: Verifies the hotspot model clusters demand around the stores by weight
+    @Test
+    void testHotspotsClusterAroundStores() {
+        List<Location> stores = List.of(BASE, new Location(12.97, 77.60), new Location(12.91, 77.68));
+        SpatialDistribution hotspots = SpatialDistribution.hotspots(stores, new double[]{1, 1, 2}, 0.3, 1.0);
+        WorkloadGenerator generator = new WorkloadGenerator(3, hotspots,
+                TimeDistribution.logNormal(6.0, 0.4), TimeDistribution.constant(0.0));
+
+        int[] nearest = new int[3];
+        for (Order o : generator.generate(8000)) {
+            int best = 0;
+            for (int s = 1; s < 3; s++) {
+                if (Haversine.distance(stores.get(s), o.getRestaurantLocation())
+                        < Haversine.distance(stores.get(best), o.getRestaurantLocation())) best = s;
+            }
+            assertTrue(Haversine.distance(stores.get(best), o.getRestaurantLocation()) < 1.5);
+            nearest[best]++;
+            assertEquals(0.0, o.getTrustBuffer());
+        }
+        assertEquals(0.5, nearest[2] / 8000.0, 0.03);
+    }
+
+    // - Setup: 20,000 samples per time distribution
+    // - Tests:
+    //   - Uniform within its range, log-normal median and exponential mean close to the parameters
+    //   - Invalid parameters are rejected
+    // - Purpose: Sanity-checks the prep-time distributions
+    @Test
+    void testTimeDistributions() {
+        SplittableRandom random = new SplittableRandom(5);
+        int samples = 20_000;
+        double[] logNormal = new double[samples];
+        double expSum = 0.0;
+        for (int i = 0; i < samples; i++) {
+            double u = TimeDistribution.uniform(2.0, 4.0).sample(random);
+            assertTrue(u >= 2.0 && u < 4.0);
+            logNormal[i] = TimeDistribution.logNormal(8.0, 0.4).sample(random);
+            expSum += TimeDistribution.exponential(5.0).sample(random);
+        }
+        Arrays.sort(logNormal);
+        assertEquals(8.0, logNormal[samples / 2], 0.2);
+        assertEquals(5.0, expSum / samples, 0.15);
+
+        assertThrows(IllegalArgumentException.class, () -> TimeDistribution.uniform(3, 3));
+        assertThrows(IllegalArgumentException.class, () -> TimeDistribution.logNormal(0, 0.3));
+        assertThrows(IllegalArgumentException.class,
+                () -> SpatialDistribution.hotspots(List.of(BASE), new double[]{1, 2}, 0.3, 1.0));
+    }
+}